@@ -3,7 +3,7 @@ package com.morningharvest.erp;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.cache.annotation.EnableCaching;
-import org.springframework.scheduling.annotation.EnableAsync;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 /**
  * Morning Harvest ERP System - 主應用程式
@@ -12,7 +12,7 @@ import org.springframework.scheduling.annotation.EnableAsync;
  */
 @SpringBootApplication
 @EnableCaching        // 啟用 Redis 快取
-@EnableAsync          // 啟用非同步事件處理
+@EnableScheduling     // 啟用排程任務
 public class ErpApplication {
 
     public static void main(String[] args) {
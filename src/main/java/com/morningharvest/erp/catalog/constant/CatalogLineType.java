@@ -0,0 +1,25 @@
+package com.morningharvest.erp.catalog.constant;
+
+import java.util.List;
+
+/**
+ * 菜單資料包列類型常數
+ *
+ * ORDER 為相依順序：被參照的資料必須出現在參照它的資料之前
+ */
+public final class CatalogLineType {
+
+    public static final String CATEGORY = "CATEGORY";
+    public static final String PRODUCT = "PRODUCT";
+    public static final String OPTION_GROUP = "OPTION_GROUP";
+    public static final String OPTION_VALUE = "OPTION_VALUE";
+    public static final String COMBO = "COMBO";
+    public static final String COMBO_ITEM = "COMBO_ITEM";
+    public static final String RECIPE = "RECIPE";
+
+    public static final List<String> ORDER = List.of(
+            CATEGORY, PRODUCT, OPTION_GROUP, OPTION_VALUE, COMBO, COMBO_ITEM, RECIPE);
+
+    private CatalogLineType() {
+    }
+}
@@ -0,0 +1,59 @@
+package com.morningharvest.erp.catalog.controller;
+
+import com.morningharvest.erp.catalog.dto.CatalogImportResultDTO;
+import com.morningharvest.erp.catalog.service.CatalogBundleService;
+import com.morningharvest.erp.common.dto.ApiResponse;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+/**
+ * 菜單資料包 API
+ */
+@Slf4j
+@RestController
+@RequestMapping("/api/catalog")
+@RequiredArgsConstructor
+@Tag(name = "菜單資料包", description = "分類、商品、選項、套餐、配方的批次匯入與匯出")
+public class CatalogBundleController {
+
+    private static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
+
+    private final CatalogBundleService catalogBundleService;
+
+    @GetMapping("/export")
+    @Operation(summary = "匯出菜單資料包",
+               description = "以 JSON Lines 串流輸出全部分類、商品、選項群組、選項值、套餐、套餐項目與配方，" +
+                             "資料以名稱互相參照，可直接匯入其他門市")
+    public ResponseEntity<StreamingResponseBody> exportBundle() {
+        log.info("匯出菜單資料包");
+        StreamingResponseBody body = catalogBundleService::exportBundle;
+        return ResponseEntity.ok()
+                .contentType(NDJSON)
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"catalog.jsonl\"")
+                .body(body);
+    }
+
+    @PostMapping(value = "/import", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    @Operation(summary = "匯入菜單資料包",
+               description = "上傳 JSON Lines 資料包，每行含 type 欄位；被參照的資料須出現在參照它的資料之前，" +
+                             "或已存在於資料庫。任何一行有誤時不匯入並回傳錯誤清單")
+    public ApiResponse<CatalogImportResultDTO> importBundle(
+            @Parameter(description = "菜單資料包 (.jsonl)", required = true,
+                       content = @Content(mediaType = MediaType.MULTIPART_FORM_DATA_VALUE))
+            @RequestParam("file") MultipartFile file
+    ) {
+        log.info("匯入菜單資料包, filename: {}", file.getOriginalFilename());
+        CatalogImportResultDTO result = catalogBundleService.importBundle(file);
+        return ApiResponse.success(result.getSuccess() ? "菜單資料包匯入成功" : "菜單資料包匯入失敗", result);
+    }
+}
@@ -0,0 +1,71 @@
+package com.morningharvest.erp.catalog.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.*;
+
+import java.math.BigDecimal;
+
+/**
+ * 菜單資料包的一列（JSON Lines）
+ *
+ * 以名稱（原物料以編號）參照其他資料，不含資料庫 ID，可在不同門市間搬移
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class CatalogBundleLine {
+
+    /**
+     * 列類型 (CATEGORY/PRODUCT/OPTION_GROUP/OPTION_VALUE/COMBO/COMBO_ITEM/RECIPE)
+     */
+    private String type;
+
+    /**
+     * 名稱（分類、商品、選項群組、選項值、套餐）
+     */
+    private String name;
+    private String description;
+    private BigDecimal price;
+    private String imageUrl;
+
+    /**
+     * 所屬分類名稱（商品、套餐）
+     */
+    private String category;
+
+    /**
+     * 所屬商品名稱（選項群組、選項值、套餐項目、配方）
+     */
+    private String product;
+
+    /**
+     * 所屬選項群組名稱（選項值）
+     */
+    private String group;
+
+    /**
+     * 所屬套餐名稱（套餐項目）
+     */
+    private String combo;
+
+    /**
+     * 原物料編號（配方）
+     */
+    private String materialCode;
+
+    private Integer minSelections;
+    private Integer maxSelections;
+    private BigDecimal priceAdjustment;
+
+    /**
+     * 數量（套餐項目為整數，配方為用量）
+     */
+    private BigDecimal quantity;
+    private String note;
+    private Integer sortOrder;
+    private Boolean isActive;
+}
@@ -0,0 +1,45 @@
+package com.morningharvest.erp.catalog.dto;
+
+import lombok.*;
+
+import java.util.List;
+import java.util.Map;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CatalogImportResultDTO {
+
+    /**
+     * 是否匯入成功（有任何錯誤時整批不匯入）
+     */
+    private Boolean success;
+    private Integer totalLines;
+
+    /**
+     * 各類型匯入筆數 (列類型 -> 筆數)
+     */
+    private Map<String, Integer> importedCounts;
+
+    /**
+     * 錯誤清單（最多回傳前 N 筆）
+     */
+    private List<LineError> errors;
+
+    /**
+     * 是否還有未列出的錯誤
+     */
+    private Boolean errorsTruncated;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class LineError {
+        /**
+         * 檔案行號（從 1 起算）
+         */
+        private Integer lineNumber;
+        private String message;
+    }
+}
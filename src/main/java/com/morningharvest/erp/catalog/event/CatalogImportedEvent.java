@@ -0,0 +1,31 @@
+package com.morningharvest.erp.catalog.event;
+
+import com.morningharvest.erp.common.event.BaseEvent;
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * 菜單資料包匯入完成事件
+ *
+ * 匯入以 JDBC 批次寫入，不經過實體監聽器與個別事件，由此事件通知下游重算
+ */
+@Getter
+public class CatalogImportedEvent extends BaseEvent {
+
+    /**
+     * 有新增配方的商品 ID
+     */
+    private final List<Long> recipeProductIds;
+
+    public CatalogImportedEvent(List<Long> recipeProductIds) {
+        super("CATALOG");
+        this.recipeProductIds = List.copyOf(recipeProductIds);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s[eventId=%s, recipeProductIds=%s]",
+                getEventType(), getEventId(), recipeProductIds);
+    }
+}
@@ -0,0 +1,694 @@
+package com.morningharvest.erp.catalog.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.morningharvest.erp.catalog.constant.CatalogLineType;
+import com.morningharvest.erp.catalog.dto.CatalogBundleLine;
+import com.morningharvest.erp.catalog.dto.CatalogImportResultDTO;
+import com.morningharvest.erp.catalog.event.CatalogImportedEvent;
+import com.morningharvest.erp.combo.entity.Combo;
+import com.morningharvest.erp.combo.entity.ComboItem;
+import com.morningharvest.erp.combo.repository.ComboItemRepository;
+import com.morningharvest.erp.combo.repository.ComboRepository;
+import com.morningharvest.erp.common.cache.CacheNames;
+import com.morningharvest.erp.common.event.EventPublisher;
+import com.morningharvest.erp.material.entity.Material;
+import com.morningharvest.erp.material.repository.MaterialRepository;
+import com.morningharvest.erp.product.entity.Product;
+import com.morningharvest.erp.product.entity.ProductCategory;
+import com.morningharvest.erp.product.entity.ProductOptionGroup;
+import com.morningharvest.erp.product.entity.ProductOptionValue;
+import com.morningharvest.erp.product.entity.ProductRecipe;
+import com.morningharvest.erp.product.repository.ProductCategoryRepository;
+import com.morningharvest.erp.product.repository.ProductOptionGroupRepository;
+import com.morningharvest.erp.product.repository.ProductOptionValueRepository;
+import com.morningharvest.erp.product.repository.ProductRecipeRepository;
+import com.morningharvest.erp.product.repository.ProductRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.*;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.function.Function;
+
+/**
+ * 菜單資料包匯入匯出服務
+ *
+ * 資料包為 JSON Lines，每行一筆分類、商品、選項群組、選項值、套餐、套餐項目或配方，
+ * 以名稱（原物料以編號）互相參照。匯入時既有資料一次載入記憶體，逐行串流解析並驗證，
+ * 參照可指向同一資料包中較前面的列或資料庫既有資料；全部通過後依相依順序以 JDBC 批次寫入，
+ * 任何一行有誤時整批不寫入並回傳錯誤清單
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class CatalogBundleService {
+
+    private static final String INSERT_CATEGORY_SQL =
+            "INSERT INTO product_categories (name, description, sort_order, is_active, created_at, updated_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?)";
+    private static final String INSERT_PRODUCT_SQL =
+            "INSERT INTO products (name, description, price, image_url, category_id, category_name, " +
+            "sort_order, is_active, created_at, updated_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final String INSERT_OPTION_GROUP_SQL =
+            "INSERT INTO product_option_groups (product_id, name, min_selections, max_selections, " +
+            "sort_order, is_active, created_at, updated_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final String INSERT_OPTION_VALUE_SQL =
+            "INSERT INTO product_option_values (group_id, name, price_adjustment, sort_order, is_active, " +
+            "created_at, updated_at) VALUES (?, ?, ?, ?, ?, ?, ?)";
+    private static final String INSERT_COMBO_SQL =
+            "INSERT INTO combos (name, description, price, image_url, category_id, category_name, " +
+            "sort_order, is_active, created_at, updated_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final String INSERT_COMBO_ITEM_SQL =
+            "INSERT INTO combo_items (combo_id, product_id, product_name, quantity, sort_order, " +
+            "created_at, updated_at) VALUES (?, ?, ?, ?, ?, ?, ?)";
+    private static final String INSERT_RECIPE_SQL =
+            "INSERT INTO product_recipes (product_id, product_name, material_id, material_code, material_name, " +
+            "quantity, unit, note, created_at, updated_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final int CATEGORY_NAME_MAX_LENGTH = 50;
+    private static final int ITEM_NAME_MAX_LENGTH = 100;
+    private static final int OPTION_NAME_MAX_LENGTH = 50;
+    private static final int TEXT_MAX_LENGTH = 500;
+    private static final int NOTE_MAX_LENGTH = 200;
+    private static final BigDecimal MIN_RECIPE_QUANTITY = new BigDecimal("0.0001");
+
+    private final ProductCategoryRepository productCategoryRepository;
+    private final ProductRepository productRepository;
+    private final ProductOptionGroupRepository productOptionGroupRepository;
+    private final ProductOptionValueRepository productOptionValueRepository;
+    private final ComboRepository comboRepository;
+    private final ComboItemRepository comboItemRepository;
+    private final ProductRecipeRepository productRecipeRepository;
+    private final MaterialRepository materialRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final EventPublisher eventPublisher;
+
+    @Value("${catalog.import.max-lines:50000}")
+    private int maxLines;
+
+    @Value("${catalog.import.batch-size:500}")
+    private int batchSize;
+
+    @Value("${catalog.import.max-errors:100}")
+    private int maxErrors;
+
+    /**
+     * 匯出全部菜單資料，依相依順序逐行寫出
+     *
+     * @return 寫出的行數
+     */
+    @Transactional(readOnly = true)
+    public int exportBundle(OutputStream out) throws IOException {
+        log.info("匯出菜單資料包");
+
+        List<ProductCategory> categories = productCategoryRepository.findAll();
+        List<Product> products = productRepository.findAll();
+        List<ProductOptionGroup> groups = productOptionGroupRepository.findAll();
+        List<Combo> combos = comboRepository.findAll();
+
+        Map<Long, String> categoryNames = new HashMap<>();
+        categories.forEach(c -> categoryNames.put(c.getId(), c.getName()));
+        Map<Long, String> productNames = new HashMap<>();
+        products.forEach(p -> productNames.put(p.getId(), p.getName()));
+        Map<Long, ProductOptionGroup> groupsById = new HashMap<>();
+        groups.forEach(g -> groupsById.put(g.getId(), g));
+        Map<Long, String> comboNames = new HashMap<>();
+        combos.forEach(c -> comboNames.put(c.getId(), c.getName()));
+
+        ObjectWriter writer = objectMapper.writerFor(CatalogBundleLine.class);
+        Writer output = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        int lines = 0;
+
+        for (ProductCategory category : categories) {
+            lines += writeLine(output, writer, CatalogBundleLine.builder()
+                    .type(CatalogLineType.CATEGORY)
+                    .name(category.getName())
+                    .description(category.getDescription())
+                    .sortOrder(category.getSortOrder())
+                    .isActive(category.getIsActive())
+                    .build());
+        }
+        for (Product product : products) {
+            lines += writeLine(output, writer, CatalogBundleLine.builder()
+                    .type(CatalogLineType.PRODUCT)
+                    .name(product.getName())
+                    .description(product.getDescription())
+                    .price(product.getPrice())
+                    .imageUrl(product.getImageUrl())
+                    .category(categoryNames.get(product.getCategoryId()))
+                    .sortOrder(product.getSortOrder())
+                    .isActive(product.getIsActive())
+                    .build());
+        }
+        for (ProductOptionGroup group : groups) {
+            lines += writeLine(output, writer, CatalogBundleLine.builder()
+                    .type(CatalogLineType.OPTION_GROUP)
+                    .product(productNames.get(group.getProductId()))
+                    .name(group.getName())
+                    .minSelections(group.getMinSelections())
+                    .maxSelections(group.getMaxSelections())
+                    .sortOrder(group.getSortOrder())
+                    .isActive(group.getIsActive())
+                    .build());
+        }
+        for (ProductOptionValue value : productOptionValueRepository.findAll()) {
+            ProductOptionGroup group = groupsById.get(value.getGroupId());
+            if (group == null) {
+                continue;
+            }
+            lines += writeLine(output, writer, CatalogBundleLine.builder()
+                    .type(CatalogLineType.OPTION_VALUE)
+                    .product(productNames.get(group.getProductId()))
+                    .group(group.getName())
+                    .name(value.getName())
+                    .priceAdjustment(value.getPriceAdjustment())
+                    .sortOrder(value.getSortOrder())
+                    .isActive(value.getIsActive())
+                    .build());
+        }
+        for (Combo combo : combos) {
+            lines += writeLine(output, writer, CatalogBundleLine.builder()
+                    .type(CatalogLineType.COMBO)
+                    .name(combo.getName())
+                    .description(combo.getDescription())
+                    .price(combo.getPrice())
+                    .imageUrl(combo.getImageUrl())
+                    .category(categoryNames.get(combo.getCategoryId()))
+                    .sortOrder(combo.getSortOrder())
+                    .isActive(combo.getIsActive())
+                    .build());
+        }
+        for (ComboItem item : comboItemRepository.findAll()) {
+            lines += writeLine(output, writer, CatalogBundleLine.builder()
+                    .type(CatalogLineType.COMBO_ITEM)
+                    .combo(comboNames.get(item.getComboId()))
+                    .product(productNames.get(item.getProductId()))
+                    .quantity(item.getQuantity() != null ? BigDecimal.valueOf(item.getQuantity()) : null)
+                    .sortOrder(item.getSortOrder())
+                    .build());
+        }
+        for (ProductRecipe recipe : productRecipeRepository.findAll()) {
+            lines += writeLine(output, writer, CatalogBundleLine.builder()
+                    .type(CatalogLineType.RECIPE)
+                    .product(productNames.get(recipe.getProductId()))
+                    .materialCode(recipe.getMaterialCode())
+                    .quantity(recipe.getQuantity())
+                    .note(recipe.getNote())
+                    .build());
+        }
+
+        output.flush();
+        log.info("菜單資料包匯出完成, 行數: {}", lines);
+        return lines;
+    }
+
+    /**
+     * 匯入菜單資料包
+     */
+    @Transactional
+    @CacheEvict(cacheNames = {CacheNames.PRODUCT_OPTIONS, CacheNames.COMBO_DETAILS}, allEntries = true)
+    public CatalogImportResultDTO importBundle(MultipartFile file) {
+        log.info("匯入菜單資料包, filename: {}, size: {} bytes", file.getOriginalFilename(), file.getSize());
+
+        if (file.isEmpty()) {
+            throw new IllegalArgumentException("檔案不能為空");
+        }
+
+        ImportState state = loadExisting();
+        ObjectReader reader = objectMapper.readerFor(CatalogBundleLine.class);
+        try (BufferedReader lines = new BufferedReader(
+                new InputStreamReader(file.getInputStream(), StandardCharsets.UTF_8))) {
+            int lineNumber = 0;
+            String text;
+            while ((text = lines.readLine()) != null) {
+                lineNumber++;
+                if (lineNumber == 1 && text.startsWith("\uFEFF")) {
+                    text = text.substring(1);
+                }
+                if (text.isBlank()) {
+                    continue;
+                }
+                if (++state.totalLines > maxLines) {
+                    state.addError(lineNumber, "超過單次匯入上限 " + maxLines + " 行", maxErrors);
+                    break;
+                }
+
+                CatalogBundleLine line;
+                try {
+                    line = reader.readValue(text);
+                } catch (JsonProcessingException e) {
+                    state.addError(lineNumber, "格式錯誤: " + e.getOriginalMessage(), maxErrors);
+                    continue;
+                }
+
+                String error = validate(state, line);
+                if (error != null) {
+                    state.addError(lineNumber, error, maxErrors);
+                }
+            }
+        } catch (IOException e) {
+            throw new IllegalArgumentException("檔案讀取失敗: " + e.getMessage());
+        }
+
+        if (state.totalLines == 0) {
+            state.addError(1, "檔案沒有任何資料", maxErrors);
+        }
+
+        if (!state.errors.isEmpty()) {
+            log.warn("菜單資料包匯入失敗, 錯誤數: {}", state.errorCount);
+            return CatalogImportResultDTO.builder()
+                    .success(false)
+                    .totalLines(state.totalLines)
+                    .importedCounts(Collections.emptyMap())
+                    .errors(state.errors)
+                    .errorsTruncated(state.errorCount > state.errors.size())
+                    .build();
+        }
+
+        Map<String, Integer> counts = write(state);
+        log.info("菜單資料包匯入成功, 筆數: {}", counts);
+
+        List<Long> recipeProductIds = state.pendingRecipes.stream()
+                .map(line -> state.productIds.get(line.getProduct()))
+                .distinct()
+                .toList();
+        eventPublisher.publish(new CatalogImportedEvent(recipeProductIds), "菜單資料包匯入");
+
+        return CatalogImportResultDTO.builder()
+                .success(true)
+                .totalLines(state.totalLines)
+                .importedCounts(counts)
+                .errors(Collections.emptyList())
+                .errorsTruncated(false)
+                .build();
+    }
+
+    /**
+     * 一次載入既有資料作為參照與重複檢查的依據
+     */
+    private ImportState loadExisting() {
+        ImportState state = new ImportState();
+
+        productCategoryRepository.findAll().forEach(c -> state.categoryIds.put(c.getName(), c.getId()));
+
+        Map<Long, String> productNames = new HashMap<>();
+        for (Product product : productRepository.findAll()) {
+            state.productIds.put(product.getName(), product.getId());
+            productNames.put(product.getId(), product.getName());
+        }
+
+        Map<Long, List<String>> groupKeys = new HashMap<>();
+        for (ProductOptionGroup group : productOptionGroupRepository.findAll()) {
+            List<String> key = List.of(productNames.getOrDefault(group.getProductId(), ""), group.getName());
+            state.groupIds.put(key, group.getId());
+            groupKeys.put(group.getId(), key);
+        }
+        for (ProductOptionValue value : productOptionValueRepository.findAll()) {
+            List<String> groupKey = groupKeys.get(value.getGroupId());
+            if (groupKey != null) {
+                state.valueKeys.add(List.of(groupKey.get(0), groupKey.get(1), value.getName()));
+            }
+        }
+
+        Map<Long, String> comboNames = new HashMap<>();
+        for (Combo combo : comboRepository.findAll()) {
+            state.comboIds.put(combo.getName(), combo.getId());
+            comboNames.put(combo.getId(), combo.getName());
+        }
+        for (ComboItem item : comboItemRepository.findAll()) {
+            state.comboItemKeys.add(List.of(comboNames.getOrDefault(item.getComboId(), ""),
+                    productNames.getOrDefault(item.getProductId(), "")));
+        }
+
+        for (Material material : materialRepository.findAll()) {
+            if (material.getCode() != null) {
+                state.materialsByCode.put(material.getCode(), material);
+            }
+        }
+        for (ProductRecipe recipe : productRecipeRepository.findAll()) {
+            state.recipeKeys.add(List.of(productNames.getOrDefault(recipe.getProductId(), ""),
+                    String.valueOf(recipe.getMaterialCode())));
+        }
+        return state;
+    }
+
+    /**
+     * 驗證單行，通過時登記為待寫入
+     *
+     * @return 錯誤訊息，通過時為 null
+     */
+    private String validate(ImportState state, CatalogBundleLine line) {
+        String type = line.getType();
+        if (type == null || !CatalogLineType.ORDER.contains(type)) {
+            return "無效的類型: " + type;
+        }
+        if (line.getSortOrder() != null && line.getSortOrder() < 0) {
+            return "排序順序不可為負數";
+        }
+
+        return switch (type) {
+            case CatalogLineType.CATEGORY -> validateCategory(state, line);
+            case CatalogLineType.PRODUCT -> validateProduct(state, line);
+            case CatalogLineType.OPTION_GROUP -> validateOptionGroup(state, line);
+            case CatalogLineType.OPTION_VALUE -> validateOptionValue(state, line);
+            case CatalogLineType.COMBO -> validateCombo(state, line);
+            case CatalogLineType.COMBO_ITEM -> validateComboItem(state, line);
+            default -> validateRecipe(state, line);
+        };
+    }
+
+    private String validateCategory(ImportState state, CatalogBundleLine line) {
+        String error = checkName(line.getName(), "分類名稱", CATEGORY_NAME_MAX_LENGTH);
+        if (error != null) {
+            return error;
+        }
+        if (state.categoryIds.containsKey(line.getName())) {
+            return "分類名稱已存在: " + line.getName();
+        }
+        if (length(line.getDescription()) > TEXT_MAX_LENGTH) {
+            return "分類說明不可超過 " + TEXT_MAX_LENGTH + " 字元";
+        }
+        state.categoryIds.put(line.getName(), null);
+        state.pendingCategories.add(line);
+        return null;
+    }
+
+    private String validateProduct(ImportState state, CatalogBundleLine line) {
+        String error = checkSaleItem(state, line, "商品");
+        if (error != null) {
+            return error;
+        }
+        if (state.productIds.containsKey(line.getName())) {
+            return "商品名稱已存在: " + line.getName();
+        }
+        state.productIds.put(line.getName(), null);
+        state.pendingProducts.add(line);
+        return null;
+    }
+
+    private String validateCombo(ImportState state, CatalogBundleLine line) {
+        String error = checkSaleItem(state, line, "套餐");
+        if (error != null) {
+            return error;
+        }
+        if (state.comboIds.containsKey(line.getName())) {
+            return "套餐名稱已存在: " + line.getName();
+        }
+        state.comboIds.put(line.getName(), null);
+        state.pendingCombos.add(line);
+        return null;
+    }
+
+    private String validateOptionGroup(ImportState state, CatalogBundleLine line) {
+        if (!state.productIds.containsKey(line.getProduct())) {
+            return "商品不存在: " + line.getProduct();
+        }
+        String error = checkName(line.getName(), "選項群組名稱", OPTION_NAME_MAX_LENGTH);
+        if (error != null) {
+            return error;
+        }
+        int min = line.getMinSelections() != null ? line.getMinSelections() : 0;
+        int max = line.getMaxSelections() != null ? line.getMaxSelections() : 1;
+        if (min < 0 || max < 1) {
+            return "最少選擇數不可為負數，最多選擇數至少為 1";
+        }
+        if (min > max) {
+            return "最少選擇數不可大於最多選擇數";
+        }
+        List<String> key = List.of(line.getProduct(), line.getName());
+        if (state.groupIds.containsKey(key)) {
+            return "此產品已有相同名稱的選項群組: " + line.getName();
+        }
+        state.groupIds.put(key, null);
+        state.pendingGroups.add(line);
+        return null;
+    }
+
+    private String validateOptionValue(ImportState state, CatalogBundleLine line) {
+        if (!state.groupIds.containsKey(Arrays.asList(line.getProduct(), line.getGroup()))) {
+            return "選項群組不存在: " + line.getProduct() + " / " + line.getGroup();
+        }
+        String error = checkName(line.getName(), "選項名稱", OPTION_NAME_MAX_LENGTH);
+        if (error != null) {
+            return error;
+        }
+        if (line.getPriceAdjustment() != null && line.getPriceAdjustment().signum() < 0) {
+            return "加價金額不可為負數";
+        }
+        List<String> key = List.of(line.getProduct(), line.getGroup(), line.getName());
+        if (!state.valueKeys.add(key)) {
+            return "此群組已有相同名稱的選項: " + line.getName();
+        }
+        state.pendingValues.add(line);
+        return null;
+    }
+
+    private String validateComboItem(ImportState state, CatalogBundleLine line) {
+        if (!state.comboIds.containsKey(line.getCombo())) {
+            return "套餐不存在: " + line.getCombo();
+        }
+        if (!state.productIds.containsKey(line.getProduct())) {
+            return "商品不存在: " + line.getProduct();
+        }
+        BigDecimal quantity = line.getQuantity();
+        if (quantity != null && (quantity.signum() <= 0 || quantity.stripTrailingZeros().scale() > 0)) {
+            return "數量必須為正整數";
+        }
+        if (!state.comboItemKeys.add(List.of(line.getCombo(), line.getProduct()))) {
+            return "此套餐已包含此商品: " + line.getProduct();
+        }
+        state.pendingComboItems.add(line);
+        return null;
+    }
+
+    private String validateRecipe(ImportState state, CatalogBundleLine line) {
+        if (!state.productIds.containsKey(line.getProduct())) {
+            return "商品不存在: " + line.getProduct();
+        }
+        if (!state.materialsByCode.containsKey(line.getMaterialCode())) {
+            return "原物料不存在: " + line.getMaterialCode();
+        }
+        if (line.getQuantity() == null || line.getQuantity().compareTo(MIN_RECIPE_QUANTITY) < 0) {
+            return "用量必須大於 0";
+        }
+        if (length(line.getNote()) > NOTE_MAX_LENGTH) {
+            return "備註不可超過 " + NOTE_MAX_LENGTH + " 字元";
+        }
+        if (!state.recipeKeys.add(List.of(line.getProduct(), line.getMaterialCode()))) {
+            return "此商品已有該原物料的配方: " + line.getMaterialCode();
+        }
+        state.pendingRecipes.add(line);
+        return null;
+    }
+
+    /**
+     * 商品與套餐共用的欄位檢查
+     */
+    private String checkSaleItem(ImportState state, CatalogBundleLine line, String label) {
+        String error = checkName(line.getName(), label + "名稱", ITEM_NAME_MAX_LENGTH);
+        if (error != null) {
+            return error;
+        }
+        if (line.getPrice() == null || line.getPrice().signum() < 0) {
+            return label + "價格必填且不可為負數";
+        }
+        if (length(line.getDescription()) > TEXT_MAX_LENGTH) {
+            return label + "說明不可超過 " + TEXT_MAX_LENGTH + " 字元";
+        }
+        if (length(line.getImageUrl()) > TEXT_MAX_LENGTH) {
+            return "圖片網址不可超過 " + TEXT_MAX_LENGTH + " 字元";
+        }
+        if (line.getCategory() != null && !state.categoryIds.containsKey(line.getCategory())) {
+            return "商品分類不存在: " + line.getCategory();
+        }
+        return null;
+    }
+
+    private static String checkName(String name, String label, int maxLength) {
+        if (name == null || name.isBlank()) {
+            return label + "不可為空";
+        }
+        if (name.length() > maxLength) {
+            return label + "不可超過 " + maxLength + " 字元";
+        }
+        return null;
+    }
+
+    /**
+     * 依相依順序批次寫入，每層寫入後取回新資料的 ID 供下一層使用
+     */
+    private Map<String, Integer> write(ImportState state) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+
+        batchInsert(INSERT_CATEGORY_SQL, state.pendingCategories, line -> new Object[]{
+                line.getName(), line.getDescription(), sortOrder(line), isActive(line), now, now});
+        state.categoryIds.putAll(idsByName("product_categories", names(state.pendingCategories)));
+
+        batchInsert(INSERT_PRODUCT_SQL, state.pendingProducts, line -> new Object[]{
+                line.getName(), line.getDescription(), line.getPrice(), line.getImageUrl(),
+                state.categoryIds.get(line.getCategory()), line.getCategory(),
+                sortOrder(line), isActive(line), now, now});
+        state.productIds.putAll(idsByName("products", names(state.pendingProducts)));
+
+        batchInsert(INSERT_OPTION_GROUP_SQL, state.pendingGroups, line -> new Object[]{
+                state.productIds.get(line.getProduct()), line.getName(),
+                line.getMinSelections() != null ? line.getMinSelections() : 0,
+                line.getMaxSelections() != null ? line.getMaxSelections() : 1,
+                sortOrder(line), isActive(line), now, now});
+        resolveGroupIds(state);
+
+        batchInsert(INSERT_OPTION_VALUE_SQL, state.pendingValues, line -> new Object[]{
+                state.groupIds.get(List.of(line.getProduct(), line.getGroup())), line.getName(),
+                line.getPriceAdjustment() != null ? line.getPriceAdjustment() : BigDecimal.ZERO,
+                sortOrder(line), isActive(line), now, now});
+
+        batchInsert(INSERT_COMBO_SQL, state.pendingCombos, line -> new Object[]{
+                line.getName(), line.getDescription(), line.getPrice(), line.getImageUrl(),
+                state.categoryIds.get(line.getCategory()), line.getCategory(),
+                sortOrder(line), isActive(line), now, now});
+        state.comboIds.putAll(idsByName("combos", names(state.pendingCombos)));
+
+        batchInsert(INSERT_COMBO_ITEM_SQL, state.pendingComboItems, line -> new Object[]{
+                state.comboIds.get(line.getCombo()), state.productIds.get(line.getProduct()), line.getProduct(),
+                line.getQuantity() != null ? line.getQuantity().intValueExact() : 1,
+                sortOrder(line), now, now});
+
+        batchInsert(INSERT_RECIPE_SQL, state.pendingRecipes, line -> {
+            Material material = state.materialsByCode.get(line.getMaterialCode());
+            return new Object[]{
+                    state.productIds.get(line.getProduct()), line.getProduct(),
+                    material.getId(), material.getCode(), material.getName(),
+                    line.getQuantity(), material.getUnit(), line.getNote(), now, now};
+        });
+
+        Map<String, Integer> counts = new LinkedHashMap<>();
+        counts.put(CatalogLineType.CATEGORY, state.pendingCategories.size());
+        counts.put(CatalogLineType.PRODUCT, state.pendingProducts.size());
+        counts.put(CatalogLineType.OPTION_GROUP, state.pendingGroups.size());
+        counts.put(CatalogLineType.OPTION_VALUE, state.pendingValues.size());
+        counts.put(CatalogLineType.COMBO, state.pendingCombos.size());
+        counts.put(CatalogLineType.COMBO_ITEM, state.pendingComboItems.size());
+        counts.put(CatalogLineType.RECIPE, state.pendingRecipes.size());
+        return counts;
+    }
+
+    private void batchInsert(String sql, List<CatalogBundleLine> lines, Function<CatalogBundleLine, Object[]> mapper) {
+        for (int from = 0; from < lines.size(); from += batchSize) {
+            List<Object[]> batch = lines.subList(from, Math.min(from + batchSize, lines.size())).stream()
+                    .map(mapper)
+                    .toList();
+            jdbcTemplate.batchUpdate(sql, batch);
+        }
+    }
+
+    /**
+     * 依名稱取回新寫入資料的 ID（名稱在同一表內唯一）
+     */
+    private Map<String, Long> idsByName(String table, List<String> names) {
+        Map<String, Long> ids = new HashMap<>();
+        for (int from = 0; from < names.size(); from += batchSize) {
+            List<String> chunk = names.subList(from, Math.min(from + batchSize, names.size()));
+            namedParameterJdbcTemplate.query("SELECT id, name FROM " + table + " WHERE name IN (:names)",
+                    Map.of("names", chunk),
+                    rs -> {
+                        ids.put(rs.getString("name"), rs.getLong("id"));
+                    });
+        }
+        return ids;
+    }
+
+    /**
+     * 取回新寫入選項群組的 ID（同一商品內群組名稱唯一）
+     */
+    private void resolveGroupIds(ImportState state) {
+        Map<Long, String> productNames = new HashMap<>();
+        for (CatalogBundleLine line : state.pendingGroups) {
+            productNames.put(state.productIds.get(line.getProduct()), line.getProduct());
+        }
+        List<Long> productIds = new ArrayList<>(productNames.keySet());
+        for (int from = 0; from < productIds.size(); from += batchSize) {
+            List<Long> chunk = productIds.subList(from, Math.min(from + batchSize, productIds.size()));
+            namedParameterJdbcTemplate.query(
+                    "SELECT id, product_id, name FROM product_option_groups WHERE product_id IN (:productIds)",
+                    Map.of("productIds", chunk),
+                    rs -> {
+                        state.groupIds.put(List.of(productNames.get(rs.getLong("product_id")), rs.getString("name")),
+                                rs.getLong("id"));
+                    });
+        }
+    }
+
+    private static List<String> names(List<CatalogBundleLine> lines) {
+        return lines.stream().map(CatalogBundleLine::getName).toList();
+    }
+
+    private static int sortOrder(CatalogBundleLine line) {
+        return line.getSortOrder() != null ? line.getSortOrder() : 0;
+    }
+
+    private static boolean isActive(CatalogBundleLine line) {
+        return line.getIsActive() == null || line.getIsActive();
+    }
+
+    private static int length(String text) {
+        return text != null ? text.length() : 0;
+    }
+
+    private static int writeLine(Writer output, ObjectWriter writer, CatalogBundleLine line) throws IOException {
+        output.write(writer.writeValueAsString(line));
+        output.write('\n');
+        return 1;
+    }
+
+    /**
+     * 匯入過程中的狀態
+     *
+     * 參照表以名稱為 key，值為資料庫 ID；同一資料包中新增、尚未寫入的資料值為 null
+     */
+    private static final class ImportState {
+
+        private final Map<String, Long> categoryIds = new HashMap<>();
+        private final Map<String, Long> productIds = new HashMap<>();
+        private final Map<String, Long> comboIds = new HashMap<>();
+        private final Map<List<String>, Long> groupIds = new HashMap<>();
+        private final Set<List<String>> valueKeys = new HashSet<>();
+        private final Set<List<String>> comboItemKeys = new HashSet<>();
+        private final Set<List<String>> recipeKeys = new HashSet<>();
+        private final Map<String, Material> materialsByCode = new HashMap<>();
+
+        private final List<CatalogBundleLine> pendingCategories = new ArrayList<>();
+        private final List<CatalogBundleLine> pendingProducts = new ArrayList<>();
+        private final List<CatalogBundleLine> pendingGroups = new ArrayList<>();
+        private final List<CatalogBundleLine> pendingValues = new ArrayList<>();
+        private final List<CatalogBundleLine> pendingCombos = new ArrayList<>();
+        private final List<CatalogBundleLine> pendingComboItems = new ArrayList<>();
+        private final List<CatalogBundleLine> pendingRecipes = new ArrayList<>();
+
+        private final List<CatalogImportResultDTO.LineError> errors = new ArrayList<>();
+        private int errorCount;
+        private int totalLines;
+
+        private void addError(int lineNumber, String message, int maxErrors) {
+            errorCount++;
+            if (errors.size() < maxErrors) {
+                errors.add(new CatalogImportResultDTO.LineError(lineNumber, message));
+            }
+        }
+    }
+}
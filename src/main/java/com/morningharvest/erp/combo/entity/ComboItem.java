@@ -1,11 +1,13 @@
 package com.morningharvest.erp.combo.entity;
 
+import com.morningharvest.erp.pos.listener.MenuSnapshotEntityListener;
 import jakarta.persistence.*;
 import lombok.*;
 
 import java.time.LocalDateTime;
 
 @Entity
+@EntityListeners(MenuSnapshotEntityListener.class)
 @Table(name = "combo_items")
 @Getter
 @Setter
@@ -1,49 +1,39 @@
 package com.morningharvest.erp.combo.listener;
 
-import com.morningharvest.erp.combo.repository.ComboItemRepository;
+import com.morningharvest.erp.common.denormalize.DenormalizationService;
+import com.morningharvest.erp.common.denormalize.DenormalizedField;
 import com.morningharvest.erp.product.event.ProductUpdatedEvent;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.context.event.EventListener;
-import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Component;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
 
 /**
  * 套餐商品事件監聽器
  *
- * 監聽商品相關事件，並同步更新套餐項目中的冗餘資料
+ * 監聽商品相關事件，登記套餐項目中冗餘商品名稱的同步（由 DenormalizationService 合併批次處理）
  */
 @Component
 @Slf4j
 @RequiredArgsConstructor
 public class ComboProductEventListener {
 
-    private final ComboItemRepository comboItemRepository;
+    private final DenormalizationService denormalizationService;
 
     /**
      * 處理商品更新事件
      *
-     * 當商品名稱變更時，批量更新所有相關套餐項目的商品名稱
+     * 當商品名稱變更時，登記相關套餐項目的商品名稱同步
      */
-    @Async
-    @EventListener
-    @Transactional
+    @TransactionalEventListener(fallbackExecution = true)
     public void onProductUpdated(ProductUpdatedEvent event) {
         log.info("套餐模組收到商品更新事件: {}", event);
 
         // 只有名稱變更時才更新套餐項目
         if (event.isNameChanged()) {
-            log.info("商品名稱已變更: {} -> {}, 開始更新套餐項目",
+            log.info("商品名稱已變更: {} -> {}, 登記套餐項目商品名稱同步",
                     event.getOldName(), event.getNewName());
-
-            int updatedCount = comboItemRepository.updateProductNameByProductId(
-                    event.getProductId(),
-                    event.getNewName()
-            );
-
-            log.info("已更新 {} 筆套餐項目的商品名稱, productId: {}",
-                    updatedCount, event.getProductId());
+            denormalizationService.enqueue(DenormalizedField.COMBO_ITEM_PRODUCT_NAME, event.getProductId());
         } else {
             log.debug("商品名稱未變更，跳過套餐項目更新");
         }
@@ -1,14 +1,21 @@
 package com.morningharvest.erp.combo.repository;
 
 import com.morningharvest.erp.combo.entity.Combo;
+import jakarta.persistence.QueryHint;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
-import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+
 @Repository
 public interface ComboRepository extends JpaRepository<Combo, Long> {
 
@@ -26,7 +33,13 @@ public interface ComboRepository extends JpaRepository<Combo, Long> {
 
     long countByCategoryId(Long categoryId);
 
-    @Modifying
-    @Query("UPDATE Combo c SET c.categoryName = :newCategoryName WHERE c.categoryId = :categoryId")
-    int updateCategoryNameByCategoryId(@Param("categoryId") Long categoryId, @Param("newCategoryName") String newCategoryName);
+    /**
+     * 串流讀取所有套餐圖片 URL（孤兒物件清理用）
+     */
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "" + Integer.MIN_VALUE))
+    @Query("SELECT c.imageUrl FROM Combo c WHERE c.imageUrl IS NOT NULL AND c.imageUrl <> ''")
+    Stream<String> streamImageUrls();
+
+    @Query("SELECT DISTINCT c.imageUrl FROM Combo c WHERE c.imageUrl IN :imageUrls")
+    List<String> findImageUrlsIn(@Param("imageUrls") Collection<String> imageUrls);
 }
@@ -4,11 +4,13 @@ import com.morningharvest.erp.combo.dto.*;
 import com.morningharvest.erp.combo.entity.ComboItem;
 import com.morningharvest.erp.combo.repository.ComboItemRepository;
 import com.morningharvest.erp.combo.repository.ComboRepository;
+import com.morningharvest.erp.common.cache.CacheNames;
 import com.morningharvest.erp.common.exception.ResourceNotFoundException;
 import com.morningharvest.erp.product.entity.Product;
 import com.morningharvest.erp.product.repository.ProductRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -25,6 +27,7 @@ public class ComboItemService {
     private final ProductRepository productRepository;
 
     @Transactional
+    @CacheEvict(cacheNames = CacheNames.COMBO_DETAILS, allEntries = true)
     public ComboItemDTO createComboItem(CreateComboItemRequest request) {
         log.info("建立套餐項目: comboId={}, productId={}", request.getComboId(), request.getProductId());
 
@@ -57,6 +60,7 @@ public class ComboItemService {
     }
 
     @Transactional
+    @CacheEvict(cacheNames = CacheNames.COMBO_DETAILS, allEntries = true)
     public List<ComboItemDTO> batchCreateComboItems(BatchCreateComboItemRequest request) {
         log.info("批次建立套餐項目: comboId={}, itemCount={}", request.getComboId(), request.getItems().size());
 
@@ -97,6 +101,7 @@ public class ComboItemService {
     }
 
     @Transactional
+    @CacheEvict(cacheNames = CacheNames.COMBO_DETAILS, allEntries = true)
     public ComboItemDTO updateComboItem(Long id, UpdateComboItemRequest request) {
         log.info("更新套餐項目, id: {}", id);
 
@@ -132,6 +137,7 @@ public class ComboItemService {
     }
 
     @Transactional
+    @CacheEvict(cacheNames = CacheNames.COMBO_DETAILS, allEntries = true)
     public void deleteComboItem(Long id) {
         log.info("刪除套餐項目, id: {}", id);
 
@@ -5,6 +5,7 @@ import com.morningharvest.erp.combo.entity.Combo;
 import com.morningharvest.erp.combo.entity.ComboItem;
 import com.morningharvest.erp.combo.repository.ComboItemRepository;
 import com.morningharvest.erp.combo.repository.ComboRepository;
+import com.morningharvest.erp.common.cache.CacheNames;
 import com.morningharvest.erp.common.dto.PageResponse;
 import com.morningharvest.erp.common.dto.PageableRequest;
 import com.morningharvest.erp.common.exception.ResourceNotFoundException;
@@ -14,6 +15,8 @@ import com.morningharvest.erp.product.repository.ProductCategoryRepository;
 import com.morningharvest.erp.product.service.ProductOptionGroupService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.domain.Page;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -67,6 +70,7 @@ public class ComboService {
     }
 
     @Transactional
+    @CacheEvict(cacheNames = {CacheNames.COMBOS, CacheNames.COMBO_DETAILS}, key = "#id")
     public ComboDTO updateCombo(Long id, UpdateComboRequest request) {
         log.info("更新套餐, id: {}", id);
 
@@ -106,6 +110,7 @@ public class ComboService {
     }
 
     @Transactional
+    @CacheEvict(cacheNames = {CacheNames.COMBOS, CacheNames.COMBO_DETAILS}, key = "#id")
     public void deleteCombo(Long id) {
         log.info("刪除套餐, id: {}", id);
 
@@ -120,6 +125,7 @@ public class ComboService {
     }
 
     @Transactional(readOnly = true)
+    @Cacheable(cacheNames = CacheNames.COMBOS, key = "#id")
     public ComboDTO getComboById(Long id) {
         log.debug("查詢套餐, id: {}", id);
 
@@ -130,6 +136,7 @@ public class ComboService {
     }
 
     @Transactional(readOnly = true)
+    @Cacheable(cacheNames = CacheNames.COMBO_DETAILS, key = "#id")
     public ComboDetailDTO getComboDetailById(Long id) {
         log.debug("查詢套餐詳情（含項目與選項）, id: {}", id);
 
@@ -202,6 +209,7 @@ public class ComboService {
     }
 
     @Transactional
+    @CacheEvict(cacheNames = {CacheNames.COMBOS, CacheNames.COMBO_DETAILS}, key = "#id")
     public ComboDTO activateCombo(Long id) {
         log.info("啟用套餐, id: {}", id);
 
@@ -216,6 +224,7 @@ public class ComboService {
     }
 
     @Transactional
+    @CacheEvict(cacheNames = {CacheNames.COMBOS, CacheNames.COMBO_DETAILS}, key = "#id")
     public ComboDTO deactivateCombo(Long id) {
         log.info("停用套餐, id: {}", id);
 
@@ -0,0 +1,40 @@
+package com.morningharvest.erp.common.cache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+
+/**
+ * Redis 快取值編碼格式
+ *
+ * 沿用應用程式 ObjectMapper 的模組與設定，只替換底層編碼
+ */
+public enum CacheCodecFormat {
+
+    /**
+     * 文字 JSON（方便以 redis-cli 直接檢視）
+     */
+    JSON {
+        @Override
+        public ObjectMapper mapper(ObjectMapper base) {
+            return base.copy();
+        }
+    },
+
+    /**
+     * Smile 二進位 JSON（欄位名稱與字串可回參照，體積較小、編解碼較快）
+     */
+    SMILE {
+        @Override
+        public ObjectMapper mapper(ObjectMapper base) {
+            return base.copyWith(new SmileFactory());
+        }
+    };
+
+    /**
+     * 建立此格式使用的 ObjectMapper
+     *
+     * @param base 應用程式 ObjectMapper
+     * @return 新的 ObjectMapper，不影響原本的設定
+     */
+    public abstract ObjectMapper mapper(ObjectMapper base);
+}
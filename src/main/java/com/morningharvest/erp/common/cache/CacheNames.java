@@ -0,0 +1,53 @@
+package com.morningharvest.erp.common.cache;
+
+/**
+ * 快取名稱常數
+ *
+ * 目錄類讀取（商品、分類、套餐、選項、桌位）使用的快取，
+ * 各快取的值型別與 Redis TTL 於 RedisConfig 設定
+ */
+public final class CacheNames {
+
+    /**
+     * 商品（key: 商品 ID，值: ProductDTO）
+     */
+    public static final String PRODUCTS = "products";
+
+    /**
+     * 商品分類（key: 分類 ID，值: ProductCategoryDTO）
+     */
+    public static final String PRODUCT_CATEGORIES = "product-categories";
+
+    /**
+     * 套餐（key: 套餐 ID，值: ComboDTO）
+     */
+    public static final String COMBOS = "combos";
+
+    /**
+     * 套餐詳情含項目與選項（key: 套餐 ID，值: ComboDetailDTO）
+     */
+    public static final String COMBO_DETAILS = "combo-details";
+
+    /**
+     * 商品選項群組含選項值（key: 商品 ID，值: List&lt;ProductOptionGroupDetailDTO&gt;）
+     */
+    public static final String PRODUCT_OPTIONS = "product-options";
+
+    /**
+     * 選項範本群組詳情（key: 群組 ID，值: OptionTemplateGroupDetailDTO）
+     */
+    public static final String OPTION_TEMPLATES = "option-templates";
+
+    /**
+     * 桌位（key: 桌位 ID，值: TableDTO）
+     */
+    public static final String TABLES = "tables";
+
+    /**
+     * 啟用中桌位列表（固定 key，值: List&lt;TableDTO&gt;）
+     */
+    public static final String ACTIVE_TABLES = "active-tables";
+
+    private CacheNames() {
+    }
+}
@@ -0,0 +1,149 @@
+package com.morningharvest.erp.common.cache;
+
+import com.fasterxml.jackson.annotation.JsonTypeInfo;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.jsontype.BasicPolymorphicTypeValidator;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * 精簡 Redis 序列化器
+ *
+ * 以指定型別透過 Jackson（JSON 或 Smile）編碼，不在內容中夾帶類別名稱；
+ * 編碼後超過門檻的值再以 Deflate 壓縮。
+ * 第一個位元組為標頭：0 表示未壓縮、1 表示已壓縮
+ */
+public class CompactRedisSerializer<T> implements RedisSerializer<T> {
+
+    private static final byte PLAIN = 0;
+    private static final byte DEFLATED = 1;
+    private static final byte[] EMPTY = new byte[0];
+
+    private final ObjectReader reader;
+    private final ObjectWriter writer;
+    private final int compressThreshold;
+
+    /**
+     * @param mapper            編碼使用的 ObjectMapper（見 CacheCodecFormat）
+     * @param type              值的型別
+     * @param compressThreshold 壓縮門檻（位元組），0 或負數表示不壓縮
+     */
+    public CompactRedisSerializer(ObjectMapper mapper, JavaType type, int compressThreshold) {
+        this.reader = mapper.readerFor(type);
+        this.writer = mapper.writerFor(type);
+        this.compressThreshold = compressThreshold;
+    }
+
+    /**
+     * 建立可存放任意物件的序列化器（RedisTemplate、未指定型別的快取使用）
+     *
+     * 僅允許本系統與 JDK 類別的型別資訊，避免反序列化任意類別
+     */
+    public static CompactRedisSerializer<Object> forAnyType(ObjectMapper mapper, int compressThreshold) {
+        ObjectMapper typedMapper = mapper.copy();
+        typedMapper.activateDefaultTyping(
+                BasicPolymorphicTypeValidator.builder()
+                        .allowIfSubType("com.morningharvest.erp.")
+                        .allowIfSubType("java.")
+                        .build(),
+                ObjectMapper.DefaultTyping.NON_FINAL,
+                JsonTypeInfo.As.PROPERTY);
+        return new CompactRedisSerializer<>(typedMapper,
+                typedMapper.getTypeFactory().constructType(Object.class), compressThreshold);
+    }
+
+    @Override
+    public byte[] serialize(T value) throws SerializationException {
+        if (value == null) {
+            return EMPTY;
+        }
+
+        byte[] encoded;
+        try {
+            encoded = writer.writeValueAsBytes(value);
+        } catch (IOException e) {
+            throw new SerializationException("快取值編碼失敗: " + e.getMessage(), e);
+        }
+
+        if (compressThreshold > 0 && encoded.length >= compressThreshold) {
+            byte[] compressed = deflate(encoded);
+            if (compressed.length < encoded.length) {
+                return withHeader(DEFLATED, compressed);
+            }
+        }
+        return withHeader(PLAIN, encoded);
+    }
+
+    @Override
+    public T deserialize(byte[] bytes) throws SerializationException {
+        if (bytes == null || bytes.length == 0) {
+            return null;
+        }
+
+        byte[] encoded = switch (bytes[0]) {
+            case PLAIN -> Arrays.copyOfRange(bytes, 1, bytes.length);
+            case DEFLATED -> inflate(bytes);
+            default -> throw new SerializationException("未知的快取值標頭: " + bytes[0]);
+        };
+
+        try {
+            return reader.readValue(encoded);
+        } catch (IOException e) {
+            throw new SerializationException("快取值解碼失敗: " + e.getMessage(), e);
+        }
+    }
+
+    private static byte[] withHeader(byte header, byte[] body) {
+        byte[] result = new byte[body.length + 1];
+        result[0] = header;
+        System.arraycopy(body, 0, result, 1, body.length);
+        return result;
+    }
+
+    private static byte[] deflate(byte[] input) {
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        try {
+            deflater.setInput(input);
+            deflater.finish();
+            ByteArrayOutputStream out = new ByteArrayOutputStream(input.length / 2);
+            byte[] buffer = new byte[4096];
+            while (!deflater.finished()) {
+                out.write(buffer, 0, deflater.deflate(buffer));
+            }
+            return out.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private static byte[] inflate(byte[] bytes) {
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(bytes, 1, bytes.length - 1);
+            ByteArrayOutputStream out = new ByteArrayOutputStream(bytes.length * 3);
+            byte[] buffer = new byte[4096];
+            while (!inflater.finished()) {
+                int n = inflater.inflate(buffer);
+                if (n == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    throw new SerializationException("快取值壓縮資料不完整");
+                }
+                out.write(buffer, 0, n);
+            }
+            return out.toByteArray();
+        } catch (DataFormatException e) {
+            throw new SerializationException("快取值解壓縮失敗: " + e.getMessage(), e);
+        } finally {
+            inflater.end();
+        }
+    }
+}
@@ -0,0 +1,180 @@
+package com.morningharvest.erp.common.cache;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.support.SimpleValueWrapper;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 兩層快取
+ *
+ * 第一層為 JVM 內有上限的本地快取，第二層為 Redis 快取；
+ * 讀取先查本地，未命中再查 Redis 並回填本地。
+ * 刪除與清空會同步處理兩層，並透過 TwoLevelCacheManager 廣播給其他節點清除本地快取。
+ *
+ * 本地快取直接回傳同一個物件實例，呼叫端不可修改取得的值
+ */
+public class TwoLevelCache implements Cache {
+
+    private final String name;
+    private final Cache remoteCache;
+    private final TwoLevelCacheManager cacheManager;
+    private final int maxSize;
+    private final long ttlNanos;
+    private final ConcurrentHashMap<String, LocalEntry> localEntries = new ConcurrentHashMap<>();
+
+    TwoLevelCache(String name, Cache remoteCache, TwoLevelCacheManager cacheManager,
+                  int maxSize, Duration ttl) {
+        this.name = name;
+        this.remoteCache = remoteCache;
+        this.cacheManager = cacheManager;
+        this.maxSize = maxSize;
+        this.ttlNanos = ttl.toNanos();
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return remoteCache.getNativeCache();
+    }
+
+    @Override
+    public ValueWrapper get(Object key) {
+        String localKey = localKey(key);
+        Object local = getLocal(localKey);
+        if (local != null) {
+            return new SimpleValueWrapper(local);
+        }
+
+        ValueWrapper remote = remoteCache.get(key);
+        if (remote != null && remote.get() != null) {
+            putLocal(localKey, remote.get());
+        }
+        return remote;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Class<T> type) {
+        ValueWrapper wrapper = get(key);
+        Object value = wrapper != null ? wrapper.get() : null;
+        if (value != null && type != null && !type.isInstance(value)) {
+            throw new IllegalStateException("快取值型別不符, cache: " + name + ", key: " + key
+                    + ", 預期: " + type.getName() + ", 實際: " + value.getClass().getName());
+        }
+        return (T) value;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        String localKey = localKey(key);
+        Object local = getLocal(localKey);
+        if (local != null) {
+            return (T) local;
+        }
+
+        T value = remoteCache.get(key, valueLoader);
+        if (value != null) {
+            putLocal(localKey, value);
+        }
+        return value;
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        remoteCache.put(key, value);
+        if (value != null) {
+            putLocal(localKey(key), value);
+        }
+    }
+
+    @Override
+    public void evict(Object key) {
+        String localKey = localKey(key);
+        remoteCache.evict(key);
+        localEntries.remove(localKey);
+        cacheManager.publishInvalidation(name, localKey);
+    }
+
+    @Override
+    public void clear() {
+        remoteCache.clear();
+        localEntries.clear();
+        cacheManager.publishInvalidation(name, null);
+    }
+
+    /**
+     * 只清除本地快取（收到其他節點的失效通知時呼叫）
+     *
+     * @param localKey 本地快取 key，null 表示清空
+     */
+    void evictLocal(String localKey) {
+        if (localKey == null) {
+            localEntries.clear();
+        } else {
+            localEntries.remove(localKey);
+        }
+    }
+
+    int localSize() {
+        return localEntries.size();
+    }
+
+    private Object getLocal(String localKey) {
+        LocalEntry entry = localEntries.get(localKey);
+        if (entry == null) {
+            return null;
+        }
+        if (entry.isExpired(System.nanoTime())) {
+            localEntries.remove(localKey, entry);
+            return null;
+        }
+        return entry.value;
+    }
+
+    private void putLocal(String localKey, Object value) {
+        if (maxSize <= 0) {
+            return;
+        }
+        if (localEntries.size() >= maxSize && !localEntries.containsKey(localKey)) {
+            makeRoom();
+        }
+        localEntries.put(localKey, new LocalEntry(value, System.nanoTime() + ttlNanos));
+    }
+
+    /**
+     * 超過上限時先清除過期項目，仍不足時任意移除一筆
+     */
+    private void makeRoom() {
+        long now = System.nanoTime();
+        localEntries.values().removeIf(entry -> entry.isExpired(now));
+
+        Iterator<String> keys = localEntries.keySet().iterator();
+        while (localEntries.size() >= maxSize && keys.hasNext()) {
+            keys.next();
+            keys.remove();
+        }
+    }
+
+    /**
+     * 本地快取 key 與 Redis 快取 key 採相同的字串形式，方便跨節點失效通知
+     */
+    private static String localKey(Object key) {
+        return String.valueOf(key);
+    }
+
+    private record LocalEntry(Object value, long expiresAt) {
+
+        boolean isExpired(long now) {
+            return now - expiresAt >= 0;
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package com.morningharvest.erp.common.cache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.morningharvest.erp.common.id.TimeOrderedId;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.transaction.AbstractTransactionSupportingCacheManager;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * 兩層快取管理器
+ *
+ * 以 Redis 快取管理器為第二層，為每個快取加上 JVM 內本地快取（TwoLevelCache）。
+ * 快取刪除/清空時透過 Redis pub/sub 發送失效通知，其他節點收到後清除本地快取，
+ * 讓多個 API 節點保持一致。
+ *
+ * 快取操作為交易感知：交易內的寫入與刪除延後到提交後才執行，避免回滾或未提交的資料進入快取
+ */
+@Slf4j
+public class TwoLevelCacheManager extends AbstractTransactionSupportingCacheManager implements MessageListener {
+
+    /**
+     * 失效通知的 Redis 頻道
+     */
+    public static final String INVALIDATION_CHANNEL = "erp:cache:invalidation";
+
+    private final CacheManager remoteCacheManager;
+    private final StringRedisTemplate redisTemplate;
+    private final ObjectMapper objectMapper;
+    private final int localMaxSize;
+    private final Duration localTtl;
+    private final String nodeId = TimeOrderedId.next();
+    private final ConcurrentMap<String, TwoLevelCache> twoLevelCaches = new ConcurrentHashMap<>();
+
+    public TwoLevelCacheManager(CacheManager remoteCacheManager, StringRedisTemplate redisTemplate,
+                                ObjectMapper objectMapper, int localMaxSize, Duration localTtl) {
+        this.remoteCacheManager = remoteCacheManager;
+        this.redisTemplate = redisTemplate;
+        this.objectMapper = objectMapper;
+        this.localMaxSize = localMaxSize;
+        this.localTtl = localTtl;
+        setTransactionAware(true);
+    }
+
+    @Override
+    protected Collection<? extends Cache> loadCaches() {
+        return Collections.emptyList();
+    }
+
+    @Override
+    protected Cache getMissingCache(String name) {
+        Cache remoteCache = remoteCacheManager.getCache(name);
+        if (remoteCache == null) {
+            return null;
+        }
+        TwoLevelCache cache = new TwoLevelCache(name, remoteCache, this, localMaxSize, localTtl);
+        twoLevelCaches.put(name, cache);
+        return cache;
+    }
+
+    /**
+     * 發送失效通知給其他節點；Redis 無法連線時只記錄警告（本地 TTL 會讓資料最終一致）
+     *
+     * @param cacheName 快取名稱
+     * @param key       快取 key，null 表示清空整個快取
+     */
+    void publishInvalidation(String cacheName, String key) {
+        try {
+            String payload = objectMapper.writeValueAsString(new InvalidationMessage(nodeId, cacheName, key));
+            redisTemplate.convertAndSend(INVALIDATION_CHANNEL, payload);
+        } catch (Exception e) {
+            log.warn("快取失效通知發送失敗, cache: {}, key: {}, error: {}", cacheName, key, e.getMessage());
+        }
+    }
+
+    /**
+     * 接收其他節點的失效通知，清除本地快取
+     */
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        InvalidationMessage invalidation;
+        try {
+            invalidation = objectMapper.readValue(message.getBody(), InvalidationMessage.class);
+        } catch (Exception e) {
+            log.warn("無法解析快取失效通知: {}", e.getMessage());
+            return;
+        }
+
+        if (nodeId.equals(invalidation.nodeId())) {
+            return;
+        }
+
+        TwoLevelCache cache = twoLevelCaches.get(invalidation.cacheName());
+        if (cache != null) {
+            log.debug("收到快取失效通知, cache: {}, key: {}", invalidation.cacheName(), invalidation.key());
+            cache.evictLocal(invalidation.key());
+        }
+    }
+
+    String getNodeId() {
+        return nodeId;
+    }
+
+    /**
+     * 失效通知內容
+     *
+     * @param nodeId    發送節點
+     * @param cacheName 快取名稱
+     * @param key       快取 key，null 表示清空
+     */
+    record InvalidationMessage(String nodeId, String cacheName, String key) {
+    }
+}
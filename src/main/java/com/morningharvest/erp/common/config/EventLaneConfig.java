@@ -0,0 +1,50 @@
+package com.morningharvest.erp.common.config;
+
+import com.morningharvest.erp.common.event.EventDeadLetterService;
+import com.morningharvest.erp.common.event.EventLane;
+import com.morningharvest.erp.common.event.EventLaneExecutor;
+import com.morningharvest.erp.common.event.EventLaneInterceptor;
+import org.springframework.aop.framework.autoproxy.AbstractBeanFactoryAwareAdvisingPostProcessor;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.aop.support.annotation.AnnotationMatchingPointcut;
+import org.springframework.beans.factory.BeanFactory;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Role;
+
+/**
+ * 事件分道配置
+ *
+ * 為標註 {@link EventLane} 的監聽方法建立代理，呼叫時依聚合鍵送入 {@link EventLaneExecutor}。
+ * 作法與 @Async 相同，但 @Async 只能依方法選擇執行器，無法依事件內容分道
+ */
+@Configuration(proxyBeanMethods = false)
+public class EventLaneConfig {
+
+    @Bean
+    @Role(BeanDefinition.ROLE_INFRASTRUCTURE)
+    static EventLaneAnnotationBeanPostProcessor eventLaneAnnotationBeanPostProcessor() {
+        return new EventLaneAnnotationBeanPostProcessor();
+    }
+
+    /**
+     * 代理 {@link EventLane} 方法的後處理器
+     */
+    static class EventLaneAnnotationBeanPostProcessor extends AbstractBeanFactoryAwareAdvisingPostProcessor {
+
+        EventLaneAnnotationBeanPostProcessor() {
+            // 排在交易攔截器之前，交易於執行道上開始
+            setBeforeExistingAdvisors(true);
+        }
+
+        @Override
+        public void setBeanFactory(BeanFactory beanFactory) {
+            super.setBeanFactory(beanFactory);
+            this.advisor = new DefaultPointcutAdvisor(
+                    AnnotationMatchingPointcut.forMethodAnnotation(EventLane.class),
+                    new EventLaneInterceptor(() -> beanFactory.getBean(EventLaneExecutor.class),
+                            () -> beanFactory.getBean(EventDeadLetterService.class)));
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package com.morningharvest.erp.common.config;
+
+import com.morningharvest.erp.common.event.IdempotentListener;
+import com.morningharvest.erp.common.event.IdempotentListenerInterceptor;
+import com.morningharvest.erp.common.event.ProcessedEventStore;
+import org.springframework.aop.framework.autoproxy.AbstractBeanFactoryAwareAdvisingPostProcessor;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.aop.support.annotation.AnnotationMatchingPointcut;
+import org.springframework.beans.factory.BeanFactory;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Role;
+
+/**
+ * 冪等監聽配置
+ *
+ * 為標註 {@link IdempotentListener} 的監聽方法建立代理，攔截器排在既有的交易攔截器之後，
+ * 已處理事件的記錄與監聽器的副作用在同一交易提交
+ */
+@Configuration(proxyBeanMethods = false)
+public class IdempotentListenerConfig {
+
+    @Bean
+    @Role(BeanDefinition.ROLE_INFRASTRUCTURE)
+    static IdempotentListenerAnnotationBeanPostProcessor idempotentListenerAnnotationBeanPostProcessor() {
+        return new IdempotentListenerAnnotationBeanPostProcessor();
+    }
+
+    /**
+     * 代理 {@link IdempotentListener} 方法的後處理器
+     */
+    static class IdempotentListenerAnnotationBeanPostProcessor extends AbstractBeanFactoryAwareAdvisingPostProcessor {
+
+        IdempotentListenerAnnotationBeanPostProcessor() {
+            // 排在交易攔截器之後，於監聽器交易內標記
+            setBeforeExistingAdvisors(false);
+        }
+
+        @Override
+        public void setBeanFactory(BeanFactory beanFactory) {
+            super.setBeanFactory(beanFactory);
+            this.advisor = new DefaultPointcutAdvisor(
+                    AnnotationMatchingPointcut.forMethodAnnotation(IdempotentListener.class),
+                    new IdempotentListenerInterceptor(() -> beanFactory.getBean(ProcessedEventStore.class)));
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package com.morningharvest.erp.common.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingStream;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * 虛擬執行緒釘選偵測
+ *
+ * 虛擬執行緒在 synchronized 區塊或原生呼叫中阻塞時無法卸載，會佔住載體執行緒（Java 21）。
+ * 以 JFR 串流訂閱 jdk.VirtualThreadPinned 事件，超過門檻時記錄堆疊並累計
+ * jvm.threads.virtual.pinned 指標（依第一個本系統堆疊位置分類）；
+ * 同一位置每分鐘最多記錄一次日誌
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "spring.threads.virtual.enabled", havingValue = "true")
+public class VirtualThreadPinningMonitor {
+
+    private static final String EVENT_NAME = "jdk.VirtualThreadPinned";
+    private static final String APP_PACKAGE = "com.morningharvest.erp.";
+    private static final long LOG_INTERVAL_MS = 60_000;
+    private static final int LOGGED_FRAMES = 12;
+
+    private final MeterRegistry meterRegistry;
+
+    @Value("${threads.virtual.pinning-detection.enabled:true}")
+    private boolean enabled;
+
+    @Value("${threads.virtual.pinning-detection.threshold:20ms}")
+    private Duration threshold;
+
+    private final Map<String, Long> lastLogged = new ConcurrentHashMap<>();
+
+    private RecordingStream stream;
+
+    public VirtualThreadPinningMonitor(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @PostConstruct
+    void start() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            stream = new RecordingStream();
+            stream.enable(EVENT_NAME).withThreshold(threshold).withStackTrace();
+            stream.onEvent(EVENT_NAME, this::onPinned);
+            stream.startAsync();
+            log.info("虛擬執行緒釘選偵測已啟動: threshold={}", threshold);
+        } catch (Exception e) {
+            // JFR 不可用（如精簡 JRE）時不影響服務
+            log.warn("虛擬執行緒釘選偵測無法啟動: {}", e.getMessage());
+            stream = null;
+        }
+    }
+
+    @PreDestroy
+    void stop() {
+        if (stream != null) {
+            stream.close();
+        }
+    }
+
+    private void onPinned(RecordedEvent event) {
+        List<RecordedFrame> frames = frames(event.getStackTrace());
+        String site = frames.stream()
+                .filter(frame -> frame.getMethod().getType().getName().startsWith(APP_PACKAGE))
+                .findFirst()
+                .map(VirtualThreadPinningMonitor::format)
+                .orElse("external");
+        meterRegistry.counter("jvm.threads.virtual.pinned", "site", site).increment();
+
+        long now = System.currentTimeMillis();
+        Long previous = lastLogged.get(site);
+        if (previous != null && now - previous < LOG_INTERVAL_MS) {
+            return;
+        }
+        lastLogged.put(site, now);
+        log.warn("虛擬執行緒被釘選 {} ms, 位置: {}, 堆疊:\n    {}",
+                event.getDuration().toMillis(), site,
+                frames.stream().limit(LOGGED_FRAMES)
+                        .map(VirtualThreadPinningMonitor::format)
+                        .collect(Collectors.joining("\n    ")));
+    }
+
+    private static List<RecordedFrame> frames(RecordedStackTrace stackTrace) {
+        return stackTrace != null ? stackTrace.getFrames() : List.of();
+    }
+
+    private static String format(RecordedFrame frame) {
+        return frame.getMethod().getType().getName() + "." + frame.getMethod().getName()
+                + ":" + frame.getLineNumber();
+    }
+}
@@ -0,0 +1,89 @@
+package com.morningharvest.erp.common.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.morningharvest.erp.common.constant.ResponseCode;
+import com.morningharvest.erp.common.dto.ApiResponse;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 虛擬執行緒模式的請求並行上限
+ *
+ * 平台執行緒模式下 Tomcat 執行緒數（預設 200）即為同時處理的請求上限；
+ * 改用虛擬執行緒後每個連線都有執行緒，尖峰時大量請求同時等待 Hikari 連線直到逾時。
+ * 以信號量維持與平台模式相同的並行上限，等待逾時回應 503 讓負載平衡器或前端重試
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "spring.threads.virtual.enabled", havingValue = "true")
+public class VirtualThreadRequestLimitFilter extends OncePerRequestFilter {
+
+    private final ObjectMapper objectMapper;
+    private final Semaphore permits;
+    private final long acquireTimeoutMs;
+
+    public VirtualThreadRequestLimitFilter(
+            ObjectMapper objectMapper,
+            @Value("${server.virtual-threads.max-concurrent-requests:200}") int maxConcurrentRequests,
+            @Value("${server.virtual-threads.acquire-timeout:2000}") long acquireTimeoutMs) {
+        this.objectMapper = objectMapper;
+        this.permits = new Semaphore(maxConcurrentRequests, true);
+        this.acquireTimeoutMs = acquireTimeoutMs;
+        log.info("虛擬執行緒請求並行上限: maxConcurrentRequests={}, acquireTimeout={} ms",
+                maxConcurrentRequests, acquireTimeoutMs);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        boolean acquired;
+        try {
+            acquired = permits.tryAcquire(acquireTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            acquired = false;
+        }
+        if (!acquired) {
+            log.warn("請求並行數已達上限, uri: {}", request.getRequestURI());
+            rejectBusy(response);
+            return;
+        }
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            permits.release();
+        }
+    }
+
+    /**
+     * 健康檢查不受並行上限影響
+     */
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return request.getRequestURI().startsWith("/actuator");
+    }
+
+    private void rejectBusy(HttpServletResponse response) throws IOException {
+        response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        objectMapper.writeValue(response.getOutputStream(),
+                ApiResponse.error(ResponseCode.SYSTEM_ERROR, "系統忙碌中，請稍後再試"));
+    }
+}
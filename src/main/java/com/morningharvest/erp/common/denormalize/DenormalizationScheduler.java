@@ -0,0 +1,37 @@
+package com.morningharvest.erp.common.denormalize;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * 冗餘欄位同步排程
+ *
+ * 固定間隔同步待處理的名稱變更；每日全表校正（denormalize.reconciliation.cron 設為 "-" 可停用）
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class DenormalizationScheduler {
+
+    private final DenormalizationService denormalizationService;
+
+    @Scheduled(fixedDelayString = "${denormalize.propagation.flush-interval:2000}")
+    public void flush() {
+        try {
+            denormalizationService.flush();
+        } catch (Exception e) {
+            log.error("冗餘欄位同步排程失敗: {}", e.getMessage(), e);
+        }
+    }
+
+    @Scheduled(cron = "${denormalize.reconciliation.cron:0 15 3 * * *}")
+    public void reconcile() {
+        try {
+            denormalizationService.reconcile();
+        } catch (Exception e) {
+            log.error("冗餘欄位校正排程失敗: {}", e.getMessage(), e);
+        }
+    }
+}
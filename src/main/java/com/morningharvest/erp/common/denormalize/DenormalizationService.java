@@ -0,0 +1,129 @@
+package com.morningharvest.erp.common.denormalize;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * 冗餘欄位同步服務
+ *
+ * 名稱變更事件只登記待同步的 key，同一 key 在一個同步週期內的多次變更合併為一次；
+ * 排程定期以每個欄位一條（依批次大小分段）JOIN UPDATE 從來源表帶入目前值。
+ * 另有全表校正，修復事件遺失等原因造成的資料不一致
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class DenormalizationService {
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final CacheManager cacheManager;
+
+    private final ConcurrentMap<DenormalizedField, Set<Long>> pending = new ConcurrentHashMap<>();
+
+    @Value("${denormalize.propagation.batch-size:500}")
+    private int batchSize;
+
+    /**
+     * 登記待同步的 key
+     *
+     * @param field 冗餘欄位
+     * @param key   來源資料 ID
+     */
+    public void enqueue(DenormalizedField field, Long key) {
+        if (key == null) {
+            return;
+        }
+        pending.compute(field, (f, keys) -> {
+            Set<Long> result = keys != null ? keys : new LinkedHashSet<>();
+            result.add(key);
+            return result;
+        });
+    }
+
+    /**
+     * 目前待同步的 key 數量
+     */
+    public int pendingCount() {
+        return pending.values().stream().mapToInt(Set::size).sum();
+    }
+
+    /**
+     * 同步所有待處理的 key
+     *
+     * @return 更新的資料列數
+     */
+    public int flush() {
+        int totalUpdated = 0;
+        for (DenormalizedField field : DenormalizedField.values()) {
+            Set<Long> keys = pending.remove(field);
+            if (keys == null || keys.isEmpty()) {
+                continue;
+            }
+
+            try {
+                int updated = 0;
+                List<Long> keyList = new ArrayList<>(keys);
+                for (int from = 0; from < keyList.size(); from += batchSize) {
+                    List<Long> chunk = keyList.subList(from, Math.min(from + batchSize, keyList.size()));
+                    updated += jdbcTemplate.update(field.syncSql(), Map.of("keys", chunk));
+                }
+                log.info("冗餘欄位同步完成, field: {}, key 數: {}, 更新筆數: {}", field, keys.size(), updated);
+
+                if (updated > 0) {
+                    clearCaches(field);
+                }
+                totalUpdated += updated;
+            } catch (Exception e) {
+                // 放回佇列，下個週期重試
+                keys.forEach(key -> enqueue(field, key));
+                log.error("冗餘欄位同步失敗, field: {}, key 數: {}, error: {}", field, keys.size(), e.getMessage(), e);
+            }
+        }
+        return totalUpdated;
+    }
+
+    /**
+     * 全表校正：找出並修復與來源不一致的冗餘欄位
+     *
+     * @return 各欄位修復的資料列數
+     */
+    public Map<DenormalizedField, Integer> reconcile() {
+        log.info("冗餘欄位校正開始");
+
+        Map<DenormalizedField, Integer> repaired = new EnumMap<>(DenormalizedField.class);
+        for (DenormalizedField field : DenormalizedField.values()) {
+            int updated = jdbcTemplate.update(field.reconcileSql(), Map.of());
+            repaired.put(field, updated);
+            if (updated > 0) {
+                log.warn("冗餘欄位不一致已修復, field: {}, 筆數: {}", field, updated);
+                clearCaches(field);
+            }
+        }
+
+        log.info("冗餘欄位校正完成: {}", repaired);
+        return repaired;
+    }
+
+    private void clearCaches(DenormalizedField field) {
+        for (String cacheName : field.getCacheNames()) {
+            Cache cache = cacheManager.getCache(cacheName);
+            if (cache != null) {
+                cache.clear();
+            }
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package com.morningharvest.erp.common.denormalize;
+
+import com.morningharvest.erp.common.cache.CacheNames;
+
+import java.util.List;
+
+/**
+ * 冗餘欄位定義
+ *
+ * 每個項目描述一組「來源表 → 冗餘表」的欄位對應，同步時以 JOIN UPDATE 直接從來源表讀取目前值，
+ * 只更新與來源不一致的列；key 為冗餘表中指向來源的外鍵
+ */
+public enum DenormalizedField {
+
+    /**
+     * 商品的分類名稱（products.category_name ← product_categories.name）
+     */
+    PRODUCT_CATEGORY_NAME(
+            "products t JOIN product_categories s ON t.category_id = s.id",
+            "t.category_name = s.name",
+            "NOT (t.category_name <=> s.name)",
+            "t.category_id",
+            List.of(CacheNames.PRODUCTS)),
+
+    /**
+     * 套餐的分類名稱（combos.category_name ← product_categories.name）
+     */
+    COMBO_CATEGORY_NAME(
+            "combos t JOIN product_categories s ON t.category_id = s.id",
+            "t.category_name = s.name",
+            "NOT (t.category_name <=> s.name)",
+            "t.category_id",
+            List.of(CacheNames.COMBOS, CacheNames.COMBO_DETAILS)),
+
+    /**
+     * 套餐項目的商品名稱（combo_items.product_name ← products.name）
+     */
+    COMBO_ITEM_PRODUCT_NAME(
+            "combo_items t JOIN products s ON t.product_id = s.id",
+            "t.product_name = s.name",
+            "NOT (t.product_name <=> s.name)",
+            "t.product_id",
+            List.of(CacheNames.COMBO_DETAILS)),
+
+    /**
+     * 配方的商品名稱（product_recipes.product_name ← products.name）
+     */
+    RECIPE_PRODUCT_NAME(
+            "product_recipes t JOIN products s ON t.product_id = s.id",
+            "t.product_name = s.name",
+            "NOT (t.product_name <=> s.name)",
+            "t.product_id",
+            List.of()),
+
+    /**
+     * 配方的原物料編號、名稱、單位（product_recipes ← materials）
+     */
+    RECIPE_MATERIAL_INFO(
+            "product_recipes t JOIN materials s ON t.material_id = s.id",
+            "t.material_code = s.code, t.material_name = s.name, t.unit = s.unit",
+            "NOT (t.material_code <=> s.code AND t.material_name <=> s.name AND t.unit <=> s.unit)",
+            "t.material_id",
+            List.of());
+
+    private final String tables;
+    private final String assignments;
+    private final String driftCondition;
+    private final String keyColumn;
+    private final List<String> cacheNames;
+
+    DenormalizedField(String tables, String assignments, String driftCondition,
+                      String keyColumn, List<String> cacheNames) {
+        this.tables = tables;
+        this.assignments = assignments;
+        this.driftCondition = driftCondition;
+        this.keyColumn = keyColumn;
+        this.cacheNames = cacheNames;
+    }
+
+    /**
+     * 同步指定 key 的 SQL（參數 :keys）
+     */
+    String syncSql() {
+        return reconcileSql() + " AND " + keyColumn + " IN (:keys)";
+    }
+
+    /**
+     * 全表校正的 SQL
+     */
+    String reconcileSql() {
+        return "UPDATE " + tables + " SET " + assignments + " WHERE " + driftCondition;
+    }
+
+    /**
+     * 冗餘資料更新後需清除的快取
+     */
+    List<String> getCacheNames() {
+        return cacheNames;
+    }
+}
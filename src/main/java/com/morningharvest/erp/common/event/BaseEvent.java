@@ -1,9 +1,9 @@
 package com.morningharvest.erp.common.event;
 
+import com.morningharvest.erp.common.id.TimeOrderedId;
 import lombok.Getter;
 
 import java.time.LocalDateTime;
-import java.util.UUID;
 
 /**
  * 事件基礎類別
@@ -14,7 +14,7 @@ import java.util.UUID;
 public abstract class BaseEvent {
 
     /**
-     * 事件唯一識別碼
+     * 事件唯一識別碼（時間排序，outbox、死信與已處理事件表依此寫入）
      */
     private final String eventId;
 
@@ -34,7 +34,7 @@ public abstract class BaseEvent {
      * @param source 事件來源模組
      */
     protected BaseEvent(String source) {
-        this.eventId = UUID.randomUUID().toString();
+        this.eventId = TimeOrderedId.next();
         this.occurredAt = LocalDateTime.now();
         this.source = source;
     }
@@ -48,6 +48,28 @@ public abstract class BaseEvent {
         return this.getClass().getSimpleName();
     }
 
+    /**
+     * 取得聚合鍵
+     *
+     * 同一聚合鍵的事件依發布順序派送；預設以事件類型為鍵，有明確聚合對象的事件應覆寫
+     *
+     * @return 聚合鍵
+     */
+    public String getAggregateKey() {
+        return getEventType();
+    }
+
+    /**
+     * 是否為高優先事件
+     *
+     * 影響金額的事件（訂單、付款）應覆寫為 true，執行道壅塞時保留佇列空間優先處理
+     *
+     * @return 是否為高優先事件
+     */
+    public boolean isHighPriority() {
+        return false;
+    }
+
     @Override
     public String toString() {
         return String.format("%s[eventId=%s, source=%s, occurredAt=%s]",
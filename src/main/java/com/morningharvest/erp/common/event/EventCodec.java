@@ -0,0 +1,84 @@
+package com.morningharvest.erp.common.event;
+
+import com.fasterxml.jackson.annotation.JsonAutoDetect;
+import com.fasterxml.jackson.annotation.PropertyAccessor;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.stereotype.Component;
+
+/**
+ * 事件序列化
+ *
+ * 事件類別沒有無參數建構函式與 setter，以欄位序列化、以建構函式參數名稱反序列化；
+ * BaseEvent 的 eventId、occurredAt 由 JSON 還原，重送的事件與原事件識別碼相同。
+ * 事件上的衍生 getter（如 isNameChanged）不寫入內容
+ */
+@Component
+public class EventCodec {
+
+    private static final String EVENT_PACKAGE_PREFIX = "com.morningharvest.erp.";
+
+    private final ObjectMapper mapper;
+
+    public EventCodec(ObjectMapper objectMapper) {
+        this.mapper = objectMapper.copy()
+                .setVisibility(PropertyAccessor.ALL, JsonAutoDetect.Visibility.NONE)
+                .setVisibility(PropertyAccessor.FIELD, JsonAutoDetect.Visibility.ANY)
+                .setVisibility(PropertyAccessor.CREATOR, JsonAutoDetect.Visibility.ANY)
+                .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+    }
+
+    /**
+     * 序列化事件
+     *
+     * @param event 事件
+     * @return JSON
+     */
+    public String encode(BaseEvent event) {
+        try {
+            return mapper.writeValueAsString(event);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("事件序列化失敗: " + event.getEventType() + ", " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * 反序列化事件
+     *
+     * @param eventType 事件類別完整名稱
+     * @param payload   JSON
+     * @return 事件
+     * @throws IllegalArgumentException 類別不存在、不是本系統事件或內容無法解析
+     */
+    public BaseEvent decode(String eventType, String payload) {
+        Class<? extends BaseEvent> type = resolveType(eventType);
+        try {
+            return mapper.readValue(payload, type);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("事件反序列化失敗: " + eventType + ", " + e.getOriginalMessage(), e);
+        }
+    }
+
+    /**
+     * 事件類別名稱（decode 使用）
+     */
+    public String typeOf(BaseEvent event) {
+        return event.getClass().getName();
+    }
+
+    private Class<? extends BaseEvent> resolveType(String eventType) {
+        if (eventType == null || !eventType.startsWith(EVENT_PACKAGE_PREFIX)) {
+            throw new IllegalArgumentException("不支援的事件類型: " + eventType);
+        }
+        try {
+            Class<?> type = Class.forName(eventType);
+            if (!BaseEvent.class.isAssignableFrom(type)) {
+                throw new IllegalArgumentException("不支援的事件類型: " + eventType);
+            }
+            return type.asSubclass(BaseEvent.class);
+        } catch (ClassNotFoundException e) {
+            throw new IllegalArgumentException("事件類型不存在: " + eventType, e);
+        }
+    }
+}
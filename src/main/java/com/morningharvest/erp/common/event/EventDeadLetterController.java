@@ -0,0 +1,92 @@
+package com.morningharvest.erp.common.event;
+
+import com.morningharvest.erp.common.dto.ApiResponse;
+import com.morningharvest.erp.common.dto.PageResponse;
+import com.morningharvest.erp.common.dto.PageableRequest;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Sort;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * 事件死信管理 API
+ */
+@RestController
+@RequestMapping("/api/event-dead-letters")
+@RequiredArgsConstructor
+@Tag(name = "事件死信管理", description = "檢視、重送與捨棄處理失敗的事件")
+public class EventDeadLetterController {
+
+    private final EventDeadLetterService eventDeadLetterService;
+
+    @GetMapping("/list")
+    @Operation(summary = "查詢死信列表", description = "分頁查詢死信，支援狀態、事件類型、監聽器篩選（不含事件內容）")
+    public ApiResponse<PageResponse<EventDeadLetterDTO>> listDeadLetters(
+            @Parameter(description = "頁碼 (從 1 開始)")
+            @RequestParam(value = "page", defaultValue = "1") Integer page,
+            @Parameter(description = "每頁筆數")
+            @RequestParam(value = "size", defaultValue = "20") Integer size,
+            @Parameter(description = "排序欄位")
+            @RequestParam(value = "sortBy", defaultValue = "id") String sortBy,
+            @Parameter(description = "排序方向 (ASC/DESC)")
+            @RequestParam(value = "direction", defaultValue = "DESC") Sort.Direction direction,
+            @Parameter(description = "狀態篩選 (PENDING/DEAD/RESOLVED/DISCARDED)")
+            @RequestParam(value = "status", required = false) String status,
+            @Parameter(description = "事件類別完整名稱")
+            @RequestParam(value = "eventType", required = false) String eventType,
+            @Parameter(description = "監聽器（類別完整名稱#方法名稱）")
+            @RequestParam(value = "listener", required = false) String listener
+    ) {
+        PageableRequest pageableRequest = PageableRequest.builder()
+                .page(page)
+                .size(size)
+                .sortBy(sortBy)
+                .direction(direction)
+                .build();
+
+        return ApiResponse.success(
+                eventDeadLetterService.listDeadLetters(pageableRequest, status, eventType, listener));
+    }
+
+    @GetMapping("/detail")
+    @Operation(summary = "取得死信詳情", description = "依據死信 ID 取得詳細資料（含事件內容）")
+    public ApiResponse<EventDeadLetterDTO> getDeadLetterDetail(
+            @Parameter(description = "死信 ID", required = true)
+            @RequestParam("id") Long id
+    ) {
+        return ApiResponse.success(eventDeadLetterService.getDeadLetterById(id));
+    }
+
+    @PostMapping("/replay")
+    @Operation(summary = "重送死信", description = "將指定死信（PENDING/DEAD）重置失敗次數並排入重試，由重試排程分批送出")
+    public ApiResponse<Integer> replayDeadLetters(
+            @Valid @RequestBody ReplayDeadLettersRequest request
+    ) {
+        int requeued = eventDeadLetterService.replay(request.getIds());
+        return ApiResponse.success("死信已排入重試", requeued);
+    }
+
+    @PostMapping("/replay-all")
+    @Operation(summary = "批次重送死信", description = "將符合條件的 DEAD 死信全部排入重試（如事故排除後），由重試排程依執行道容量分批送出")
+    public ApiResponse<Integer> replayAllDeadLetters(
+            @Parameter(description = "事件類別完整名稱")
+            @RequestParam(value = "eventType", required = false) String eventType,
+            @Parameter(description = "監聽器（類別完整名稱#方法名稱）")
+            @RequestParam(value = "listener", required = false) String listener
+    ) {
+        int requeued = eventDeadLetterService.replayAll(eventType, listener);
+        return ApiResponse.success("死信已排入重試", requeued);
+    }
+
+    @PostMapping("/discard")
+    @Operation(summary = "捨棄死信", description = "不再重試指定的死信")
+    public ApiResponse<EventDeadLetterDTO> discardDeadLetter(
+            @Parameter(description = "死信 ID", required = true)
+            @RequestParam("id") Long id
+    ) {
+        return ApiResponse.success("死信已捨棄", eventDeadLetterService.discard(id));
+    }
+}
@@ -0,0 +1,45 @@
+package com.morningharvest.erp.common.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * 事件死信回應 DTO
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class EventDeadLetterDTO {
+
+    private Long id;
+
+    private String eventId;
+
+    private String eventType;
+
+    private String aggregateKey;
+
+    private String listener;
+
+    /**
+     * 事件內容 (JSON)，僅詳情回傳
+     */
+    private String payload;
+
+    private String status;
+
+    private Integer attempts;
+
+    private String lastError;
+
+    private LocalDateTime nextRetryAt;
+
+    private LocalDateTime createdAt;
+
+    private LocalDateTime updatedAt;
+}
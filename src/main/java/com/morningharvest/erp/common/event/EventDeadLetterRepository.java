@@ -0,0 +1,79 @@
+package com.morningharvest.erp.common.event;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface EventDeadLetterRepository extends JpaRepository<EventDeadLetter, Long> {
+
+    Optional<EventDeadLetter> findByEventIdAndListener(String eventId, String listener);
+
+    /**
+     * 依狀態、事件類型、監聽器篩選（條件為 null 時不篩選）
+     */
+    @Query("SELECT d FROM EventDeadLetter d WHERE " +
+           "(:status IS NULL OR d.status = :status) " +
+           "AND (:eventType IS NULL OR d.eventType = :eventType) " +
+           "AND (:listener IS NULL OR d.listener = :listener)")
+    Page<EventDeadLetter> search(@Param("status") String status,
+                                 @Param("eventType") String eventType,
+                                 @Param("listener") String listener,
+                                 Pageable pageable);
+
+    /**
+     * 依 id 順序取得並鎖定到期待重試的死信
+     *
+     * 使用 SKIP LOCKED：各節點認領不同死信，認領後以 next_retry_at 延後避免重複送出
+     */
+    @Query(value = "SELECT * FROM event_dead_letter WHERE status = 'PENDING' AND next_retry_at <= :now " +
+                   "ORDER BY id LIMIT :limit FOR UPDATE SKIP LOCKED",
+           nativeQuery = true)
+    List<EventDeadLetter> lockDue(@Param("now") LocalDateTime now, @Param("limit") int limit);
+
+    /**
+     * 釋放認領（執行道已滿未送出時立即重新到期）
+     */
+    @Modifying
+    @Query("UPDATE EventDeadLetter d SET d.nextRetryAt = :now WHERE d.id IN :ids AND d.status = 'PENDING'")
+    int release(@Param("ids") Collection<Long> ids, @Param("now") LocalDateTime now);
+
+    /**
+     * 指定死信重新排入重試（重置失敗次數）
+     */
+    @Modifying
+    @Query("UPDATE EventDeadLetter d SET d.status = 'PENDING', d.attempts = 0, d.nextRetryAt = :now, " +
+           "d.updatedAt = :now WHERE d.id IN :ids AND d.status IN ('PENDING', 'DEAD')")
+    int requeue(@Param("ids") Collection<Long> ids, @Param("now") LocalDateTime now);
+
+    /**
+     * 依條件將死信重新排入重試（重置失敗次數，條件為 null 時不篩選）
+     */
+    @Modifying
+    @Query("UPDATE EventDeadLetter d SET d.status = 'PENDING', d.attempts = 0, d.nextRetryAt = :now, " +
+           "d.updatedAt = :now WHERE d.status = :status " +
+           "AND (:eventType IS NULL OR d.eventType = :eventType) " +
+           "AND (:listener IS NULL OR d.listener = :listener)")
+    int requeueMatching(@Param("status") String status,
+                        @Param("eventType") String eventType,
+                        @Param("listener") String listener,
+                        @Param("now") LocalDateTime now);
+
+    /**
+     * 刪除早於指定時間結案（重試成功或捨棄）的死信（每次最多 limit 筆，避免長交易）
+     */
+    @Modifying
+    @Query(value = "DELETE FROM event_dead_letter WHERE status IN ('RESOLVED', 'DISCARDED') " +
+                   "AND updated_at < :before LIMIT :limit",
+           nativeQuery = true)
+    int deleteClosedBefore(@Param("before") LocalDateTime before, @Param("limit") int limit);
+}
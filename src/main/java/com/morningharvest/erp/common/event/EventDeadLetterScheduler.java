@@ -0,0 +1,44 @@
+package com.morningharvest.erp.common.event;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+
+/**
+ * 事件死信排程
+ *
+ * 定期送出到期的死信重試（event.dead-letter.retry-cron），
+ * 每日刪除結案超過保留天數的死信（event.dead-letter.purge-cron）；設為 "-" 可停用
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class EventDeadLetterScheduler {
+
+    private final EventDeadLetterService eventDeadLetterService;
+
+    @Value("${event.dead-letter.retention-days:30}")
+    private long retentionDays;
+
+    @Scheduled(cron = "${event.dead-letter.retry-cron:*/15 * * * * *}")
+    public void retryDue() {
+        try {
+            eventDeadLetterService.retryDue();
+        } catch (Exception e) {
+            log.error("死信重試排程失敗: {}", e.getMessage(), e);
+        }
+    }
+
+    @Scheduled(cron = "${event.dead-letter.purge-cron:0 40 3 * * *}")
+    public void purge() {
+        try {
+            eventDeadLetterService.purgeClosed(LocalDateTime.now().minusDays(retentionDays));
+        } catch (Exception e) {
+            log.error("死信清理排程失敗: {}", e.getMessage(), e);
+        }
+    }
+}
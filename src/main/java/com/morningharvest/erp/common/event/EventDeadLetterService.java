@@ -0,0 +1,408 @@
+package com.morningharvest.erp.common.event;
+
+import com.morningharvest.erp.common.dto.PageResponse;
+import com.morningharvest.erp.common.dto.PageableRequest;
+import com.morningharvest.erp.common.exception.ResourceNotFoundException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationContext;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.ClassUtils;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * 事件死信服務
+ *
+ * {@link EventLane} 監聽器失敗時記錄事件內容、失敗原因與次數，以指數退避自動重試；
+ * 重試於事件聚合鍵對應的執行道上執行，與同一聚合的新事件維持順序。
+ * 超過最大次數轉為 DEAD，待人工檢視後重送或捨棄。
+ * 重送只將死信改回 PENDING 並立即到期，由重試排程分批送出，送出量受執行道容量限制
+ */
+@Slf4j
+@Service
+public class EventDeadLetterService {
+
+    private static final String APP_PACKAGE = "com.morningharvest.erp.";
+    private static final int MAX_ERROR_LENGTH = 1000;
+    private static final int PURGE_BATCH_SIZE = 1000;
+
+    private final EventDeadLetterRepository eventDeadLetterRepository;
+    private final EventCodec eventCodec;
+    private final EventLaneExecutor eventLaneExecutor;
+    private final ApplicationContext applicationContext;
+    private final TransactionTemplate transactionTemplate;
+    private final TransactionTemplate requiresNewTemplate;
+    private final MeterRegistry meterRegistry;
+
+    private final Counter resolvedCounter;
+    private final Counter exhaustedCounter;
+
+    @Value("${event.dead-letter.max-attempts:6}")
+    private int maxAttempts = 6;
+
+    @Value("${event.dead-letter.initial-backoff:30s}")
+    private Duration initialBackoff = Duration.ofSeconds(30);
+
+    @Value("${event.dead-letter.max-backoff:1h}")
+    private Duration maxBackoff = Duration.ofHours(1);
+
+    @Value("${event.dead-letter.batch-size:100}")
+    private int batchSize = 100;
+
+    /**
+     * 認領後未回報結果（節點中止）時重新到期的時間
+     */
+    @Value("${event.dead-letter.claim-timeout:5m}")
+    private Duration claimTimeout = Duration.ofMinutes(5);
+
+    public EventDeadLetterService(EventDeadLetterRepository eventDeadLetterRepository,
+                                  EventCodec eventCodec,
+                                  EventLaneExecutor eventLaneExecutor,
+                                  ApplicationContext applicationContext,
+                                  PlatformTransactionManager transactionManager,
+                                  MeterRegistry meterRegistry) {
+        this.eventDeadLetterRepository = eventDeadLetterRepository;
+        this.eventCodec = eventCodec;
+        this.eventLaneExecutor = eventLaneExecutor;
+        this.applicationContext = applicationContext;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.requiresNewTemplate = new TransactionTemplate(transactionManager);
+        this.requiresNewTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.meterRegistry = meterRegistry;
+        this.resolvedCounter = meterRegistry.counter("event.dead_letter.resolved");
+        this.exhaustedCounter = meterRegistry.counter("event.dead_letter.exhausted");
+    }
+
+    /**
+     * 記錄監聽器失敗
+     *
+     * 以獨立交易寫入（監聽器交易已回滾），同一事件與監聽器累加失敗次數；寫入失敗只記錄日誌
+     *
+     * @param event    事件
+     * @param listener 監聽器（類別完整名稱#方法名稱）
+     * @param error    失敗原因
+     */
+    public void recordFailure(BaseEvent event, String listener, Throwable error) {
+        try {
+            requiresNewTemplate.executeWithoutResult(status -> upsertFailure(event, listener, error));
+        } catch (Exception e) {
+            log.error("死信寫入失敗, eventId: {}, listener: {}, error: {}",
+                    event.getEventId(), listener, e.getMessage(), e);
+        }
+    }
+
+    private void upsertFailure(BaseEvent event, String listener, Throwable error) {
+        EventDeadLetter deadLetter = eventDeadLetterRepository
+                .findByEventIdAndListener(event.getEventId(), listener)
+                .orElseGet(() -> EventDeadLetter.builder()
+                        .eventId(event.getEventId())
+                        .eventType(eventCodec.typeOf(event))
+                        .aggregateKey(event.getAggregateKey())
+                        .listener(listener)
+                        .payload(eventCodec.encode(event))
+                        .build());
+        deadLetter.setAttempts(deadLetter.getAttempts() + 1);
+        deadLetter.setLastError(messageOf(error));
+        meterRegistry.counter("event.dead_letter.recorded", "listener", simpleName(listener)).increment();
+
+        if (deadLetter.getAttempts() >= maxAttempts) {
+            deadLetter.setStatus(EventDeadLetterStatus.DEAD);
+            deadLetter.setNextRetryAt(null);
+            exhaustedCounter.increment();
+            log.error("事件重試次數已用盡, 待人工處理, eventId: {}, listener: {}, attempts: {}",
+                    event.getEventId(), listener, deadLetter.getAttempts());
+        } else {
+            Duration backoff = backoffOf(deadLetter.getAttempts());
+            deadLetter.setStatus(EventDeadLetterStatus.PENDING);
+            deadLetter.setNextRetryAt(LocalDateTime.now().plus(backoff));
+            log.warn("事件寫入死信, {} 後重試, eventId: {}, listener: {}, attempts: {}",
+                    backoff, event.getEventId(), listener, deadLetter.getAttempts());
+        }
+        eventDeadLetterRepository.save(deadLetter);
+    }
+
+    /**
+     * 第 n 次失敗後的等待時間：initial-backoff × 2^(n-1)，上限 max-backoff
+     */
+    Duration backoffOf(int attempts) {
+        int exponent = Math.min(Math.max(attempts - 1, 0), 30);
+        Duration backoff = initialBackoff.multipliedBy(1L << exponent);
+        return backoff.compareTo(maxBackoff) > 0 ? maxBackoff : backoff;
+    }
+
+    /**
+     * 送出所有到期的死信
+     *
+     * 逐批認領後送入執行道；執行道已滿的死信釋放認領，整批無法全部送出時停止，留待下一次排程
+     *
+     * @return 送出筆數
+     */
+    public int retryDue() {
+        int total = 0;
+        int submitted;
+        do {
+            submitted = retryBatch();
+            total += submitted;
+        } while (submitted == batchSize);
+        if (total > 0) {
+            log.info("死信重試已送出, 筆數: {}", total);
+        }
+        return total;
+    }
+
+    int retryBatch() {
+        LocalDateTime now = LocalDateTime.now();
+        List<EventDeadLetter> claimed = transactionTemplate.execute(status -> {
+            List<EventDeadLetter> rows = eventDeadLetterRepository.lockDue(now, batchSize);
+            rows.forEach(row -> row.setNextRetryAt(now.plus(claimTimeout)));
+            return rows;
+        });
+        if (claimed == null || claimed.isEmpty()) {
+            return 0;
+        }
+
+        int submitted = 0;
+        List<Long> unsent = new ArrayList<>();
+        for (EventDeadLetter deadLetter : claimed) {
+            if (submit(deadLetter)) {
+                submitted++;
+            } else {
+                unsent.add(deadLetter.getId());
+            }
+        }
+        if (!unsent.isEmpty()) {
+            transactionTemplate.executeWithoutResult(status ->
+                    eventDeadLetterRepository.release(unsent, LocalDateTime.now()));
+        }
+        return submitted;
+    }
+
+    /**
+     * 送入執行道重試
+     *
+     * @return 是否已處理（送出或無法重試而轉為 DEAD）；false 表示執行道已滿
+     */
+    private boolean submit(EventDeadLetter deadLetter) {
+        BaseEvent event;
+        ListenerTarget target;
+        try {
+            event = eventCodec.decode(deadLetter.getEventType(), deadLetter.getPayload());
+            target = resolveListener(deadLetter.getListener(), event);
+        } catch (IllegalArgumentException e) {
+            log.error("死信無法重試, 轉為 DEAD, id: {}, error: {}", deadLetter.getId(), e.getMessage());
+            markDead(deadLetter.getId(), e.getMessage());
+            return true;
+        }
+
+        String listener = deadLetter.getListener();
+        if (!eventLaneExecutor.hasCapacity(event.getAggregateKey(), event.isHighPriority())) {
+            return false;
+        }
+        try {
+            eventLaneExecutor.execute(simpleName(listener), event.getAggregateKey(),
+                    event.isHighPriority(), () -> replay(deadLetter.getId(), event, listener, target));
+            return true;
+        } catch (TaskRejectedException e) {
+            return false;
+        }
+    }
+
+    /**
+     * 於執行道上直接呼叫監聽器（經過交易代理）
+     */
+    private void replay(Long id, BaseEvent event, String listener, ListenerTarget target) {
+        try {
+            EventLaneInterceptor.invokeInline(() -> target.method().invoke(target.bean(), event));
+        } catch (InvocationTargetException e) {
+            recordFailure(event, listener, e.getTargetException());
+            return;
+        } catch (Exception e) {
+            recordFailure(event, listener, e);
+            return;
+        }
+        requiresNewTemplate.executeWithoutResult(status -> eventDeadLetterRepository.findById(id)
+                .ifPresent(deadLetter -> {
+                    deadLetter.setStatus(EventDeadLetterStatus.RESOLVED);
+                    deadLetter.setNextRetryAt(null);
+                }));
+        resolvedCounter.increment();
+        log.info("死信重試成功, id: {}, eventId: {}, listener: {}", id, event.getEventId(), listener);
+    }
+
+    private void markDead(Long id, String error) {
+        requiresNewTemplate.executeWithoutResult(status -> eventDeadLetterRepository.findById(id)
+                .ifPresent(deadLetter -> {
+                    deadLetter.setStatus(EventDeadLetterStatus.DEAD);
+                    deadLetter.setNextRetryAt(null);
+                    deadLetter.setLastError(truncate(error));
+                }));
+        exhaustedCounter.increment();
+    }
+
+    /**
+     * 解析監聽器：只接受本系統中標註 {@link EventLane} 且參數相容的方法
+     */
+    ListenerTarget resolveListener(String listener, BaseEvent event) {
+        int separator = listener.indexOf('#');
+        if (separator < 0 || !listener.startsWith(APP_PACKAGE)) {
+            throw new IllegalArgumentException("監聽器格式錯誤: " + listener);
+        }
+        String className = listener.substring(0, separator);
+        String methodName = listener.substring(separator + 1);
+
+        Class<?> type;
+        try {
+            type = ClassUtils.forName(className, getClass().getClassLoader());
+        } catch (ClassNotFoundException | LinkageError e) {
+            throw new IllegalArgumentException("監聽器類別不存在: " + className, e);
+        }
+        Method method = Arrays.stream(type.getMethods())
+                .filter(candidate -> candidate.getName().equals(methodName))
+                .filter(candidate -> candidate.isAnnotationPresent(EventLane.class))
+                .filter(candidate -> candidate.getParameterCount() == 1
+                        && candidate.getParameterTypes()[0].isInstance(event))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("監聽器方法不存在: " + listener));
+        try {
+            return new ListenerTarget(applicationContext.getBean(type), method);
+        } catch (BeansException e) {
+            throw new IllegalArgumentException("監聽器 bean 不存在: " + className, e);
+        }
+    }
+
+    /**
+     * 查詢死信列表
+     */
+    public PageResponse<EventDeadLetterDTO> listDeadLetters(PageableRequest pageableRequest,
+                                                            String status, String eventType, String listener) {
+        return PageResponse.from(eventDeadLetterRepository
+                .search(status, eventType, listener, pageableRequest.toPageable())
+                .map(deadLetter -> toDTO(deadLetter, false)));
+    }
+
+    /**
+     * 取得死信詳情（含事件內容）
+     */
+    public EventDeadLetterDTO getDeadLetterById(Long id) {
+        return eventDeadLetterRepository.findById(id)
+                .map(deadLetter -> toDTO(deadLetter, true))
+                .orElseThrow(() -> new ResourceNotFoundException("死信不存在, id: " + id));
+    }
+
+    /**
+     * 重送指定死信（PENDING 或 DEAD），重置失敗次數並於下一次重試排程送出
+     *
+     * @return 排入重試的筆數
+     */
+    public int replay(List<Long> ids) {
+        Integer requeued = transactionTemplate.execute(status ->
+                eventDeadLetterRepository.requeue(ids, LocalDateTime.now()));
+        log.info("死信重新排入重試, 指定: {}, 排入: {}", ids.size(), requeued);
+        return requeued != null ? requeued : 0;
+    }
+
+    /**
+     * 依條件重送所有 DEAD 死信（如事故排除後），重置失敗次數並於重試排程分批送出
+     *
+     * @return 排入重試的筆數
+     */
+    public int replayAll(String eventType, String listener) {
+        Integer requeued = transactionTemplate.execute(status -> eventDeadLetterRepository.requeueMatching(
+                EventDeadLetterStatus.DEAD, eventType, listener, LocalDateTime.now()));
+        log.info("死信批次重新排入重試, eventType: {}, listener: {}, 排入: {}", eventType, listener, requeued);
+        return requeued != null ? requeued : 0;
+    }
+
+    /**
+     * 捨棄死信（不再重試）
+     */
+    public EventDeadLetterDTO discard(Long id) {
+        return transactionTemplate.execute(status -> {
+            EventDeadLetter deadLetter = eventDeadLetterRepository.findById(id)
+                    .orElseThrow(() -> new ResourceNotFoundException("死信不存在, id: " + id));
+            if (EventDeadLetterStatus.RESOLVED.equals(deadLetter.getStatus())) {
+                throw new IllegalArgumentException("死信已重試成功，無法捨棄, id: " + id);
+            }
+            deadLetter.setStatus(EventDeadLetterStatus.DISCARDED);
+            deadLetter.setNextRetryAt(null);
+            log.info("死信已捨棄, id: {}, eventId: {}, listener: {}",
+                    id, deadLetter.getEventId(), deadLetter.getListener());
+            return toDTO(deadLetter, false);
+        });
+    }
+
+    /**
+     * 刪除結案超過保留期間的死信
+     *
+     * @param before 結案時間早於此時間者刪除
+     * @return 刪除筆數
+     */
+    public int purgeClosed(LocalDateTime before) {
+        int total = 0;
+        int deleted;
+        do {
+            deleted = transactionTemplate.execute(status ->
+                    eventDeadLetterRepository.deleteClosedBefore(before, PURGE_BATCH_SIZE));
+            total += deleted;
+        } while (deleted == PURGE_BATCH_SIZE);
+        if (total > 0) {
+            log.info("清除已結案死信, 筆數: {}", total);
+        }
+        return total;
+    }
+
+    private EventDeadLetterDTO toDTO(EventDeadLetter deadLetter, boolean includePayload) {
+        return EventDeadLetterDTO.builder()
+                .id(deadLetter.getId())
+                .eventId(deadLetter.getEventId())
+                .eventType(deadLetter.getEventType())
+                .aggregateKey(deadLetter.getAggregateKey())
+                .listener(deadLetter.getListener())
+                .payload(includePayload ? deadLetter.getPayload() : null)
+                .status(deadLetter.getStatus())
+                .attempts(deadLetter.getAttempts())
+                .lastError(deadLetter.getLastError())
+                .nextRetryAt(deadLetter.getNextRetryAt())
+                .createdAt(deadLetter.getCreatedAt())
+                .updatedAt(deadLetter.getUpdatedAt())
+                .build();
+    }
+
+    private static String messageOf(Throwable error) {
+        String message = error.getMessage() != null
+                ? error.getClass().getSimpleName() + ": " + error.getMessage()
+                : error.getClass().getSimpleName();
+        return truncate(message);
+    }
+
+    private static String truncate(String message) {
+        return message != null && message.length() > MAX_ERROR_LENGTH
+                ? message.substring(0, MAX_ERROR_LENGTH) : message;
+    }
+
+    private static String simpleName(String listener) {
+        int separator = listener.indexOf('#');
+        String className = separator >= 0 ? listener.substring(0, separator) : listener;
+        return className.substring(className.lastIndexOf('.') + 1);
+    }
+
+    /**
+     * 重試對象：監聽器 bean（代理）與方法
+     */
+    record ListenerTarget(Object bean, Method method) {
+    }
+}
@@ -0,0 +1,30 @@
+package com.morningharvest.erp.common.event;
+
+/**
+ * 事件死信狀態常數
+ */
+public final class EventDeadLetterStatus {
+
+    /**
+     * 等待自動重試
+     */
+    public static final String PENDING = "PENDING";
+
+    /**
+     * 重試次數用盡，待人工處理
+     */
+    public static final String DEAD = "DEAD";
+
+    /**
+     * 重試成功
+     */
+    public static final String RESOLVED = "RESOLVED";
+
+    /**
+     * 人工捨棄
+     */
+    public static final String DISCARDED = "DISCARDED";
+
+    private EventDeadLetterStatus() {
+    }
+}
@@ -0,0 +1,20 @@
+package com.morningharvest.erp.common.event;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * 依聚合鍵分道非同步執行
+ *
+ * 標註於事件監聽方法，呼叫時不在發布端執行，改送入 {@link EventLaneExecutor}：
+ * 以第一個 {@link BaseEvent} 參數的聚合鍵選擇執行道，同一聚合鍵的事件依發布順序逐一處理，
+ * 不同聚合鍵的事件平行處理。方法須回傳 void，例外由執行道記錄後略過
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface EventLane {
+}
@@ -0,0 +1,446 @@
+package com.morningharvest.erp.common.event;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.ApplicationContextAware;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.stereotype.Component;
+import org.springframework.util.ClassUtils;
+
+import java.lang.reflect.Method;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 事件分道執行器
+ *
+ * 固定數量的單執行緒執行道，依聚合鍵雜湊選擇執行道：同一聚合鍵（訂單、原物料、商品）的事件
+ * 必定落在同一執行道，依送入順序逐一處理；不同聚合鍵分散於各執行道平行處理。
+ * 執行道數同時是監聽器的並行上限，須小於 Hikari 連線池，保留連線給請求處理。
+ * 啟用虛擬執行緒（spring.threads.virtual.enabled）時執行道使用虛擬執行緒。
+ * <p>
+ * 過載控制：每條執行道最多 queue-capacity 個待處理任務，其中 reserved-capacity 個保留給高優先事件；
+ * 每個監聽器類別在所有執行道合計最多 listener-capacity 個（高優先事件不受限），避免單一監聽器佔滿執行道。
+ * 沒有空間時送出端最多等待 block-timeout，逾時拋出 {@link TaskRejectedException}，
+ * 由 outbox 保留事件稍後重新派送。
+ * 啟動時登記所有 {@link EventLane} 監聽方法，{@link #hasCapacity(BaseEvent)} 依事件類型的監聽器數量
+ * 預先確認執行道與各監聽器配額都放得下整個事件，避免部分監聽器送入、部分被拒絕。
+ * <p>
+ * 指標：event.lane.queue.depth（佇列長度）、event.lane.saturation（佔用比例）、event.lane.wait（排隊時間）、
+ * event.lane.execution（執行時間）以 lane 標籤區分；event.listener.pending 以 listener 標籤區分；
+ * event.overload.blocked（送出端等待時間）、event.overload.rejected（拒絕數）
+ */
+@Slf4j
+@Component
+public class EventLaneExecutor implements ApplicationContextAware, SmartInitializingSingleton {
+
+    private static final long SHUTDOWN_TIMEOUT_SECONDS = 60;
+    private static final long SATURATION_LOG_INTERVAL_MS = 60_000;
+    private static final String DEFAULT_LISTENER = "default";
+
+    /**
+     * 目前執行緒是否為執行道；執行道上送入任務時不等待，避免等待自己的佇列
+     */
+    private static final ThreadLocal<Boolean> ON_LANE = ThreadLocal.withInitial(() -> false);
+
+    private final MeterRegistry meterRegistry;
+    private final Lane[] lanes;
+    private final int queueCapacity;
+    private final int reservedCapacity;
+    private final int listenerCapacity;
+    private final long blockTimeoutNanos;
+    private final double saturationWarnRatio;
+
+    private final Map<String, AtomicInteger> listenerPending = new ConcurrentHashMap<>();
+    private final Timer blockedTimer;
+
+    /**
+     * {@link EventLane} 監聽方法（監聽器類別名稱、事件參數類型）
+     */
+    private final List<LaneListener> laneListeners = new CopyOnWriteArrayList<>();
+
+    /**
+     * 事件類型 → 各監聽器送入的任務數
+     */
+    private final Map<Class<?>, Map<String, Integer>> demandByEventType = new ConcurrentHashMap<>();
+
+    private ApplicationContext applicationContext;
+
+    /**
+     * 任務完成時通知等待空間的送出端
+     */
+    private final ReentrantLock admissionLock = new ReentrantLock();
+    private final Condition released = admissionLock.newCondition();
+
+    public EventLaneExecutor(MeterRegistry meterRegistry,
+                             @Value("${event.lanes.count:4}") int laneCount,
+                             @Value("${event.lanes.queue-capacity:500}") int queueCapacity,
+                             @Value("${event.overload.reserved-capacity:100}") int reservedCapacity,
+                             @Value("${event.overload.listener-capacity:300}") int listenerCapacity,
+                             @Value("${event.overload.block-timeout:1s}") Duration blockTimeout,
+                             @Value("${event.overload.saturation-warn-ratio:0.8}") double saturationWarnRatio,
+                             @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+        if (laneCount < 1) {
+            throw new IllegalArgumentException("執行道數量必須大於 0: " + laneCount);
+        }
+        if (reservedCapacity < 0 || reservedCapacity >= queueCapacity) {
+            throw new IllegalArgumentException("保留容量必須介於 0 與佇列容量之間: " + reservedCapacity);
+        }
+        this.meterRegistry = meterRegistry;
+        this.queueCapacity = queueCapacity;
+        this.reservedCapacity = reservedCapacity;
+        this.listenerCapacity = listenerCapacity;
+        this.blockTimeoutNanos = blockTimeout.toNanos();
+        this.saturationWarnRatio = saturationWarnRatio;
+        this.blockedTimer = meterRegistry.timer("event.overload.blocked");
+        this.lanes = new Lane[laneCount];
+        for (int i = 0; i < laneCount; i++) {
+            lanes[i] = new Lane(i, virtualThreads);
+        }
+        log.info("事件分道執行器已初始化: lanes={}, queueCapacity={}, reservedCapacity={}, listenerCapacity={}, "
+                        + "blockTimeout={}, virtualThreads={}",
+                laneCount, queueCapacity, reservedCapacity, listenerCapacity, blockTimeout, virtualThreads);
+    }
+
+    /**
+     * 送入一般優先任務
+     *
+     * @param aggregateKey 聚合鍵
+     * @param task         任務
+     * @throws TaskRejectedException 等待逾時仍無空間或執行器已關閉
+     */
+    public void execute(String aggregateKey, Runnable task) {
+        execute(DEFAULT_LISTENER, aggregateKey, false, task);
+    }
+
+    /**
+     * 送入任務
+     *
+     * @param listener     監聽器名稱（配額與指標分類）
+     * @param aggregateKey 聚合鍵
+     * @param highPriority 是否為高優先事件
+     * @param task         任務
+     * @throws TaskRejectedException 等待逾時仍無空間或執行器已關閉
+     */
+    public void execute(String listener, String aggregateKey, boolean highPriority, Runnable task) {
+        Lane lane = lanes[laneOf(aggregateKey)];
+        AtomicInteger pending = listenerPending(listener);
+        if (!admit(lane, pending, highPriority)) {
+            meterRegistry.counter("event.overload.rejected",
+                    "listener", listener, "priority", highPriority ? "high" : "normal").increment();
+            throw new TaskRejectedException("事件執行道 " + lane.index + " 已滿, listener: " + listener
+                    + ", aggregateKey: " + aggregateKey);
+        }
+        warnIfSaturated(lane);
+
+        long enqueuedAt = System.nanoTime();
+        try {
+            lane.executor.execute(() -> {
+                try {
+                    lane.run(task, enqueuedAt);
+                } finally {
+                    release(lane, pending);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            release(lane, pending);
+            throw new TaskRejectedException("事件執行道 " + lane.index + " 已關閉, aggregateKey: " + aggregateKey, e);
+        }
+    }
+
+    /**
+     * 聚合鍵對應的執行道是否還有空間（不等待）
+     *
+     * @param aggregateKey 聚合鍵
+     * @param highPriority 是否為高優先事件
+     * @return 是否還有空間
+     */
+    public boolean hasCapacity(String aggregateKey, boolean highPriority) {
+        return lanes[laneOf(aggregateKey)].pending.get() < limitOf(highPriority);
+    }
+
+    /**
+     * 事件的所有 {@link EventLane} 監聽器是否都放得下（不等待）
+     *
+     * 同一事件的監聽器依聚合鍵落在同一執行道，須同時有監聽器數量的空間；
+     * 一般優先事件另須每個監聽器類別的配額放得下該類別的監聽方法數
+     *
+     * @param event 事件
+     * @return 是否還有空間
+     */
+    public boolean hasCapacity(BaseEvent event) {
+        Map<String, Integer> demand = demandOf(event.getClass());
+        if (demand.isEmpty()) {
+            return true;
+        }
+        int slots = demand.values().stream().mapToInt(Integer::intValue).sum();
+        boolean highPriority = event.isHighPriority();
+        if (lanes[laneOf(event.getAggregateKey())].pending.get() + slots > limitOf(highPriority)) {
+            return false;
+        }
+        if (highPriority) {
+            return true;
+        }
+        for (Map.Entry<String, Integer> entry : demand.entrySet()) {
+            if (listenerPending(entry.getKey()).get() + entry.getValue() > listenerCapacity) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 登記 {@link EventLane} 監聽方法
+     *
+     * @param listener  監聽器類別名稱（配額分類，與 {@link EventLaneInterceptor} 相同）
+     * @param eventType 事件參數類型
+     */
+    void registerListener(String listener, Class<?> eventType) {
+        laneListeners.add(new LaneListener(listener, eventType));
+        demandByEventType.clear();
+    }
+
+    @Override
+    public void setApplicationContext(ApplicationContext applicationContext) {
+        this.applicationContext = applicationContext;
+    }
+
+    /**
+     * 所有單例建立後掃描 {@link EventLane} 監聽方法；只登記以 {@link BaseEvent} 為參數的方法，
+     * {@link RemoteEvent} 監聽器由事件匯流排觸發，不經過 outbox 派送
+     */
+    @Override
+    public void afterSingletonsInstantiated() {
+        for (String name : applicationContext.getBeanDefinitionNames()) {
+            Class<?> type = applicationContext.getType(name, false);
+            if (type == null) {
+                continue;
+            }
+            for (Method method : ClassUtils.getUserClass(type).getMethods()) {
+                if (method.isAnnotationPresent(EventLane.class) && method.getParameterCount() == 1
+                        && BaseEvent.class.isAssignableFrom(method.getParameterTypes()[0])) {
+                    registerListener(method.getDeclaringClass().getSimpleName(), method.getParameterTypes()[0]);
+                }
+            }
+        }
+        log.info("已登記事件執行道監聽方法: {}", laneListeners.size());
+    }
+
+    /**
+     * 計算聚合鍵對應的執行道
+     *
+     * @param aggregateKey 聚合鍵
+     * @return 執行道編號
+     */
+    public int laneOf(String aggregateKey) {
+        int hash = aggregateKey != null ? aggregateKey.hashCode() : 0;
+        // 混合高位，避免連號 id 的聚合鍵集中在少數執行道
+        hash ^= hash >>> 16;
+        hash *= 0x85ebca6b;
+        hash ^= hash >>> 13;
+        return Math.floorMod(hash, lanes.length);
+    }
+
+    /**
+     * 取得執行道數量
+     */
+    public int getLaneCount() {
+        return lanes.length;
+    }
+
+    /**
+     * 取得執行道目前排隊中的任務數
+     *
+     * @param lane 執行道編號
+     */
+    public int getQueueDepth(int lane) {
+        return lanes[lane].executor.getQueue().size();
+    }
+
+    /**
+     * 關閉時停止接收新任務，等待已排隊的任務完成
+     */
+    @PreDestroy
+    public void shutdown() {
+        for (Lane lane : lanes) {
+            lane.executor.shutdown();
+        }
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(SHUTDOWN_TIMEOUT_SECONDS);
+        for (Lane lane : lanes) {
+            try {
+                if (!lane.executor.awaitTermination(deadline - System.nanoTime(), TimeUnit.NANOSECONDS)) {
+                    log.warn("事件執行道 {} 關閉逾時, 未處理任務: {}", lane.index, lane.executor.getQueue().size());
+                    lane.executor.shutdownNow();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                lane.executor.shutdownNow();
+            }
+        }
+    }
+
+    private Map<String, Integer> demandOf(Class<?> eventType) {
+        return demandByEventType.computeIfAbsent(eventType, type -> {
+            Map<String, Integer> demand = new HashMap<>();
+            for (LaneListener laneListener : laneListeners) {
+                if (laneListener.eventType().isAssignableFrom(type)) {
+                    demand.merge(laneListener.listener(), 1, Integer::sum);
+                }
+            }
+            return demand;
+        });
+    }
+
+    private int limitOf(boolean highPriority) {
+        return highPriority ? queueCapacity : queueCapacity - reservedCapacity;
+    }
+
+    private boolean hasRoom(Lane lane, AtomicInteger pending, boolean highPriority) {
+        return lane.pending.get() < limitOf(highPriority)
+                && (highPriority || pending.get() < listenerCapacity);
+    }
+
+    /**
+     * 取得空間，沒有空間時最多等待 block-timeout
+     */
+    private boolean admit(Lane lane, AtomicInteger pending, boolean highPriority) {
+        long startedAt = System.nanoTime();
+        admissionLock.lock();
+        try {
+            long remaining = ON_LANE.get() ? 0 : blockTimeoutNanos;
+            while (!hasRoom(lane, pending, highPriority)) {
+                if (remaining <= 0) {
+                    return false;
+                }
+                remaining = released.awaitNanos(remaining);
+            }
+            lane.pending.incrementAndGet();
+            pending.incrementAndGet();
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } finally {
+            admissionLock.unlock();
+            long waited = System.nanoTime() - startedAt;
+            if (waited > TimeUnit.MILLISECONDS.toNanos(1)) {
+                blockedTimer.record(waited, TimeUnit.NANOSECONDS);
+            }
+        }
+    }
+
+    private void release(Lane lane, AtomicInteger pending) {
+        admissionLock.lock();
+        try {
+            lane.pending.decrementAndGet();
+            pending.decrementAndGet();
+            released.signalAll();
+        } finally {
+            admissionLock.unlock();
+        }
+    }
+
+    private AtomicInteger listenerPending(String listener) {
+        return listenerPending.computeIfAbsent(listener, name -> {
+            AtomicInteger pending = new AtomicInteger();
+            Gauge.builder("event.listener.pending", pending, AtomicInteger::get)
+                    .tag("listener", name)
+                    .register(meterRegistry);
+            return pending;
+        });
+    }
+
+    /**
+     * 佔用比例超過警示門檻時記錄警告，同一執行道每分鐘最多一次
+     */
+    private void warnIfSaturated(Lane lane) {
+        int pending = lane.pending.get();
+        if (pending < queueCapacity * saturationWarnRatio) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        long last = lane.lastSaturationLog;
+        if (now - last >= SATURATION_LOG_INTERVAL_MS) {
+            lane.lastSaturationLog = now;
+            log.warn("事件執行道 {} 接近飽和: pending={}/{}, 高優先保留={}",
+                    lane.index, pending, queueCapacity, reservedCapacity);
+        }
+    }
+
+    private static ThreadFactory threadFactory(int index, boolean virtualThreads) {
+        String name = "event-lane-" + index;
+        return virtualThreads
+                ? Thread.ofVirtual().name(name).factory()
+                : Thread.ofPlatform().name(name).factory();
+    }
+
+    private record LaneListener(String listener, Class<?> eventType) {
+    }
+
+    /**
+     * 單一執行道
+     */
+    private final class Lane {
+
+        private final int index;
+        private final ThreadPoolExecutor executor;
+        private final Timer waitTimer;
+        private final Timer executionTimer;
+
+        /**
+         * 已取得空間的任務數（排隊中與執行中）
+         */
+        private final AtomicInteger pending = new AtomicInteger();
+
+        private volatile long lastSaturationLog;
+
+        private Lane(int index, boolean virtualThreads) {
+            this.index = index;
+            // 容量由 admit 控制，佇列本身不設上限
+            this.executor = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+                    new LinkedBlockingQueue<>(), threadFactory(index, virtualThreads));
+            String tag = String.valueOf(index);
+            Gauge.builder("event.lane.queue.depth", executor, pool -> pool.getQueue().size())
+                    .tag("lane", tag)
+                    .register(meterRegistry);
+            Gauge.builder("event.lane.saturation", pending, count -> (double) count.get() / queueCapacity)
+                    .tag("lane", tag)
+                    .register(meterRegistry);
+            this.waitTimer = Timer.builder("event.lane.wait").tag("lane", tag).register(meterRegistry);
+            this.executionTimer = Timer.builder("event.lane.execution").tag("lane", tag).register(meterRegistry);
+        }
+
+        private void run(Runnable task, long enqueuedAt) {
+            long startedAt = System.nanoTime();
+            waitTimer.record(startedAt - enqueuedAt, TimeUnit.NANOSECONDS);
+            ON_LANE.set(true);
+            try {
+                task.run();
+            } catch (RuntimeException e) {
+                // 單一任務失敗不中止執行道
+                log.error("事件執行道 {} 任務執行失敗: {}", index, e.getMessage(), e);
+            } finally {
+                ON_LANE.remove();
+                executionTimer.record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+            }
+        }
+    }
+}
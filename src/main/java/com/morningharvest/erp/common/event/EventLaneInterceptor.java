@@ -0,0 +1,100 @@
+package com.morningharvest.erp.common.event;
+
+import lombok.extern.slf4j.Slf4j;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.util.ClassUtils;
+
+import java.util.concurrent.Callable;
+import java.util.function.Supplier;
+
+/**
+ * {@link EventLane} 方法攔截器
+ *
+ * 取第一個 {@link BaseEvent} 參數的聚合鍵送入執行道，無事件參數時以方法簽章為鍵；
+ * 監聽器類別名稱作為配額分類，事件優先序決定可否使用保留容量。
+ * 攔截器排在交易等既有攔截器之前，交易於執行道上開始與提交。
+ * 監聽器拋出例外時寫入死信，由 {@link EventDeadLetterService} 退避重試
+ */
+@Slf4j
+public class EventLaneInterceptor implements MethodInterceptor {
+
+    /**
+     * 直接在目前執行緒呼叫（死信重送時已在對應執行道上）
+     */
+    private static final ThreadLocal<Boolean> INLINE = ThreadLocal.withInitial(() -> false);
+
+    private final Supplier<EventLaneExecutor> executor;
+    private final Supplier<EventDeadLetterService> deadLetters;
+
+    /**
+     * @param executor    延遲取得執行器，後處理器建立時執行器尚未初始化
+     * @param deadLetters 延遲取得死信服務
+     */
+    public EventLaneInterceptor(Supplier<EventLaneExecutor> executor, Supplier<EventDeadLetterService> deadLetters) {
+        this.executor = executor;
+        this.deadLetters = deadLetters;
+    }
+
+    /**
+     * 在目前執行緒直接執行 {@link EventLane} 方法，監聽器的例外直接拋出、不寫入死信
+     *
+     * @param call 呼叫 {@link EventLane} 方法的程式
+     */
+    public static void invokeInline(Callable<?> call) throws Exception {
+        INLINE.set(true);
+        try {
+            call.call();
+        } finally {
+            INLINE.remove();
+        }
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        if (INLINE.get()) {
+            // 只作用於最外層呼叫，監聽器內再呼叫的 @EventLane 方法照常分道
+            INLINE.set(false);
+            return invocation.proceed();
+        }
+
+        BaseEvent event = eventOf(invocation);
+        String listener = invocation.getMethod().getDeclaringClass().getSimpleName();
+        String aggregateKey = event != null ? event.getAggregateKey() : invocation.getMethod().toGenericString();
+        boolean highPriority = event != null && event.isHighPriority();
+        executor.get().execute(listener, aggregateKey, highPriority, () -> {
+            try {
+                invocation.proceed();
+            } catch (Throwable e) {
+                log.error("事件監聽器執行失敗: method={}, aggregateKey={}, error={}",
+                        invocation.getMethod().getName(), aggregateKey, e.getMessage(), e);
+                if (event != null) {
+                    deadLetters.get().recordFailure(event, listenerId(invocation), e);
+                }
+            }
+        });
+        return null;
+    }
+
+    /**
+     * 監聽器識別：類別完整名稱#方法名稱
+     */
+    static String listenerId(MethodInvocation invocation) {
+        Class<?> targetClass = invocation.getThis() != null
+                ? ClassUtils.getUserClass(invocation.getThis())
+                : invocation.getMethod().getDeclaringClass();
+        return targetClass.getName() + "#" + invocation.getMethod().getName();
+    }
+
+    /**
+     * 第一個 {@link BaseEvent} 參數，沒有時回傳 null
+     */
+    static BaseEvent eventOf(MethodInvocation invocation) {
+        for (Object argument : invocation.getArguments()) {
+            if (argument instanceof BaseEvent event) {
+                return event;
+            }
+        }
+        return null;
+    }
+}
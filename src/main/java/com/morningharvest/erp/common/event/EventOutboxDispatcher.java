@@ -0,0 +1,333 @@
+package com.morningharvest.erp.common.event;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 事件 outbox 派送器
+ *
+ * 單一背景執行緒依 id 順序批次派送待派送事件並發布為 Spring 事件：
+ * 交易提交後立即喚醒，另以固定間隔輪詢涵蓋其他節點寫入與重啟前未派送的事件。
+ * 每批先以短交易認領（設定 next_attempt_at 為認領期限），於交易外發布，再以另一短交易標記結果，
+ * 發布期間不持有 outbox 的列鎖，業務交易寫入 outbox 不受派送影響。
+ * 發布失敗的事件依 initial-backoff × 2^(n-1)（上限 max-backoff）退避後重試，失敗達 max-attempts 次標記為 FAILED；
+ * 同一聚合鍵的後續事件在退避期間不會被認領，確保同一聚合依序派送，其他聚合照常派送。
+ * 無法反序列化的事件直接標記為 FAILED。
+ * 事件執行道已滿時同一聚合鍵的事件釋放認領延後至下一輪（不計入失敗次數），outbox 即為過載時的落地暫存；
+ * 未啟用 outbox 時仍會啟動，派送 EventPublisher 因過載改寫入 outbox 的事件。
+ * 每批標記提交後將已派送的事件寫入 {@link RedisStreamEventBus}（啟用時）通知其他節點。
+ * 發布後、標記前節點中止時事件於認領期限到期後再次派送（至少一次），監聽器須能承受重複事件
+ */
+@Slf4j
+@Component
+public class EventOutboxDispatcher {
+
+    private final EventOutboxRepository eventOutboxRepository;
+    private final EventCodec eventCodec;
+    private final ApplicationEventPublisher applicationEventPublisher;
+    private final EventLaneExecutor eventLaneExecutor;
+    private final RedisStreamEventBus redisStreamEventBus;
+    private final TransactionTemplate transactionTemplate;
+    private final TransactionTemplate claimTemplate;
+    private final MeterRegistry meterRegistry;
+
+    private final Counter failedCounter;
+    private final Counter exhaustedCounter;
+    private final Counter deferredCounter;
+    private final Timer batchTimer;
+    private final Timer delayTimer;
+
+    @Value("${event.outbox.enabled:true}")
+    private boolean enabled = true;
+
+    @Value("${event.overload.spill-to-outbox:true}")
+    private boolean spillToOutbox = true;
+
+    @Value("${event.outbox.batch-size:100}")
+    private int batchSize = 100;
+
+    @Value("${event.outbox.poll-interval:1000}")
+    private long pollInterval = 1000;
+
+    @Value("${event.outbox.max-attempts:10}")
+    private int maxAttempts = 10;
+
+    @Value("${event.outbox.initial-backoff:5s}")
+    private Duration initialBackoff = Duration.ofSeconds(5);
+
+    @Value("${event.outbox.max-backoff:10m}")
+    private Duration maxBackoff = Duration.ofMinutes(10);
+
+    @Value("${event.outbox.claim-timeout:5m}")
+    private Duration claimTimeout = Duration.ofMinutes(5);
+
+    /**
+     * 喚醒訊號（最多保留一個）
+     */
+    private final Semaphore signal = new Semaphore(0);
+
+    private volatile boolean running;
+    private Thread worker;
+
+    public EventOutboxDispatcher(EventOutboxRepository eventOutboxRepository,
+                                 EventCodec eventCodec,
+                                 ApplicationEventPublisher applicationEventPublisher,
+                                 EventLaneExecutor eventLaneExecutor,
+                                 RedisStreamEventBus redisStreamEventBus,
+                                 PlatformTransactionManager transactionManager,
+                                 MeterRegistry meterRegistry) {
+        this.eventOutboxRepository = eventOutboxRepository;
+        this.eventCodec = eventCodec;
+        this.applicationEventPublisher = applicationEventPublisher;
+        this.eventLaneExecutor = eventLaneExecutor;
+        this.redisStreamEventBus = redisStreamEventBus;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        // READ COMMITTED：認領不持有間隙鎖，不阻擋業務交易寫入 outbox
+        this.claimTemplate = new TransactionTemplate(transactionManager);
+        this.claimTemplate.setIsolationLevel(TransactionDefinition.ISOLATION_READ_COMMITTED);
+        this.meterRegistry = meterRegistry;
+        this.failedCounter = meterRegistry.counter("event.outbox.failed");
+        this.exhaustedCounter = meterRegistry.counter("event.outbox.exhausted");
+        this.deferredCounter = meterRegistry.counter("event.outbox.deferred");
+        this.batchTimer = meterRegistry.timer("event.outbox.batch");
+        this.delayTimer = meterRegistry.timer("event.outbox.delay");
+    }
+
+    /**
+     * 應用程式啟動完成後才開始派送，確保所有監聽器皆已註冊
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!(enabled || spillToOutbox) || running) {
+            return;
+        }
+        running = true;
+        worker = new Thread(this::run, "event-outbox-dispatcher");
+        worker.setDaemon(true);
+        worker.start();
+        log.info("事件 outbox 派送器已啟動: batchSize={}, pollInterval={} ms", batchSize, pollInterval);
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        running = false;
+        if (worker != null) {
+            worker.interrupt();
+            worker.join(TimeUnit.SECONDS.toMillis(10));
+        }
+    }
+
+    /**
+     * 喚醒派送執行緒（交易提交後呼叫）
+     */
+    public void wakeUp() {
+        if (signal.availablePermits() == 0) {
+            signal.release();
+        }
+    }
+
+    private void run() {
+        while (running) {
+            try {
+                signal.tryAcquire(pollInterval, TimeUnit.MILLISECONDS);
+                signal.drainPermits();
+                // 整批派送成功時可能還有待派送事件，繼續下一批
+                int dispatched;
+                do {
+                    dispatched = dispatchBatch();
+                } while (running && dispatched == batchSize);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                log.error("事件 outbox 派送失敗: {}", e.getMessage(), e);
+            }
+        }
+    }
+
+    /**
+     * 派送一批事件
+     *
+     * @return 成功派送的事件數
+     */
+    int dispatchBatch() {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        List<EventOutbox> rows = claim();
+        if (rows.isEmpty()) {
+            sample.stop(batchTimer);
+            return 0;
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        Set<String> blocked = new HashSet<>();
+        List<Long> dispatchedIds = new ArrayList<>(rows.size());
+        List<Long> releasedIds = new ArrayList<>();
+        List<EventOutbox> failed = new ArrayList<>();
+        List<BaseEvent> published = new ArrayList<>();
+        for (EventOutbox row : rows) {
+            if (blocked.contains(row.getAggregateKey())) {
+                releasedIds.add(row.getId());
+                continue;
+            }
+
+            BaseEvent event;
+            try {
+                event = eventCodec.decode(row.getEventType(), row.getPayload());
+            } catch (IllegalArgumentException e) {
+                log.error("事件無法反序列化，標記為 FAILED, outboxId: {}, eventId: {}, error: {}",
+                        row.getId(), row.getEventId(), e.getMessage());
+                row.setStatus(EventOutboxStatus.FAILED);
+                recordFailure(row, e);
+                failed.add(row);
+                continue;
+            }
+
+            // 執行道或監聽器配額放不下所有監聽器時不發布，避免部分監聽器已送入、部分被拒絕
+            if (!eventLaneExecutor.hasCapacity(event)) {
+                defer(row, blocked);
+                releasedIds.add(row.getId());
+                continue;
+            }
+
+            try {
+                applicationEventPublisher.publishEvent(event);
+                dispatchedIds.add(row.getId());
+                published.add(event);
+                meterRegistry.counter("event.outbox.dispatched", "type", event.getEventType()).increment();
+                delayTimer.record(Duration.between(row.getCreatedAt(), now).abs());
+            } catch (TaskRejectedException e) {
+                defer(row, blocked);
+                releasedIds.add(row.getId());
+            } catch (Exception e) {
+                blocked.add(row.getAggregateKey());
+                recordFailure(row, e);
+                failed.add(row);
+                if (EventOutboxStatus.FAILED.equals(row.getStatus())) {
+                    log.error("事件派送重試次數已用盡，標記為 FAILED, outboxId: {}, eventId: {}, aggregateKey: {}, "
+                                    + "attempts: {}, error: {}",
+                            row.getId(), row.getEventId(), row.getAggregateKey(), row.getAttempts(), e.getMessage());
+                } else {
+                    log.warn("事件派送失敗，{} 後重試, outboxId: {}, eventId: {}, aggregateKey: {}, attempts: {}, error: {}",
+                            backoffOf(row.getAttempts()), row.getId(), row.getEventId(), row.getAggregateKey(),
+                            row.getAttempts(), e.getMessage());
+                }
+            }
+        }
+
+        transactionTemplate.executeWithoutResult(status -> {
+            if (!dispatchedIds.isEmpty()) {
+                eventOutboxRepository.markDispatched(dispatchedIds, now);
+            }
+            if (!releasedIds.isEmpty()) {
+                eventOutboxRepository.release(releasedIds);
+            }
+            if (!failed.isEmpty()) {
+                eventOutboxRepository.saveAll(failed);
+            }
+        });
+        sample.stop(batchTimer);
+        log.debug("事件 outbox 派送批次完成, 認領: {}, 派送: {}, 失敗: {}, 延後聚合: {}",
+                rows.size(), dispatchedIds.size(), failed.size(), blocked.size());
+        // 標記提交後才通知其他節點；提交失敗的事件會再次派送
+        redisStreamEventBus.publish(published);
+        return dispatchedIds.size();
+    }
+
+    /**
+     * 以短交易認領一批可派送的事件
+     *
+     * 先鎖定最小的待派送事件使各節點依序認領，再取出可派送事件並將 next_attempt_at 設為認領期限
+     */
+    private List<EventOutbox> claim() {
+        List<EventOutbox> claimed = claimTemplate.execute(status -> {
+            if (eventOutboxRepository.lockHead() == null) {
+                return List.<EventOutbox>of();
+            }
+            LocalDateTime now = LocalDateTime.now();
+            List<EventOutbox> rows = eventOutboxRepository.lockDue(now, batchSize);
+            if (!rows.isEmpty()) {
+                eventOutboxRepository.claim(rows.stream().map(EventOutbox::getId).toList(), now.plus(claimTimeout));
+            }
+            return rows;
+        });
+        return claimed != null ? claimed : List.of();
+    }
+
+    /**
+     * 過載延後：同一聚合鍵的後續事件一併延後，不計入失敗次數
+     */
+    private void defer(EventOutbox row, Set<String> blocked) {
+        log.debug("事件執行道已滿，延後派送, outboxId: {}, aggregateKey: {}", row.getId(), row.getAggregateKey());
+        blocked.add(row.getAggregateKey());
+        deferredCounter.increment();
+    }
+
+    /**
+     * 記錄失敗：達 max-attempts 次標記為 FAILED，否則設定退避到期時間
+     */
+    private void recordFailure(EventOutbox row, Exception e) {
+        failedCounter.increment();
+        row.setAttempts(row.getAttempts() + 1);
+        String message = e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName();
+        row.setLastError(message.length() > 500 ? message.substring(0, 500) : message);
+        if (row.getAttempts() >= maxAttempts) {
+            row.setStatus(EventOutboxStatus.FAILED);
+        }
+        if (EventOutboxStatus.FAILED.equals(row.getStatus())) {
+            exhaustedCounter.increment();
+            row.setNextAttemptAt(null);
+        } else {
+            row.setNextAttemptAt(LocalDateTime.now().plus(backoffOf(row.getAttempts())));
+        }
+    }
+
+    /**
+     * 第 n 次失敗後的等待時間：initial-backoff × 2^(n-1)，上限 max-backoff
+     */
+    Duration backoffOf(int attempts) {
+        int exponent = Math.min(Math.max(attempts - 1, 0), 30);
+        Duration backoff = initialBackoff.multipliedBy(1L << exponent);
+        return backoff.compareTo(maxBackoff) > 0 ? maxBackoff : backoff;
+    }
+
+    /**
+     * 刪除已派送超過保留期間的事件
+     *
+     * @param before 派送時間早於此時間者刪除
+     * @return 刪除筆數
+     */
+    public int purgeDispatched(LocalDateTime before) {
+        int total = 0;
+        int deleted;
+        do {
+            deleted = transactionTemplate.execute(status ->
+                    eventOutboxRepository.deleteDispatchedBefore(before, 1000));
+            total += deleted;
+        } while (deleted == 1000);
+        if (total > 0) {
+            log.info("清除已派送 outbox 事件, 筆數: {}", total);
+        }
+        return total;
+    }
+}
@@ -0,0 +1,69 @@
+package com.morningharvest.erp.common.event;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface EventOutboxRepository extends JpaRepository<EventOutbox, Long> {
+
+    /**
+     * 鎖定 id 最小的待派送事件至交易結束，作為跨節點認領的互斥鎖
+     *
+     * 各節點認領前皆須先取得此鎖，前一節點的認領提交後才讀取待派送事件，避免同一聚合的後續事件被其他節點搶先認領
+     *
+     * @return 最小的待派送事件 id；沒有待派送事件時為 null
+     */
+    @Query(value = "SELECT id FROM event_outbox WHERE status = 'PENDING' ORDER BY id LIMIT 1 FOR UPDATE",
+           nativeQuery = true)
+    Long lockHead();
+
+    /**
+     * 依 id 順序取得並鎖定可派送的事件
+     *
+     * 排除已被認領或退避中的事件，以及同一聚合中有更早事件被認領或退避中的事件，避免阻塞的聚合卡住整批；
+     * 使用 SKIP LOCKED 略過業務交易尚未提交的新事件
+     */
+    @Query(value = "SELECT * FROM event_outbox o WHERE o.status = 'PENDING' " +
+                   "AND (o.next_attempt_at IS NULL OR o.next_attempt_at <= :now) " +
+                   "AND NOT EXISTS (SELECT 1 FROM event_outbox p WHERE p.aggregate_key = o.aggregate_key " +
+                   "AND p.status = 'PENDING' AND p.id < o.id AND p.next_attempt_at > :now) " +
+                   "ORDER BY o.id LIMIT :limit FOR UPDATE SKIP LOCKED",
+           nativeQuery = true)
+    List<EventOutbox> lockDue(@Param("now") LocalDateTime now, @Param("limit") int limit);
+
+    /**
+     * 認領事件至指定時間（節點中止未回報結果時到期重新派送）
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE EventOutbox e SET e.nextAttemptAt = :until WHERE e.id IN :ids")
+    int claim(@Param("ids") Collection<Long> ids, @Param("until") LocalDateTime until);
+
+    /**
+     * 釋放認領（延後派送的事件立即重新到期）
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE EventOutbox e SET e.nextAttemptAt = NULL WHERE e.id IN :ids AND e.status = 'PENDING'")
+    int release(@Param("ids") Collection<Long> ids);
+
+    /**
+     * 標記為已派送
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE EventOutbox e SET e.status = 'DISPATCHED', e.dispatchedAt = :dispatchedAt WHERE e.id IN :ids")
+    int markDispatched(@Param("ids") Collection<Long> ids, @Param("dispatchedAt") LocalDateTime dispatchedAt);
+
+    /**
+     * 刪除早於指定時間派送的事件（每次最多 limit 筆，避免長交易）
+     */
+    @Modifying
+    @Query(value = "DELETE FROM event_outbox WHERE status = 'DISPATCHED' AND dispatched_at < :before LIMIT :limit",
+           nativeQuery = true)
+    int deleteDispatchedBefore(@Param("before") LocalDateTime before, @Param("limit") int limit);
+}
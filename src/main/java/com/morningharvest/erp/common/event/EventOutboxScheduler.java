@@ -0,0 +1,34 @@
+package com.morningharvest.erp.common.event;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+
+/**
+ * 事件 outbox 清理排程
+ *
+ * 刪除已派送超過保留天數的事件（event.outbox.purge-cron 設為 "-" 可停用）
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class EventOutboxScheduler {
+
+    private final EventOutboxDispatcher eventOutboxDispatcher;
+
+    @Value("${event.outbox.retention-days:7}")
+    private long retentionDays;
+
+    @Scheduled(cron = "${event.outbox.purge-cron:0 20 3 * * *}")
+    public void purge() {
+        try {
+            eventOutboxDispatcher.purgeDispatched(LocalDateTime.now().minusDays(retentionDays));
+        } catch (Exception e) {
+            log.error("事件 outbox 清理排程失敗: {}", e.getMessage(), e);
+        }
+    }
+}
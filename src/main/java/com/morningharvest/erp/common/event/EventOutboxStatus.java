@@ -0,0 +1,14 @@
+package com.morningharvest.erp.common.event;
+
+/**
+ * 事件 outbox 派送狀態常數
+ */
+public final class EventOutboxStatus {
+
+    public static final String PENDING = "PENDING";
+    public static final String DISPATCHED = "DISPATCHED";
+    public static final String FAILED = "FAILED";
+
+    private EventOutboxStatus() {
+    }
+}
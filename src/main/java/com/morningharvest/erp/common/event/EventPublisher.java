@@ -2,13 +2,22 @@ package com.morningharvest.erp.common.event;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.task.TaskRejectedException;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
 
 /**
  * 統一事件發布器
  *
- * 封裝 Spring ApplicationEventPublisher，提供統一的事件發布接口和日誌記錄
+ * 封裝 Spring ApplicationEventPublisher，提供統一的事件發布接口和日誌記錄。
+ * 啟用 outbox（預設）時事件寫入 event_outbox，與呼叫端交易一同提交或回滾，
+ * 提交後由 EventOutboxDispatcher 派送；未啟用時直接發布，事件執行道已滿時改寫入 outbox 稍後派送。
+ * 啟用 RedisStreamEventBus 時，事件於本機派送後另寫入 Redis Stream 通知其他節點
  */
 @Slf4j
 @Component
@@ -16,19 +25,48 @@ import org.springframework.stereotype.Component;
 public class EventPublisher {
 
     private final ApplicationEventPublisher applicationEventPublisher;
+    private final EventOutboxRepository eventOutboxRepository;
+    private final EventCodec eventCodec;
+    private final EventOutboxDispatcher eventOutboxDispatcher;
+    private final RedisStreamEventBus redisStreamEventBus;
+
+    @Value("${event.outbox.enabled:true}")
+    private boolean outboxEnabled = true;
+
+    @Value("${event.overload.spill-to-outbox:true}")
+    private boolean spillToOutbox = true;
 
     /**
      * 發布事件
      *
+     * outbox 寫入失敗時拋出例外，由呼叫端交易回滾，不會產生沒有事件的狀態變更
+     *
      * @param event 要發布的事件
      * @param <T>   事件類型
      */
     public <T extends BaseEvent> void publish(T event) {
         log.info("發布事件: {}", event);
+        if (outboxEnabled) {
+            appendToOutbox(event);
+            return;
+        }
         try {
             applicationEventPublisher.publishEvent(event);
             log.debug("事件發布成功: eventId={}, eventType={}",
                     event.getEventId(), event.getEventType());
+            if (redisStreamEventBus.isEnabled()) {
+                afterCommit(() -> redisStreamEventBus.publish(List.of(event)));
+            }
+        } catch (TaskRejectedException e) {
+            if (!spillToOutbox) {
+                log.error("事件執行道已滿，事件未處理: eventId={}, eventType={}",
+                        event.getEventId(), event.getEventType());
+                return;
+            }
+            // 已送入的監聽器會在派送時再次收到此事件
+            log.warn("事件執行道已滿，改寫入 outbox: eventId={}, eventType={}",
+                    event.getEventId(), event.getEventType());
+            appendToOutbox(event);
         } catch (Exception e) {
             log.error("事件發布失敗: eventId={}, eventType={}, error={}",
                     event.getEventId(), event.getEventType(), e.getMessage(), e);
@@ -47,4 +85,34 @@ public class EventPublisher {
         log.info("發布事件 [{}]: {}", description, event);
         publish(event);
     }
+
+    private void appendToOutbox(BaseEvent event) {
+        eventOutboxRepository.save(EventOutbox.builder()
+                .eventId(event.getEventId())
+                .eventType(eventCodec.typeOf(event))
+                .aggregateKey(event.getAggregateKey())
+                .payload(eventCodec.encode(event))
+                .status(EventOutboxStatus.PENDING)
+                .build());
+        log.debug("事件已寫入 outbox: eventId={}, eventType={}, aggregateKey={}",
+                event.getEventId(), event.getEventType(), event.getAggregateKey());
+
+        afterCommit(eventOutboxDispatcher::wakeUp);
+    }
+
+    /**
+     * 交易提交後執行；沒有交易時已自動提交，立即執行
+     */
+    private void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
 }
@@ -0,0 +1,21 @@
+package com.morningharvest.erp.common.event;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * 冪等事件監聽
+ *
+ * 標註於事件監聽方法，以第一個 {@link BaseEvent} 參數的 eventId 與監聽器識別記錄已處理事件，
+ * 同一事件再次送達（outbox 重送、死信重試、節點中止後重新派送）時略過，不需各監聽器自行查詢。
+ * 記錄在監聽器交易內寫入、與副作用一同提交或回滾，方法應同時標註 @Transactional；
+ * 可與 {@link EventLane} 併用，重複事件在執行道上判斷
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface IdempotentListener {
+}
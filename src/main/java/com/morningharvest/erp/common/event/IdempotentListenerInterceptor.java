@@ -0,0 +1,54 @@
+package com.morningharvest.erp.common.event;
+
+import lombok.extern.slf4j.Slf4j;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.function.Supplier;
+
+/**
+ * {@link IdempotentListener} 方法攔截器
+ *
+ * 排在交易攔截器之後，於監聽器交易內以 {@link ProcessedEventStore} 標記事件，已處理過則略過呼叫；
+ * 沒有交易時先檢查、執行成功後才記錄（並行送達時無法保證只處理一次）
+ */
+@Slf4j
+public class IdempotentListenerInterceptor implements MethodInterceptor {
+
+    private final Supplier<ProcessedEventStore> store;
+
+    /**
+     * @param store 延遲取得已處理事件記錄，後處理器建立時尚未初始化
+     */
+    public IdempotentListenerInterceptor(Supplier<ProcessedEventStore> store) {
+        this.store = store;
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        BaseEvent event = EventLaneInterceptor.eventOf(invocation);
+        if (event == null) {
+            return invocation.proceed();
+        }
+
+        String listener = EventLaneInterceptor.listenerId(invocation);
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            if (!store.get().tryMark(event.getEventId(), listener)) {
+                log.info("事件已處理過，略過: eventId={}, eventType={}, listener={}",
+                        event.getEventId(), event.getEventType(), listener);
+                return null;
+            }
+            return invocation.proceed();
+        }
+
+        if (store.get().isProcessed(event.getEventId(), listener)) {
+            log.info("事件已處理過，略過: eventId={}, eventType={}, listener={}",
+                    event.getEventId(), event.getEventType(), listener);
+            return null;
+        }
+        Object result = invocation.proceed();
+        store.get().markProcessed(event.getEventId(), listener);
+        return result;
+    }
+}
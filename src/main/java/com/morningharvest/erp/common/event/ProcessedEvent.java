@@ -0,0 +1,37 @@
+package com.morningharvest.erp.common.event;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * 已處理事件
+ *
+ * {@link IdempotentListener} 監聽器處理成功的事件，每個事件與監聽器組合一筆，保留 event.idempotency.retention-days 天
+ */
+@Entity
+@Table(name = "processed_event")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ProcessedEvent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "event_id", nullable = false, length = 36)
+    private String eventId;
+
+    /**
+     * 監聽器（類別完整名稱#方法名稱）
+     */
+    @Column(name = "listener", nullable = false)
+    private String listener;
+
+    @Column(name = "processed_at", nullable = false)
+    private LocalDateTime processedAt;
+}
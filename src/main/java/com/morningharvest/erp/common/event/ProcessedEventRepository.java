@@ -0,0 +1,38 @@
+package com.morningharvest.erp.common.event;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+
+@Repository
+public interface ProcessedEventRepository extends JpaRepository<ProcessedEvent, Long> {
+
+    boolean existsByEventIdAndListener(String eventId, String listener);
+
+    /**
+     * 記錄已處理事件，已存在時不寫入
+     *
+     * 另一交易已寫入但未提交時等待其提交或回滾，同一事件不會被兩個交易同時處理
+     *
+     * @return 寫入筆數（0 表示已處理過）
+     */
+    @Modifying
+    @Query(value = "INSERT IGNORE INTO processed_event (event_id, listener, processed_at) " +
+                   "VALUES (:eventId, :listener, :processedAt)",
+           nativeQuery = true)
+    int insertIgnore(@Param("eventId") String eventId,
+                     @Param("listener") String listener,
+                     @Param("processedAt") LocalDateTime processedAt);
+
+    /**
+     * 刪除處理時間早於指定時間的記錄
+     */
+    @Modifying
+    @Query(value = "DELETE FROM processed_event WHERE processed_at < :before LIMIT :limit",
+           nativeQuery = true)
+    int deleteProcessedBefore(@Param("before") LocalDateTime before, @Param("limit") int limit);
+}
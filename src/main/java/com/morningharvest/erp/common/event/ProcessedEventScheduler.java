@@ -0,0 +1,35 @@
+package com.morningharvest.erp.common.event;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+
+/**
+ * 已處理事件清理排程
+ *
+ * 刪除超過保留天數的已處理事件記錄（event.idempotency.purge-cron 設為 "-" 可停用）；
+ * 保留天數須涵蓋事件可能重送的期間（outbox 保留天數）
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class ProcessedEventScheduler {
+
+    private final ProcessedEventStore processedEventStore;
+
+    @Value("${event.idempotency.retention-days:7}")
+    private long retentionDays;
+
+    @Scheduled(cron = "${event.idempotency.purge-cron:0 50 3 * * *}")
+    public void purge() {
+        try {
+            processedEventStore.purgeProcessed(LocalDateTime.now().minusDays(retentionDays));
+        } catch (Exception e) {
+            log.error("已處理事件清理排程失敗: {}", e.getMessage(), e);
+        }
+    }
+}
@@ -0,0 +1,170 @@
+package com.morningharvest.erp.common.event;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 已處理事件記錄（{@link IdempotentListener} 使用）
+ *
+ * 前層為 JVM 內有上限、有時效的近期記錄，本節點已提交的重複事件不需查詢資料庫；
+ * 後層為 processed_event 表，以唯一鍵 (event_id, listener) 在監聽器交易內寫入，
+ * 與副作用一同提交，跨節點、重啟後仍有效，保留 event.idempotency.retention-days 天
+ */
+@Slf4j
+@Component
+public class ProcessedEventStore {
+
+    private final ProcessedEventRepository processedEventRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final Counter memoryHitCounter;
+    private final Counter databaseHitCounter;
+
+    /**
+     * 近期已提交的記錄：鍵 → 到期時間（nanoTime）
+     */
+    private final ConcurrentHashMap<String, Long> recent = new ConcurrentHashMap<>();
+
+    @Value("${event.idempotency.memory-size:10000}")
+    private int memorySize = 10000;
+
+    @Value("${event.idempotency.memory-ttl:10m}")
+    private Duration memoryTtl = Duration.ofMinutes(10);
+
+    public ProcessedEventStore(ProcessedEventRepository processedEventRepository,
+                               PlatformTransactionManager transactionManager,
+                               MeterRegistry meterRegistry) {
+        this.processedEventRepository = processedEventRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.memoryHitCounter = meterRegistry.counter("event.idempotency.duplicate", "source", "memory");
+        this.databaseHitCounter = meterRegistry.counter("event.idempotency.duplicate", "source", "database");
+    }
+
+    /**
+     * 在目前交易內標記事件已處理
+     *
+     * 記錄隨交易提交；交易回滾時記錄一併取消，事件再次送達時重新處理
+     *
+     * @param eventId  事件識別碼
+     * @param listener 監聽器識別
+     * @return true 為首次處理；false 為已處理過，應略過
+     */
+    public boolean tryMark(String eventId, String listener) {
+        String key = key(eventId, listener);
+        if (isRecent(key)) {
+            memoryHitCounter.increment();
+            return false;
+        }
+        if (processedEventRepository.insertIgnore(eventId, listener, LocalDateTime.now()) == 0) {
+            databaseHitCounter.increment();
+            remember(key);
+            return false;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    remember(key);
+                }
+            });
+        }
+        return true;
+    }
+
+    /**
+     * 事件是否已處理（沒有交易的監聽器使用）
+     */
+    public boolean isProcessed(String eventId, String listener) {
+        String key = key(eventId, listener);
+        if (isRecent(key)) {
+            memoryHitCounter.increment();
+            return true;
+        }
+        if (processedEventRepository.existsByEventIdAndListener(eventId, listener)) {
+            databaseHitCounter.increment();
+            remember(key);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * 以獨立交易記錄事件已處理（沒有交易的監聽器於執行成功後呼叫）
+     */
+    public void markProcessed(String eventId, String listener) {
+        transactionTemplate.executeWithoutResult(status ->
+                processedEventRepository.insertIgnore(eventId, listener, LocalDateTime.now()));
+        remember(key(eventId, listener));
+    }
+
+    /**
+     * 刪除處理時間早於指定時間的記錄
+     *
+     * @param before 處理時間早於此時間者刪除
+     * @return 刪除筆數
+     */
+    public int purgeProcessed(LocalDateTime before) {
+        int total = 0;
+        int deleted;
+        do {
+            deleted = transactionTemplate.execute(status ->
+                    processedEventRepository.deleteProcessedBefore(before, 1000));
+            total += deleted;
+        } while (deleted == 1000);
+        if (total > 0) {
+            log.info("清除已處理事件記錄, 筆數: {}", total);
+        }
+        return total;
+    }
+
+    private boolean isRecent(String key) {
+        Long expiresAt = recent.get(key);
+        if (expiresAt == null) {
+            return false;
+        }
+        if (System.nanoTime() - expiresAt > 0) {
+            recent.remove(key, expiresAt);
+            return false;
+        }
+        return true;
+    }
+
+    private void remember(String key) {
+        if (memorySize <= 0) {
+            return;
+        }
+        if (recent.size() >= memorySize && !recent.containsKey(key)) {
+            makeRoom();
+        }
+        recent.put(key, System.nanoTime() + memoryTtl.toNanos());
+    }
+
+    /**
+     * 超過上限時先清除過期項目，仍不足時任意移除一筆（資料庫仍有記錄）
+     */
+    private void makeRoom() {
+        long now = System.nanoTime();
+        recent.values().removeIf(expiresAt -> now - expiresAt > 0);
+
+        Iterator<String> keys = recent.keySet().iterator();
+        while (recent.size() >= memorySize && keys.hasNext()) {
+            keys.next();
+            keys.remove();
+        }
+    }
+
+    private static String key(String eventId, String listener) {
+        return eventId + "|" + listener;
+    }
+}
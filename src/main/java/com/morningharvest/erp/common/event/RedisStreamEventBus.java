@@ -0,0 +1,388 @@
+package com.morningharvest.erp.common.event;
+
+import com.morningharvest.erp.common.id.TimeOrderedId;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.Range;
+import org.springframework.data.redis.connection.RedisStreamCommands.XAddOptions;
+import org.springframework.data.redis.connection.StringRedisConnection;
+import org.springframework.data.redis.connection.stream.Consumer;
+import org.springframework.data.redis.connection.stream.MapRecord;
+import org.springframework.data.redis.connection.stream.PendingMessage;
+import org.springframework.data.redis.connection.stream.PendingMessages;
+import org.springframework.data.redis.connection.stream.ReadOffset;
+import org.springframework.data.redis.connection.stream.RecordId;
+import org.springframework.data.redis.connection.stream.StreamInfo;
+import org.springframework.data.redis.connection.stream.StreamOffset;
+import org.springframework.data.redis.connection.stream.StreamReadOptions;
+import org.springframework.data.redis.connection.stream.StreamRecords;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StreamOperations;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Redis Stream 跨節點事件匯流排（event.bus.redis-stream.enabled，預設停用）
+ *
+ * 發布端：事件在本機派送後（outbox 派送器或直接發布模式的交易提交後）
+ * 以管線批次 XADD 寫入 stream，依 max-length 近似裁切；寫入失敗只記錄，不影響本機派送。
+ * 接收端：每個節點一個消費者群組（群組前綴:節點名稱），每個節點都收到所有事件；
+ * 單一背景執行緒以 XREADGROUP 批次讀取，略過本實例發布的事件，
+ * 其餘還原後以 {@link RemoteEvent} 在本機發布，成功後 XACK。
+ * 發布失敗的項目留在待確認清單，定期認領閒置超過 claim-idle 的項目（含重啟前實例留下的）重新處理，
+ * 送達次數達 max-deliveries 時確認並捨棄。至少一次送達，遠端監聽器須能承受重複事件
+ */
+@Slf4j
+@Component
+public class RedisStreamEventBus {
+
+    static final String FIELD_EVENT_ID = "eventId";
+    static final String FIELD_EVENT_TYPE = "eventType";
+    static final String FIELD_PAYLOAD = "payload";
+    static final String FIELD_ORIGIN = "origin";
+
+    private final StringRedisTemplate redisTemplate;
+    private final EventCodec eventCodec;
+    private final ApplicationEventPublisher applicationEventPublisher;
+
+    private final Counter publishedCounter;
+    private final Counter publishFailedCounter;
+    private final Counter deliveredCounter;
+    private final Counter droppedCounter;
+    private final Counter claimedCounter;
+    private final Timer batchTimer;
+    private final MeterRegistry meterRegistry;
+
+    /**
+     * 本實例識別碼：作為事件來源與消費者名稱，重啟後不同
+     */
+    private final String instanceId = TimeOrderedId.next();
+
+    @Value("${event.bus.redis-stream.enabled:false}")
+    private boolean enabled;
+
+    @Value("${event.bus.redis-stream.stream-key:erp:events}")
+    private String streamKey = "erp:events";
+
+    @Value("${event.bus.redis-stream.group-prefix:${spring.application.name:erp-api}}")
+    private String groupPrefix = "erp-api";
+
+    @Value("${event.bus.redis-stream.node-name:${HOSTNAME:}}")
+    private String nodeName = "";
+
+    @Value("${event.bus.redis-stream.batch-size:100}")
+    private int batchSize = 100;
+
+    @Value("${event.bus.redis-stream.block-timeout:2s}")
+    private Duration blockTimeout = Duration.ofSeconds(2);
+
+    @Value("${event.bus.redis-stream.claim-idle:1m}")
+    private Duration claimIdle = Duration.ofMinutes(1);
+
+    @Value("${event.bus.redis-stream.claim-interval:30s}")
+    private Duration claimInterval = Duration.ofSeconds(30);
+
+    @Value("${event.bus.redis-stream.max-deliveries:5}")
+    private int maxDeliveries = 5;
+
+    @Value("${event.bus.redis-stream.max-length:100000}")
+    private long maxLength = 100000;
+
+    private volatile boolean running;
+    private volatile boolean groupReady;
+    private Thread worker;
+
+    public RedisStreamEventBus(StringRedisTemplate redisTemplate,
+                               EventCodec eventCodec,
+                               ApplicationEventPublisher applicationEventPublisher,
+                               MeterRegistry meterRegistry) {
+        this.redisTemplate = redisTemplate;
+        this.eventCodec = eventCodec;
+        this.applicationEventPublisher = applicationEventPublisher;
+        this.meterRegistry = meterRegistry;
+        this.publishedCounter = meterRegistry.counter("event.stream.published");
+        this.publishFailedCounter = meterRegistry.counter("event.stream.publish_failed");
+        this.deliveredCounter = meterRegistry.counter("event.stream.delivered");
+        this.droppedCounter = meterRegistry.counter("event.stream.dropped");
+        this.claimedCounter = meterRegistry.counter("event.stream.claimed");
+        this.batchTimer = meterRegistry.timer("event.stream.batch");
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * 消費者群組：同一節點重啟後沿用，接續未確認的項目
+     */
+    String group() {
+        return groupPrefix + ":" + (StringUtils.hasText(nodeName) ? nodeName : instanceId);
+    }
+
+    String instanceId() {
+        return instanceId;
+    }
+
+    /**
+     * 應用程式啟動完成後才開始接收，確保所有監聽器皆已註冊
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!enabled || running) {
+            return;
+        }
+        running = true;
+        worker = new Thread(this::run, "event-stream-consumer");
+        worker.setDaemon(true);
+        worker.start();
+        log.info("Redis Stream 事件匯流排已啟動: stream={}, group={}, consumer={}, batchSize={}",
+                streamKey, group(), instanceId, batchSize);
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        running = false;
+        if (worker != null) {
+            worker.interrupt();
+            worker.join(TimeUnit.SECONDS.toMillis(10));
+        }
+    }
+
+    /**
+     * 將已在本機派送的事件寫入 stream（未啟用時忽略）
+     *
+     * Redis 無法使用時只記錄並計數，其他節點的本機狀態以各自的定期重建補上
+     *
+     * @param events 事件
+     */
+    public void publish(List<? extends BaseEvent> events) {
+        if (!enabled || events.isEmpty()) {
+            return;
+        }
+        XAddOptions options = XAddOptions.maxlen(maxLength).approximateTrimming(true);
+        try {
+            redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                StringRedisConnection stringConnection = (StringRedisConnection) connection;
+                for (BaseEvent event : events) {
+                    stringConnection.xAdd(StreamRecords.string(fieldsOf(event)).withStreamKey(streamKey), options);
+                }
+                return null;
+            });
+            publishedCounter.increment(events.size());
+            log.debug("事件已寫入 Redis Stream, 筆數: {}", events.size());
+        } catch (Exception e) {
+            publishFailedCounter.increment(events.size());
+            log.warn("事件寫入 Redis Stream 失敗，其他節點不會收到, 筆數: {}, error: {}",
+                    events.size(), e.getMessage());
+        }
+    }
+
+    private Map<String, String> fieldsOf(BaseEvent event) {
+        Map<String, String> fields = new LinkedHashMap<>();
+        fields.put(FIELD_EVENT_ID, event.getEventId());
+        fields.put(FIELD_EVENT_TYPE, eventCodec.typeOf(event));
+        fields.put(FIELD_PAYLOAD, eventCodec.encode(event));
+        fields.put(FIELD_ORIGIN, instanceId);
+        return fields;
+    }
+
+    private void run() {
+        long nextClaimAt = 0;
+        while (running) {
+            try {
+                if (!groupReady) {
+                    createGroup();
+                }
+                if (System.currentTimeMillis() >= nextClaimAt) {
+                    claimIdle();
+                    nextClaimAt = System.currentTimeMillis() + claimInterval.toMillis();
+                }
+                poll();
+            } catch (Exception e) {
+                if (!running) {
+                    return;
+                }
+                if (isMissingGroup(e)) {
+                    // stream 被刪除時群組一併消失，重新建立
+                    groupReady = false;
+                }
+                log.warn("Redis Stream 事件接收失敗，稍後重試: {}", e.getMessage());
+                try {
+                    Thread.sleep(blockTimeout.toMillis());
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * 建立本節點的消費者群組（不存在時一併建立 stream），新群組只接收建立後的事件
+     */
+    void createGroup() {
+        try {
+            redisTemplate.execute((RedisCallback<String>) connection -> connection.streamCommands()
+                    .xGroupCreate(streamKey.getBytes(StandardCharsets.UTF_8), group(), ReadOffset.latest(), true));
+            log.info("建立 Redis Stream 消費者群組: stream={}, group={}", streamKey, group());
+        } catch (DataAccessException e) {
+            if (!messageOf(e).contains("BUSYGROUP")) {
+                throw e;
+            }
+        }
+        groupReady = true;
+    }
+
+    /**
+     * 讀取一批新事件並處理
+     *
+     * @return 讀取的項目數
+     */
+    int poll() {
+        List<MapRecord<String, Object, Object>> records = streams().read(
+                Consumer.from(group(), instanceId),
+                StreamReadOptions.empty().count(batchSize).block(blockTimeout),
+                StreamOffset.create(streamKey, ReadOffset.lastConsumed()));
+        if (records == null || records.isEmpty()) {
+            return 0;
+        }
+        handle(records);
+        return records.size();
+    }
+
+    /**
+     * 認領群組中閒置超過 claim-idle 的項目重新處理，送達次數已達上限者確認並捨棄；
+     * 並移除沒有待確認項目的閒置消費者（重啟前的實例）
+     *
+     * @return 認領的項目數
+     */
+    int claimIdle() {
+        StreamOperations<String, Object, Object> streams = streams();
+        PendingMessages pending = streams.pending(streamKey, group(), Range.unbounded(), batchSize);
+        List<RecordId> exhausted = new ArrayList<>();
+        List<RecordId> idle = new ArrayList<>();
+        for (PendingMessage message : pending) {
+            if (message.getElapsedTimeSinceLastDelivery().compareTo(claimIdle) < 0) {
+                continue;
+            }
+            if (message.getTotalDeliveryCount() >= maxDeliveries) {
+                log.error("Redis Stream 事件送達次數已達上限，捨棄: recordId={}, deliveries={}",
+                        message.getId(), message.getTotalDeliveryCount());
+                exhausted.add(message.getId());
+            } else {
+                idle.add(message.getId());
+            }
+        }
+        if (!exhausted.isEmpty()) {
+            streams.acknowledge(streamKey, group(), exhausted.toArray(RecordId[]::new));
+            droppedCounter.increment(exhausted.size());
+        }
+
+        int claimed = 0;
+        if (!idle.isEmpty()) {
+            List<MapRecord<String, Object, Object>> records = streams.claim(
+                    streamKey, group(), instanceId, claimIdle, idle.toArray(RecordId[]::new));
+            claimed = records.size();
+            if (claimed > 0) {
+                log.info("認領閒置的 Redis Stream 事件, 筆數: {}", claimed);
+                claimedCounter.increment(claimed);
+                handle(records);
+            }
+        }
+
+        removeIdleConsumers(streams);
+        return claimed;
+    }
+
+    private void removeIdleConsumers(StreamOperations<String, Object, Object> streams) {
+        StreamInfo.XInfoConsumers consumers = streams.consumers(streamKey, group());
+        consumers.stream()
+                .filter(consumer -> !consumer.consumerName().equals(instanceId))
+                .filter(consumer -> consumer.pendingCount() == 0 && consumer.idleTime().compareTo(claimIdle) > 0)
+                .forEach(consumer -> {
+                    streams.deleteConsumer(streamKey, Consumer.from(group(), consumer.consumerName()));
+                    log.debug("移除閒置的 Redis Stream 消費者: {}", consumer.consumerName());
+                });
+    }
+
+    /**
+     * 依序處理項目，確認已處理（含略過與無法還原）的項目；發布失敗的項目留待認領
+     */
+    private void handle(List<MapRecord<String, Object, Object>> records) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        List<RecordId> done = new ArrayList<>(records.size());
+        for (MapRecord<String, Object, Object> record : records) {
+            if (deliver(record)) {
+                done.add(record.getId());
+            }
+        }
+        if (!done.isEmpty()) {
+            streams().acknowledge(streamKey, group(), done.toArray(RecordId[]::new));
+        }
+        sample.stop(batchTimer);
+    }
+
+    private boolean deliver(MapRecord<String, Object, Object> record) {
+        Map<Object, Object> fields = record.getValue();
+        String origin = stringOf(fields.get(FIELD_ORIGIN));
+        if (instanceId.equals(origin)) {
+            // 本實例發布的事件已在本機派送
+            return true;
+        }
+
+        BaseEvent event;
+        try {
+            event = eventCodec.decode(stringOf(fields.get(FIELD_EVENT_TYPE)), stringOf(fields.get(FIELD_PAYLOAD)));
+        } catch (IllegalArgumentException e) {
+            log.error("Redis Stream 事件無法反序列化，捨棄: recordId={}, eventId={}, error={}",
+                    record.getId(), fields.get(FIELD_EVENT_ID), e.getMessage());
+            droppedCounter.increment();
+            return true;
+        }
+
+        try {
+            applicationEventPublisher.publishEvent(new RemoteEvent<>(event, origin));
+            deliveredCounter.increment();
+            return true;
+        } catch (Exception e) {
+            log.warn("遠端事件發布失敗，稍後重新認領: recordId={}, eventId={}, error={}",
+                    record.getId(), event.getEventId(), e.getMessage());
+            return false;
+        }
+    }
+
+    private StreamOperations<String, Object, Object> streams() {
+        return redisTemplate.opsForStream();
+    }
+
+    private static String stringOf(Object value) {
+        return value != null ? value.toString() : null;
+    }
+
+    private static boolean isMissingGroup(Exception e) {
+        return messageOf(e).contains("NOGROUP");
+    }
+
+    private static String messageOf(Exception e) {
+        Throwable cause = NestedExceptionUtils.getMostSpecificCause(e);
+        return cause.getMessage() != null ? cause.getMessage() : "";
+    }
+}
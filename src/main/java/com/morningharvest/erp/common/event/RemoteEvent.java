@@ -0,0 +1,44 @@
+package com.morningharvest.erp.common.event;
+
+import lombok.Getter;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.ResolvableTypeProvider;
+
+/**
+ * 其他節點發布的事件
+ *
+ * 由 {@link RedisStreamEventBus} 從 Redis Stream 收到後在本機發布。
+ * 業務監聽器（寫入資料庫）只監聽原事件，由發布事件的節點處理一次；
+ * 維護本機狀態（記憶體快照、索引、即時推播）的監聽器另以
+ * {@code RemoteEvent<具體事件>} 為參數監聽，同步其他節點的變更
+ *
+ * @param <T> 事件類型
+ */
+@Getter
+public class RemoteEvent<T extends BaseEvent> implements ResolvableTypeProvider {
+
+    /**
+     * 原事件（eventId、occurredAt 與發布節點相同）
+     */
+    private final T event;
+
+    /**
+     * 發布節點的實例識別碼
+     */
+    private final String origin;
+
+    public RemoteEvent(T event, String origin) {
+        this.event = event;
+        this.origin = origin;
+    }
+
+    @Override
+    public ResolvableType getResolvableType() {
+        return ResolvableType.forClassWithGenerics(getClass(), ResolvableType.forInstance(event));
+    }
+
+    @Override
+    public String toString() {
+        return String.format("RemoteEvent[origin=%s, event=%s]", origin, event);
+    }
+}
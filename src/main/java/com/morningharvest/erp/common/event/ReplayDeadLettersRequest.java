@@ -0,0 +1,24 @@
+package com.morningharvest.erp.common.event;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * 重送死信請求 DTO
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReplayDeadLettersRequest {
+
+    @NotEmpty(message = "死信 ID 不可為空")
+    @Size(max = 1000, message = "單次最多重送 1000 筆")
+    private List<Long> ids;
+}
@@ -0,0 +1,31 @@
+package com.morningharvest.erp.common.sequence;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * 單據流水號
+ *
+ * 每個前綴、每日一筆，記錄下一個可配置的序號
+ */
+@Entity
+@Table(name = "document_sequences")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class DocumentSequence {
+
+    @Id
+    @Column(name = "seq_key", length = 50)
+    private String seqKey;
+
+    @Column(name = "next_value")
+    private Long nextValue;
+
+    @Column(name = "updated_at", insertable = false, updatable = false)
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,26 @@
+package com.morningharvest.erp.common.sequence;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface DocumentSequenceRepository extends JpaRepository<DocumentSequence, String> {
+
+    /**
+     * 配置一段序號：不存在則建立，存在則遞增，單一語句完成並鎖定該列至交易結束
+     */
+    @Modifying
+    @Query(value = "INSERT INTO document_sequences (seq_key, next_value) VALUES (:seqKey, 1 + :blockSize) " +
+                   "ON DUPLICATE KEY UPDATE next_value = next_value + :blockSize",
+           nativeQuery = true)
+    int allocate(@Param("seqKey") String seqKey, @Param("blockSize") int blockSize);
+
+    /**
+     * 查詢下一個可配置的序號
+     */
+    @Query(value = "SELECT next_value FROM document_sequences WHERE seq_key = :seqKey", nativeQuery = true)
+    long findNextValue(@Param("seqKey") String seqKey);
+}
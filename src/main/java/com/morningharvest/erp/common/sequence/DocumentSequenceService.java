@@ -0,0 +1,101 @@
+package com.morningharvest.erp.common.sequence;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 單據流水號服務
+ *
+ * 依前綴與日期產生單號（格式: PREFIX-YYYYMMDD-XXXX）。
+ * 序號以區塊方式自資料庫預先配置並於記憶體中發放，不需掃描單據表；
+ * 重啟或換日時未用完的區塊直接捨棄，單號唯一但可能不連續
+ */
+@Slf4j
+@Service
+public class DocumentSequenceService {
+
+    private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("yyyyMMdd");
+
+    private final DocumentSequenceRepository documentSequenceRepository;
+    private final TransactionTemplate requiresNewTemplate;
+    private final int blockSize;
+
+    /**
+     * 各前綴目前使用中的序號區塊
+     */
+    private final Map<String, SequenceBlock> blocks = new ConcurrentHashMap<>();
+
+    public DocumentSequenceService(DocumentSequenceRepository documentSequenceRepository,
+                                   PlatformTransactionManager transactionManager,
+                                   @Value("${document.sequence.block-size:10}") int blockSize) {
+        this.documentSequenceRepository = documentSequenceRepository;
+        // 區塊配置獨立提交：呼叫端回滾時不可收回已發放到記憶體的序號，也不應長時間鎖住序號列
+        this.requiresNewTemplate = new TransactionTemplate(transactionManager);
+        this.requiresNewTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.blockSize = blockSize;
+    }
+
+    /**
+     * 取得下一個單號
+     *
+     * @param prefix 單據前綴，例如 PO、IC
+     * @return 單號，例如 PO-20251205-0001
+     */
+    public String nextNumber(String prefix) {
+        String seqKey = prefix + "-" + LocalDate.now().format(DATE_FORMATTER);
+        long value = nextValue(prefix, seqKey);
+        return seqKey + "-" + String.format("%04d", value);
+    }
+
+    private long nextValue(String prefix, String seqKey) {
+        SequenceBlock block = blocks.compute(prefix, (key, current) ->
+                current != null && current.seqKey.equals(seqKey) ? current : new SequenceBlock(seqKey));
+
+        // 配置區塊時會存取資料庫，使用 ReentrantLock 避免釘選虛擬執行緒
+        block.lock.lock();
+        try {
+            if (block.next >= block.limit) {
+                long start = allocateBlock(seqKey);
+                block.next = start;
+                block.limit = start + blockSize;
+            }
+            return block.next++;
+        } finally {
+            block.lock.unlock();
+        }
+    }
+
+    private long allocateBlock(String seqKey) {
+        Long start = requiresNewTemplate.execute(status -> {
+            documentSequenceRepository.allocate(seqKey, blockSize);
+            return documentSequenceRepository.findNextValue(seqKey) - blockSize;
+        });
+        log.debug("配置單據序號區塊, seqKey: {}, start: {}, size: {}", seqKey, start, blockSize);
+        return start;
+    }
+
+    /**
+     * 記憶體中的序號區塊 [next, limit)
+     */
+    private static final class SequenceBlock {
+
+        private final String seqKey;
+        private final ReentrantLock lock = new ReentrantLock();
+        private long next;
+        private long limit;
+
+        private SequenceBlock(String seqKey) {
+            this.seqKey = seqKey;
+        }
+    }
+}
@@ -1,31 +1,57 @@
 package com.morningharvest.erp.config;
 
-import org.springframework.cache.CacheManager;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.type.TypeFactory;
+import com.morningharvest.erp.combo.dto.ComboDTO;
+import com.morningharvest.erp.combo.dto.ComboDetailDTO;
+import com.morningharvest.erp.common.cache.CacheCodecFormat;
+import com.morningharvest.erp.common.cache.CacheNames;
+import com.morningharvest.erp.common.cache.CompactRedisSerializer;
+import com.morningharvest.erp.common.cache.TwoLevelCacheManager;
+import com.morningharvest.erp.option.dto.OptionTemplateGroupDetailDTO;
+import com.morningharvest.erp.product.dto.ProductCategoryDTO;
+import com.morningharvest.erp.product.dto.ProductDTO;
+import com.morningharvest.erp.product.dto.ProductOptionGroupDetailDTO;
+import com.morningharvest.erp.table.dto.TableDTO;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.data.redis.cache.RedisCacheConfiguration;
 import org.springframework.data.redis.cache.RedisCacheManager;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
 import org.springframework.data.redis.core.RedisTemplate;
-import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
 import org.springframework.data.redis.serializer.RedisSerializationContext;
 import org.springframework.data.redis.serializer.StringRedisSerializer;
 
 import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 
 /**
  * Redis 配置類別
- * 設定 Redis 快取管理器與序列化方式
+ * 設定 Redis 快取管理器與序列化方式，以及跨節點快取失效通知
  */
 @Configuration
 public class RedisConfig {
 
+    @Value("${cache.codec.format:smile}")
+    private CacheCodecFormat codecFormat;
+
+    @Value("${cache.codec.compress-threshold:1024}")
+    private int compressThreshold;
+
     /**
      * 配置 RedisTemplate
-     * 使用 JSON 序列化物件
+     * 使用精簡編碼序列化物件
      */
     @Bean
-    public RedisTemplate<String, Object> redisTemplate(RedisConnectionFactory connectionFactory) {
+    public RedisTemplate<String, Object> redisTemplate(RedisConnectionFactory connectionFactory,
+                                                       ObjectMapper objectMapper) {
         RedisTemplate<String, Object> template = new RedisTemplate<>();
         template.setConnectionFactory(connectionFactory);
 
@@ -34,10 +60,11 @@ public class RedisConfig {
         template.setKeySerializer(stringSerializer);
         template.setHashKeySerializer(stringSerializer);
 
-        // 使用 JSON 序列化 value
-        GenericJackson2JsonRedisSerializer jsonSerializer = new GenericJackson2JsonRedisSerializer();
-        template.setValueSerializer(jsonSerializer);
-        template.setHashValueSerializer(jsonSerializer);
+        // 使用精簡編碼序列化 value
+        CompactRedisSerializer<Object> valueSerializer =
+                CompactRedisSerializer.forAnyType(codecFormat.mapper(objectMapper), compressThreshold);
+        template.setValueSerializer(valueSerializer);
+        template.setHashValueSerializer(valueSerializer);
 
         template.afterPropertiesSet();
         return template;
@@ -45,23 +72,66 @@ public class RedisConfig {
 
     /**
      * 配置快取管理器
-     * 設定預設過期時間為 1 小時
+     * Redis 快取預設過期時間為 1 小時，前面再加一層 JVM 內本地快取（兩層快取）
      */
     @Bean
-    public CacheManager cacheManager(RedisConnectionFactory connectionFactory) {
+    public TwoLevelCacheManager cacheManager(RedisConnectionFactory connectionFactory,
+                                             StringRedisTemplate stringRedisTemplate,
+                                             ObjectMapper objectMapper,
+                                             @Value("${cache.local.max-size:1000}") int localMaxSize,
+                                             @Value("${cache.local.ttl:5m}") Duration localTtl) {
+        ObjectMapper codecMapper = codecFormat.mapper(objectMapper);
+        // key 前綴帶編碼格式，切換格式時不會讀到舊格式的值
+        String codecPrefix = codecFormat.name().toLowerCase();
         RedisCacheConfiguration config = RedisCacheConfiguration.defaultCacheConfig()
                 .entryTtl(Duration.ofHours(1))  // 快取 1 小時
+                .computePrefixWith(cacheName -> cacheName + ":" + codecPrefix + "::")
                 .serializeKeysWith(
                         RedisSerializationContext.SerializationPair.fromSerializer(new StringRedisSerializer())
                 )
                 .serializeValuesWith(
-                        RedisSerializationContext.SerializationPair.fromSerializer(new GenericJackson2JsonRedisSerializer())
+                        RedisSerializationContext.SerializationPair.fromSerializer(
+                                CompactRedisSerializer.forAnyType(codecMapper, compressThreshold))
                 )
                 .disableCachingNullValues();
 
-        return RedisCacheManager.builder(connectionFactory)
+        // 目錄快取以明確型別序列化，不需在內容中夾帶類別資訊
+        TypeFactory typeFactory = codecMapper.getTypeFactory();
+        Map<String, JavaType> catalogTypes = Map.of(
+                CacheNames.PRODUCTS, typeFactory.constructType(ProductDTO.class),
+                CacheNames.PRODUCT_CATEGORIES, typeFactory.constructType(ProductCategoryDTO.class),
+                CacheNames.COMBOS, typeFactory.constructType(ComboDTO.class),
+                CacheNames.COMBO_DETAILS, typeFactory.constructType(ComboDetailDTO.class),
+                CacheNames.PRODUCT_OPTIONS, typeFactory.constructCollectionType(List.class, ProductOptionGroupDetailDTO.class),
+                CacheNames.OPTION_TEMPLATES, typeFactory.constructType(OptionTemplateGroupDetailDTO.class),
+                CacheNames.TABLES, typeFactory.constructType(TableDTO.class),
+                CacheNames.ACTIVE_TABLES, typeFactory.constructCollectionType(List.class, TableDTO.class)
+        );
+        Map<String, RedisCacheConfiguration> cacheConfigs = new HashMap<>();
+        catalogTypes.forEach((name, type) -> cacheConfigs.put(name, config.serializeValuesWith(
+                RedisSerializationContext.SerializationPair.fromSerializer(
+                        new CompactRedisSerializer<>(codecMapper, type, compressThreshold)))));
+
+        RedisCacheManager redisCacheManager = RedisCacheManager.builder(connectionFactory)
                 .cacheDefaults(config)
+                .withInitialCacheConfigurations(cacheConfigs)
                 .build();
+        redisCacheManager.afterPropertiesSet();
+
+        return new TwoLevelCacheManager(redisCacheManager, stringRedisTemplate, objectMapper,
+                localMaxSize, localTtl);
+    }
+
+    /**
+     * 訂閱快取失效通知頻道
+     */
+    @Bean
+    public RedisMessageListenerContainer cacheInvalidationListenerContainer(RedisConnectionFactory connectionFactory,
+                                                                            TwoLevelCacheManager cacheManager) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        container.addMessageListener(cacheManager, new ChannelTopic(TwoLevelCacheManager.INVALIDATION_CHANNEL));
+        return container;
     }
 
 }
@@ -111,6 +111,18 @@ public class InventoryCheckController {
         return ApiResponse.success("盤點明細已更新", item);
     }
 
+    @PostMapping("/batch-update-items")
+    @Operation(summary = "批次更新盤點明細",
+               description = "掃描器整批上傳實際盤點數量，可依明細 ID 或原物料編號指定，回傳最新盤點進度")
+    public ApiResponse<InventoryCheckProgressDTO> batchUpdateInventoryCheckItems(
+            @Valid @RequestBody BatchUpdateInventoryCheckItemsRequest request
+    ) {
+        log.info("批次更新盤點明細, inventoryCheckId: {}, itemCount: {}",
+                request.getInventoryCheckId(), request.getItems().size());
+        InventoryCheckProgressDTO progress = inventoryCheckService.batchUpdateInventoryCheckItems(request);
+        return ApiResponse.success("盤點明細已批次更新", progress);
+    }
+
     @PostMapping("/confirm")
     @Operation(summary = "確認盤點",
                description = "確認盤點 (IN_PROGRESS -> CONFIRMED)，觸發庫存調整")
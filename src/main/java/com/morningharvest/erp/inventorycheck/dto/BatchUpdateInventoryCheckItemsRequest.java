@@ -0,0 +1,48 @@
+package com.morningharvest.erp.inventorycheck.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.*;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchUpdateInventoryCheckItemsRequest {
+
+    @NotNull(message = "盤點單 ID 不可為空")
+    private Long inventoryCheckId;
+
+    @NotEmpty(message = "盤點數量清單不可為空")
+    @Size(max = 1000, message = "單次最多上傳 1000 筆盤點數量")
+    @Valid
+    private List<ItemCountInput> items;
+
+    /**
+     * 單筆盤點數量（明細 ID 與原物料編號擇一）
+     */
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class ItemCountInput {
+
+        private Long itemId;
+
+        @Size(max = 20, message = "原物料編號不可超過 20 字元")
+        private String materialCode;
+
+        @NotNull(message = "實際盤點數量不可為空")
+        @DecimalMin(value = "0", message = "實際盤點數量必須 >= 0")
+        private BigDecimal actualQuantity;
+
+        @Size(max = 200, message = "備註不可超過 200 字元")
+        private String note;
+    }
+}
@@ -0,0 +1,22 @@
+package com.morningharvest.erp.inventorycheck.dto;
+
+import lombok.*;
+
+import java.math.BigDecimal;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class InventoryCheckProgressDTO {
+
+    private Long id;
+    private String checkNumber;
+    private String status;
+    private String statusDisplayName;
+    private Integer totalItems;
+    private Integer checkedItems;
+    private Integer uncheckedItems;
+    private Integer updatedItems;
+    private BigDecimal totalDifferenceAmount;
+}
@@ -30,6 +30,14 @@ public class InventoryCheckConfirmedEvent extends BaseEvent {
         this.items = items;
     }
 
+    /**
+     * 明細涵蓋多個原物料，庫存異動事件共用同一聚合鍵依序處理
+     */
+    @Override
+    public String getAggregateKey() {
+        return "material-stock";
+    }
+
     /**
      * 盤點明細資訊（用於事件傳遞）
      */
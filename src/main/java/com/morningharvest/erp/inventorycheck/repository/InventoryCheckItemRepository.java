@@ -2,8 +2,12 @@ package com.morningharvest.erp.inventorycheck.repository;
 
 import com.morningharvest.erp.inventorycheck.entity.InventoryCheckItem;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
@@ -39,4 +43,47 @@ public interface InventoryCheckItemRepository extends JpaRepository<InventoryChe
      * 計算已盤點項目數量
      */
     long countByInventoryCheckIdAndIsCheckedTrue(Long inventoryCheckId);
+
+    /**
+     * 查詢指定時間後已確認盤點的盤虧明細（用於估算損耗）
+     */
+    @Query("SELECT i.materialId AS materialId, ic.confirmedAt AS confirmedAt, " +
+           "i.differenceQuantity AS differenceQuantity " +
+           "FROM InventoryCheckItem i, InventoryCheck ic WHERE i.inventoryCheckId = ic.id " +
+           "AND ic.status = :status AND ic.confirmedAt >= :since AND i.differenceQuantity < 0")
+    List<MaterialShrinkage> findShrinkageSince(
+            @Param("status") String status,
+            @Param("since") LocalDateTime since);
+
+    /**
+     * 查詢所有已確認盤點的實盤數量（依確認時間排序，成本重估用）
+     */
+    @Query("SELECT i.materialId AS materialId, i.actualQuantity AS actualQuantity, " +
+           "ic.confirmedAt AS confirmedAt " +
+           "FROM InventoryCheckItem i, InventoryCheck ic WHERE i.inventoryCheckId = ic.id " +
+           "AND ic.status = :status AND i.actualQuantity IS NOT NULL " +
+           "ORDER BY ic.confirmedAt ASC, i.id ASC")
+    List<MaterialStockCount> findStockCounts(@Param("status") String status);
+
+    /**
+     * 盤虧明細
+     */
+    interface MaterialShrinkage {
+        Long getMaterialId();
+
+        LocalDateTime getConfirmedAt();
+
+        BigDecimal getDifferenceQuantity();
+    }
+
+    /**
+     * 原物料實盤數量
+     */
+    interface MaterialStockCount {
+        Long getMaterialId();
+
+        BigDecimal getActualQuantity();
+
+        LocalDateTime getConfirmedAt();
+    }
 }
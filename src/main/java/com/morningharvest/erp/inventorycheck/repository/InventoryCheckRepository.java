@@ -37,10 +37,4 @@ public interface InventoryCheckRepository extends JpaRepository<InventoryCheck,
             @Param("startDate") LocalDate startDate,
             @Param("endDate") LocalDate endDate,
             Pageable pageable);
-
-    /**
-     * 計算指定前綴的盤點單數量（用於產生單號）
-     */
-    @Query("SELECT COUNT(ic) FROM InventoryCheck ic WHERE ic.checkNumber LIKE :prefix%")
-    long countByCheckNumberPrefix(@Param("prefix") String prefix);
 }
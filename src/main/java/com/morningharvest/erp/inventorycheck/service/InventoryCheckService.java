@@ -4,6 +4,7 @@ import com.morningharvest.erp.common.dto.PageResponse;
 import com.morningharvest.erp.common.dto.PageableRequest;
 import com.morningharvest.erp.common.event.EventPublisher;
 import com.morningharvest.erp.common.exception.ResourceNotFoundException;
+import com.morningharvest.erp.common.sequence.DocumentSequenceService;
 import com.morningharvest.erp.inventorycheck.constant.InventoryCheckStatus;
 import com.morningharvest.erp.inventorycheck.dto.*;
 import com.morningharvest.erp.inventorycheck.entity.InventoryCheck;
@@ -23,8 +24,10 @@ import org.springframework.transaction.annotation.Transactional;
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @Service
@@ -32,10 +35,16 @@ import java.util.stream.Collectors;
 @Slf4j
 public class InventoryCheckService {
 
+    /**
+     * 盤點單號前綴 (格式: IC-YYYYMMDD-XXXX)
+     */
+    private static final String NUMBER_PREFIX = "IC";
+
     private final InventoryCheckRepository inventoryCheckRepository;
     private final InventoryCheckItemRepository inventoryCheckItemRepository;
     private final MaterialRepository materialRepository;
     private final EventPublisher eventPublisher;
+    private final DocumentSequenceService documentSequenceService;
 
     /**
      * 建立盤點計畫
@@ -46,7 +55,7 @@ public class InventoryCheckService {
         log.info("建立盤點計畫");
 
         // 產生盤點單號
-        String checkNumber = generateCheckNumber();
+        String checkNumber = documentSequenceService.nextNumber(NUMBER_PREFIX);
 
         // 建立盤點單主檔
         InventoryCheck inventoryCheck = InventoryCheck.builder()
@@ -150,6 +159,82 @@ public class InventoryCheckService {
         return toItemDTO(item);
     }
 
+    /**
+     * 批次更新盤點明細（掃描器整批上傳）
+     * 盤點單只驗證一次，明細一次載入並以批次語句寫回
+     */
+    @Transactional
+    public InventoryCheckProgressDTO batchUpdateInventoryCheckItems(BatchUpdateInventoryCheckItemsRequest request) {
+        log.info("批次更新盤點明細, inventoryCheckId: {}, itemCount: {}",
+                request.getInventoryCheckId(), request.getItems().size());
+
+        InventoryCheck inventoryCheck = inventoryCheckRepository.findById(request.getInventoryCheckId())
+                .orElseThrow(() -> new ResourceNotFoundException(
+                        "盤點單不存在: " + request.getInventoryCheckId()));
+
+        if (!InventoryCheckStatus.IN_PROGRESS.equals(inventoryCheck.getStatus())) {
+            throw new IllegalStateException("只有盤點中狀態才能更新盤點數量");
+        }
+
+        List<InventoryCheckItem> items = inventoryCheckItemRepository
+                .findByInventoryCheckIdOrderByIdAsc(inventoryCheck.getId());
+
+        Map<Long, InventoryCheckItem> itemsById = new HashMap<>();
+        Map<String, InventoryCheckItem> itemsByMaterialCode = new HashMap<>();
+        for (InventoryCheckItem item : items) {
+            itemsById.put(item.getId(), item);
+            if (item.getMaterialCode() != null) {
+                itemsByMaterialCode.put(item.getMaterialCode(), item);
+            }
+        }
+
+        // 先完整驗證再套用，避免部分更新
+        // 同一明細重複上傳時以最後一筆為準
+        Map<InventoryCheckItem, BatchUpdateInventoryCheckItemsRequest.ItemCountInput> changes = new LinkedHashMap<>();
+        for (BatchUpdateInventoryCheckItemsRequest.ItemCountInput input : request.getItems()) {
+            changes.put(resolveItem(input, itemsById, itemsByMaterialCode), input);
+        }
+
+        changes.forEach((item, input) -> {
+            item.setActualQuantity(input.getActualQuantity());
+            item.setNote(input.getNote());
+            item.setIsChecked(true);
+            item.calculateDifference();
+        });
+
+        inventoryCheckItemRepository.saveAll(changes.keySet());
+
+        // 以已載入的明細計算進度與總盤差，不再重新查詢
+        int checkedCount = 0;
+        BigDecimal total = BigDecimal.ZERO;
+        for (InventoryCheckItem item : items) {
+            if (Boolean.TRUE.equals(item.getIsChecked())) {
+                checkedCount++;
+            }
+            if (item.getDifferenceAmount() != null) {
+                total = total.add(item.getDifferenceAmount());
+            }
+        }
+
+        inventoryCheck.setTotalDifferenceAmount(total);
+        inventoryCheckRepository.save(inventoryCheck);
+
+        log.info("批次更新盤點明細完成, inventoryCheckId: {}, updatedItems: {}, checkedItems: {}/{}",
+                inventoryCheck.getId(), changes.size(), checkedCount, items.size());
+
+        return InventoryCheckProgressDTO.builder()
+                .id(inventoryCheck.getId())
+                .checkNumber(inventoryCheck.getCheckNumber())
+                .status(inventoryCheck.getStatus())
+                .statusDisplayName(InventoryCheckStatus.getDisplayName(inventoryCheck.getStatus()))
+                .totalItems(items.size())
+                .checkedItems(checkedCount)
+                .uncheckedItems(items.size() - checkedCount)
+                .updatedItems(changes.size())
+                .totalDifferenceAmount(total)
+                .build();
+    }
+
     /**
      * 確認盤點 (IN_PROGRESS -> CONFIRMED)
      */
@@ -264,16 +349,6 @@ public class InventoryCheckService {
 
     // ========== 內部方法 ==========
 
-    /**
-     * 產生盤點單號
-     * 格式: IC-YYYYMMDD-XXXX
-     */
-    private String generateCheckNumber() {
-        String datePrefix = "IC-" + LocalDate.now().format(DateTimeFormatter.ofPattern("yyyyMMdd")) + "-";
-        long count = inventoryCheckRepository.countByCheckNumberPrefix(datePrefix);
-        return datePrefix + String.format("%04d", count + 1);
-    }
-
     /**
      * 查詢 PLANNED 狀態的盤點單
      */
@@ -302,6 +377,31 @@ public class InventoryCheckService {
         return inventoryCheck;
     }
 
+    /**
+     * 依明細 ID 或原物料編號找出盤點明細
+     */
+    private InventoryCheckItem resolveItem(BatchUpdateInventoryCheckItemsRequest.ItemCountInput input,
+                                           Map<Long, InventoryCheckItem> itemsById,
+                                           Map<String, InventoryCheckItem> itemsByMaterialCode) {
+        if (input.getItemId() != null) {
+            InventoryCheckItem item = itemsById.get(input.getItemId());
+            if (item == null) {
+                throw new ResourceNotFoundException("盤點明細不存在: " + input.getItemId());
+            }
+            return item;
+        }
+
+        if (input.getMaterialCode() != null && !input.getMaterialCode().isBlank()) {
+            InventoryCheckItem item = itemsByMaterialCode.get(input.getMaterialCode());
+            if (item == null) {
+                throw new ResourceNotFoundException("盤點單中不存在此原物料: " + input.getMaterialCode());
+            }
+            return item;
+        }
+
+        throw new IllegalArgumentException("明細 ID 與原物料編號不可同時為空");
+    }
+
     /**
      * 重新計算總盤差金額
      */
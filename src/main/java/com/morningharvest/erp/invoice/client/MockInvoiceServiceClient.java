@@ -1,12 +1,12 @@
 package com.morningharvest.erp.invoice.client;
 
+import com.morningharvest.erp.common.id.TimeOrderedId;
 import com.morningharvest.erp.invoice.client.dto.*;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDate;
-import java.util.UUID;
 import java.util.concurrent.atomic.AtomicLong;
 
 /**
@@ -30,7 +30,7 @@ public class MockInvoiceServiceClient implements InvoiceServiceClient {
 
         // 模擬發票號碼: AA-00000001
         String invoiceNumber = "AA-" + String.format("%08d", invoiceSequence.getAndIncrement());
-        String externalId = "mock-" + UUID.randomUUID().toString().substring(0, 8);
+        String externalId = "mock-" + TimeOrderedId.next();
 
         log.info("[Mock] 開立發票成功: invoiceNumber={}", invoiceNumber);
 
@@ -66,7 +66,7 @@ public class MockInvoiceServiceClient implements InvoiceServiceClient {
 
         // TODO: 實作正式發票服務後移除
         String allowanceNumber = "AA-" + String.format("%08d", allowanceSequence.getAndIncrement());
-        String externalId = "mock-allowance-" + UUID.randomUUID().toString().substring(0, 8);
+        String externalId = "mock-" + TimeOrderedId.next();
 
         log.info("[Mock] 開立折讓成功: allowanceNumber={}", allowanceNumber);
 
@@ -17,7 +17,7 @@ import java.math.BigDecimal;
 public class AllowanceExternalRequest {
 
     /**
-     * ERP 折讓記錄 ID (用於冪等性)
+     * 請求識別碼 ("allowance-" + 折讓 ID，同一操作重試時相同，用於冪等性)
      */
     private String requestId;
 
@@ -18,7 +18,7 @@ import java.util.List;
 public class IssueInvoiceExternalRequest {
 
     /**
-     * ERP 發票記錄 ID (用於冪等性)
+     * 請求識別碼 ("issue-" + 發票 ID，同一操作重試時相同，用於冪等性)
      */
     private String requestId;
 
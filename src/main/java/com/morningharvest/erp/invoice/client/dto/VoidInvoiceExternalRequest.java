@@ -15,7 +15,7 @@ import lombok.NoArgsConstructor;
 public class VoidInvoiceExternalRequest {
 
     /**
-     * ERP 發票記錄 ID (用於冪等性)
+     * 請求識別碼 ("void-" + 發票 ID，同一操作重試時相同，用於冪等性)
      */
     private String requestId;
 
@@ -152,7 +152,7 @@ public class InvoiceService {
 
         // 呼叫外部發票服務作廢
         VoidInvoiceExternalRequest externalRequest = VoidInvoiceExternalRequest.builder()
-                .requestId(String.valueOf(invoice.getId()))
+                .requestId("void-" + invoice.getId())
                 .invoiceNumber(invoice.getInvoiceNumber())
                 .reason(request.getReason())
                 .build();
@@ -217,7 +217,7 @@ public class InvoiceService {
 
         // 呼叫外部發票服務開立折讓
         AllowanceExternalRequest externalRequest = AllowanceExternalRequest.builder()
-                .requestId(String.valueOf(savedAllowance.getId()))
+                .requestId("allowance-" + savedAllowance.getId())
                 .invoiceNumber(invoice.getInvoiceNumber())
                 .salesAmount(salesAmount)
                 .taxAmount(taxAmount)
@@ -412,7 +412,7 @@ public class InvoiceService {
 
     private IssueInvoiceExternalRequest buildExternalRequest(Invoice invoice, List<InvoiceItem> items) {
         return IssueInvoiceExternalRequest.builder()
-                .requestId(String.valueOf(invoice.getId()))
+                .requestId("issue-" + invoice.getId())
                 .invoiceType(invoice.getInvoiceType())
                 .issueType(invoice.getIssueType())
                 .buyer(IssueInvoiceExternalRequest.Buyer.builder()
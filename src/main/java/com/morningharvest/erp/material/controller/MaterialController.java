@@ -6,6 +6,7 @@ import com.morningharvest.erp.common.dto.PageableRequest;
 import com.morningharvest.erp.material.dto.CreateMaterialRequest;
 import com.morningharvest.erp.material.dto.MaterialDTO;
 import com.morningharvest.erp.material.dto.UpdateMaterialRequest;
+import com.morningharvest.erp.material.service.MaterialCostingService;
 import com.morningharvest.erp.material.service.MaterialService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -28,6 +29,7 @@ import org.springframework.web.bind.annotation.*;
 public class MaterialController {
 
     private final MaterialService materialService;
+    private final MaterialCostingService materialCostingService;
 
     /**
      * 取得原物料詳情
@@ -138,4 +140,15 @@ public class MaterialController {
         MaterialDTO material = materialService.activateMaterial(id);
         return ApiResponse.success("原物料啟用成功", material);
     }
+
+    /**
+     * 重估原物料成本
+     */
+    @PostMapping("/revalue")
+    @Operation(summary = "重估原物料成本", description = "依進貨與盤點歷史重建所有原物料的移動加權平均成本")
+    public ApiResponse<Integer> revalueMaterials() {
+        log.info("重估原物料成本");
+        int count = materialCostingService.revalueAll();
+        return ApiResponse.success("原物料成本重估完成", count);
+    }
 }
@@ -25,6 +25,7 @@ public class MaterialDTO {
     private BigDecimal safeStockQuantity;
     private BigDecimal currentStockQuantity;
     private BigDecimal costPrice;
+    private BigDecimal stockValue;
     private Boolean isActive;
     private String note;
     private LocalDateTime createdAt;
@@ -1,5 +1,6 @@
 package com.morningharvest.erp.material.entity;
 
+import com.morningharvest.erp.search.listener.SearchIndexEntityListener;
 import jakarta.persistence.*;
 import lombok.*;
 
@@ -7,6 +8,7 @@ import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 @Entity
+@EntityListeners(SearchIndexEntityListener.class)
 @Table(name = "materials")
 @Getter
 @Setter
@@ -46,6 +48,12 @@ public class Material {
     @Builder.Default
     private BigDecimal costPrice = BigDecimal.ZERO;
 
+    /**
+     * 庫存總值，與目前庫存量共同維護移動加權平均成本
+     */
+    @Column(name = "stock_value", precision = 14, scale = 4)
+    private BigDecimal stockValue;
+
     @Column(name = "is_active")
     @Builder.Default
     private Boolean isActive = true;
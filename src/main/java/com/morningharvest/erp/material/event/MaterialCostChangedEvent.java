@@ -0,0 +1,31 @@
+package com.morningharvest.erp.material.event;
+
+import com.morningharvest.erp.common.event.BaseEvent;
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * 原物料成本變更事件
+ *
+ * 當進貨確認等流程調整原物料成本單價後發布此事件
+ */
+@Getter
+public class MaterialCostChangedEvent extends BaseEvent {
+
+    /**
+     * 成本有變動的原物料 ID
+     */
+    private final List<Long> materialIds;
+
+    public MaterialCostChangedEvent(List<Long> materialIds) {
+        super("MATERIAL");
+        this.materialIds = List.copyOf(materialIds);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s[eventId=%s, materialIds=%s]",
+                getEventType(), getEventId(), materialIds);
+    }
+}
@@ -23,6 +23,11 @@ public class MaterialUpdatedEvent extends BaseEvent {
         this.after = after;
     }
 
+    @Override
+    public String getAggregateKey() {
+        return "material:" + getMaterialId();
+    }
+
     public Long getMaterialId() {
         return after.getId();
     }
@@ -39,6 +44,13 @@ public class MaterialUpdatedEvent extends BaseEvent {
         return !Objects.equals(before.getUnit(), after.getUnit());
     }
 
+    public boolean isCostPriceChanged() {
+        if (before.getCostPrice() == null || after.getCostPrice() == null) {
+            return before.getCostPrice() != after.getCostPrice();
+        }
+        return before.getCostPrice().compareTo(after.getCostPrice()) != 0;
+    }
+
     public String getOldCode() {
         return before.getCode();
     }
@@ -1,22 +1,28 @@
 package com.morningharvest.erp.material.listener;
 
+import com.morningharvest.erp.common.event.EventLane;
+import com.morningharvest.erp.common.event.EventPublisher;
+import com.morningharvest.erp.common.event.IdempotentListener;
 import com.morningharvest.erp.inventorycheck.event.InventoryCheckConfirmedEvent;
 import com.morningharvest.erp.material.entity.Material;
+import com.morningharvest.erp.material.event.MaterialCostChangedEvent;
 import com.morningharvest.erp.material.repository.MaterialRepository;
+import com.morningharvest.erp.material.service.MovingAverageCost;
 import com.morningharvest.erp.purchase.event.PurchaseConfirmedEvent;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.context.event.EventListener;
-import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Component;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * 原物料庫存事件監聽器
  *
- * 監聽進貨、盤點相關事件，處理庫存更新
+ * 監聽進貨、盤點相關事件，處理庫存更新；庫存增減不可重複套用，以 @IdempotentListener 略過重複送達的事件
  */
 @Component
 @Slf4j
@@ -24,51 +30,65 @@ import java.math.BigDecimal;
 public class MaterialStockEventListener {
 
     private final MaterialRepository materialRepository;
+    private final EventPublisher eventPublisher;
 
     /**
      * 監聽進貨確認事件
      *
-     * 當進貨單確認時，增加對應原物料的庫存數量
+     * 當進貨單確認時，增加對應原物料的庫存數量並以移動加權平均更新成本單價，
+     * 成本有變動時發布成本變更事件
      */
-    @Async
+    @EventLane
+    @IdempotentListener
     @EventListener
     @Transactional
     public void onPurchaseConfirmed(PurchaseConfirmedEvent event) {
         log.info("收到進貨確認事件, purchaseId: {}, purchaseNumber: {}",
                 event.getPurchaseId(), event.getPurchaseNumber());
 
+        List<Long> costChangedMaterialIds = new ArrayList<>();
         for (PurchaseConfirmedEvent.PurchaseItemInfo item : event.getItems()) {
-            materialRepository.findById(item.getMaterialId())
+            materialRepository.findByIdForUpdate(item.getMaterialId())
                     .ifPresentOrElse(
-                            material -> updateMaterialStock(material, item),
+                            material -> {
+                                if (updateMaterialStock(material, item)) {
+                                    costChangedMaterialIds.add(material.getId());
+                                }
+                            },
                             () -> log.warn("原物料不存在, materialId: {}, 跳過庫存更新",
                                     item.getMaterialId())
                     );
         }
 
         log.info("進貨單庫存更新完成, purchaseId: {}", event.getPurchaseId());
+
+        if (!costChangedMaterialIds.isEmpty()) {
+            eventPublisher.publish(new MaterialCostChangedEvent(costChangedMaterialIds), "原物料成本變更");
+        }
     }
 
     /**
-     * 更新原物料庫存
+     * 更新原物料庫存（已鎖定該筆原物料）
+     *
+     * @return 成本單價是否有變動
      */
-    private void updateMaterialStock(Material material, PurchaseConfirmedEvent.PurchaseItemInfo item) {
+    private boolean updateMaterialStock(Material material, PurchaseConfirmedEvent.PurchaseItemInfo item) {
         BigDecimal oldQuantity = material.getCurrentStockQuantity();
-        if (oldQuantity == null) {
-            oldQuantity = BigDecimal.ZERO;
-        }
+        BigDecimal oldCostPrice = material.getCostPrice();
 
-        BigDecimal newQuantity = oldQuantity.add(item.getQuantity());
-        material.setCurrentStockQuantity(newQuantity);
-
-        // 更新成本單價（使用最新進貨價）
-        material.setCostPrice(item.getUnitPrice());
+        // 更新庫存量與移動加權平均成本
+        MovingAverageCost cost = MovingAverageCost.of(material);
+        cost.receive(item.getQuantity(), item.getUnitPrice());
+        boolean costChanged = cost.applyTo(material);
 
         materialRepository.save(material);
 
-        log.info("庫存更新成功, materialId: {}, code: {}, 舊數量: {}, 進貨數量: {}, 新數量: {}",
+        log.info("庫存更新成功, materialId: {}, code: {}, 舊數量: {}, 進貨數量: {}, 新數量: {}, 成本單價: {} -> {}",
                 material.getId(), material.getCode(),
-                oldQuantity, item.getQuantity(), newQuantity);
+                oldQuantity, item.getQuantity(), material.getCurrentStockQuantity(),
+                oldCostPrice, material.getCostPrice());
+
+        return costChanged;
     }
 
     /**
@@ -76,7 +96,8 @@ public class MaterialStockEventListener {
      *
      * 當盤點單確認時，將庫存調整為實際盤點數量
      */
-    @Async
+    @EventLane
+    @IdempotentListener
     @EventListener
     @Transactional
     public void onInventoryCheckConfirmed(InventoryCheckConfirmedEvent event) {
@@ -84,7 +105,7 @@ public class MaterialStockEventListener {
                 event.getInventoryCheckId(), event.getCheckNumber());
 
         for (InventoryCheckConfirmedEvent.InventoryCheckItemInfo item : event.getItems()) {
-            materialRepository.findById(item.getMaterialId())
+            materialRepository.findByIdForUpdate(item.getMaterialId())
                     .ifPresentOrElse(
                             material -> adjustMaterialStock(material, item),
                             () -> log.warn("原物料不存在, materialId: {}, 跳過庫存調整",
@@ -105,8 +126,10 @@ public class MaterialStockEventListener {
             oldQuantity = BigDecimal.ZERO;
         }
 
-        // 將庫存設定為實際盤點數量
-        material.setCurrentStockQuantity(item.getActualQuantity());
+        // 將庫存設定為實際盤點數量，平均成本不變
+        MovingAverageCost cost = MovingAverageCost.of(material);
+        cost.adjustTo(item.getActualQuantity());
+        cost.applyTo(material);
         materialRepository.save(material);
 
         log.info("庫存調整成功, materialId: {}, code: {}, 舊數量: {}, 實際數量: {}, 盤差: {}",
@@ -1,14 +1,27 @@
 package com.morningharvest.erp.material.repository;
 
 import com.morningharvest.erp.material.entity.Material;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Optional;
+
 @Repository
 public interface MaterialRepository extends JpaRepository<Material, Long> {
 
+    /**
+     * 依 ID 查詢並鎖定（庫存與成本異動用）
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT m FROM Material m WHERE m.id = :id")
+    Optional<Material> findByIdForUpdate(@Param("id") Long id);
+
     /**
      * 檢查編號是否存在
      */
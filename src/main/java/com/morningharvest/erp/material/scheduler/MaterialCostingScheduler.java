@@ -0,0 +1,32 @@
+package com.morningharvest.erp.material.scheduler;
+
+import com.morningharvest.erp.material.service.MaterialCostingService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * 原物料成本重估排程
+ *
+ * 定期由進貨與盤點歷史重建移動加權平均成本，需設定 material.costing.revaluation.enabled=true 才會啟用
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "material.costing.revaluation", name = "enabled", havingValue = "true")
+public class MaterialCostingScheduler {
+
+    private final MaterialCostingService materialCostingService;
+
+    @Scheduled(cron = "${material.costing.revaluation.cron:0 30 4 * * SUN}")
+    public void revalueAll() {
+        log.info("原物料成本重估排程開始");
+        try {
+            materialCostingService.revalueAll();
+        } catch (Exception e) {
+            log.error("原物料成本重估排程失敗: {}", e.getMessage(), e);
+        }
+    }
+}
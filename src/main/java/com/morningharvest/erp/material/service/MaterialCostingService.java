@@ -0,0 +1,116 @@
+package com.morningharvest.erp.material.service;
+
+import com.morningharvest.erp.common.event.EventPublisher;
+import com.morningharvest.erp.inventorycheck.constant.InventoryCheckStatus;
+import com.morningharvest.erp.inventorycheck.repository.InventoryCheckItemRepository;
+import com.morningharvest.erp.material.entity.Material;
+import com.morningharvest.erp.material.event.MaterialCostChangedEvent;
+import com.morningharvest.erp.material.repository.MaterialRepository;
+import com.morningharvest.erp.purchase.constant.PurchaseStatus;
+import com.morningharvest.erp.purchase.repository.PurchaseItemRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.stream.Stream;
+
+/**
+ * 原物料成本重估服務
+ *
+ * 依確認時間重播進貨入庫與盤點調整，重建各原物料的移動加權平均成本
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class MaterialCostingService {
+
+    private final MaterialRepository materialRepository;
+    private final PurchaseItemRepository purchaseItemRepository;
+    private final InventoryCheckItemRepository inventoryCheckItemRepository;
+    private final EventPublisher eventPublisher;
+
+    /**
+     * 重估所有原物料成本
+     *
+     * 進貨明細以串流單次讀取，盤點實盤數量依確認時間穿插套用；
+     * 重估後保留目前庫存量，僅更新成本單價與庫存總值
+     *
+     * @return 重估的原物料數量
+     */
+    @Transactional
+    public int revalueAll() {
+        log.info("開始重估原物料成本");
+
+        List<InventoryCheckItemRepository.MaterialStockCount> counts =
+                inventoryCheckItemRepository.findStockCounts(InventoryCheckStatus.CONFIRMED);
+        Map<Long, MovingAverageCost> costs = new HashMap<>();
+        int countIndex = 0;
+        long receiptCount = 0;
+
+        try (Stream<PurchaseItemRepository.MaterialReceipt> receipts =
+                     purchaseItemRepository.streamReceipts(PurchaseStatus.CONFIRMED)) {
+            Iterator<PurchaseItemRepository.MaterialReceipt> iterator = receipts.iterator();
+            while (iterator.hasNext()) {
+                PurchaseItemRepository.MaterialReceipt receipt = iterator.next();
+
+                // 先套用此筆進貨之前確認的盤點
+                while (countIndex < counts.size()
+                        && isBefore(counts.get(countIndex).getConfirmedAt(), receipt.getConfirmedAt())) {
+                    applyCount(costs, counts.get(countIndex++));
+                }
+
+                costs.computeIfAbsent(receipt.getMaterialId(), id -> new MovingAverageCost(null, null, null))
+                        .receive(receipt.getQuantity(), receipt.getUnitPrice());
+                receiptCount++;
+            }
+        }
+        while (countIndex < counts.size()) {
+            applyCount(costs, counts.get(countIndex++));
+        }
+
+        List<Long> changedMaterialIds = new ArrayList<>();
+        List<Material> materials = materialRepository.findAllById(costs.keySet());
+        for (Material material : materials) {
+            MovingAverageCost replayed = costs.get(material.getId());
+            MovingAverageCost current = new MovingAverageCost(
+                    material.getCurrentStockQuantity(), null, replayed.getAverageCost());
+            if (current.applyTo(material)) {
+                changedMaterialIds.add(material.getId());
+            }
+        }
+        materialRepository.saveAll(materials);
+
+        log.info("原物料成本重估完成, 進貨明細: {}, 盤點明細: {}, 原物料: {}, 成本變動: {}",
+                receiptCount, counts.size(), materials.size(), changedMaterialIds.size());
+
+        if (!changedMaterialIds.isEmpty()) {
+            eventPublisher.publish(new MaterialCostChangedEvent(changedMaterialIds), "原物料成本重估");
+        }
+
+        return materials.size();
+    }
+
+    /**
+     * 盤點調整僅對已有進貨紀錄的原物料有意義
+     */
+    private void applyCount(Map<Long, MovingAverageCost> costs,
+                            InventoryCheckItemRepository.MaterialStockCount count) {
+        MovingAverageCost cost = costs.get(count.getMaterialId());
+        if (cost != null) {
+            cost.adjustTo(count.getActualQuantity());
+        }
+    }
+
+    /**
+     * 比較確認時間，缺少時間的進貨視為最早
+     */
+    private boolean isBefore(LocalDateTime countConfirmedAt, LocalDateTime receiptConfirmedAt) {
+        if (receiptConfirmedAt == null) {
+            return false;
+        }
+        return countConfirmedAt == null || !countConfirmedAt.isAfter(receiptConfirmedAt);
+    }
+}
@@ -2,6 +2,7 @@ package com.morningharvest.erp.material.service;
 
 import com.morningharvest.erp.common.dto.PageResponse;
 import com.morningharvest.erp.common.dto.PageableRequest;
+import com.morningharvest.erp.common.event.EventPublisher;
 import com.morningharvest.erp.common.exception.ResourceNotFoundException;
 import com.morningharvest.erp.material.constant.MaterialCategory;
 import com.morningharvest.erp.material.constant.MaterialUnit;
@@ -13,7 +14,6 @@ import com.morningharvest.erp.material.event.MaterialUpdatedEvent;
 import com.morningharvest.erp.material.repository.MaterialRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -27,7 +27,7 @@ import java.util.Arrays;
 public class MaterialService {
 
     private final MaterialRepository materialRepository;
-    private final ApplicationEventPublisher eventPublisher;
+    private final EventPublisher eventPublisher;
 
     @Transactional
     public MaterialDTO createMaterial(CreateMaterialRequest request) {
@@ -66,6 +66,7 @@ public class MaterialService {
                 .isActive(true)
                 .note(request.getNote())
                 .build();
+        material.setStockValue(material.getCurrentStockQuantity().multiply(material.getCostPrice()));
 
         Material saved = materialRepository.save(material);
         log.info("原物料建立成功, id: {}", saved.getId());
@@ -77,7 +78,8 @@ public class MaterialService {
     public MaterialDTO updateMaterial(UpdateMaterialRequest request) {
         log.info("更新原物料, id: {}", request.getId());
 
-        Material material = materialRepository.findById(request.getId())
+        // 與進貨、盤點的庫存異動相同以悲觀鎖讀取，避免手動調整與庫存異動互相覆蓋
+        Material material = materialRepository.findByIdForUpdate(request.getId())
                 .orElseThrow(() -> new ResourceNotFoundException("原物料不存在: " + request.getId()));
 
         // 記錄更新前的狀態（用於事件發布）
@@ -116,6 +118,13 @@ public class MaterialService {
         if (request.getCostPrice() != null) {
             material.setCostPrice(request.getCostPrice());
         }
+        if (request.getCurrentStockQuantity() != null || request.getCostPrice() != null) {
+            // 手動調整庫存量或成本時，以新值重設庫存總值（未設定的庫存量或成本視為 0）
+            BigDecimal quantity = material.getCurrentStockQuantity() != null
+                    ? material.getCurrentStockQuantity() : BigDecimal.ZERO;
+            BigDecimal costPrice = material.getCostPrice() != null ? material.getCostPrice() : BigDecimal.ZERO;
+            material.setStockValue(quantity.multiply(costPrice));
+        }
         material.setNote(request.getNote());
 
         Material saved = materialRepository.save(material);
@@ -123,8 +132,8 @@ public class MaterialService {
 
         MaterialDTO afterDTO = toDTO(saved);
 
-        // 發布原物料更新事件
-        eventPublisher.publishEvent(new MaterialUpdatedEvent(beforeDTO, afterDTO));
+        // 發布原物料更新事件（經 outbox 派送，並通知其他節點）
+        eventPublisher.publish(new MaterialUpdatedEvent(beforeDTO, afterDTO), "原物料更新");
 
         return afterDTO;
     }
@@ -242,6 +251,7 @@ public class MaterialService {
                 .safeStockQuantity(material.getSafeStockQuantity())
                 .currentStockQuantity(material.getCurrentStockQuantity())
                 .costPrice(material.getCostPrice())
+                .stockValue(material.getStockValue())
                 .isActive(material.getIsActive())
                 .note(material.getNote())
                 .createdAt(material.getCreatedAt())
@@ -0,0 +1,88 @@
+package com.morningharvest.erp.material.service;
+
+import com.morningharvest.erp.material.entity.Material;
+import lombok.Getter;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * 移動加權平均成本計算
+ *
+ * 以庫存量與庫存總值維護平均成本，每次入庫或盤點調整皆為 O(1)。
+ * 庫存歸零（或為負）後再入庫時，平均成本重設為該次進貨單價
+ */
+@Getter
+public class MovingAverageCost {
+
+    private static final int VALUE_SCALE = 4;
+    private static final int AVERAGE_SCALE = 6;
+    private static final int PRICE_SCALE = 2;
+
+    private BigDecimal quantity;
+    private BigDecimal value;
+    private BigDecimal averageCost;
+
+    public MovingAverageCost(BigDecimal quantity, BigDecimal value, BigDecimal averageCost) {
+        this.quantity = quantity != null ? quantity : BigDecimal.ZERO;
+        this.averageCost = averageCost != null ? averageCost : BigDecimal.ZERO;
+        this.value = value != null ? value : this.quantity.max(BigDecimal.ZERO).multiply(this.averageCost);
+    }
+
+    /**
+     * 由原物料目前的庫存量、庫存總值與成本單價建立
+     *
+     * 尚未有庫存總值（舊資料）時以庫存量 × 成本單價推算
+     */
+    public static MovingAverageCost of(Material material) {
+        return new MovingAverageCost(
+                material.getCurrentStockQuantity(),
+                material.getStockValue(),
+                material.getCostPrice());
+    }
+
+    /**
+     * 進貨入庫
+     */
+    public void receive(BigDecimal receivedQuantity, BigDecimal unitPrice) {
+        if (quantity.signum() <= 0) {
+            // 無庫存可平均，重設為本次進貨單價
+            quantity = quantity.add(receivedQuantity);
+            value = quantity.max(BigDecimal.ZERO).multiply(unitPrice);
+            averageCost = unitPrice;
+            return;
+        }
+
+        quantity = quantity.add(receivedQuantity);
+        value = value.add(receivedQuantity.multiply(unitPrice));
+        if (quantity.signum() > 0) {
+            averageCost = value.divide(quantity, AVERAGE_SCALE, RoundingMode.HALF_UP);
+        } else {
+            value = BigDecimal.ZERO;
+        }
+    }
+
+    /**
+     * 盤點調整庫存量，平均成本不變
+     */
+    public void adjustTo(BigDecimal actualQuantity) {
+        quantity = actualQuantity;
+        value = actualQuantity.max(BigDecimal.ZERO).multiply(averageCost);
+    }
+
+    /**
+     * 寫回原物料的庫存量、庫存總值與成本單價
+     *
+     * @return 成本單價是否有變動
+     */
+    public boolean applyTo(Material material) {
+        BigDecimal oldCostPrice = material.getCostPrice();
+        BigDecimal newCostPrice = averageCost.setScale(PRICE_SCALE, RoundingMode.HALF_UP);
+
+        material.setCurrentStockQuantity(quantity);
+        material.setStockValue(value.setScale(VALUE_SCALE, RoundingMode.HALF_UP));
+        material.setCostPrice(newCostPrice);
+
+        return oldCostPrice == null || oldCostPrice.compareTo(newCostPrice) != 0;
+    }
+}
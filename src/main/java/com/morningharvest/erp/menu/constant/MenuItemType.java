@@ -0,0 +1,20 @@
+package com.morningharvest.erp.menu.constant;
+
+/**
+ * 菜單項目類型常數
+ */
+public final class MenuItemType {
+
+    public static final String SINGLE = "SINGLE";
+    public static final String COMBO = "COMBO";
+
+    private MenuItemType() {
+    }
+
+    /**
+     * 驗證類型是否有效
+     */
+    public static boolean isValid(String type) {
+        return SINGLE.equals(type) || COMBO.equals(type);
+    }
+}
@@ -0,0 +1,119 @@
+package com.morningharvest.erp.menu.controller;
+
+import com.morningharvest.erp.common.dto.ApiResponse;
+import com.morningharvest.erp.menu.dto.CreateMenuScheduleRequest;
+import com.morningharvest.erp.menu.dto.MenuScheduleDTO;
+import com.morningharvest.erp.menu.dto.UpdateMenuScheduleRequest;
+import com.morningharvest.erp.menu.service.MenuScheduleService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+/**
+ * 菜單時段管理 Controller
+ * 提供早餐、午餐、週末等時段菜單的維護 API
+ */
+@Slf4j
+@RestController
+@RequestMapping("/api/menu-schedules")
+@RequiredArgsConstructor
+@Tag(name = "菜單時段管理", description = "時段菜單項目、時段售價與啟用狀態維護")
+public class MenuScheduleController {
+
+    private final MenuScheduleService menuScheduleService;
+
+    /**
+     * 取得菜單時段詳情
+     */
+    @GetMapping("/detail")
+    @Operation(summary = "取得菜單時段詳情", description = "根據時段 ID 取得時段設定與菜單項目")
+    public ApiResponse<MenuScheduleDTO> getScheduleDetail(
+            @Parameter(description = "時段 ID", required = true, example = "1")
+            @RequestParam("id") Long id
+    ) {
+        log.debug("查詢菜單時段詳情, id: {}", id);
+        return ApiResponse.success(menuScheduleService.getScheduleById(id));
+    }
+
+    /**
+     * 查詢菜單時段列表
+     */
+    @GetMapping("/list")
+    @Operation(summary = "查詢菜單時段列表", description = "依優先序、開始時間列出全部時段")
+    public ApiResponse<List<MenuScheduleDTO>> listSchedules() {
+        log.debug("查詢菜單時段列表");
+        return ApiResponse.success(menuScheduleService.listSchedules());
+    }
+
+    /**
+     * 新增菜單時段
+     */
+    @PostMapping("/create")
+    @Operation(summary = "新增菜單時段", description = "建立時段與其菜單項目")
+    public ApiResponse<MenuScheduleDTO> createSchedule(
+            @Valid @RequestBody CreateMenuScheduleRequest request
+    ) {
+        log.info("新增菜單時段: {}", request.getName());
+        MenuScheduleDTO schedule = menuScheduleService.createSchedule(request);
+        return ApiResponse.success("菜單時段建立成功", schedule);
+    }
+
+    /**
+     * 更新菜單時段
+     */
+    @PostMapping("/update")
+    @Operation(summary = "更新菜單時段", description = "更新時段設定，菜單項目整批替換")
+    public ApiResponse<MenuScheduleDTO> updateSchedule(
+            @Valid @RequestBody UpdateMenuScheduleRequest request
+    ) {
+        log.info("更新菜單時段, id: {}", request.getId());
+        MenuScheduleDTO schedule = menuScheduleService.updateSchedule(request);
+        return ApiResponse.success("菜單時段更新成功", schedule);
+    }
+
+    /**
+     * 刪除菜單時段
+     */
+    @PostMapping("/delete")
+    @Operation(summary = "刪除菜單時段", description = "刪除指定時段與其菜單項目")
+    public ApiResponse<Void> deleteSchedule(
+            @Parameter(description = "時段 ID", required = true, example = "1")
+            @RequestParam("id") Long id
+    ) {
+        log.info("刪除菜單時段, id: {}", id);
+        menuScheduleService.deleteSchedule(id);
+        return ApiResponse.success("菜單時段刪除成功");
+    }
+
+    /**
+     * 啟用菜單時段
+     */
+    @PostMapping("/activate")
+    @Operation(summary = "啟用菜單時段", description = "將時段設為啟用狀態")
+    public ApiResponse<MenuScheduleDTO> activateSchedule(
+            @Parameter(description = "時段 ID", required = true, example = "1")
+            @RequestParam("id") Long id
+    ) {
+        log.info("啟用菜單時段, id: {}", id);
+        return ApiResponse.success("菜單時段啟用成功", menuScheduleService.activateSchedule(id));
+    }
+
+    /**
+     * 停用菜單時段
+     */
+    @PostMapping("/deactivate")
+    @Operation(summary = "停用菜單時段", description = "將時段設為停用狀態")
+    public ApiResponse<MenuScheduleDTO> deactivateSchedule(
+            @Parameter(description = "時段 ID", required = true, example = "1")
+            @RequestParam("id") Long id
+    ) {
+        log.info("停用菜單時段, id: {}", id);
+        return ApiResponse.success("菜單時段停用成功", menuScheduleService.deactivateSchedule(id));
+    }
+}
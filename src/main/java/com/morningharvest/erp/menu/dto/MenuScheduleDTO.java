@@ -0,0 +1,33 @@
+package com.morningharvest.erp.menu.dto;
+
+import lombok.*;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class MenuScheduleDTO {
+
+    private Long id;
+    private String name;
+    private LocalTime startTime;
+    private LocalTime endTime;
+
+    /**
+     * 適用星期，空清單表示每天
+     */
+    private List<DayOfWeek> daysOfWeek;
+    private LocalDate effectiveFrom;
+    private LocalDate effectiveTo;
+    private Integer priority;
+    private Boolean isActive;
+    private List<MenuScheduleItemDTO> items;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+}
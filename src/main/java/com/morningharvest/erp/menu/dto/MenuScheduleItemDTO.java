@@ -0,0 +1,31 @@
+package com.morningharvest.erp.menu.dto;
+
+import lombok.*;
+
+import java.math.BigDecimal;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class MenuScheduleItemDTO {
+
+    private Long id;
+
+    /**
+     * 項目類型 (SINGLE/COMBO)
+     */
+    private String itemType;
+    private Long itemId;
+    private String itemName;
+
+    /**
+     * 原售價
+     */
+    private BigDecimal basePrice;
+
+    /**
+     * 時段售價，null 表示沿用原售價
+     */
+    private BigDecimal priceOverride;
+}
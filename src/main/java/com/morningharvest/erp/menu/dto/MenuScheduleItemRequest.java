@@ -0,0 +1,33 @@
+package com.morningharvest.erp.menu.dto;
+
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class MenuScheduleItemRequest {
+
+    /**
+     * 項目類型 (SINGLE/COMBO)
+     */
+    @NotBlank(message = "項目類型不可為空")
+    private String itemType;
+
+    @NotNull(message = "項目 ID 不可為空")
+    private Long itemId;
+
+    /**
+     * 時段售價，不填表示沿用原售價
+     */
+    @DecimalMin(value = "0.00", message = "時段售價不可為負數")
+    private BigDecimal priceOverride;
+}
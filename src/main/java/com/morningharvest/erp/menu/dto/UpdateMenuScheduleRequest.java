@@ -0,0 +1,60 @@
+package com.morningharvest.erp.menu.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.Set;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class UpdateMenuScheduleRequest {
+
+    @NotNull(message = "時段 ID 不可為空")
+    private Long id;
+
+    @NotBlank(message = "時段名稱不可為空")
+    @Size(max = 50, message = "時段名稱不可超過 50 字元")
+    private String name;
+
+    @NotNull(message = "開始時間不可為空")
+    private LocalTime startTime;
+
+    /**
+     * 結束時間（不含），早於開始時間表示跨夜
+     */
+    @NotNull(message = "結束時間不可為空")
+    private LocalTime endTime;
+
+    /**
+     * 適用星期，不填表示每天
+     */
+    private Set<DayOfWeek> daysOfWeek;
+
+    private LocalDate effectiveFrom;
+
+    private LocalDate effectiveTo;
+
+    /**
+     * 優先序，時段重疊時取數值大者
+     */
+    @Min(value = 0, message = "優先序不可為負數")
+    private Integer priority;
+
+    @NotEmpty(message = "時段菜單項目不可為空")
+    @Valid
+    private List<MenuScheduleItemRequest> items;
+}
@@ -0,0 +1,61 @@
+package com.morningharvest.erp.menu.entity;
+
+import com.morningharvest.erp.pos.listener.MenuSnapshotEntityListener;
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * 時段菜單項目實體
+ */
+@Entity
+@EntityListeners(MenuSnapshotEntityListener.class)
+@Table(name = "menu_schedule_items")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class MenuScheduleItem {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "schedule_id", nullable = false)
+    private Long scheduleId;
+
+    /**
+     * 項目類型 (SINGLE/COMBO)
+     */
+    @Column(name = "item_type", nullable = false, length = 20)
+    private String itemType;
+
+    @Column(name = "item_id", nullable = false)
+    private Long itemId;
+
+    /**
+     * 時段售價，null 表示沿用原售價
+     */
+    @Column(name = "price_override", precision = 10, scale = 2)
+    private BigDecimal priceOverride;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+        updatedAt = LocalDateTime.now();
+    }
+
+    @PreUpdate
+    protected void onUpdate() {
+        updatedAt = LocalDateTime.now();
+    }
+}
@@ -0,0 +1,18 @@
+package com.morningharvest.erp.menu.repository;
+
+import com.morningharvest.erp.menu.entity.MenuScheduleItem;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface MenuScheduleItemRepository extends JpaRepository<MenuScheduleItem, Long> {
+
+    List<MenuScheduleItem> findByScheduleId(Long scheduleId);
+
+    List<MenuScheduleItem> findByScheduleIdIn(Collection<Long> scheduleIds);
+
+    void deleteByScheduleId(Long scheduleId);
+}
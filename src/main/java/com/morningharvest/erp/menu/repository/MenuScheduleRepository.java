@@ -0,0 +1,17 @@
+package com.morningharvest.erp.menu.repository;
+
+import com.morningharvest.erp.menu.entity.MenuSchedule;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface MenuScheduleRepository extends JpaRepository<MenuSchedule, Long> {
+
+    boolean existsByName(String name);
+
+    boolean existsByNameAndIdNot(String name, Long id);
+
+    List<MenuSchedule> findByIsActive(Boolean isActive);
+}
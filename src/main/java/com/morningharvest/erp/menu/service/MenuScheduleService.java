@@ -0,0 +1,276 @@
+package com.morningharvest.erp.menu.service;
+
+import com.morningharvest.erp.combo.entity.Combo;
+import com.morningharvest.erp.combo.repository.ComboRepository;
+import com.morningharvest.erp.common.exception.ResourceNotFoundException;
+import com.morningharvest.erp.menu.constant.MenuItemType;
+import com.morningharvest.erp.menu.dto.*;
+import com.morningharvest.erp.menu.entity.MenuSchedule;
+import com.morningharvest.erp.menu.entity.MenuScheduleItem;
+import com.morningharvest.erp.menu.repository.MenuScheduleItemRepository;
+import com.morningharvest.erp.menu.repository.MenuScheduleRepository;
+import com.morningharvest.erp.product.entity.Product;
+import com.morningharvest.erp.product.repository.ProductRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * 菜單時段服務
+ *
+ * 維護各時段（早餐、午餐、週末等）的菜單項目與時段售價；
+ * 實際套用由 POS 菜單快照在編譯時完成
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class MenuScheduleService {
+
+    private final MenuScheduleRepository menuScheduleRepository;
+    private final MenuScheduleItemRepository menuScheduleItemRepository;
+    private final ProductRepository productRepository;
+    private final ComboRepository comboRepository;
+
+    @Transactional
+    public MenuScheduleDTO createSchedule(CreateMenuScheduleRequest request) {
+        log.info("建立菜單時段: {}", request.getName());
+
+        if (menuScheduleRepository.existsByName(request.getName())) {
+            throw new IllegalArgumentException("時段名稱已存在: " + request.getName());
+        }
+        validateWindow(request.getStartTime(), request.getEndTime(),
+                request.getEffectiveFrom(), request.getEffectiveTo());
+        validateItems(request.getItems());
+
+        MenuSchedule schedule = menuScheduleRepository.save(MenuSchedule.builder()
+                .name(request.getName())
+                .startTime(request.getStartTime())
+                .endTime(request.getEndTime())
+                .daysOfWeek(formatDaysOfWeek(request.getDaysOfWeek()))
+                .effectiveFrom(request.getEffectiveFrom())
+                .effectiveTo(request.getEffectiveTo())
+                .priority(request.getPriority() != null ? request.getPriority() : 0)
+                .isActive(true)
+                .build());
+        List<MenuScheduleItem> items = saveItems(schedule.getId(), request.getItems());
+
+        log.info("菜單時段建立成功, id: {}, 項目數: {}", schedule.getId(), items.size());
+        return toDTO(schedule, items);
+    }
+
+    @Transactional
+    public MenuScheduleDTO updateSchedule(UpdateMenuScheduleRequest request) {
+        log.info("更新菜單時段, id: {}", request.getId());
+
+        MenuSchedule schedule = menuScheduleRepository.findById(request.getId())
+                .orElseThrow(() -> new ResourceNotFoundException("菜單時段不存在: " + request.getId()));
+
+        if (menuScheduleRepository.existsByNameAndIdNot(request.getName(), request.getId())) {
+            throw new IllegalArgumentException("時段名稱已存在: " + request.getName());
+        }
+        validateWindow(request.getStartTime(), request.getEndTime(),
+                request.getEffectiveFrom(), request.getEffectiveTo());
+        validateItems(request.getItems());
+
+        schedule.setName(request.getName());
+        schedule.setStartTime(request.getStartTime());
+        schedule.setEndTime(request.getEndTime());
+        schedule.setDaysOfWeek(formatDaysOfWeek(request.getDaysOfWeek()));
+        schedule.setEffectiveFrom(request.getEffectiveFrom());
+        schedule.setEffectiveTo(request.getEffectiveTo());
+        schedule.setPriority(request.getPriority() != null ? request.getPriority() : 0);
+        MenuSchedule saved = menuScheduleRepository.save(schedule);
+
+        // 項目整批替換
+        menuScheduleItemRepository.deleteByScheduleId(saved.getId());
+        menuScheduleItemRepository.flush();
+        List<MenuScheduleItem> items = saveItems(saved.getId(), request.getItems());
+
+        log.info("菜單時段更新成功, id: {}, 項目數: {}", saved.getId(), items.size());
+        return toDTO(saved, items);
+    }
+
+    @Transactional
+    public void deleteSchedule(Long id) {
+        log.info("刪除菜單時段, id: {}", id);
+
+        if (!menuScheduleRepository.existsById(id)) {
+            throw new ResourceNotFoundException("菜單時段不存在: " + id);
+        }
+        menuScheduleItemRepository.deleteByScheduleId(id);
+        menuScheduleRepository.deleteById(id);
+
+        log.info("菜單時段刪除成功, id: {}", id);
+    }
+
+    @Transactional(readOnly = true)
+    public MenuScheduleDTO getScheduleById(Long id) {
+        MenuSchedule schedule = menuScheduleRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("菜單時段不存在: " + id));
+        return toDTO(schedule, menuScheduleItemRepository.findByScheduleId(id));
+    }
+
+    @Transactional(readOnly = true)
+    public List<MenuScheduleDTO> listSchedules() {
+        List<MenuSchedule> schedules = menuScheduleRepository.findAll(
+                Sort.by(Sort.Direction.DESC, "priority").and(Sort.by("startTime")));
+        Map<Long, List<MenuScheduleItem>> itemsBySchedule = menuScheduleItemRepository
+                .findByScheduleIdIn(schedules.stream().map(MenuSchedule::getId).toList()).stream()
+                .collect(Collectors.groupingBy(MenuScheduleItem::getScheduleId));
+
+        return schedules.stream()
+                .map(s -> toDTO(s, itemsBySchedule.getOrDefault(s.getId(), List.of())))
+                .toList();
+    }
+
+    @Transactional
+    public MenuScheduleDTO activateSchedule(Long id) {
+        return setActive(id, true);
+    }
+
+    @Transactional
+    public MenuScheduleDTO deactivateSchedule(Long id) {
+        return setActive(id, false);
+    }
+
+    private MenuScheduleDTO setActive(Long id, boolean active) {
+        log.info("{}菜單時段, id: {}", active ? "啟用" : "停用", id);
+
+        MenuSchedule schedule = menuScheduleRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("菜單時段不存在: " + id));
+        schedule.setIsActive(active);
+        MenuSchedule saved = menuScheduleRepository.save(schedule);
+        return toDTO(saved, menuScheduleItemRepository.findByScheduleId(id));
+    }
+
+    /**
+     * 解析適用星期，空值表示每天
+     */
+    public static EnumSet<DayOfWeek> parseDaysOfWeek(String daysOfWeek) {
+        if (daysOfWeek == null || daysOfWeek.isBlank()) {
+            return EnumSet.allOf(DayOfWeek.class);
+        }
+        EnumSet<DayOfWeek> days = EnumSet.noneOf(DayOfWeek.class);
+        for (String day : daysOfWeek.split(",")) {
+            days.add(DayOfWeek.valueOf(day.trim()));
+        }
+        return days;
+    }
+
+    private static String formatDaysOfWeek(Set<DayOfWeek> days) {
+        if (days == null || days.isEmpty() || days.size() == DayOfWeek.values().length) {
+            return null;
+        }
+        return EnumSet.copyOf(days).stream().map(DayOfWeek::name).collect(Collectors.joining(","));
+    }
+
+    private void validateWindow(LocalTime startTime, LocalTime endTime, LocalDate from, LocalDate to) {
+        if (startTime.equals(endTime)) {
+            throw new IllegalArgumentException("開始時間與結束時間不可相同");
+        }
+        if (from != null && to != null && from.isAfter(to)) {
+            throw new IllegalArgumentException("生效日不可晚於失效日");
+        }
+    }
+
+    private void validateItems(List<MenuScheduleItemRequest> items) {
+        Set<String> seen = new HashSet<>();
+        Set<Long> productIds = new HashSet<>();
+        Set<Long> comboIds = new HashSet<>();
+        for (MenuScheduleItemRequest item : items) {
+            if (!MenuItemType.isValid(item.getItemType())) {
+                throw new IllegalArgumentException("無效的項目類型: " + item.getItemType());
+            }
+            if (!seen.add(item.getItemType() + ":" + item.getItemId())) {
+                throw new IllegalArgumentException("時段菜單項目重複: " + item.getItemType() + " " + item.getItemId());
+            }
+            (MenuItemType.SINGLE.equals(item.getItemType()) ? productIds : comboIds).add(item.getItemId());
+        }
+
+        Set<Long> foundProducts = productRepository.findAllById(productIds).stream()
+                .map(Product::getId).collect(Collectors.toSet());
+        for (Long productId : productIds) {
+            if (!foundProducts.contains(productId)) {
+                throw new ResourceNotFoundException("商品不存在: " + productId);
+            }
+        }
+        Set<Long> foundCombos = comboRepository.findAllById(comboIds).stream()
+                .map(Combo::getId).collect(Collectors.toSet());
+        for (Long comboId : comboIds) {
+            if (!foundCombos.contains(comboId)) {
+                throw new ResourceNotFoundException("套餐不存在: " + comboId);
+            }
+        }
+    }
+
+    private List<MenuScheduleItem> saveItems(Long scheduleId, List<MenuScheduleItemRequest> requests) {
+        List<MenuScheduleItem> items = requests.stream()
+                .map(r -> MenuScheduleItem.builder()
+                        .scheduleId(scheduleId)
+                        .itemType(r.getItemType())
+                        .itemId(r.getItemId())
+                        .priceOverride(r.getPriceOverride())
+                        .build())
+                .toList();
+        return menuScheduleItemRepository.saveAll(items);
+    }
+
+    private MenuScheduleDTO toDTO(MenuSchedule schedule, List<MenuScheduleItem> items) {
+        Map<Long, Product> products = productRepository.findAllById(items.stream()
+                        .filter(i -> MenuItemType.SINGLE.equals(i.getItemType()))
+                        .map(MenuScheduleItem::getItemId).toList()).stream()
+                .collect(Collectors.toMap(Product::getId, Function.identity()));
+        Map<Long, Combo> combos = comboRepository.findAllById(items.stream()
+                        .filter(i -> MenuItemType.COMBO.equals(i.getItemType()))
+                        .map(MenuScheduleItem::getItemId).toList()).stream()
+                .collect(Collectors.toMap(Combo::getId, Function.identity()));
+
+        List<MenuScheduleItemDTO> itemDTOs = items.stream()
+                .map(item -> {
+                    String name = null;
+                    BigDecimal basePrice = null;
+                    if (MenuItemType.SINGLE.equals(item.getItemType()) && products.containsKey(item.getItemId())) {
+                        name = products.get(item.getItemId()).getName();
+                        basePrice = products.get(item.getItemId()).getPrice();
+                    } else if (MenuItemType.COMBO.equals(item.getItemType()) && combos.containsKey(item.getItemId())) {
+                        name = combos.get(item.getItemId()).getName();
+                        basePrice = combos.get(item.getItemId()).getPrice();
+                    }
+                    return MenuScheduleItemDTO.builder()
+                            .id(item.getId())
+                            .itemType(item.getItemType())
+                            .itemId(item.getItemId())
+                            .itemName(name)
+                            .basePrice(basePrice)
+                            .priceOverride(item.getPriceOverride())
+                            .build();
+                })
+                .toList();
+
+        return MenuScheduleDTO.builder()
+                .id(schedule.getId())
+                .name(schedule.getName())
+                .startTime(schedule.getStartTime())
+                .endTime(schedule.getEndTime())
+                .daysOfWeek(schedule.getDaysOfWeek() == null ? List.of()
+                        : List.copyOf(parseDaysOfWeek(schedule.getDaysOfWeek())))
+                .effectiveFrom(schedule.getEffectiveFrom())
+                .effectiveTo(schedule.getEffectiveTo())
+                .priority(schedule.getPriority())
+                .isActive(schedule.getIsActive())
+                .items(itemDTOs)
+                .createdAt(schedule.getCreatedAt())
+                .updatedAt(schedule.getUpdatedAt())
+                .build();
+    }
+}
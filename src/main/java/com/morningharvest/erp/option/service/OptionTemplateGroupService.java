@@ -1,5 +1,6 @@
 package com.morningharvest.erp.option.service;
 
+import com.morningharvest.erp.common.cache.CacheNames;
 import com.morningharvest.erp.common.dto.PageResponse;
 import com.morningharvest.erp.common.dto.PageableRequest;
 import com.morningharvest.erp.common.exception.ResourceNotFoundException;
@@ -10,6 +11,8 @@ import com.morningharvest.erp.option.repository.OptionTemplateGroupRepository;
 import com.morningharvest.erp.option.repository.OptionTemplateValueRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.domain.Page;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -53,6 +56,7 @@ public class OptionTemplateGroupService {
     }
 
     @Transactional
+    @CacheEvict(cacheNames = CacheNames.OPTION_TEMPLATES, allEntries = true)
     public OptionTemplateGroupDTO updateGroup(UpdateOptionTemplateGroupRequest request) {
         log.info("更新選項範本群組, id: {}", request.getId());
 
@@ -83,6 +87,7 @@ public class OptionTemplateGroupService {
     }
 
     @Transactional
+    @CacheEvict(cacheNames = CacheNames.OPTION_TEMPLATES, allEntries = true)
     public void deleteGroup(Long id) {
         log.info("刪除選項範本群組, id: {}", id);
 
@@ -107,6 +112,7 @@ public class OptionTemplateGroupService {
     }
 
     @Transactional(readOnly = true)
+    @Cacheable(cacheNames = CacheNames.OPTION_TEMPLATES, key = "#id")
     public OptionTemplateGroupDetailDTO getGroupDetailById(Long id) {
         log.debug("查詢選項範本群組詳情（含選項值）, id: {}", id);
 
@@ -135,6 +141,7 @@ public class OptionTemplateGroupService {
     }
 
     @Transactional
+    @CacheEvict(cacheNames = CacheNames.OPTION_TEMPLATES, allEntries = true)
     public OptionTemplateGroupDTO activateGroup(Long id) {
         log.info("啟用選項範本群組, id: {}", id);
 
@@ -149,6 +156,7 @@ public class OptionTemplateGroupService {
     }
 
     @Transactional
+    @CacheEvict(cacheNames = CacheNames.OPTION_TEMPLATES, allEntries = true)
     public OptionTemplateGroupDTO deactivateGroup(Long id) {
         log.info("停用選項範本群組, id: {}", id);
 
@@ -1,5 +1,6 @@
 package com.morningharvest.erp.option.service;
 
+import com.morningharvest.erp.common.cache.CacheNames;
 import com.morningharvest.erp.common.exception.ResourceNotFoundException;
 import com.morningharvest.erp.option.dto.*;
 import com.morningharvest.erp.option.entity.OptionTemplateValue;
@@ -7,6 +8,7 @@ import com.morningharvest.erp.option.repository.OptionTemplateGroupRepository;
 import com.morningharvest.erp.option.repository.OptionTemplateValueRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -22,6 +24,7 @@ public class OptionTemplateValueService {
     private final OptionTemplateGroupRepository groupRepository;
 
     @Transactional
+    @CacheEvict(cacheNames = CacheNames.OPTION_TEMPLATES, allEntries = true)
     public OptionTemplateValueDTO createValue(CreateOptionTemplateValueRequest request) {
         log.info("建立選項範本值: groupId={}, name={}", request.getGroupId(), request.getName());
 
@@ -50,6 +53,7 @@ public class OptionTemplateValueService {
     }
 
     @Transactional
+    @CacheEvict(cacheNames = CacheNames.OPTION_TEMPLATES, allEntries = true)
     public OptionTemplateValueDTO updateValue(UpdateOptionTemplateValueRequest request) {
         log.info("更新選項範本值, id: {}", request.getId());
 
@@ -74,6 +78,7 @@ public class OptionTemplateValueService {
     }
 
     @Transactional
+    @CacheEvict(cacheNames = CacheNames.OPTION_TEMPLATES, allEntries = true)
     public void deleteValue(Long id) {
         log.info("刪除選項範本值, id: {}", id);
 
@@ -102,6 +107,7 @@ public class OptionTemplateValueService {
     }
 
     @Transactional
+    @CacheEvict(cacheNames = CacheNames.OPTION_TEMPLATES, allEntries = true)
     public OptionTemplateValueDTO activateValue(Long id) {
         log.info("啟用選項範本值, id: {}", id);
 
@@ -116,6 +122,7 @@ public class OptionTemplateValueService {
     }
 
     @Transactional
+    @CacheEvict(cacheNames = CacheNames.OPTION_TEMPLATES, allEntries = true)
     public OptionTemplateValueDTO deactivateValue(Long id) {
         log.info("停用選項範本值, id: {}", id);
 
@@ -21,4 +21,14 @@ public class OrderCancelledEvent extends BaseEvent {
         this.orderId = orderId;
         this.refundAmount = refundAmount;
     }
+
+    @Override
+    public String getAggregateKey() {
+        return "order:" + orderId;
+    }
+
+    @Override
+    public boolean isHighPriority() {
+        return true;
+    }
 }
@@ -21,4 +21,14 @@ public class OrderSubmittedEvent extends BaseEvent {
         this.orderId = orderId;
         this.totalAmount = totalAmount;
     }
+
+    @Override
+    public String getAggregateKey() {
+        return "order:" + orderId;
+    }
+
+    @Override
+    public boolean isHighPriority() {
+        return true;
+    }
 }
@@ -1,5 +1,7 @@
 package com.morningharvest.erp.order.listener;
 
+import com.morningharvest.erp.common.event.EventLane;
+import com.morningharvest.erp.common.event.IdempotentListener;
 import com.morningharvest.erp.common.exception.ResourceNotFoundException;
 import com.morningharvest.erp.order.entity.Order;
 import com.morningharvest.erp.order.repository.OrderRepository;
@@ -7,7 +9,6 @@ import com.morningharvest.erp.payment.event.PaymentCompletedEvent;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.context.event.EventListener;
-import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Component;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -28,7 +29,8 @@ public class OrderEventListener {
      *
      * 當付款完成時，更新訂單狀態為 PAID
      */
-    @Async
+    @EventLane
+    @IdempotentListener
     @EventListener
     @Transactional
     public void onPaymentCompleted(PaymentCompletedEvent event) {
@@ -3,8 +3,13 @@ package com.morningharvest.erp.order.repository;
 import com.morningharvest.erp.order.entity.OrderItem;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -24,4 +29,39 @@ public interface OrderItemRepository extends JpaRepository<OrderItem, Long> {
      */
     @Modifying
     void deleteByOrderId(Long orderId);
+
+    /**
+     * 依日期彙總單點商品銷售數量
+     */
+    @Query("SELECT i.productId AS productId, CAST(o.createdAt AS LocalDate) AS saleDate, SUM(i.quantity) AS quantity " +
+           "FROM SingleOrderItem i, Order o WHERE i.orderId = o.id " +
+           "AND o.status IN :statuses AND o.createdAt >= :start AND o.createdAt < :end " +
+           "GROUP BY i.productId, CAST(o.createdAt AS LocalDate)")
+    List<DailyProductSales> sumSingleItemQuantityByDay(
+            @Param("statuses") Collection<String> statuses,
+            @Param("start") LocalDateTime start,
+            @Param("end") LocalDateTime end);
+
+    /**
+     * 依日期彙總套餐內商品銷售數量
+     */
+    @Query("SELECT i.productId AS productId, CAST(o.createdAt AS LocalDate) AS saleDate, SUM(i.quantity) AS quantity " +
+           "FROM ComboItemOrderItem i, Order o WHERE i.orderId = o.id " +
+           "AND o.status IN :statuses AND o.createdAt >= :start AND o.createdAt < :end " +
+           "GROUP BY i.productId, CAST(o.createdAt AS LocalDate)")
+    List<DailyProductSales> sumComboItemQuantityByDay(
+            @Param("statuses") Collection<String> statuses,
+            @Param("start") LocalDateTime start,
+            @Param("end") LocalDateTime end);
+
+    /**
+     * 商品每日銷售數量彙總
+     */
+    interface DailyProductSales {
+        Long getProductId();
+
+        LocalDate getSaleDate();
+
+        Long getQuantity();
+    }
 }
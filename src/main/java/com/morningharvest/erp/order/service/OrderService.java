@@ -18,6 +18,7 @@ import com.morningharvest.erp.payment.entity.PaymentTransaction;
 import com.morningharvest.erp.payment.repository.PaymentTransactionRepository;
 import com.morningharvest.erp.order.repository.OrderItemRepository;
 import com.morningharvest.erp.order.repository.OrderRepository;
+import com.morningharvest.erp.pos.service.MenuSnapshotService;
 import com.morningharvest.erp.product.entity.Product;
 import com.morningharvest.erp.product.entity.ProductOptionGroup;
 import com.morningharvest.erp.product.entity.ProductOptionValue;
@@ -52,6 +53,7 @@ public class OrderService {
     private final ObjectMapper objectMapper;
     private final EventPublisher eventPublisher;
     private final PaymentTransactionRepository paymentTransactionRepository;
+    private final MenuSnapshotService menuSnapshotService;
 
     /**
      * 建立訂單（含項目）
@@ -388,7 +390,8 @@ public class OrderService {
         item.setOrderId(orderId);
         item.setProductId(product.getId());
         item.setProductName(product.getName());
-        item.setUnitPrice(product.getPrice());
+        // 依目前菜單時段計價
+        item.setUnitPrice(menuSnapshotService.resolvePrice("SINGLE", product.getId(), product.getPrice()));
         item.setQuantity(request.getQuantity() != null ? request.getQuantity() : 1);
         item.setOptions(serializeOptions(validatedOptions));
         item.setOptionsAmount(optionsAmount);
@@ -430,7 +433,7 @@ public class OrderService {
         comboHeader.setOrderId(orderId);
         comboHeader.setComboId(combo.getId());
         comboHeader.setComboName(combo.getName());
-        comboHeader.setComboPrice(combo.getPrice());
+        comboHeader.setComboPrice(menuSnapshotService.resolvePrice("COMBO", combo.getId(), combo.getPrice()));
         comboHeader.setGroupSequence(groupSequence);
         comboHeader.calculateSubtotal();
         orderItemRepository.save(comboHeader);
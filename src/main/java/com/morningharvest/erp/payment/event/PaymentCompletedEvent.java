@@ -23,4 +23,14 @@ public class PaymentCompletedEvent extends BaseEvent {
         this.transactionId = transactionId;
         this.amount = amount;
     }
+
+    @Override
+    public String getAggregateKey() {
+        return "order:" + orderId;
+    }
+
+    @Override
+    public boolean isHighPriority() {
+        return true;
+    }
 }
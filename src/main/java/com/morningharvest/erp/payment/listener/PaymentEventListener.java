@@ -1,12 +1,13 @@
 package com.morningharvest.erp.payment.listener;
 
+import com.morningharvest.erp.common.event.EventLane;
+import com.morningharvest.erp.common.event.IdempotentListener;
 import com.morningharvest.erp.order.event.OrderSubmittedEvent;
 import com.morningharvest.erp.payment.entity.PaymentTransaction;
 import com.morningharvest.erp.payment.repository.PaymentTransactionRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.context.event.EventListener;
-import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Component;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -25,20 +26,16 @@ public class PaymentEventListener {
     /**
      * 監聽訂單送出事件
      *
-     * 當訂單送出（DRAFT → PENDING_PAYMENT）時，自動建立 PENDING 狀態的付款條目
+     * 當訂單送出（DRAFT → PENDING_PAYMENT）時，自動建立 PENDING 狀態的付款條目；
+     * 訂單只會送出一次，重複送達的事件由 @IdempotentListener 略過
      */
-    @Async
+    @EventLane
+    @IdempotentListener
     @EventListener
     @Transactional
     public void onOrderSubmitted(OrderSubmittedEvent event) {
         log.info("收到訂單送出事件, orderId: {}, totalAmount: {}", event.getOrderId(), event.getTotalAmount());
 
-        // 檢查是否已存在付款條目
-        if (paymentTransactionRepository.existsByOrderIdAndStatus(event.getOrderId(), "PENDING")) {
-            log.warn("付款條目已存在, orderId: {}", event.getOrderId());
-            return;
-        }
-
         // 建立 PENDING 狀態的付款條目
         PaymentTransaction transaction = PaymentTransaction.builder()
                 .orderId(event.getOrderId())
@@ -12,7 +12,5 @@ public interface PaymentTransactionRepository extends JpaRepository<PaymentTrans
 
     List<PaymentTransaction> findByOrderIdOrderByIdDesc(Long orderId);
 
-    boolean existsByOrderIdAndStatus(Long orderId, String status);
-
     Optional<PaymentTransaction> findByOrderIdAndStatus(Long orderId, String status);
 }
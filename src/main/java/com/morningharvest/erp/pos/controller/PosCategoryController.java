@@ -3,6 +3,7 @@ package com.morningharvest.erp.pos.controller;
 import com.morningharvest.erp.common.dto.ApiResponse;
 import com.morningharvest.erp.common.dto.PageResponse;
 import com.morningharvest.erp.common.dto.PageableRequest;
+import com.morningharvest.erp.pos.service.MenuSnapshotService;
 import com.morningharvest.erp.product.dto.ProductCategoryDTO;
 import com.morningharvest.erp.product.service.ProductCategoryService;
 import io.swagger.v3.oas.annotations.Operation;
@@ -11,6 +12,8 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 @Slf4j
@@ -21,10 +24,13 @@ import org.springframework.web.bind.annotation.*;
 public class PosCategoryController {
 
     private final ProductCategoryService productCategoryService;
+    private final MenuSnapshotService menuSnapshotService;
 
     @GetMapping("/list")
-    @Operation(summary = "查詢啟用的分類列表", description = "查詢所有啟用中的商品分類（供 POS 點餐使用）")
-    public ApiResponse<PageResponse<ProductCategoryDTO>> listCategories(
+    @Operation(summary = "查詢啟用的分類列表",
+            description = "查詢所有啟用中的商品分類（供 POS 點餐使用）；預設查詢條件的回應為預先序列化內容，"
+                    + "支援 ETag (If-None-Match) 與 gzip")
+    public ResponseEntity<?> listCategories(
             @Parameter(description = "頁碼 (從 1 開始)", example = "1")
             @RequestParam(value = "page", defaultValue = "1") Integer page,
 
@@ -35,7 +41,10 @@ public class PosCategoryController {
             @RequestParam(value = "sortBy", defaultValue = "sortOrder") String sortBy,
 
             @Parameter(description = "排序方向 (ASC/DESC)", example = "ASC")
-            @RequestParam(value = "direction", defaultValue = "ASC") Sort.Direction direction
+            @RequestParam(value = "direction", defaultValue = "ASC") Sort.Direction direction,
+
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding
     ) {
         log.debug("POS 查詢分類列表, page: {}, size: {}", page, size);
 
@@ -46,8 +55,13 @@ public class PosCategoryController {
                 .direction(direction)
                 .build();
 
+        // 預設查詢條件直接輸出菜單快照編譯時預先序列化的回應
+        if (MenuSnapshotService.defaultCategoryPage().equals(pageableRequest)) {
+            return menuSnapshotService.categoryPayload().toResponse(ifNoneMatch, acceptEncoding);
+        }
+
         // POS 預設只查詢啟用的分類
         PageResponse<ProductCategoryDTO> result = productCategoryService.listCategories(pageableRequest, true);
-        return ApiResponse.success(result);
+        return ResponseEntity.ok(ApiResponse.success(result));
     }
 }
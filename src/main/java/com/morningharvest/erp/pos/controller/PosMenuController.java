@@ -2,12 +2,15 @@ package com.morningharvest.erp.pos.controller;
 
 import com.morningharvest.erp.common.dto.ApiResponse;
 import com.morningharvest.erp.pos.dto.SaleItemDTO;
+import com.morningharvest.erp.pos.service.MenuPayload;
 import com.morningharvest.erp.pos.service.PosMenuService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
@@ -22,15 +25,25 @@ public class PosMenuController {
     private final PosMenuService posMenuService;
 
     @GetMapping("/list")
-    @Operation(summary = "查詢銷售物品列表", description = "查詢商品與套餐的混合列表（僅啟用/上架），回傳含 orderPayload 供直接下單")
-    public ApiResponse<List<SaleItemDTO>> listSaleItems(
+    @Operation(summary = "查詢銷售物品列表",
+            description = "查詢商品與套餐的混合列表（僅啟用/上架），回傳含 orderPayload 供直接下單；"
+                    + "回應為預先序列化內容，支援 ETag (If-None-Match) 與 gzip")
+    public ResponseEntity<?> listSaleItems(
             @Parameter(description = "分類 ID（可選，不傳則查詢全部）")
-            @RequestParam(value = "categoryId", required = false) Long categoryId
+            @RequestParam(value = "categoryId", required = false) Long categoryId,
+
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding
     ) {
         log.debug("POS 查詢銷售物品列表, categoryId: {}", categoryId);
 
+        MenuPayload payload = posMenuService.getSaleItemsPayload(categoryId);
+        if (payload != null) {
+            return payload.toResponse(ifNoneMatch, acceptEncoding);
+        }
+
         List<SaleItemDTO> result = posMenuService.listSaleItems(categoryId);
-        return ApiResponse.success(result);
+        return ResponseEntity.ok(ApiResponse.success(result));
     }
 
     @GetMapping("/detail")
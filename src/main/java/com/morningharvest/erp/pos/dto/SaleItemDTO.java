@@ -1,6 +1,7 @@
 package com.morningharvest.erp.pos.dto;
 
 import com.morningharvest.erp.product.dto.ProductOptionGroupDetailDTO;
+import com.morningharvest.erp.storage.dto.ImageVariantsDTO;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -49,6 +50,11 @@ public class SaleItemDTO {
      */
     private String imageUrl;
 
+    /**
+     * 圖片衍生尺寸網址（尚未產生時為 null，使用原圖）
+     */
+    private ImageVariantsDTO imageVariants;
+
     /**
      * 分類 ID
      */
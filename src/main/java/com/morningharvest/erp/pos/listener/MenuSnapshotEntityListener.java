@@ -0,0 +1,47 @@
+package com.morningharvest.erp.pos.listener;
+
+import com.morningharvest.erp.pos.service.MenuSnapshotService;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * POS 菜單快照實體監聽器
+ *
+ * 掛在商品、商品分類、套餐、套餐內容、菜單時段實體上，異動時立即標記快照過期，
+ * 交易結束（提交或回滾）後再標記一次，避免交易期間編譯的快照留下未提交或已回滾的資料。
+ * 與搜尋索引相同，以 ObjectProvider 延遲取得服務，避免建立 EntityManagerFactory 時循環依賴
+ */
+@Component
+@RequiredArgsConstructor
+public class MenuSnapshotEntityListener {
+
+    private final ObjectProvider<MenuSnapshotService> snapshotServiceProvider;
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void onChanged(Object entity) {
+        markStale();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    markStale();
+                }
+            });
+        }
+    }
+
+    private void markStale() {
+        MenuSnapshotService service = snapshotServiceProvider.getIfAvailable();
+        if (service != null) {
+            service.markStale();
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.morningharvest.erp.pos.listener;
+
+import com.morningharvest.erp.catalog.event.CatalogImportedEvent;
+import com.morningharvest.erp.common.event.RemoteEvent;
+import com.morningharvest.erp.pos.service.MenuSnapshotService;
+import com.morningharvest.erp.product.event.ProductCategoryUpdatedEvent;
+import com.morningharvest.erp.product.event.ProductUpdatedEvent;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * POS 菜單快照事件監聽器
+ *
+ * 處理不經過實體監聽器的批次寫入；其他節點的匯入與商品（含售價）、分類更新經 Redis Stream 事件匯流排通知
+ * （實體監聽器只在寫入的節點觸發）
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class MenuSnapshotEventListener {
+
+    private final MenuSnapshotService menuSnapshotService;
+
+    /**
+     * 菜單資料包以 JDBC 批次寫入，匯入提交後標記快照過期
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCatalogImported(CatalogImportedEvent event) {
+        log.info("收到菜單資料包匯入事件, 標記 POS 菜單快照過期: {}", event);
+        menuSnapshotService.markStale();
+    }
+
+    /**
+     * 其他節點匯入菜單資料包，本機快照同樣過期
+     */
+    @EventListener
+    public void onRemoteCatalogImported(RemoteEvent<CatalogImportedEvent> event) {
+        log.info("收到其他節點的菜單資料包匯入事件, 標記 POS 菜單快照過期: {}", event);
+        menuSnapshotService.markStale();
+    }
+
+    /**
+     * 其他節點更新商品（名稱、售價、上下架），本機快照過期
+     */
+    @EventListener
+    public void onRemoteProductUpdated(RemoteEvent<ProductUpdatedEvent> event) {
+        log.debug("收到其他節點的商品更新事件, 標記 POS 菜單快照過期: {}", event);
+        menuSnapshotService.markStale();
+    }
+
+    /**
+     * 其他節點更新商品分類，本機快照過期
+     */
+    @EventListener
+    public void onRemoteProductCategoryUpdated(RemoteEvent<ProductCategoryUpdatedEvent> event) {
+        log.debug("收到其他節點的商品分類更新事件, 標記 POS 菜單快照過期: {}", event);
+        menuSnapshotService.markStale();
+    }
+}
@@ -0,0 +1,42 @@
+package com.morningharvest.erp.pos.scheduler;
+
+import com.morningharvest.erp.pos.service.MenuSnapshotService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * POS 菜單快照編譯排程
+ *
+ * 快照過期時於背景重新編譯，讓 POS 查詢不必同步編譯；並定期強制重新編譯，
+ * 涵蓋其他節點與批次 SQL 的變更（pos.menu.snapshot.refresh.enabled 設為 false 可停用）
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "pos.menu.snapshot.refresh", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class MenuSnapshotScheduler {
+
+    private final MenuSnapshotService menuSnapshotService;
+
+    @Scheduled(fixedDelayString = "${pos.menu.snapshot.refresh.check-interval:1000}")
+    public void refreshIfStale() {
+        if (!menuSnapshotService.isStale()) {
+            return;
+        }
+        try {
+            menuSnapshotService.refresh();
+        } catch (Exception e) {
+            log.error("POS 菜單快照編譯排程失敗: {}", e.getMessage(), e);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${pos.menu.snapshot.refresh.rebuild-interval:300000}",
+            initialDelayString = "${pos.menu.snapshot.refresh.rebuild-interval:300000}")
+    public void rebuild() {
+        menuSnapshotService.markStale();
+        refreshIfStale();
+    }
+}
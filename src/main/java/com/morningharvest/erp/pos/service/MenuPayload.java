@@ -0,0 +1,93 @@
+package com.morningharvest.erp.pos.service;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+
+import java.util.List;
+
+/**
+ * 預先序列化、壓縮的 POS 菜單回應
+ *
+ * @param identity 未壓縮的 JSON
+ * @param gzip     gzip 壓縮後的 JSON
+ * @param etag     依回應資料計算的 ETag（不含引號）
+ */
+public record MenuPayload(byte[] identity, byte[] gzip, String etag) {
+
+    /**
+     * 依請求的 If-None-Match、Accept-Encoding 建立回應：
+     * ETag 相符時回傳 304，用戶端接受 gzip 時回傳壓縮內容
+     */
+    public ResponseEntity<byte[]> toResponse(String ifNoneMatch, String acceptEncoding) {
+        boolean useGzip = acceptsGzip(acceptEncoding);
+        String tag = useGzip ? "\"" + etag + "-gzip\"" : "\"" + etag + "\"";
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.setETag(tag);
+        headers.setVary(List.of(HttpHeaders.ACCEPT_ENCODING));
+
+        if (matches(ifNoneMatch)) {
+            return new ResponseEntity<>(headers, HttpStatus.NOT_MODIFIED);
+        }
+
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        if (useGzip) {
+            headers.set(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        byte[] body = useGzip ? gzip : identity;
+        headers.setContentLength(body.length);
+        return new ResponseEntity<>(body, headers, HttpStatus.OK);
+    }
+
+    /**
+     * If-None-Match 是否命中（兩種編碼的 ETag 皆視為相同資料）
+     */
+    private boolean matches(String ifNoneMatch) {
+        if (ifNoneMatch == null || ifNoneMatch.isBlank()) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (tag.equals("*") || tag.equals("\"" + etag + "\"") || tag.equals("\"" + etag + "-gzip\"")) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Accept-Encoding 是否接受 gzip（q=0 表示拒絕）
+     */
+    static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String part : acceptEncoding.split(",")) {
+            String[] tokens = part.split(";");
+            String coding = tokens[0].trim().toLowerCase();
+            if (!coding.equals("gzip") && !coding.equals("x-gzip") && !coding.equals("*")) {
+                continue;
+            }
+            double q = 1.0;
+            for (int i = 1; i < tokens.length; i++) {
+                String param = tokens[i].trim();
+                if (param.startsWith("q=")) {
+                    try {
+                        q = Double.parseDouble(param.substring(2));
+                    } catch (NumberFormatException e) {
+                        q = 0;
+                    }
+                }
+            }
+            if (q > 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
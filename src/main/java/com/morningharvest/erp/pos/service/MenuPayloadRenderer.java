@@ -0,0 +1,56 @@
+package com.morningharvest.erp.pos.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.morningharvest.erp.common.dto.ApiResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * POS 菜單回應預先序列化
+ *
+ * 以 Spring MVC 相同的 ObjectMapper 將 ApiResponse 序列化為 JSON，並預先 gzip 壓縮；
+ * ETag 只依 data 計算，不受回應時間戳記影響，重新編譯但資料未變時用戶端仍可沿用快取
+ */
+@Component
+@RequiredArgsConstructor
+public class MenuPayloadRenderer {
+
+    private final ObjectMapper objectMapper;
+
+    public MenuPayload render(Object data) {
+        try {
+            byte[] identity = objectMapper.writeValueAsBytes(ApiResponse.success(data));
+            return new MenuPayload(identity, gzip(identity), etag(objectMapper.writeValueAsBytes(data)));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("POS 菜單序列化失敗: " + e.getMessage(), e);
+        }
+    }
+
+    private static byte[] gzip(byte[] data) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(64, data.length / 4));
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(data);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+
+    private static String etag(byte[] data) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(data);
+            return HexFormat.of().formatHex(digest, 0, 16);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
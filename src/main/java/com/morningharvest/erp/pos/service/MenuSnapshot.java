@@ -0,0 +1,62 @@
+package com.morningharvest.erp.pos.service;
+
+import com.morningharvest.erp.pos.dto.SaleItemDTO;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 預先編譯的 POS 菜單快照（不可變）
+ *
+ * @param scheduleId      套用的菜單時段 ID，預設菜單為 null
+ * @param scheduleName    套用的菜單時段名稱，預設菜單為 null
+ * @param items           依排序的全部銷售物品
+ * @param itemsByCategory 依分類分組的銷售物品
+ * @param prices          售價 (類型:ID -> 售價)
+ * @param priceOverrides  時段指定的售價 (類型:ID -> 時段售價)，不含沿用原售價的項目
+ * @param payload         全部銷售物品的預先序列化回應
+ * @param categoryPayloads 各分類的預先序列化回應
+ */
+public record MenuSnapshot(Long scheduleId, String scheduleName, List<SaleItemDTO> items,
+                           Map<Long, List<SaleItemDTO>> itemsByCategory, Map<String, BigDecimal> prices,
+                           Map<String, BigDecimal> priceOverrides, MenuPayload payload, Map<Long, MenuPayload> categoryPayloads) {
+
+    /**
+     * 查詢銷售物品，categoryId 為 null 時回傳全部
+     */
+    public List<SaleItemDTO> items(Long categoryId) {
+        if (categoryId == null) {
+            return items;
+        }
+        return itemsByCategory.getOrDefault(categoryId, List.of());
+    }
+
+    /**
+     * 預先序列化的銷售物品列表回應，categoryId 為 null 時回傳全部；分類無銷售物品時回傳 null
+     */
+    public MenuPayload payload(Long categoryId) {
+        if (categoryId == null) {
+            return payload;
+        }
+        return categoryPayloads.get(categoryId);
+    }
+
+    /**
+     * 此快照中的售價，不在菜單上時回傳 null
+     */
+    public BigDecimal price(String itemType, Long itemId) {
+        return prices.get(key(itemType, itemId));
+    }
+
+    /**
+     * 此快照的時段售價，沒有時段售價（預設菜單或沿用原售價）時回傳 null
+     */
+    public BigDecimal priceOverride(String itemType, Long itemId) {
+        return priceOverrides.get(key(itemType, itemId));
+    }
+
+    static String key(String itemType, Long itemId) {
+        return itemType + ":" + itemId;
+    }
+}
@@ -0,0 +1,403 @@
+package com.morningharvest.erp.pos.service;
+
+import com.morningharvest.erp.combo.entity.Combo;
+import com.morningharvest.erp.combo.entity.ComboItem;
+import com.morningharvest.erp.combo.repository.ComboItemRepository;
+import com.morningharvest.erp.combo.repository.ComboRepository;
+import com.morningharvest.erp.common.dto.PageableRequest;
+import com.morningharvest.erp.menu.constant.MenuItemType;
+import com.morningharvest.erp.menu.entity.MenuSchedule;
+import com.morningharvest.erp.menu.entity.MenuScheduleItem;
+import com.morningharvest.erp.menu.repository.MenuScheduleItemRepository;
+import com.morningharvest.erp.menu.repository.MenuScheduleRepository;
+import com.morningharvest.erp.menu.service.MenuScheduleService;
+import com.morningharvest.erp.pos.dto.SaleItemDTO;
+import com.morningharvest.erp.pos.dto.SaleItemPayloadDTO;
+import com.morningharvest.erp.product.entity.Product;
+import com.morningharvest.erp.product.repository.ProductRepository;
+import com.morningharvest.erp.product.service.ProductCategoryService;
+import com.morningharvest.erp.storage.dto.ImageVariantsDTO;
+import com.morningharvest.erp.storage.service.ImageDerivativeService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Collectors;
+
+/**
+ * POS 菜單快照服務
+ *
+ * 將上架商品、套餐與菜單時段預先編譯為不可變的菜單快照：一份預設菜單，以及每個啟用中時段各一份
+ * （只含時段所列項目並套用時段售價）。查詢時只依目前時間在記憶體中選出適用的時段快照，
+ * 時段交界即時切換，不需存取資料庫。
+ *
+ * 商品、套餐、時段異動時由實體監聽器標記快照過期，背景排程重新編譯；
+ * 查詢（含下單時的售價解析）一律使用上一次的編譯結果，不在請求中同步編譯。
+ * 僅在尚未編譯過，或停用背景編譯（pos.menu.snapshot.refresh.enabled=false）時由查詢同步編譯。
+ *
+ * 編譯時一併將各快照的列表回應與 POS 分類列表預先序列化、壓縮，
+ * POS 查詢直接輸出位元組，不需每次序列化與壓縮
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class MenuSnapshotService {
+
+    private final ProductRepository productRepository;
+    private final ComboRepository comboRepository;
+    private final ComboItemRepository comboItemRepository;
+    private final MenuScheduleRepository menuScheduleRepository;
+    private final MenuScheduleItemRepository menuScheduleItemRepository;
+    private final ProductCategoryService productCategoryService;
+    private final MenuPayloadRenderer menuPayloadRenderer;
+    private final ImageDerivativeService imageDerivativeService;
+    private final PlatformTransactionManager transactionManager;
+
+    /**
+     * 是否由背景排程重新編譯；停用時過期快照由查詢同步編譯
+     */
+    @Value("${pos.menu.snapshot.refresh.enabled:true}")
+    private boolean backgroundRefresh;
+
+    /**
+     * 資料異動版本，每次異動遞增
+     */
+    private final AtomicLong version = new AtomicLong();
+
+    /**
+     * 目前的編譯結果，尚未編譯時為 null
+     */
+    private volatile CompiledMenu compiled;
+
+    /**
+     * 編譯互斥；期間讀取資料庫，使用 ReentrantLock 而非 synchronized，避免釘選虛擬執行緒
+     */
+    private final ReentrantLock compileLock = new ReentrantLock();
+
+    /**
+     * 標記快照過期
+     */
+    public void markStale() {
+        version.incrementAndGet();
+    }
+
+    /**
+     * 快照是否需要重新編譯
+     */
+    public boolean isStale() {
+        CompiledMenu current = compiled;
+        return current == null || current.version != version.get();
+    }
+
+    /**
+     * 目前時間適用的菜單快照
+     */
+    public MenuSnapshot current() {
+        return snapshotAt(LocalDateTime.now());
+    }
+
+    /**
+     * 指定時間適用的菜單快照
+     */
+    public MenuSnapshot snapshotAt(LocalDateTime time) {
+        return compiledForRead().select(time);
+    }
+
+    /**
+     * 預先序列化的 POS 分類列表回應（預設查詢條件）
+     */
+    public MenuPayload categoryPayload() {
+        return compiledForRead().categoryPayload();
+    }
+
+    /**
+     * 查詢使用的編譯結果：背景編譯時即使已過期也沿用上一次的結果，由排程更新
+     */
+    private CompiledMenu compiledForRead() {
+        CompiledMenu current = compiled;
+        if (current == null || (!backgroundRefresh && current.version != version.get())) {
+            current = compile();
+        }
+        return current;
+    }
+
+    /**
+     * POS 分類列表的預設查詢條件，此條件的回應於編譯時預先序列化
+     */
+    public static PageableRequest defaultCategoryPage() {
+        return PageableRequest.builder()
+                .page(1)
+                .size(50)
+                .sortBy("sortOrder")
+                .direction(Sort.Direction.ASC)
+                .build();
+    }
+
+    /**
+     * 下單售價：目前時段有指定售價時使用時段售價，否則使用呼叫端剛讀取的原售價
+     *
+     * 快照於背景重新編譯，其他節點最久延遲一個強制重新編譯間隔，因此只取時段售價，
+     * 原售價一律以資料庫的最新值為準，避免改價後仍以舊價計價
+     */
+    public BigDecimal resolvePrice(String itemType, Long itemId, BigDecimal basePrice) {
+        BigDecimal override = current().priceOverride(itemType, itemId);
+        return override != null ? override : basePrice;
+    }
+
+    /**
+     * 重新編譯全部菜單快照（供背景排程呼叫）
+     */
+    public void refresh() {
+        compile();
+    }
+
+    /**
+     * 重新編譯全部菜單快照
+     *
+     * 查詢時的同步編譯屬於自我呼叫，@Transactional 不會生效，因此以程式化唯讀交易包住整次讀取
+     */
+    CompiledMenu compile() {
+        compileLock.lock();
+        try {
+            TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+            readOnly.setReadOnly(true);
+            return readOnly.execute(status -> compileSnapshots());
+        } finally {
+            compileLock.unlock();
+        }
+    }
+
+    private CompiledMenu compileSnapshots() {
+        CompiledMenu current = compiled;
+        long targetVersion = version.get();
+        if (current != null && current.version == targetVersion) {
+            return current;
+        }
+
+        List<Product> products = productRepository.findAll().stream()
+                .filter(p -> Boolean.TRUE.equals(p.getIsActive()))
+                .sorted(Comparator.comparing(Product::getSortOrder, Comparator.nullsLast(Comparator.naturalOrder()))
+                        .thenComparing(Product::getId))
+                .toList();
+        List<Combo> combos = comboRepository.findAll().stream()
+                .filter(c -> Boolean.TRUE.equals(c.getIsActive()))
+                .sorted(Comparator.comparing(Combo::getSortOrder, Comparator.nullsLast(Comparator.naturalOrder()))
+                        .thenComparing(Combo::getId))
+                .toList();
+        Map<Long, List<ComboItem>> comboItems = comboItemRepository.findAll().stream()
+                .sorted(Comparator.comparing(ComboItem::getSortOrder, Comparator.nullsLast(Comparator.naturalOrder())))
+                .collect(Collectors.groupingBy(ComboItem::getComboId));
+
+        List<String> imageUrls = new ArrayList<>();
+        products.forEach(p -> imageUrls.add(p.getImageUrl()));
+        combos.forEach(c -> imageUrls.add(c.getImageUrl()));
+        Map<String, ImageVariantsDTO> imageVariants = imageDerivativeService.findVariants(imageUrls);
+
+        MenuSnapshot defaultMenu = buildSnapshot(null, null, products, combos, comboItems, imageVariants, null);
+
+        List<MenuSchedule> schedules = menuScheduleRepository.findByIsActive(true);
+        Map<Long, List<MenuScheduleItem>> scheduleItems = menuScheduleItemRepository
+                .findByScheduleIdIn(schedules.stream().map(MenuSchedule::getId).toList()).stream()
+                .collect(Collectors.groupingBy(MenuScheduleItem::getScheduleId));
+
+        List<ScheduleWindow> windows = new ArrayList<>();
+        for (MenuSchedule schedule : schedules) {
+            Map<String, Optional<BigDecimal>> overrides = new HashMap<>();
+            for (MenuScheduleItem item : scheduleItems.getOrDefault(schedule.getId(), List.of())) {
+                overrides.put(MenuSnapshot.key(item.getItemType(), item.getItemId()),
+                        Optional.ofNullable(item.getPriceOverride()));
+            }
+            windows.add(new ScheduleWindow(schedule.getId(),
+                    schedule.getPriority() != null ? schedule.getPriority() : 0,
+                    schedule.getStartTime(), schedule.getEndTime(),
+                    MenuScheduleService.parseDaysOfWeek(schedule.getDaysOfWeek()),
+                    schedule.getEffectiveFrom(), schedule.getEffectiveTo(),
+                    buildSnapshot(schedule.getId(), schedule.getName(), products, combos, comboItems,
+                            imageVariants, overrides)));
+        }
+        windows.sort(Comparator.comparingInt(ScheduleWindow::priority).reversed()
+                .thenComparing(ScheduleWindow::scheduleId));
+
+        MenuPayload categoryPayload = menuPayloadRenderer.render(
+                productCategoryService.listCategories(defaultCategoryPage(), true));
+
+        CompiledMenu result = new CompiledMenu(targetVersion, List.copyOf(windows), defaultMenu, categoryPayload);
+        compiled = result;
+
+        log.info("POS 菜單快照編譯完成, 商品數: {}, 套餐數: {}, 時段數: {}",
+                products.size(), combos.size(), windows.size());
+        return result;
+    }
+
+    /**
+     * 建立單一快照
+     *
+     * @param overrides 時段項目 (類型:ID -> 時段售價)，null 表示預設菜單（全部上架項目、原售價）
+     */
+    private MenuSnapshot buildSnapshot(Long scheduleId, String scheduleName, List<Product> products, List<Combo> combos,
+                                       Map<Long, List<ComboItem>> comboItems,
+                                       Map<String, ImageVariantsDTO> imageVariants,
+                                       Map<String, Optional<BigDecimal>> overrides) {
+        List<SaleItemDTO> items = new ArrayList<>();
+        Map<String, BigDecimal> prices = new HashMap<>();
+        Map<String, BigDecimal> priceOverrides = new HashMap<>();
+        if (overrides != null) {
+            overrides.forEach((key, override) -> override.ifPresent(price -> priceOverrides.put(key, price)));
+        }
+
+        for (Product product : products) {
+            BigDecimal price = priceOf(MenuItemType.SINGLE, product.getId(), product.getPrice(), overrides);
+            if (price != null) {
+                items.add(toSingleSaleItem(product, price, imageVariants.get(product.getImageUrl())));
+                prices.put(MenuSnapshot.key(MenuItemType.SINGLE, product.getId()), price);
+            }
+        }
+        for (Combo combo : combos) {
+            BigDecimal price = priceOf(MenuItemType.COMBO, combo.getId(), combo.getPrice(), overrides);
+            if (price != null) {
+                items.add(toComboSaleItem(combo, comboItems.getOrDefault(combo.getId(), List.of()), price,
+                        imageVariants.get(combo.getImageUrl())));
+                prices.put(MenuSnapshot.key(MenuItemType.COMBO, combo.getId()), price);
+            }
+        }
+
+        // 依 sortOrder 排序（穩定排序，同序時商品在前）
+        items.sort(Comparator.comparing(SaleItemDTO::getSortOrder, Comparator.nullsLast(Comparator.naturalOrder())));
+
+        Map<Long, List<SaleItemDTO>> byCategory = items.stream()
+                .filter(item -> item.getCategoryId() != null)
+                .collect(Collectors.groupingBy(SaleItemDTO::getCategoryId, Collectors.toUnmodifiableList()));
+
+        Map<Long, MenuPayload> categoryPayloads = new HashMap<>();
+        byCategory.forEach((categoryId, categoryItems) ->
+                categoryPayloads.put(categoryId, menuPayloadRenderer.render(categoryItems)));
+
+        return new MenuSnapshot(scheduleId, scheduleName, List.copyOf(items), Map.copyOf(byCategory), Map.copyOf(prices),
+                Map.copyOf(priceOverrides), menuPayloadRenderer.render(items), Map.copyOf(categoryPayloads));
+    }
+
+    /**
+     * 項目在快照中的售價，不在菜單上時回傳 null
+     */
+    private static BigDecimal priceOf(String itemType, Long itemId, BigDecimal basePrice,
+                                      Map<String, Optional<BigDecimal>> overrides) {
+        if (basePrice == null) {
+            return null;
+        }
+        if (overrides == null) {
+            return basePrice;
+        }
+        Optional<BigDecimal> override = overrides.get(MenuSnapshot.key(itemType, itemId));
+        if (override == null) {
+            return null;
+        }
+        return override.orElse(basePrice);
+    }
+
+    private SaleItemDTO toSingleSaleItem(Product product, BigDecimal price, ImageVariantsDTO imageVariants) {
+        return SaleItemDTO.builder()
+                .type(MenuItemType.SINGLE)
+                .id(product.getId())
+                .name(product.getName())
+                .description(product.getDescription())
+                .price(price)
+                .imageUrl(product.getImageUrl())
+                .imageVariants(imageVariants)
+                .categoryId(product.getCategoryId())
+                .categoryName(product.getCategoryName())
+                .sortOrder(product.getSortOrder())
+                .orderPayload(List.of(
+                        SaleItemPayloadDTO.single(product.getId(), product.getName(), price)
+                ))
+                .build();
+    }
+
+    private SaleItemDTO toComboSaleItem(Combo combo, List<ComboItem> comboItems, BigDecimal price,
+                                        ImageVariantsDTO imageVariants) {
+        List<SaleItemPayloadDTO> payload = new ArrayList<>();
+        payload.add(SaleItemPayloadDTO.comboHeader(combo.getId(), combo.getName(), price));
+        for (ComboItem item : comboItems) {
+            payload.add(SaleItemPayloadDTO.comboItem(
+                    combo.getId(), item.getProductId(), item.getProductName(), item.getQuantity()));
+        }
+
+        return SaleItemDTO.builder()
+                .type(MenuItemType.COMBO)
+                .id(combo.getId())
+                .name(combo.getName())
+                .description(combo.getDescription())
+                .price(price)
+                .imageUrl(combo.getImageUrl())
+                .imageVariants(imageVariants)
+                .categoryId(combo.getCategoryId())
+                .categoryName(combo.getCategoryName())
+                .sortOrder(combo.getSortOrder())
+                .orderPayload(List.copyOf(payload))
+                .build();
+    }
+
+    /**
+     * 菜單時段的適用條件與對應快照
+     */
+    record ScheduleWindow(Long scheduleId, int priority, LocalTime startTime, LocalTime endTime,
+                          Set<DayOfWeek> daysOfWeek, LocalDate effectiveFrom, LocalDate effectiveTo,
+                          MenuSnapshot snapshot) {
+
+        /**
+         * 是否適用於指定時間；跨夜時段（結束早於開始）午夜後的部分屬於前一天開始的時段，
+         * 星期與有效日期以開始當天判斷
+         */
+        boolean appliesAt(LocalDateTime dateTime) {
+            LocalDate date = dateTime.toLocalDate();
+            LocalTime time = dateTime.toLocalTime();
+            if (startTime.isBefore(endTime)) {
+                return !time.isBefore(startTime) && time.isBefore(endTime) && startsOn(date);
+            }
+            if (!time.isBefore(startTime)) {
+                return startsOn(date);
+            }
+            return time.isBefore(endTime) && startsOn(date.minusDays(1));
+        }
+
+        /**
+         * 時段是否於指定日期開始
+         */
+        private boolean startsOn(LocalDate date) {
+            if (effectiveFrom != null && date.isBefore(effectiveFrom)) {
+                return false;
+            }
+            if (effectiveTo != null && date.isAfter(effectiveTo)) {
+                return false;
+            }
+            return daysOfWeek.contains(date.getDayOfWeek());
+        }
+    }
+
+    /**
+     * 編譯結果：依優先序排列的時段、預設菜單與分類列表回應
+     */
+    record CompiledMenu(long version, List<ScheduleWindow> windows, MenuSnapshot defaultMenu,
+                        MenuPayload categoryPayload) {
+
+        MenuSnapshot select(LocalDateTime dateTime) {
+            for (ScheduleWindow window : windows) {
+                if (window.appliesAt(dateTime)) {
+                    return window.snapshot();
+                }
+            }
+            return defaultMenu;
+        }
+    }
+}
@@ -12,16 +12,14 @@ import com.morningharvest.erp.product.dto.ProductOptionGroupDetailDTO;
 import com.morningharvest.erp.product.entity.Product;
 import com.morningharvest.erp.product.repository.ProductRepository;
 import com.morningharvest.erp.product.service.ProductOptionGroupService;
+import com.morningharvest.erp.storage.service.ImageDerivativeService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Pageable;
-import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.math.BigDecimal;
 import java.util.ArrayList;
-import java.util.Comparator;
 import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
@@ -35,55 +33,36 @@ public class PosMenuService {
     private final ComboRepository comboRepository;
     private final ComboItemRepository comboItemRepository;
     private final ProductOptionGroupService productOptionGroupService;
+    private final MenuSnapshotService menuSnapshotService;
+    private final ImageDerivativeService imageDerivativeService;
 
     /**
      * 查詢銷售物品列表（商品 + 套餐混合）
      *
+     * 直接取用目前時段已編譯的菜單快照，不存取資料庫
+     *
      * @param categoryId 分類 ID（可選）
      * @return 銷售物品列表
      */
-    @Transactional(readOnly = true)
     public List<SaleItemDTO> listSaleItems(Long categoryId) {
         log.debug("查詢銷售物品列表, categoryId: {}", categoryId);
 
-        List<SaleItemDTO> result = new ArrayList<>();
-
-        // 使用大頁面取得所有資料
-        Pageable pageable = PageRequest.of(0, 1000, Sort.by(Sort.Direction.ASC, "sortOrder"));
-
-        // 查詢上架商品
-        List<Product> products;
-        if (categoryId != null) {
-            products = productRepository.findByCategoryIdAndIsActive(categoryId, true, pageable).getContent();
-        } else {
-            products = productRepository.findByIsActive(true, pageable).getContent();
-        }
-
-        // 轉換商品為 SaleItem
-        for (Product product : products) {
-            result.add(toSingleSaleItem(product));
-        }
-
-        // 查詢啟用套餐
-        List<Combo> combos;
-        if (categoryId != null) {
-            combos = comboRepository.findByCategoryIdAndIsActive(categoryId, true, pageable).getContent();
-        } else {
-            combos = comboRepository.findByIsActive(true, pageable).getContent();
-        }
-
-        // 轉換套餐為 SaleItem
-        for (Combo combo : combos) {
-            result.add(toComboSaleItem(combo));
-        }
-
-        // 依 sortOrder 排序
-        result.sort(Comparator.comparing(SaleItemDTO::getSortOrder));
+        List<SaleItemDTO> result = menuSnapshotService.current().items(categoryId);
 
         log.debug("查詢銷售物品列表完成, 共 {} 筆", result.size());
         return result;
     }
 
+    /**
+     * 查詢預先序列化的銷售物品列表回應
+     *
+     * @param categoryId 分類 ID（可選）
+     * @return 預先序列化的回應，分類無銷售物品時回傳 null
+     */
+    public MenuPayload getSaleItemsPayload(Long categoryId) {
+        return menuSnapshotService.current().payload(categoryId);
+    }
+
     /**
      * 查詢單一銷售物品詳情
      *
@@ -108,72 +87,32 @@ public class PosMenuService {
         }
     }
 
-    /**
-     * 轉換商品為 SaleItem（列表用，不含選項詳情）
-     */
-    private SaleItemDTO toSingleSaleItem(Product product) {
-        return SaleItemDTO.builder()
-                .type("SINGLE")
-                .id(product.getId())
-                .name(product.getName())
-                .description(product.getDescription())
-                .price(product.getPrice())
-                .imageUrl(product.getImageUrl())
-                .categoryId(product.getCategoryId())
-                .categoryName(product.getCategoryName())
-                .sortOrder(product.getSortOrder())
-                .orderPayload(List.of(
-                        SaleItemPayloadDTO.single(product.getId(), product.getName(), product.getPrice())
-                ))
-                .build();
-    }
-
     /**
      * 轉換商品為 SaleItem（詳情用，含選項）
      */
     private SaleItemDTO toSingleSaleItemWithOptions(Product product) {
         List<ProductOptionGroupDetailDTO> optionGroups =
                 productOptionGroupService.listGroupsWithValuesByProductId(product.getId());
+        BigDecimal price = menuSnapshotService.resolvePrice("SINGLE", product.getId(), product.getPrice());
 
         return SaleItemDTO.builder()
                 .type("SINGLE")
                 .id(product.getId())
                 .name(product.getName())
                 .description(product.getDescription())
-                .price(product.getPrice())
+                .price(price)
                 .imageUrl(product.getImageUrl())
+                .imageVariants(imageDerivativeService.findVariants(product.getImageUrl()))
                 .categoryId(product.getCategoryId())
                 .categoryName(product.getCategoryName())
                 .sortOrder(product.getSortOrder())
                 .optionGroups(optionGroups)
                 .orderPayload(List.of(
-                        SaleItemPayloadDTO.single(product.getId(), product.getName(), product.getPrice())
+                        SaleItemPayloadDTO.single(product.getId(), product.getName(), price)
                 ))
                 .build();
     }
 
-    /**
-     * 轉換套餐為 SaleItem（列表用，不含選項詳情）
-     */
-    private SaleItemDTO toComboSaleItem(Combo combo) {
-        List<ComboItem> comboItems = comboItemRepository.findByComboIdOrderBySortOrder(combo.getId());
-
-        List<SaleItemPayloadDTO> payload = buildComboPayload(combo, comboItems);
-
-        return SaleItemDTO.builder()
-                .type("COMBO")
-                .id(combo.getId())
-                .name(combo.getName())
-                .description(combo.getDescription())
-                .price(combo.getPrice())
-                .imageUrl(combo.getImageUrl())
-                .categoryId(combo.getCategoryId())
-                .categoryName(combo.getCategoryName())
-                .sortOrder(combo.getSortOrder())
-                .orderPayload(payload)
-                .build();
-    }
-
     /**
      * 轉換套餐為 SaleItem（詳情用，含選項）
      */
@@ -203,15 +142,17 @@ public class PosMenuService {
                         .build())
                 .toList();
 
-        List<SaleItemPayloadDTO> payload = buildComboPayload(combo, comboItems);
+        BigDecimal price = menuSnapshotService.resolvePrice("COMBO", combo.getId(), combo.getPrice());
+        List<SaleItemPayloadDTO> payload = buildComboPayload(combo, price, comboItems);
 
         return SaleItemDTO.builder()
                 .type("COMBO")
                 .id(combo.getId())
                 .name(combo.getName())
                 .description(combo.getDescription())
-                .price(combo.getPrice())
+                .price(price)
                 .imageUrl(combo.getImageUrl())
+                .imageVariants(imageDerivativeService.findVariants(combo.getImageUrl()))
                 .categoryId(combo.getCategoryId())
                 .categoryName(combo.getCategoryName())
                 .sortOrder(combo.getSortOrder())
@@ -223,11 +164,11 @@ public class PosMenuService {
     /**
      * 建立套餐的 orderPayload
      */
-    private List<SaleItemPayloadDTO> buildComboPayload(Combo combo, List<ComboItem> comboItems) {
+    private List<SaleItemPayloadDTO> buildComboPayload(Combo combo, BigDecimal price, List<ComboItem> comboItems) {
         List<SaleItemPayloadDTO> payload = new ArrayList<>();
 
         // 套餐標頭
-        payload.add(SaleItemPayloadDTO.comboHeader(combo.getId(), combo.getName(), combo.getPrice()));
+        payload.add(SaleItemPayloadDTO.comboHeader(combo.getId(), combo.getName(), price));
 
         // 套餐內商品
         for (ComboItem item : comboItems) {
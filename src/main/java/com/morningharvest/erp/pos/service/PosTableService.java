@@ -1,5 +1,6 @@
 package com.morningharvest.erp.pos.service;
 
+import com.morningharvest.erp.common.cache.CacheNames;
 import com.morningharvest.erp.common.exception.ResourceNotFoundException;
 import com.morningharvest.erp.order.dto.OrderDTO;
 import com.morningharvest.erp.order.dto.OrderDetailDTO;
@@ -15,6 +16,7 @@ import com.morningharvest.erp.table.entity.DiningTable;
 import com.morningharvest.erp.table.repository.DiningTableRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -68,6 +70,7 @@ public class PosTableService {
      * 入座 - 建立/綁定訂單到桌位
      */
     @Transactional
+    @CacheEvict(cacheNames = {CacheNames.TABLES, CacheNames.ACTIVE_TABLES}, allEntries = true)
     public TableWithOrderDTO seat(SeatRequest request) {
         log.info("入座, tableId: {}, orderId: {}", request.getTableId(), request.getOrderId());
 
@@ -120,6 +123,7 @@ public class PosTableService {
      * 換桌
      */
     @Transactional
+    @CacheEvict(cacheNames = {CacheNames.TABLES, CacheNames.ACTIVE_TABLES}, allEntries = true)
     public TableWithOrderDTO transfer(TransferTableRequest request) {
         log.info("換桌, fromTableId: {}, toTableId: {}", request.getFromTableId(), request.getToTableId());
 
@@ -172,6 +176,7 @@ public class PosTableService {
      * 結束用餐 - 清空桌位
      */
     @Transactional
+    @CacheEvict(cacheNames = {CacheNames.TABLES, CacheNames.ACTIVE_TABLES}, allEntries = true)
     public TableDTO endDining(EndDiningRequest request) {
         log.info("結束用餐, tableId: {}", request.getTableId());
 
@@ -0,0 +1,43 @@
+package com.morningharvest.erp.product.controller;
+
+import com.morningharvest.erp.common.dto.ApiResponse;
+import com.morningharvest.erp.product.dto.ProductMarginDTO;
+import com.morningharvest.erp.product.service.ProductCostService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+/**
+ * 商品毛利 API
+ */
+@Slf4j
+@RestController
+@RequestMapping("/api/products/margins")
+@RequiredArgsConstructor
+@Tag(name = "商品毛利", description = "依配方成本計算商品與套餐毛利")
+public class ProductMarginController {
+
+    private final ProductCostService productCostService;
+
+    @GetMapping("/list")
+    @Operation(summary = "查詢全菜單毛利",
+               description = "回傳所有商品與套餐的售價、配方成本、毛利與毛利率")
+    public ApiResponse<List<ProductMarginDTO>> listMargins() {
+        log.debug("查詢全菜單毛利");
+        List<ProductMarginDTO> margins = productCostService.listMargins();
+        return ApiResponse.success(margins);
+    }
+
+    @PostMapping("/rebuild")
+    @Operation(summary = "重建成本快取",
+               description = "依目前配方與原物料成本全量重算商品成本")
+    public ApiResponse<Void> rebuild() {
+        log.info("重建商品成本快取");
+        productCostService.rebuild();
+        return ApiResponse.success("商品成本快取已重建", null);
+    }
+}
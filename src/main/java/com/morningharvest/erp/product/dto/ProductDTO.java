@@ -1,5 +1,6 @@
 package com.morningharvest.erp.product.dto;
 
+import com.morningharvest.erp.storage.dto.ImageVariantsDTO;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -19,6 +20,7 @@ public class ProductDTO {
     private String description;
     private BigDecimal price;
     private String imageUrl;
+    private ImageVariantsDTO imageVariants;
     private Long categoryId;
     private String categoryName;
     private Boolean isActive;
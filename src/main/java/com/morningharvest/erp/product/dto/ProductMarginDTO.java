@@ -0,0 +1,29 @@
+package com.morningharvest.erp.product.dto;
+
+import lombok.*;
+
+import java.math.BigDecimal;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductMarginDTO {
+
+    /**
+     * 項目類型 (PRODUCT/COMBO)
+     */
+    private String itemType;
+    private Long id;
+    private String name;
+    private String categoryName;
+    private Boolean isActive;
+    private BigDecimal price;
+    private BigDecimal cost;
+    private BigDecimal margin;
+
+    /**
+     * 毛利率 (%)，售價為 0 時為 null
+     */
+    private BigDecimal marginRate;
+}
@@ -1,5 +1,7 @@
 package com.morningharvest.erp.product.entity;
 
+import com.morningharvest.erp.pos.listener.MenuSnapshotEntityListener;
+import com.morningharvest.erp.search.listener.SearchIndexEntityListener;
 import jakarta.persistence.*;
 import lombok.*;
 
@@ -7,6 +9,7 @@ import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 @Entity
+@EntityListeners({SearchIndexEntityListener.class, MenuSnapshotEntityListener.class})
 @Table(name = "products")
 @Getter
 @Setter
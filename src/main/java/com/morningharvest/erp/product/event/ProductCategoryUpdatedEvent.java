@@ -30,6 +30,11 @@ public class ProductCategoryUpdatedEvent extends BaseEvent {
         this.after = after;
     }
 
+    @Override
+    public String getAggregateKey() {
+        return "product-category:" + getCategoryId();
+    }
+
     /**
      * 取得分類 ID
      */
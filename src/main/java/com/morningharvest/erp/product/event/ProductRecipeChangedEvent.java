@@ -0,0 +1,34 @@
+package com.morningharvest.erp.product.event;
+
+import com.morningharvest.erp.common.event.BaseEvent;
+import lombok.Getter;
+
+/**
+ * 商品配方變更事件
+ *
+ * 當商品配方被新增、更新或刪除時發布此事件
+ */
+@Getter
+public class ProductRecipeChangedEvent extends BaseEvent {
+
+    /**
+     * 配方所屬商品 ID
+     */
+    private final Long productId;
+
+    public ProductRecipeChangedEvent(Long productId) {
+        super("PRODUCT");
+        this.productId = productId;
+    }
+
+    @Override
+    public String getAggregateKey() {
+        return "product:" + productId;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s[eventId=%s, productId=%d]",
+                getEventType(), getEventId(), productId);
+    }
+}
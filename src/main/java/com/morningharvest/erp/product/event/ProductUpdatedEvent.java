@@ -30,6 +30,11 @@ public class ProductUpdatedEvent extends BaseEvent {
         this.after = after;
     }
 
+    @Override
+    public String getAggregateKey() {
+        return "product:" + getProductId();
+    }
+
     /**
      * 取得商品 ID
      */
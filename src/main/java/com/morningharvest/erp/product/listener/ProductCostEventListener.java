@@ -0,0 +1,111 @@
+package com.morningharvest.erp.product.listener;
+
+import com.morningharvest.erp.catalog.event.CatalogImportedEvent;
+import com.morningharvest.erp.common.event.EventLane;
+import com.morningharvest.erp.common.event.RemoteEvent;
+import com.morningharvest.erp.material.event.MaterialCostChangedEvent;
+import com.morningharvest.erp.material.event.MaterialUpdatedEvent;
+import com.morningharvest.erp.product.event.ProductRecipeChangedEvent;
+import com.morningharvest.erp.product.service.ProductCostService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.List;
+
+/**
+ * 商品成本事件監聽器
+ *
+ * 監聽原物料成本與配方變更事件，重算受影響商品的成本快取。
+ * 使用交易提交後監聽，確保重算時讀到已提交的成本資料；
+ * 成本快取為各節點各自維護，其他節點的變更經 Redis Stream 事件匯流排通知後同樣重算
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class ProductCostEventListener {
+
+    private final ProductCostService productCostService;
+
+    /**
+     * 處理原物料更新事件
+     *
+     * 僅在成本單價變更時重算使用該原物料的商品
+     */
+    @EventLane
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onMaterialUpdated(MaterialUpdatedEvent event) {
+        if (event.isCostPriceChanged()) {
+            log.info("原物料成本已變更, 重算商品成本, materialId: {}", event.getMaterialId());
+            productCostService.refreshByMaterials(List.of(event.getMaterialId()));
+        }
+    }
+
+    /**
+     * 處理原物料成本變更事件（進貨確認）
+     */
+    @EventLane
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onMaterialCostChanged(MaterialCostChangedEvent event) {
+        log.info("收到原物料成本變更事件: {}", event);
+        productCostService.refreshByMaterials(event.getMaterialIds());
+    }
+
+    /**
+     * 處理商品配方變更事件
+     */
+    @EventLane
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductRecipeChanged(ProductRecipeChangedEvent event) {
+        log.info("收到商品配方變更事件: {}", event);
+        productCostService.refreshProducts(List.of(event.getProductId()));
+    }
+
+    /**
+     * 處理菜單資料包匯入事件
+     */
+    @EventLane
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCatalogImported(CatalogImportedEvent event) {
+        log.info("收到菜單資料包匯入事件: {}", event);
+        productCostService.refreshProducts(event.getRecipeProductIds());
+    }
+
+    /**
+     * 其他節點更新原物料成本單價
+     */
+    @EventLane
+    @EventListener
+    public void onRemoteMaterialUpdated(RemoteEvent<MaterialUpdatedEvent> event) {
+        onMaterialUpdated(event.getEvent());
+    }
+
+    /**
+     * 其他節點的原物料成本變更（進貨確認、成本重估）
+     */
+    @EventLane
+    @EventListener
+    public void onRemoteMaterialCostChanged(RemoteEvent<MaterialCostChangedEvent> event) {
+        onMaterialCostChanged(event.getEvent());
+    }
+
+    /**
+     * 其他節點的商品配方變更
+     */
+    @EventLane
+    @EventListener
+    public void onRemoteProductRecipeChanged(RemoteEvent<ProductRecipeChangedEvent> event) {
+        onProductRecipeChanged(event.getEvent());
+    }
+
+    /**
+     * 其他節點匯入菜單資料包
+     */
+    @EventLane
+    @EventListener
+    public void onRemoteCatalogImported(RemoteEvent<CatalogImportedEvent> event) {
+        onCatalogImported(event.getEvent());
+    }
+}
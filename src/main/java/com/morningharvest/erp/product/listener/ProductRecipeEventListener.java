@@ -1,73 +1,54 @@
 package com.morningharvest.erp.product.listener;
 
+import com.morningharvest.erp.common.denormalize.DenormalizationService;
+import com.morningharvest.erp.common.denormalize.DenormalizedField;
 import com.morningharvest.erp.material.event.MaterialUpdatedEvent;
 import com.morningharvest.erp.product.event.ProductUpdatedEvent;
-import com.morningharvest.erp.product.repository.ProductRecipeRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.context.event.EventListener;
-import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Component;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
 
 /**
  * 商品配方事件監聽器
  *
- * 監聽商品和原物料更新事件，同步更新配方中的冗餘欄位
+ * 監聽商品和原物料更新事件，登記配方中冗餘欄位的同步（由 DenormalizationService 合併批次處理）
  */
 @Component
 @Slf4j
 @RequiredArgsConstructor
 public class ProductRecipeEventListener {
 
-    private final ProductRecipeRepository productRecipeRepository;
+    private final DenormalizationService denormalizationService;
 
     /**
      * 處理商品更新事件
      *
-     * 當商品名稱變更時，更新所有配方中的商品名稱
+     * 當商品名稱變更時，登記配方中商品名稱的同步
      */
-    @Async
-    @EventListener
-    @Transactional
+    @TransactionalEventListener(fallbackExecution = true)
     public void onProductUpdated(ProductUpdatedEvent event) {
         log.info("收到商品更新事件: {}", event);
 
         if (event.isNameChanged()) {
-            log.info("商品名稱已變更: {} -> {}, 開始更新配方",
+            log.info("商品名稱已變更: {} -> {}, 登記配方商品名稱同步",
                     event.getOldName(), event.getNewName());
-
-            productRecipeRepository.updateProductNameByProductId(
-                    event.getProductId(),
-                    event.getNewName()
-            );
-
-            log.info("已更新商品配方中的商品名稱, productId: {}", event.getProductId());
+            denormalizationService.enqueue(DenormalizedField.RECIPE_PRODUCT_NAME, event.getProductId());
         }
     }
 
     /**
      * 處理原物料更新事件
      *
-     * 當原物料編號、名稱或單位變更時，更新所有配方中的對應欄位
+     * 當原物料編號、名稱或單位變更時，登記配方中原物料資訊的同步
      */
-    @Async
-    @EventListener
-    @Transactional
+    @TransactionalEventListener(fallbackExecution = true)
     public void onMaterialUpdated(MaterialUpdatedEvent event) {
         log.info("收到原物料更新事件: {}", event);
 
         if (event.isCodeChanged() || event.isNameChanged() || event.isUnitChanged()) {
-            log.info("原物料資訊已變更, 開始更新配方, materialId: {}", event.getMaterialId());
-
-            productRecipeRepository.updateMaterialInfoByMaterialId(
-                    event.getMaterialId(),
-                    event.getNewCode(),
-                    event.getNewName(),
-                    event.getNewUnit()
-            );
-
-            log.info("已更新配方中的原物料資訊, materialId: {}", event.getMaterialId());
+            log.info("原物料資訊已變更, 登記配方原物料資訊同步, materialId: {}", event.getMaterialId());
+            denormalizationService.enqueue(DenormalizedField.RECIPE_MATERIAL_INFO, event.getMaterialId());
         }
     }
 }
@@ -2,11 +2,11 @@ package com.morningharvest.erp.product.repository;
 
 import com.morningharvest.erp.product.entity.ProductRecipe;
 import org.springframework.data.jpa.repository.JpaRepository;
-import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -23,37 +23,30 @@ public interface ProductRecipeRepository extends JpaRepository<ProductRecipe, Lo
     List<ProductRecipe> findByMaterialId(Long materialId);
 
     /**
-     * 檢查商品是否已有該原物料的配方
+     * 依多個商品 ID 查詢配方清單
      */
-    boolean existsByProductIdAndMaterialId(Long productId, Long materialId);
+    List<ProductRecipe> findByProductIdIn(Collection<Long> productIds);
 
     /**
-     * 檢查商品是否已有該原物料的配方（排除指定 ID）
+     * 查詢使用指定原物料的商品 ID
      */
-    boolean existsByProductIdAndMaterialIdAndIdNot(Long productId, Long materialId, Long id);
+    @Query("SELECT DISTINCT pr.productId FROM ProductRecipe pr WHERE pr.materialId IN :materialIds")
+    List<Long> findProductIdsByMaterialIdIn(@Param("materialIds") Collection<Long> materialIds);
 
     /**
-     * 依商品 ID 刪除所有配方
+     * 檢查商品是否已有該原物料的配方
      */
-    void deleteByProductId(Long productId);
+    boolean existsByProductIdAndMaterialId(Long productId, Long materialId);
 
     /**
-     * 依商品 ID 更新商品名稱
+     * 檢查商品是否已有該原物料的配方（排除指定 ID）
      */
-    @Modifying
-    @Query("UPDATE ProductRecipe pr SET pr.productName = :productName WHERE pr.productId = :productId")
-    void updateProductNameByProductId(@Param("productId") Long productId, @Param("productName") String productName);
+    boolean existsByProductIdAndMaterialIdAndIdNot(Long productId, Long materialId, Long id);
 
     /**
-     * 依原物料 ID 更新原物料資訊
+     * 依商品 ID 刪除所有配方
      */
-    @Modifying
-    @Query("UPDATE ProductRecipe pr SET pr.materialCode = :materialCode, pr.materialName = :materialName, pr.unit = :unit WHERE pr.materialId = :materialId")
-    void updateMaterialInfoByMaterialId(
-            @Param("materialId") Long materialId,
-            @Param("materialCode") String materialCode,
-            @Param("materialName") String materialName,
-            @Param("unit") String unit);
+    void deleteByProductId(Long productId);
 
     /**
      * 統計商品的配方數量
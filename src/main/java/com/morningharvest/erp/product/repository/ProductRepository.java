@@ -1,14 +1,21 @@
 package com.morningharvest.erp.product.repository;
 
 import com.morningharvest.erp.product.entity.Product;
+import jakarta.persistence.QueryHint;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
-import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+
 @Repository
 public interface ProductRepository extends JpaRepository<Product, Long> {
 
@@ -27,13 +34,12 @@ public interface ProductRepository extends JpaRepository<Product, Long> {
     long countByCategoryId(Long categoryId);
 
     /**
-     * 批量更新指定分類下所有商品的分類名稱
-     *
-     * @param categoryId 分類 ID
-     * @param newCategoryName 新的分類名稱
-     * @return 更新的商品數量
+     * 串流讀取所有商品圖片 URL（孤兒物件清理用）
      */
-    @Modifying
-    @Query("UPDATE Product p SET p.categoryName = :newCategoryName WHERE p.categoryId = :categoryId")
-    int updateCategoryNameByCategoryId(@Param("categoryId") Long categoryId, @Param("newCategoryName") String newCategoryName);
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "" + Integer.MIN_VALUE))
+    @Query("SELECT p.imageUrl FROM Product p WHERE p.imageUrl IS NOT NULL AND p.imageUrl <> ''")
+    Stream<String> streamImageUrls();
+
+    @Query("SELECT DISTINCT p.imageUrl FROM Product p WHERE p.imageUrl IN :imageUrls")
+    List<String> findImageUrlsIn(@Param("imageUrls") Collection<String> imageUrls);
 }
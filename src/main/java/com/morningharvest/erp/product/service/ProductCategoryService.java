@@ -1,5 +1,6 @@
 package com.morningharvest.erp.product.service;
 
+import com.morningharvest.erp.common.cache.CacheNames;
 import com.morningharvest.erp.common.dto.PageResponse;
 import com.morningharvest.erp.common.dto.PageableRequest;
 import com.morningharvest.erp.common.event.EventPublisher;
@@ -13,6 +14,8 @@ import com.morningharvest.erp.product.repository.ProductCategoryRepository;
 import com.morningharvest.erp.product.repository.ProductRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.domain.Page;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -49,6 +52,7 @@ public class ProductCategoryService {
     }
 
     @Transactional
+    @CacheEvict(cacheNames = CacheNames.PRODUCT_CATEGORIES, key = "#request.id")
     public ProductCategoryDTO updateCategory(UpdateProductCategoryRequest request) {
         log.info("更新商品分類, id: {}", request.getId());
 
@@ -84,6 +88,7 @@ public class ProductCategoryService {
     }
 
     @Transactional
+    @CacheEvict(cacheNames = CacheNames.PRODUCT_CATEGORIES, key = "#id")
     public void deleteCategory(Long id) {
         log.info("刪除商品分類, id: {}", id);
 
@@ -101,6 +106,7 @@ public class ProductCategoryService {
     }
 
     @Transactional(readOnly = true)
+    @Cacheable(cacheNames = CacheNames.PRODUCT_CATEGORIES, key = "#id")
     public ProductCategoryDTO getCategoryById(Long id) {
         log.debug("查詢商品分類, id: {}", id);
 
@@ -127,6 +133,7 @@ public class ProductCategoryService {
     }
 
     @Transactional
+    @CacheEvict(cacheNames = CacheNames.PRODUCT_CATEGORIES, key = "#id")
     public ProductCategoryDTO activateCategory(Long id) {
         log.info("啟用商品分類, id: {}", id);
 
@@ -141,6 +148,7 @@ public class ProductCategoryService {
     }
 
     @Transactional
+    @CacheEvict(cacheNames = CacheNames.PRODUCT_CATEGORIES, key = "#id")
     public ProductCategoryDTO deactivateCategory(Long id) {
         log.info("停用商品分類, id: {}", id);
 
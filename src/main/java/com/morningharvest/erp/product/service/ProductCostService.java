@@ -0,0 +1,227 @@
+package com.morningharvest.erp.product.service;
+
+import com.morningharvest.erp.combo.entity.Combo;
+import com.morningharvest.erp.combo.entity.ComboItem;
+import com.morningharvest.erp.combo.repository.ComboItemRepository;
+import com.morningharvest.erp.combo.repository.ComboRepository;
+import com.morningharvest.erp.material.entity.Material;
+import com.morningharvest.erp.material.repository.MaterialRepository;
+import com.morningharvest.erp.product.dto.ProductMarginDTO;
+import com.morningharvest.erp.product.entity.Product;
+import com.morningharvest.erp.product.entity.ProductRecipe;
+import com.morningharvest.erp.product.repository.ProductRecipeRepository;
+import com.morningharvest.erp.product.repository.ProductRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Collectors;
+
+/**
+ * 商品成本服務
+ *
+ * 依配方用量與原物料成本單價計算商品單位成本並快取於記憶體，
+ * 僅在原物料成本或配方變動時重算受影響的商品；套餐成本由組成商品的快取成本累加
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ProductCostService {
+
+    public static final String ITEM_TYPE_PRODUCT = "PRODUCT";
+    public static final String ITEM_TYPE_COMBO = "COMBO";
+
+    private static final int COST_SCALE = 4;
+    private static final int AMOUNT_SCALE = 2;
+
+    private final ProductRecipeRepository productRecipeRepository;
+    private final MaterialRepository materialRepository;
+    private final ProductRepository productRepository;
+    private final ComboRepository comboRepository;
+    private final ComboItemRepository comboItemRepository;
+
+    /**
+     * 商品單位成本快取 (productId -> cost)，尚未載入時為 null
+     */
+    private volatile Map<Long, BigDecimal> productCosts;
+
+    /**
+     * 全量重建與增量重算互斥，避免重建期間的重算寫入即將被替換的快取而遺失；
+     * 期間讀取資料庫，使用 ReentrantLock 而非 synchronized，避免釘選虛擬執行緒
+     */
+    private final ReentrantLock cacheLock = new ReentrantLock();
+
+    /**
+     * 查詢全菜單毛利（商品與套餐）
+     *
+     * 售價與套餐組成即時讀取，配方成本取自快取
+     */
+    @Transactional(readOnly = true)
+    public List<ProductMarginDTO> listMargins() {
+        log.debug("查詢全菜單毛利");
+
+        Map<Long, BigDecimal> costs = loadedCosts();
+        List<ProductMarginDTO> result = new ArrayList<>();
+
+        for (Product product : productRepository.findAll()) {
+            BigDecimal cost = costs.getOrDefault(product.getId(), BigDecimal.ZERO);
+            result.add(toMarginDTO(ITEM_TYPE_PRODUCT, product.getId(), product.getName(),
+                    product.getCategoryName(), product.getIsActive(), product.getPrice(), cost));
+        }
+
+        Map<Long, List<ComboItem>> itemsByCombo = comboItemRepository.findAll().stream()
+                .collect(Collectors.groupingBy(ComboItem::getComboId));
+        for (Combo combo : comboRepository.findAll()) {
+            BigDecimal cost = BigDecimal.ZERO;
+            for (ComboItem item : itemsByCombo.getOrDefault(combo.getId(), Collections.emptyList())) {
+                BigDecimal productCost = costs.getOrDefault(item.getProductId(), BigDecimal.ZERO);
+                cost = cost.add(productCost.multiply(BigDecimal.valueOf(item.getQuantity())));
+            }
+            result.add(toMarginDTO(ITEM_TYPE_COMBO, combo.getId(), combo.getName(),
+                    combo.getCategoryName(), combo.getIsActive(), combo.getPrice(), cost));
+        }
+
+        return result;
+    }
+
+    /**
+     * 取得單一商品的單位成本
+     */
+    @Transactional(readOnly = true)
+    public BigDecimal getProductCost(Long productId) {
+        return loadedCosts().getOrDefault(productId, BigDecimal.ZERO);
+    }
+
+    /**
+     * 全量重建成本快取
+     */
+    @Transactional(readOnly = true)
+    public void rebuild() {
+        cacheLock.lock();
+        try {
+            rebuildCosts();
+        } finally {
+            cacheLock.unlock();
+        }
+    }
+
+    private void rebuildCosts() {
+        log.info("重建商品成本快取");
+
+        Map<Long, BigDecimal> materialCosts = materialRepository.findAll().stream()
+                .filter(m -> m.getCostPrice() != null)
+                .collect(Collectors.toMap(Material::getId, Material::getCostPrice));
+
+        Map<Long, BigDecimal> costs = new ConcurrentHashMap<>();
+        for (Map.Entry<Long, List<ProductRecipe>> entry : productRecipeRepository.findAll().stream()
+                .collect(Collectors.groupingBy(ProductRecipe::getProductId)).entrySet()) {
+            costs.put(entry.getKey(), calculateCost(entry.getValue(), materialCosts));
+        }
+        productCosts = costs;
+
+        log.info("商品成本快取重建完成, 商品數: {}", costs.size());
+    }
+
+    /**
+     * 重算指定商品的成本
+     */
+    @Transactional(readOnly = true)
+    public void refreshProducts(Collection<Long> productIds) {
+        if (productCosts == null || productIds.isEmpty()) {
+            // 尚未載入時由下次查詢全量建立
+            return;
+        }
+
+        cacheLock.lock();
+        try {
+            refreshCosts(productIds);
+        } finally {
+            cacheLock.unlock();
+        }
+    }
+
+    private void refreshCosts(Collection<Long> productIds) {
+        Map<Long, BigDecimal> costs = productCosts;
+        List<ProductRecipe> recipes = productRecipeRepository.findByProductIdIn(productIds);
+        Set<Long> materialIds = recipes.stream()
+                .map(ProductRecipe::getMaterialId)
+                .collect(Collectors.toSet());
+        Map<Long, BigDecimal> materialCosts = materialRepository.findAllById(materialIds).stream()
+                .filter(m -> m.getCostPrice() != null)
+                .collect(Collectors.toMap(Material::getId, Material::getCostPrice));
+
+        Map<Long, List<ProductRecipe>> recipesByProduct = recipes.stream()
+                .collect(Collectors.groupingBy(ProductRecipe::getProductId));
+        for (Long productId : productIds) {
+            costs.put(productId, calculateCost(
+                    recipesByProduct.getOrDefault(productId, Collections.emptyList()), materialCosts));
+        }
+
+        log.info("已重算商品成本, productIds: {}", productIds);
+    }
+
+    /**
+     * 重算使用指定原物料的商品成本
+     */
+    @Transactional(readOnly = true)
+    public void refreshByMaterials(Collection<Long> materialIds) {
+        if (productCosts == null || materialIds.isEmpty()) {
+            return;
+        }
+        refreshProducts(productRecipeRepository.findProductIdsByMaterialIdIn(materialIds));
+    }
+
+    private Map<Long, BigDecimal> loadedCosts() {
+        Map<Long, BigDecimal> costs = productCosts;
+        if (costs != null) {
+            return costs;
+        }
+        cacheLock.lock();
+        try {
+            // 等待期間其他執行緒可能已建立
+            if (productCosts == null) {
+                rebuildCosts();
+            }
+            return productCosts;
+        } finally {
+            cacheLock.unlock();
+        }
+    }
+
+    private BigDecimal calculateCost(List<ProductRecipe> recipes, Map<Long, BigDecimal> materialCosts) {
+        BigDecimal cost = BigDecimal.ZERO;
+        for (ProductRecipe recipe : recipes) {
+            BigDecimal unitCost = materialCosts.getOrDefault(recipe.getMaterialId(), BigDecimal.ZERO);
+            cost = cost.add(unitCost.multiply(recipe.getQuantity()));
+        }
+        return cost.setScale(COST_SCALE, RoundingMode.HALF_UP);
+    }
+
+    private ProductMarginDTO toMarginDTO(String itemType, Long id, String name, String categoryName,
+                                         Boolean isActive, BigDecimal price, BigDecimal cost) {
+        BigDecimal salePrice = price != null ? price : BigDecimal.ZERO;
+        BigDecimal roundedCost = cost.setScale(AMOUNT_SCALE, RoundingMode.HALF_UP);
+        BigDecimal margin = salePrice.subtract(roundedCost);
+        BigDecimal marginRate = salePrice.signum() > 0
+                ? margin.multiply(BigDecimal.valueOf(100)).divide(salePrice, AMOUNT_SCALE, RoundingMode.HALF_UP)
+                : null;
+
+        return ProductMarginDTO.builder()
+                .itemType(itemType)
+                .id(id)
+                .name(name)
+                .categoryName(categoryName)
+                .isActive(isActive)
+                .price(salePrice)
+                .cost(roundedCost)
+                .margin(margin)
+                .marginRate(marginRate)
+                .build();
+    }
+}
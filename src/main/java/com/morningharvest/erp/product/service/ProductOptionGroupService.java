@@ -1,5 +1,6 @@
 package com.morningharvest.erp.product.service;
 
+import com.morningharvest.erp.common.cache.CacheNames;
 import com.morningharvest.erp.common.exception.ResourceNotFoundException;
 import com.morningharvest.erp.product.dto.*;
 import com.morningharvest.erp.product.entity.ProductOptionGroup;
@@ -9,6 +10,8 @@ import com.morningharvest.erp.product.repository.ProductOptionValueRepository;
 import com.morningharvest.erp.product.repository.ProductRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -26,6 +29,7 @@ public class ProductOptionGroupService {
     private final ProductRepository productRepository;
 
     @Transactional
+    @CacheEvict(cacheNames = {CacheNames.PRODUCT_OPTIONS, CacheNames.COMBO_DETAILS}, allEntries = true)
     public ProductOptionGroupDTO createGroup(CreateProductOptionGroupRequest request) {
         log.info("建立產品選項群組: productId={}, name={}", request.getProductId(), request.getName());
 
@@ -60,6 +64,7 @@ public class ProductOptionGroupService {
     }
 
     @Transactional
+    @CacheEvict(cacheNames = {CacheNames.PRODUCT_OPTIONS, CacheNames.COMBO_DETAILS}, allEntries = true)
     public ProductOptionGroupDTO updateGroup(UpdateProductOptionGroupRequest request) {
         log.info("更新產品選項群組, id: {}", request.getId());
 
@@ -90,6 +95,7 @@ public class ProductOptionGroupService {
     }
 
     @Transactional
+    @CacheEvict(cacheNames = {CacheNames.PRODUCT_OPTIONS, CacheNames.COMBO_DETAILS}, allEntries = true)
     public void deleteGroup(Long id) {
         log.info("刪除產品選項群組, id: {}", id);
 
@@ -142,6 +148,7 @@ public class ProductOptionGroupService {
     }
 
     @Transactional(readOnly = true)
+    @Cacheable(cacheNames = CacheNames.PRODUCT_OPTIONS, key = "#productId")
     public List<ProductOptionGroupDetailDTO> listGroupsWithValuesByProductId(Long productId) {
         log.debug("查詢產品選項群組列表（含選項值）, productId: {}", productId);
 
@@ -170,6 +177,7 @@ public class ProductOptionGroupService {
     }
 
     @Transactional
+    @CacheEvict(cacheNames = {CacheNames.PRODUCT_OPTIONS, CacheNames.COMBO_DETAILS}, allEntries = true)
     public ProductOptionGroupDTO activateGroup(Long id) {
         log.info("啟用產品選項群組, id: {}", id);
 
@@ -184,6 +192,7 @@ public class ProductOptionGroupService {
     }
 
     @Transactional
+    @CacheEvict(cacheNames = {CacheNames.PRODUCT_OPTIONS, CacheNames.COMBO_DETAILS}, allEntries = true)
     public ProductOptionGroupDTO deactivateGroup(Long id) {
         log.info("停用產品選項群組, id: {}", id);
 
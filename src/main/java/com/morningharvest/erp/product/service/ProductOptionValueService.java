@@ -1,5 +1,6 @@
 package com.morningharvest.erp.product.service;
 
+import com.morningharvest.erp.common.cache.CacheNames;
 import com.morningharvest.erp.common.exception.ResourceNotFoundException;
 import com.morningharvest.erp.product.dto.*;
 import com.morningharvest.erp.product.entity.ProductOptionValue;
@@ -7,6 +8,7 @@ import com.morningharvest.erp.product.repository.ProductOptionGroupRepository;
 import com.morningharvest.erp.product.repository.ProductOptionValueRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -22,6 +24,7 @@ public class ProductOptionValueService {
     private final ProductOptionGroupRepository groupRepository;
 
     @Transactional
+    @CacheEvict(cacheNames = {CacheNames.PRODUCT_OPTIONS, CacheNames.COMBO_DETAILS}, allEntries = true)
     public ProductOptionValueDTO createValue(CreateProductOptionValueRequest request) {
         log.info("建立產品選項值: groupId={}, name={}", request.getGroupId(), request.getName());
 
@@ -50,6 +53,7 @@ public class ProductOptionValueService {
     }
 
     @Transactional
+    @CacheEvict(cacheNames = {CacheNames.PRODUCT_OPTIONS, CacheNames.COMBO_DETAILS}, allEntries = true)
     public ProductOptionValueDTO updateValue(UpdateProductOptionValueRequest request) {
         log.info("更新產品選項值, id: {}", request.getId());
 
@@ -74,6 +78,7 @@ public class ProductOptionValueService {
     }
 
     @Transactional
+    @CacheEvict(cacheNames = {CacheNames.PRODUCT_OPTIONS, CacheNames.COMBO_DETAILS}, allEntries = true)
     public void deleteValue(Long id) {
         log.info("刪除產品選項值, id: {}", id);
 
@@ -102,6 +107,7 @@ public class ProductOptionValueService {
     }
 
     @Transactional
+    @CacheEvict(cacheNames = {CacheNames.PRODUCT_OPTIONS, CacheNames.COMBO_DETAILS}, allEntries = true)
     public ProductOptionValueDTO activateValue(Long id) {
         log.info("啟用產品選項值, id: {}", id);
 
@@ -116,6 +122,7 @@ public class ProductOptionValueService {
     }
 
     @Transactional
+    @CacheEvict(cacheNames = {CacheNames.PRODUCT_OPTIONS, CacheNames.COMBO_DETAILS}, allEntries = true)
     public ProductOptionValueDTO deactivateValue(Long id) {
         log.info("停用產品選項值, id: {}", id);
 
@@ -1,5 +1,6 @@
 package com.morningharvest.erp.product.service;
 
+import com.morningharvest.erp.common.event.EventPublisher;
 import com.morningharvest.erp.common.exception.ResourceNotFoundException;
 import com.morningharvest.erp.material.entity.Material;
 import com.morningharvest.erp.material.repository.MaterialRepository;
@@ -8,6 +9,7 @@ import com.morningharvest.erp.product.dto.ProductRecipeDTO;
 import com.morningharvest.erp.product.dto.UpdateProductRecipeRequest;
 import com.morningharvest.erp.product.entity.Product;
 import com.morningharvest.erp.product.entity.ProductRecipe;
+import com.morningharvest.erp.product.event.ProductRecipeChangedEvent;
 import com.morningharvest.erp.product.repository.ProductRecipeRepository;
 import com.morningharvest.erp.product.repository.ProductRepository;
 import lombok.RequiredArgsConstructor;
@@ -26,6 +28,7 @@ public class ProductRecipeService {
     private final ProductRecipeRepository productRecipeRepository;
     private final ProductRepository productRepository;
     private final MaterialRepository materialRepository;
+    private final EventPublisher eventPublisher;
 
     @Transactional
     public ProductRecipeDTO createRecipe(CreateProductRecipeRequest request) {
@@ -58,6 +61,8 @@ public class ProductRecipeService {
         ProductRecipe saved = productRecipeRepository.save(recipe);
         log.info("配方新增成功, id: {}", saved.getId());
 
+        eventPublisher.publish(new ProductRecipeChangedEvent(saved.getProductId()), "商品配方新增");
+
         return toDTO(saved);
     }
 
@@ -74,6 +79,8 @@ public class ProductRecipeService {
         ProductRecipe saved = productRecipeRepository.save(recipe);
         log.info("配方更新成功, id: {}", saved.getId());
 
+        eventPublisher.publish(new ProductRecipeChangedEvent(saved.getProductId()), "商品配方更新");
+
         return toDTO(saved);
     }
 
@@ -81,12 +88,13 @@ public class ProductRecipeService {
     public void deleteRecipe(Long id) {
         log.info("刪除配方, id: {}", id);
 
-        if (!productRecipeRepository.existsById(id)) {
-            throw new ResourceNotFoundException("配方不存在: " + id);
-        }
+        ProductRecipe recipe = productRecipeRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("配方不存在: " + id));
 
         productRecipeRepository.deleteById(id);
         log.info("配方刪除成功, id: {}", id);
+
+        eventPublisher.publish(new ProductRecipeChangedEvent(recipe.getProductId()), "商品配方刪除");
     }
 
     @Transactional(readOnly = true)
@@ -1,5 +1,6 @@
 package com.morningharvest.erp.product.service;
 
+import com.morningharvest.erp.common.cache.CacheNames;
 import com.morningharvest.erp.common.dto.PageResponse;
 import com.morningharvest.erp.common.dto.PageableRequest;
 import com.morningharvest.erp.common.event.EventPublisher;
@@ -12,12 +13,18 @@ import com.morningharvest.erp.product.entity.ProductCategory;
 import com.morningharvest.erp.product.event.ProductUpdatedEvent;
 import com.morningharvest.erp.product.repository.ProductCategoryRepository;
 import com.morningharvest.erp.product.repository.ProductRepository;
+import com.morningharvest.erp.storage.dto.ImageVariantsDTO;
+import com.morningharvest.erp.storage.service.ImageDerivativeService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.domain.Page;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Map;
+
 @Service
 @RequiredArgsConstructor
 @Slf4j
@@ -26,6 +33,7 @@ public class ProductService {
     private final ProductRepository productRepository;
     private final ProductCategoryRepository productCategoryRepository;
     private final EventPublisher eventPublisher;
+    private final ImageDerivativeService imageDerivativeService;
 
     @Transactional
     public ProductDTO createProduct(CreateProductRequest request) {
@@ -59,6 +67,7 @@ public class ProductService {
     }
 
     @Transactional
+    @CacheEvict(cacheNames = CacheNames.PRODUCTS, key = "#request.id")
     public ProductDTO updateProduct(UpdateProductRequest request) {
         log.info("更新商品, id: {}", request.getId());
 
@@ -103,6 +112,7 @@ public class ProductService {
     }
 
     @Transactional
+    @CacheEvict(cacheNames = CacheNames.PRODUCTS, key = "#id")
     public void deleteProduct(Long id) {
         log.info("刪除商品, id: {}", id);
 
@@ -115,6 +125,7 @@ public class ProductService {
     }
 
     @Transactional(readOnly = true)
+    @Cacheable(cacheNames = CacheNames.PRODUCTS, key = "#id")
     public ProductDTO getProductById(Long id) {
         log.debug("查詢商品, id: {}", id);
 
@@ -141,11 +152,14 @@ public class ProductService {
             productPage = productRepository.findAll(pageableRequest.toPageable());
         }
 
-        Page<ProductDTO> dtoPage = productPage.map(this::toDTO);
+        Map<String, ImageVariantsDTO> imageVariants = imageDerivativeService.findVariants(
+                productPage.getContent().stream().map(Product::getImageUrl).toList());
+        Page<ProductDTO> dtoPage = productPage.map(p -> toDTO(p, imageVariants.get(p.getImageUrl())));
         return PageResponse.from(dtoPage);
     }
 
     @Transactional
+    @CacheEvict(cacheNames = CacheNames.PRODUCTS, key = "#id")
     public ProductDTO activateProduct(Long id) {
         log.info("上架商品, id: {}", id);
 
@@ -160,6 +174,7 @@ public class ProductService {
     }
 
     @Transactional
+    @CacheEvict(cacheNames = CacheNames.PRODUCTS, key = "#id")
     public ProductDTO deactivateProduct(Long id) {
         log.info("下架商品, id: {}", id);
 
@@ -200,12 +215,17 @@ public class ProductService {
     }
 
     private ProductDTO toDTO(Product product) {
+        return toDTO(product, imageDerivativeService.findVariants(product.getImageUrl()));
+    }
+
+    private ProductDTO toDTO(Product product, ImageVariantsDTO imageVariants) {
         return ProductDTO.builder()
                 .id(product.getId())
                 .name(product.getName())
                 .description(product.getDescription())
                 .price(product.getPrice())
                 .imageUrl(product.getImageUrl())
+                .imageVariants(imageVariants)
                 .categoryId(product.getCategoryId())
                 .categoryName(product.getCategoryName())  // 使用冗餘欄位
                 .isActive(product.getIsActive())
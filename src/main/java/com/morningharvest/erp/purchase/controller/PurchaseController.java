@@ -4,16 +4,20 @@ import com.morningharvest.erp.common.dto.ApiResponse;
 import com.morningharvest.erp.common.dto.PageResponse;
 import com.morningharvest.erp.common.dto.PageableRequest;
 import com.morningharvest.erp.purchase.dto.*;
+import com.morningharvest.erp.purchase.service.PurchaseImportService;
 import com.morningharvest.erp.purchase.service.PurchaseService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Sort;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
 
 import java.time.LocalDate;
 
@@ -28,6 +32,7 @@ import java.time.LocalDate;
 public class PurchaseController {
 
     private final PurchaseService purchaseService;
+    private final PurchaseImportService purchaseImportService;
 
     @GetMapping("/detail")
     @Operation(summary = "取得進貨單詳情", description = "根據進貨單 ID 取得詳細資訊，包含所有明細")
@@ -118,4 +123,25 @@ public class PurchaseController {
         PurchaseDetailDTO purchase = purchaseService.confirmPurchase(request);
         return ApiResponse.success("進貨單確認成功，庫存已更新", purchase);
     }
+
+    @PostMapping(value = "/import", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    @Operation(summary = "匯入供應商出貨檔",
+               description = "上傳 CSV 或 Excel (.xlsx) 出貨檔建立草稿進貨單，標題列須包含 material_code、quantity、unit_price，" +
+                             "可選 note；任何一列有誤時不建立進貨單並回傳錯誤清單")
+    public ApiResponse<PurchaseImportResultDTO> importPurchase(
+            @Parameter(description = "出貨檔", required = true,
+                       content = @Content(mediaType = MediaType.MULTIPART_FORM_DATA_VALUE))
+            @RequestParam("file") MultipartFile file,
+            @Parameter(description = "供應商 ID", required = true)
+            @RequestParam("supplierId") Long supplierId,
+            @Parameter(description = "進貨日期 (yyyy-MM-dd)，預設今日")
+            @RequestParam(value = "purchaseDate", required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate purchaseDate,
+            @Parameter(description = "備註")
+            @RequestParam(value = "note", required = false) String note
+    ) {
+        log.info("匯入進貨單, supplierId: {}, filename: {}", supplierId, file.getOriginalFilename());
+        PurchaseImportResultDTO result = purchaseImportService.importPurchase(supplierId, purchaseDate, note, file);
+        return ApiResponse.success(result.getSuccess() ? "進貨單匯入成功" : "進貨單匯入失敗", result);
+    }
 }
@@ -0,0 +1,44 @@
+package com.morningharvest.erp.purchase.controller;
+
+import com.morningharvest.erp.common.dto.ApiResponse;
+import com.morningharvest.erp.purchase.dto.PurchaseDetailDTO;
+import com.morningharvest.erp.purchase.dto.ReorderSuggestionDTO;
+import com.morningharvest.erp.purchase.service.ReorderSuggestionService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+/**
+ * 補貨建議 API
+ */
+@Slf4j
+@RestController
+@RequestMapping("/api/purchases/reorder-suggestions")
+@RequiredArgsConstructor
+@Tag(name = "補貨建議", description = "依耗用預測產生補貨建議與進貨草稿")
+public class ReorderSuggestionController {
+
+    private final ReorderSuggestionService reorderSuggestionService;
+
+    @GetMapping("/list")
+    @Operation(summary = "查詢補貨建議",
+               description = "依銷售配方耗用、盤虧與供應商交期預測庫存，列出低於安全庫存的原物料（依供應商分組）")
+    public ApiResponse<List<ReorderSuggestionDTO>> listSuggestions() {
+        log.debug("查詢補貨建議");
+        List<ReorderSuggestionDTO> suggestions = reorderSuggestionService.listSuggestions();
+        return ApiResponse.success(suggestions);
+    }
+
+    @PostMapping("/generate")
+    @Operation(summary = "產生進貨草稿",
+               description = "依補貨建議為每個供應商建立 DRAFT 進貨單，已有草稿進貨單的供應商會略過")
+    public ApiResponse<List<PurchaseDetailDTO>> generateDraftPurchases() {
+        log.info("依補貨建議產生進貨草稿");
+        List<PurchaseDetailDTO> purchases = reorderSuggestionService.generateDraftPurchases();
+        return ApiResponse.success("已產生 " + purchases.size() + " 張進貨草稿", purchases);
+    }
+}
@@ -0,0 +1,44 @@
+package com.morningharvest.erp.purchase.dto;
+
+import lombok.*;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PurchaseImportResultDTO {
+
+    /**
+     * 是否匯入成功（有任何錯誤時整批不匯入）
+     */
+    private Boolean success;
+    private Long purchaseId;
+    private String purchaseNumber;
+    private Integer totalRows;
+    private Integer importedRows;
+    private BigDecimal totalAmount;
+
+    /**
+     * 錯誤清單（最多回傳前 N 筆）
+     */
+    private List<RowError> errors;
+
+    /**
+     * 是否還有未列出的錯誤
+     */
+    private Boolean errorsTruncated;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class RowError {
+        /**
+         * 檔案列號（從 1 起算，含標題列）
+         */
+        private Integer rowNumber;
+        private String message;
+    }
+}
@@ -0,0 +1,25 @@
+package com.morningharvest.erp.purchase.dto;
+
+import lombok.*;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * 補貨建議（依供應商分組）
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReorderSuggestionDTO {
+
+    /**
+     * 供應商 ID（無進貨紀錄的原物料為 null）
+     */
+    private Long supplierId;
+    private String supplierName;
+    private Integer leadTimeDays;
+    private BigDecimal estimatedAmount;
+    private List<ReorderSuggestionItemDTO> items;
+}
@@ -0,0 +1,23 @@
+package com.morningharvest.erp.purchase.dto;
+
+import lombok.*;
+
+import java.math.BigDecimal;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReorderSuggestionItemDTO {
+
+    private Long materialId;
+    private String materialCode;
+    private String materialName;
+    private String materialUnit;
+    private BigDecimal currentStockQuantity;
+    private BigDecimal safeStockQuantity;
+    private BigDecimal averageDailyConsumption;
+    private BigDecimal projectedStockQuantity;
+    private BigDecimal suggestedQuantity;
+    private BigDecimal unitPrice;
+}
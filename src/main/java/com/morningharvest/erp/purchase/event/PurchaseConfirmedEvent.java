@@ -29,6 +29,14 @@ public class PurchaseConfirmedEvent extends BaseEvent {
         this.items = items;
     }
 
+    /**
+     * 明細涵蓋多個原物料，庫存異動事件共用同一聚合鍵依序處理
+     */
+    @Override
+    public String getAggregateKey() {
+        return "material-stock";
+    }
+
     /**
      * 進貨明細資訊（用於事件傳遞）
      */
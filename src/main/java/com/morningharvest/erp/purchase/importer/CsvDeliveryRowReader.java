@@ -0,0 +1,109 @@
+package com.morningharvest.erp.purchase.importer;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * CSV 出貨檔讀取器
+ *
+ * 支援 UTF-8（含 BOM）、雙引號包覆欄位、欄位內逗號與換行、連續兩個雙引號跳脫
+ */
+public class CsvDeliveryRowReader implements DeliveryRowReader {
+
+    private static final int BOM = '\uFEFF';
+
+    private final Reader reader;
+    private boolean firstChar = true;
+    private boolean finished;
+    private int rowNumber;
+
+    public CsvDeliveryRowReader(InputStream inputStream) {
+        this.reader = new BufferedReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8));
+    }
+
+    @Override
+    public List<String> next() throws IOException {
+        if (finished) {
+            return null;
+        }
+
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        boolean anyChar = false;
+
+        while (true) {
+            int c = reader.read();
+            if (firstChar) {
+                firstChar = false;
+                if (c == BOM) {
+                    continue;
+                }
+            }
+
+            if (c == -1) {
+                finished = true;
+                if (!anyChar) {
+                    return null;
+                }
+                fields.add(field.toString());
+                rowNumber++;
+                return fields;
+            }
+            anyChar = true;
+
+            if (quoted) {
+                if (c == '"') {
+                    reader.mark(1);
+                    int peek = reader.read();
+                    if (peek == '"') {
+                        field.append('"');
+                    } else {
+                        quoted = false;
+                        if (peek != -1) {
+                            reader.reset();
+                        }
+                    }
+                } else {
+                    field.append((char) c);
+                }
+                continue;
+            }
+
+            switch (c) {
+                case '"' -> quoted = true;
+                case ',' -> {
+                    fields.add(field.toString());
+                    field.setLength(0);
+                }
+                case '\r' -> {
+                    reader.mark(1);
+                    if (reader.read() != '\n') {
+                        reader.reset();
+                    }
+                    fields.add(field.toString());
+                    rowNumber++;
+                    return fields;
+                }
+                case '\n' -> {
+                    fields.add(field.toString());
+                    rowNumber++;
+                    return fields;
+                }
+                default -> field.append((char) c);
+            }
+        }
+    }
+
+    @Override
+    public int rowNumber() {
+        return rowNumber;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+}
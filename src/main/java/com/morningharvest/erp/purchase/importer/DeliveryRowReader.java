@@ -0,0 +1,45 @@
+package com.morningharvest.erp.purchase.importer;
+
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * 供應商出貨檔逐列讀取器
+ *
+ * 每次只讀取一列，讀取大型檔案時記憶體用量固定
+ */
+public interface DeliveryRowReader extends Closeable {
+
+    /**
+     * 讀取下一列
+     *
+     * @return 各欄位文字，檔案結束時回傳 null
+     */
+    List<String> next() throws IOException;
+
+    /**
+     * 最近一次 {@link #next()} 讀取的列在檔案中的列號（從 1 起算，含標題列）
+     *
+     * 與試算表顯示的列號一致：Excel 依列元素標示的列號，略過未儲存的空白列；CSV 依記錄順序
+     */
+    int rowNumber();
+
+    /**
+     * 依副檔名開啟對應的讀取器（.csv / .xlsx）
+     */
+    static DeliveryRowReader open(MultipartFile file) throws IOException {
+        String filename = file.getOriginalFilename() != null
+                ? file.getOriginalFilename().toLowerCase(Locale.ROOT) : "";
+        if (filename.endsWith(".csv")) {
+            return new CsvDeliveryRowReader(file.getInputStream());
+        }
+        if (filename.endsWith(".xlsx")) {
+            return XlsxDeliveryRowReader.open(file);
+        }
+        throw new IllegalArgumentException("不支援的檔案格式，僅接受 .csv 或 .xlsx");
+    }
+}
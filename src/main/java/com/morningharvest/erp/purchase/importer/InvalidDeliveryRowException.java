@@ -0,0 +1,15 @@
+package com.morningharvest.erp.purchase.importer;
+
+import java.io.IOException;
+
+/**
+ * 單列內容無法解析
+ *
+ * 讀取器已跳過該列，可繼續呼叫 {@link DeliveryRowReader#next()} 讀取下一列
+ */
+public class InvalidDeliveryRowException extends IOException {
+
+    public InvalidDeliveryRowException(String message) {
+        super(message);
+    }
+}
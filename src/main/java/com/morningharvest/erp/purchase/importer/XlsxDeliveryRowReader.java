@@ -0,0 +1,316 @@
+package com.morningharvest.erp.purchase.importer;
+
+import org.springframework.web.multipart.MultipartFile;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+/**
+ * Excel (.xlsx) 出貨檔讀取器
+ *
+ * 直接以 StAX 串流解析第一個工作表的 XML，不將整份活頁簿載入記憶體；
+ * 僅共用字串表需完整載入。第一個工作表依 workbook.xml 的工作表順序與其關聯檔解析，
+ * 不假設檔名為 sheet1.xml
+ */
+public class XlsxDeliveryRowReader implements DeliveryRowReader {
+
+    private static final String SHARED_STRINGS = "xl/sharedStrings.xml";
+    private static final String WORKBOOK = "xl/workbook.xml";
+    private static final String WORKBOOK_RELS = "xl/_rels/workbook.xml.rels";
+    private static final String DEFAULT_SHEET = "xl/worksheets/sheet1.xml";
+    private static final String RELATIONSHIPS_NS =
+            "http://schemas.openxmlformats.org/officeDocument/2006/relationships";
+
+    private final Path tempFile;
+    private final ZipFile zipFile;
+    private final InputStream sheetStream;
+    private final XMLStreamReader sheet;
+    private final List<String> sharedStrings;
+    private int rowNumber;
+
+    private XlsxDeliveryRowReader(Path tempFile) throws IOException {
+        this.tempFile = tempFile;
+        this.zipFile = new ZipFile(tempFile.toFile());
+        try {
+            XMLInputFactory factory = newFactory();
+            this.sharedStrings = readSharedStrings(factory);
+
+            ZipEntry sheetEntry = zipFile.getEntry(resolveFirstSheet(factory));
+            if (sheetEntry == null) {
+                throw new IllegalArgumentException("Excel 檔案中找不到工作表");
+            }
+            this.sheetStream = zipFile.getInputStream(sheetEntry);
+            this.sheet = factory.createXMLStreamReader(sheetStream);
+        } catch (XMLStreamException e) {
+            zipFile.close();
+            throw new IllegalArgumentException("Excel 檔案格式錯誤: " + e.getMessage());
+        } catch (IOException | RuntimeException e) {
+            zipFile.close();
+            throw e;
+        }
+    }
+
+    /**
+     * 上傳檔案需隨機存取 zip 目錄，先轉存至暫存檔
+     */
+    public static XlsxDeliveryRowReader open(MultipartFile file) throws IOException {
+        Path tempFile = Files.createTempFile("purchase-import-", ".xlsx");
+        try {
+            file.transferTo(tempFile);
+            return new XlsxDeliveryRowReader(tempFile);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(tempFile);
+            throw e;
+        }
+    }
+
+    @Override
+    public List<String> next() throws IOException {
+        try {
+            while (sheet.hasNext()) {
+                if (sheet.next() == XMLStreamConstants.START_ELEMENT && "row".equals(sheet.getLocalName())) {
+                    // 空白列不會出現在 XML 中，依 r 屬性取得列號；沒有 r 屬性時視為下一列
+                    rowNumber = rowIndex(sheet.getAttributeValue(null, "r"), rowNumber + 1);
+                    return readRow();
+                }
+            }
+            return null;
+        } catch (XMLStreamException e) {
+            throw new IOException("Excel 工作表解析失敗: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * 讀取一列；共用字串索引無效時仍讀完整列再拋出，讓下一次呼叫從下一列開始
+     */
+    private List<String> readRow() throws XMLStreamException, InvalidDeliveryRowException {
+        List<String> cells = new ArrayList<>();
+        String invalid = null;
+        while (sheet.hasNext()) {
+            int event = sheet.next();
+            if (event == XMLStreamConstants.END_ELEMENT && "row".equals(sheet.getLocalName())) {
+                break;
+            }
+            if (event == XMLStreamConstants.START_ELEMENT && "c".equals(sheet.getLocalName())) {
+                String reference = sheet.getAttributeValue(null, "r");
+                int column = columnIndex(reference, cells.size());
+                String type = sheet.getAttributeValue(null, "t");
+                String value = readCellValue();
+                if ("s".equals(type)) {
+                    String shared = sharedString(value);
+                    if (shared == null && invalid == null) {
+                        invalid = "儲存格 " + (reference != null ? reference : "") + " 的共用字串索引無效: "
+                                + value.trim();
+                    }
+                    value = shared != null ? shared : "";
+                }
+                // 空白儲存格不會出現在 XML 中，依欄位位置補齊
+                while (cells.size() < column) {
+                    cells.add("");
+                }
+                cells.add(value);
+            }
+        }
+        if (invalid != null) {
+            throw new InvalidDeliveryRowException(invalid);
+        }
+        return cells;
+    }
+
+    private String readCellValue() throws XMLStreamException {
+        StringBuilder text = new StringBuilder();
+        boolean inValue = false;
+        while (sheet.hasNext()) {
+            int event = sheet.next();
+            if (event == XMLStreamConstants.START_ELEMENT) {
+                String name = sheet.getLocalName();
+                inValue = "v".equals(name) || "t".equals(name);
+            } else if (event == XMLStreamConstants.CHARACTERS && inValue) {
+                text.append(sheet.getText());
+            } else if (event == XMLStreamConstants.END_ELEMENT) {
+                if ("c".equals(sheet.getLocalName())) {
+                    break;
+                }
+                inValue = false;
+            }
+        }
+        return text.toString();
+    }
+
+    /**
+     * 依索引取得共用字串，索引不是數字或超出範圍時回傳 null
+     */
+    private String sharedString(String indexText) {
+        try {
+            int index = Integer.parseInt(indexText.trim());
+            return index >= 0 && index < sharedStrings.size() ? sharedStrings.get(index) : null;
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    /**
+     * 取得第一個工作表在 zip 中的路徑：workbook.xml 第一個 sheet 的 r:id 對應 workbook.xml.rels 的 Target；
+     * 缺少活頁簿資訊時退回 sheet1.xml
+     */
+    private String resolveFirstSheet(XMLInputFactory factory) throws IOException, XMLStreamException {
+        String relationshipId = firstAttribute(factory, WORKBOOK, "sheet", RELATIONSHIPS_NS, "id", null);
+        if (relationshipId == null) {
+            return DEFAULT_SHEET;
+        }
+        String target = firstAttribute(factory, WORKBOOK_RELS, "Relationship", null, "Target", relationshipId);
+        if (target == null) {
+            throw new IllegalArgumentException("Excel 檔案中找不到工作表");
+        }
+        // Target 相對於 xl/，以 / 開頭時為套件根目錄的絕對路徑
+        return target.startsWith("/") ? target.substring(1) : "xl/" + target;
+    }
+
+    /**
+     * 讀取指定 XML 中第一個符合的元素屬性；relationshipId 不為 null 時只比對 Id 相同的元素
+     */
+    private String firstAttribute(XMLInputFactory factory, String entryName, String element,
+                                  String namespace, String attribute, String relationshipId)
+            throws IOException, XMLStreamException {
+        ZipEntry entry = zipFile.getEntry(entryName);
+        if (entry == null) {
+            return null;
+        }
+
+        try (InputStream in = zipFile.getInputStream(entry)) {
+            XMLStreamReader xml = factory.createXMLStreamReader(in);
+            try {
+                while (xml.hasNext()) {
+                    if (xml.next() == XMLStreamConstants.START_ELEMENT && element.equals(xml.getLocalName())
+                            && (relationshipId == null || relationshipId.equals(xml.getAttributeValue(null, "Id")))) {
+                        return xml.getAttributeValue(namespace, attribute);
+                    }
+                }
+                return null;
+            } finally {
+                xml.close();
+            }
+        }
+    }
+
+    private List<String> readSharedStrings(XMLInputFactory factory) throws IOException, XMLStreamException {
+        List<String> strings = new ArrayList<>();
+        ZipEntry entry = zipFile.getEntry(SHARED_STRINGS);
+        if (entry == null) {
+            return strings;
+        }
+
+        try (InputStream in = zipFile.getInputStream(entry)) {
+            XMLStreamReader xml = factory.createXMLStreamReader(in);
+            StringBuilder current = null;
+            boolean inText = false;
+            while (xml.hasNext()) {
+                int event = xml.next();
+                if (event == XMLStreamConstants.START_ELEMENT) {
+                    if ("si".equals(xml.getLocalName())) {
+                        current = new StringBuilder();
+                    } else if ("t".equals(xml.getLocalName())) {
+                        inText = true;
+                    } else if ("rPh".equals(xml.getLocalName())) {
+                        // 注音/拼音標示不屬於儲存格文字
+                        skipElement(xml);
+                    }
+                } else if (event == XMLStreamConstants.CHARACTERS && inText && current != null) {
+                    current.append(xml.getText());
+                } else if (event == XMLStreamConstants.END_ELEMENT) {
+                    if ("t".equals(xml.getLocalName())) {
+                        inText = false;
+                    } else if ("si".equals(xml.getLocalName()) && current != null) {
+                        strings.add(current.toString());
+                        current = null;
+                    }
+                }
+            }
+            xml.close();
+        }
+        return strings;
+    }
+
+    private static void skipElement(XMLStreamReader xml) throws XMLStreamException {
+        int depth = 1;
+        while (depth > 0 && xml.hasNext()) {
+            int event = xml.next();
+            if (event == XMLStreamConstants.START_ELEMENT) {
+                depth++;
+            } else if (event == XMLStreamConstants.END_ELEMENT) {
+                depth--;
+            }
+        }
+    }
+
+    /**
+     * 由儲存格參照（例如 C12）取得從 0 起算的欄位索引，沒有參照時視為下一欄
+     */
+    static int columnIndex(String reference, int fallback) {
+        if (reference == null || reference.isEmpty()) {
+            return fallback;
+        }
+        int column = 0;
+        for (int i = 0; i < reference.length(); i++) {
+            char ch = reference.charAt(i);
+            if (ch < 'A' || ch > 'Z') {
+                break;
+            }
+            column = column * 26 + (ch - 'A' + 1);
+        }
+        return column > 0 ? column - 1 : fallback;
+    }
+
+    /**
+     * 由列元素的 r 屬性（例如 12）取得從 1 起算的列號，沒有或無法解析時使用 fallback
+     */
+    static int rowIndex(String reference, int fallback) {
+        if (reference == null || reference.isBlank()) {
+            return fallback;
+        }
+        try {
+            int row = Integer.parseInt(reference.trim());
+            return row > 0 ? row : fallback;
+        } catch (NumberFormatException e) {
+            return fallback;
+        }
+    }
+
+    private static XMLInputFactory newFactory() {
+        XMLInputFactory factory = XMLInputFactory.newFactory();
+        // 關閉外部實體，避免 XXE
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        return factory;
+    }
+
+    @Override
+    public int rowNumber() {
+        return rowNumber;
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            sheet.close();
+        } catch (XMLStreamException e) {
+            // 關閉失敗不影響結果
+        }
+        try {
+            sheetStream.close();
+            zipFile.close();
+        } finally {
+            Files.deleteIfExists(tempFile);
+        }
+    }
+}
@@ -1,10 +1,20 @@
 package com.morningharvest.erp.purchase.repository;
 
 import com.morningharvest.erp.purchase.entity.PurchaseItem;
+import jakarta.persistence.QueryHint;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
 
 @Repository
 public interface PurchaseItemRepository extends JpaRepository<PurchaseItem, Long> {
@@ -23,4 +33,54 @@ public interface PurchaseItemRepository extends JpaRepository<PurchaseItem, Long
      * 檢查進貨單是否有明細
      */
     boolean existsByPurchaseId(Long purchaseId);
+
+    /**
+     * 查詢指定日期後已確認進貨的明細歷史（依進貨日期排序）
+     */
+    @Query("SELECT i.materialId AS materialId, p.supplierId AS supplierId, i.unitPrice AS unitPrice, " +
+           "p.purchaseDate AS purchaseDate, p.confirmedAt AS confirmedAt " +
+           "FROM PurchaseItem i, Purchase p WHERE i.purchaseId = p.id " +
+           "AND p.status = :status AND p.purchaseDate >= :startDate " +
+           "ORDER BY p.purchaseDate ASC, p.id ASC")
+    List<MaterialPurchaseHistory> findPurchaseHistory(
+            @Param("status") String status,
+            @Param("startDate") LocalDate startDate);
+
+    /**
+     * 串流讀取所有已確認進貨明細（依確認時間排序，成本重估用）
+     */
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "" + Integer.MIN_VALUE))
+    @Query("SELECT i.materialId AS materialId, i.quantity AS quantity, i.unitPrice AS unitPrice, " +
+           "p.confirmedAt AS confirmedAt " +
+           "FROM PurchaseItem i, Purchase p WHERE i.purchaseId = p.id AND p.status = :status " +
+           "ORDER BY p.confirmedAt ASC, i.id ASC")
+    Stream<MaterialReceipt> streamReceipts(@Param("status") String status);
+
+    /**
+     * 原物料進貨歷史
+     */
+    interface MaterialPurchaseHistory {
+        Long getMaterialId();
+
+        Long getSupplierId();
+
+        BigDecimal getUnitPrice();
+
+        LocalDate getPurchaseDate();
+
+        LocalDateTime getConfirmedAt();
+    }
+
+    /**
+     * 原物料進貨入庫紀錄
+     */
+    interface MaterialReceipt {
+        Long getMaterialId();
+
+        BigDecimal getQuantity();
+
+        BigDecimal getUnitPrice();
+
+        LocalDateTime getConfirmedAt();
+    }
 }
@@ -23,6 +23,11 @@ public interface PurchaseRepository extends JpaRepository<Purchase, Long> {
      */
     Page<Purchase> findByStatus(String status, Pageable pageable);
 
+    /**
+     * 檢查供應商是否有指定狀態的進貨單
+     */
+    boolean existsBySupplierIdAndStatus(Long supplierId, String status);
+
     /**
      * 依供應商ID查詢
      */
@@ -51,10 +56,4 @@ public interface PurchaseRepository extends JpaRepository<Purchase, Long> {
             @Param("startDate") LocalDate startDate,
             @Param("endDate") LocalDate endDate,
             Pageable pageable);
-
-    /**
-     * 統計指定前綴的進貨單數量（用於產生單號）
-     */
-    @Query("SELECT COUNT(p) FROM Purchase p WHERE p.purchaseNumber LIKE :prefix%")
-    long countByPurchaseNumberPrefix(@Param("prefix") String prefix);
 }
@@ -0,0 +1,32 @@
+package com.morningharvest.erp.purchase.scheduler;
+
+import com.morningharvest.erp.purchase.service.ReorderSuggestionService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * 補貨建議排程
+ *
+ * 每日定時依耗用預測產生進貨草稿，需設定 purchase.reorder.job.enabled=true 才會啟用
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "purchase.reorder.job", name = "enabled", havingValue = "true")
+public class ReorderSuggestionScheduler {
+
+    private final ReorderSuggestionService reorderSuggestionService;
+
+    @Scheduled(cron = "${purchase.reorder.job.cron:0 0 5 * * *}")
+    public void generateDraftPurchases() {
+        log.info("補貨建議排程開始");
+        try {
+            reorderSuggestionService.generateDraftPurchases();
+        } catch (Exception e) {
+            log.error("補貨建議排程失敗: {}", e.getMessage(), e);
+        }
+    }
+}
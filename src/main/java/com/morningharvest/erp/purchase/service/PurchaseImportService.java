@@ -0,0 +1,377 @@
+package com.morningharvest.erp.purchase.service;
+
+import com.morningharvest.erp.common.exception.ResourceNotFoundException;
+import com.morningharvest.erp.common.sequence.DocumentSequenceService;
+import com.morningharvest.erp.material.entity.Material;
+import com.morningharvest.erp.material.repository.MaterialRepository;
+import com.morningharvest.erp.purchase.constant.PurchaseStatus;
+import com.morningharvest.erp.purchase.dto.PurchaseImportResultDTO;
+import com.morningharvest.erp.purchase.entity.Purchase;
+import com.morningharvest.erp.purchase.importer.DeliveryRowReader;
+import com.morningharvest.erp.purchase.importer.InvalidDeliveryRowException;
+import com.morningharvest.erp.purchase.repository.PurchaseRepository;
+import com.morningharvest.erp.supplier.entity.Supplier;
+import com.morningharvest.erp.supplier.repository.SupplierRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.interceptor.TransactionAspectSupport;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.*;
+
+/**
+ * 進貨單匯入服務
+ *
+ * 逐列串流解析供應商出貨檔（CSV / Excel），原物料編號以一次載入的對照表比對，
+ * 單次掃描完成驗證，明細以 JDBC 批次寫入；任何一列有誤時整批回滾並回傳錯誤清單
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class PurchaseImportService {
+
+    private static final String INSERT_ITEM_SQL =
+            "INSERT INTO purchase_items (purchase_id, material_id, material_code, material_name, material_unit, " +
+            "quantity, unit_price, subtotal, note, created_at, updated_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final int NOTE_MAX_LENGTH = 200;
+
+    /**
+     * purchase_items.quantity / unit_price 為 DECIMAL(10, 2)，subtotal 與 purchases.total_amount 為 DECIMAL(12, 2)
+     */
+    private static final int QUANTITY_PRECISION = 10;
+    private static final int UNIT_PRICE_PRECISION = 10;
+    private static final int AMOUNT_PRECISION = 12;
+    private static final int AMOUNT_SCALE = 2;
+
+    private static final List<String> CODE_HEADERS = List.of("material_code", "materialcode", "code", "原物料編號", "品號");
+    private static final List<String> QUANTITY_HEADERS = List.of("quantity", "qty", "數量");
+    private static final List<String> UNIT_PRICE_HEADERS = List.of("unit_price", "unitprice", "price", "單價");
+    private static final List<String> NOTE_HEADERS = List.of("note", "備註");
+
+    private final PurchaseRepository purchaseRepository;
+    private final SupplierRepository supplierRepository;
+    private final MaterialRepository materialRepository;
+    private final DocumentSequenceService documentSequenceService;
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${purchase.import.max-rows:20000}")
+    private int maxRows;
+
+    @Value("${purchase.import.batch-size:500}")
+    private int batchSize;
+
+    @Value("${purchase.import.max-errors:100}")
+    private int maxErrors;
+
+    /**
+     * 匯入供應商出貨檔，建立一張草稿進貨單
+     */
+    @Transactional
+    public PurchaseImportResultDTO importPurchase(Long supplierId, LocalDate purchaseDate,
+                                                  String note, MultipartFile file) {
+        log.info("匯入進貨單, supplierId: {}, filename: {}, size: {} bytes",
+                supplierId, file.getOriginalFilename(), file.getSize());
+
+        if (file.isEmpty()) {
+            throw new IllegalArgumentException("檔案不能為空");
+        }
+
+        Supplier supplier = supplierRepository.findById(supplierId)
+                .orElseThrow(() -> new ResourceNotFoundException("供應商不存在: " + supplierId));
+        if (!supplier.getIsActive()) {
+            throw new IllegalArgumentException("供應商已停用: " + supplier.getName());
+        }
+
+        // 原物料編號對照表只載入一次
+        Map<String, Material> materialsByCode = new HashMap<>();
+        for (Material material : materialRepository.findAll()) {
+            if (material.getCode() != null) {
+                materialsByCode.put(material.getCode(), material);
+            }
+        }
+
+        Purchase purchase = purchaseRepository.save(Purchase.builder()
+                .purchaseNumber(documentSequenceService.nextNumber(PurchaseService.NUMBER_PREFIX))
+                .supplierId(supplier.getId())
+                .supplierName(supplier.getName())
+                .status(PurchaseStatus.DRAFT)
+                .totalAmount(BigDecimal.ZERO)
+                .purchaseDate(purchaseDate != null ? purchaseDate : LocalDate.now())
+                .note(note)
+                .build());
+
+        ImportState state = new ImportState(purchase.getId());
+        try (DeliveryRowReader reader = DeliveryRowReader.open(file)) {
+            ColumnMapping columns = ColumnMapping.of(reader.next());
+            while (true) {
+                List<String> row = null;
+                String invalidRow = null;
+                try {
+                    row = reader.next();
+                    if (row == null) {
+                        break;
+                    }
+                } catch (InvalidDeliveryRowException e) {
+                    // 讀取器已跳過該列，記錄錯誤後繼續驗證其餘列
+                    invalidRow = e.getMessage();
+                }
+                // 依讀取器回報的檔案列號，Excel 未儲存的空白列不會讀到
+                int rowNumber = reader.rowNumber();
+                if (invalidRow == null && isBlank(row)) {
+                    continue;
+                }
+                if (++state.totalRows > maxRows) {
+                    state.addError(rowNumber, "超過單次匯入上限 " + maxRows + " 列", maxErrors);
+                    break;
+                }
+                if (invalidRow != null) {
+                    state.addError(rowNumber, invalidRow, maxErrors);
+                } else {
+                    importRow(state, rowNumber, row, columns, materialsByCode);
+                }
+            }
+        } catch (IOException e) {
+            throw new IllegalArgumentException("檔案讀取失敗: " + e.getMessage());
+        }
+
+        if (state.totalRows == 0) {
+            state.addError(1, "檔案沒有任何明細", maxErrors);
+        }
+
+        if (!state.errors.isEmpty()) {
+            markRollbackOnly();
+            log.warn("進貨單匯入失敗, supplierId: {}, 錯誤數: {}", supplierId, state.errorCount);
+            return PurchaseImportResultDTO.builder()
+                    .success(false)
+                    .totalRows(state.totalRows)
+                    .importedRows(0)
+                    .errors(state.errors)
+                    .errorsTruncated(state.errorCount > state.errors.size())
+                    .build();
+        }
+
+        flush(state);
+        purchase.setTotalAmount(state.totalAmount);
+        purchaseRepository.save(purchase);
+
+        log.info("進貨單匯入成功, id: {}, purchaseNumber: {}, 明細數: {}, 總金額: {}",
+                purchase.getId(), purchase.getPurchaseNumber(), state.importedRows, state.totalAmount);
+
+        return PurchaseImportResultDTO.builder()
+                .success(true)
+                .purchaseId(purchase.getId())
+                .purchaseNumber(purchase.getPurchaseNumber())
+                .totalRows(state.totalRows)
+                .importedRows(state.importedRows)
+                .totalAmount(state.totalAmount)
+                .errors(Collections.emptyList())
+                .errorsTruncated(false)
+                .build();
+    }
+
+    /**
+     * 驗證單列並加入待寫入批次；已有錯誤時只驗證不寫入
+     */
+    private void importRow(ImportState state, int rowNumber, List<String> row,
+                           ColumnMapping columns, Map<String, Material> materialsByCode) {
+        String code = cell(row, columns.code);
+        if (code.isEmpty()) {
+            state.addError(rowNumber, "原物料編號必填", maxErrors);
+            return;
+        }
+
+        Material material = materialsByCode.get(code);
+        if (material == null) {
+            state.addError(rowNumber, "原物料不存在: " + code, maxErrors);
+            return;
+        }
+        if (!Boolean.TRUE.equals(material.getIsActive())) {
+            state.addError(rowNumber, "原物料已停用: " + material.getName(), maxErrors);
+            return;
+        }
+
+        BigDecimal quantity = parseDecimal(cell(row, columns.quantity));
+        if (quantity == null || quantity.compareTo(new BigDecimal("0.01")) < 0) {
+            state.addError(rowNumber, "數量必須大於 0", maxErrors);
+            return;
+        }
+        if (!fitsDecimal(quantity, QUANTITY_PRECISION, AMOUNT_SCALE)) {
+            state.addError(rowNumber, digitsMessage("數量", QUANTITY_PRECISION), maxErrors);
+            return;
+        }
+
+        BigDecimal unitPrice = parseDecimal(cell(row, columns.unitPrice));
+        if (unitPrice == null || unitPrice.signum() < 0) {
+            state.addError(rowNumber, "單價必須為大於等於 0 的數字", maxErrors);
+            return;
+        }
+        if (!fitsDecimal(unitPrice, UNIT_PRICE_PRECISION, AMOUNT_SCALE)) {
+            state.addError(rowNumber, digitsMessage("單價", UNIT_PRICE_PRECISION), maxErrors);
+            return;
+        }
+
+        BigDecimal subtotal = quantity.multiply(unitPrice).setScale(AMOUNT_SCALE, RoundingMode.HALF_UP);
+        if (!fitsDecimal(subtotal, AMOUNT_PRECISION, AMOUNT_SCALE)) {
+            state.addError(rowNumber, digitsMessage("小計", AMOUNT_PRECISION), maxErrors);
+            return;
+        }
+        BigDecimal totalAmount = state.totalAmount.add(subtotal);
+        if (!fitsDecimal(totalAmount, AMOUNT_PRECISION, AMOUNT_SCALE)) {
+            state.addError(rowNumber, digitsMessage("總金額", AMOUNT_PRECISION), maxErrors);
+            return;
+        }
+
+        String itemNote = columns.note >= 0 ? cell(row, columns.note) : "";
+        if (itemNote.length() > NOTE_MAX_LENGTH) {
+            state.addError(rowNumber, "備註不可超過 " + NOTE_MAX_LENGTH + " 字元", maxErrors);
+            return;
+        }
+
+        if (!state.errors.isEmpty()) {
+            return;
+        }
+
+        state.batch.add(new Object[]{
+                state.purchaseId, material.getId(), material.getCode(), material.getName(), material.getUnit(),
+                quantity, unitPrice, subtotal, itemNote.isEmpty() ? null : itemNote,
+                state.now, state.now});
+        state.totalAmount = totalAmount;
+        state.importedRows++;
+
+        if (state.batch.size() >= batchSize) {
+            flush(state);
+        }
+    }
+
+    private void flush(ImportState state) {
+        if (state.batch.isEmpty()) {
+            return;
+        }
+        // 傳入副本，批次清單會在清空後重複使用
+        jdbcTemplate.batchUpdate(INSERT_ITEM_SQL, List.copyOf(state.batch));
+        log.debug("寫入進貨明細批次, purchaseId: {}, 筆數: {}", state.purchaseId, state.batch.size());
+        state.batch.clear();
+    }
+
+    /**
+     * 讓目前交易回滾（已寫入的表頭與明細批次一併撤銷）
+     */
+    private void markRollbackOnly() {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            TransactionAspectSupport.currentTransactionStatus().setRollbackOnly();
+        }
+    }
+
+    private static BigDecimal parseDecimal(String text) {
+        if (text.isEmpty()) {
+            return null;
+        }
+        try {
+            return new BigDecimal(text.replace(",", ""));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    /**
+     * 是否可存入 DECIMAL(precision, scale) 欄位：小數不超過 scale 位、整數不超過 precision - scale 位
+     */
+    private static boolean fitsDecimal(BigDecimal value, int precision, int scale) {
+        BigDecimal normalized = value.stripTrailingZeros();
+        return normalized.scale() <= scale && normalized.precision() - normalized.scale() <= precision - scale;
+    }
+
+    private static String digitsMessage(String field, int precision) {
+        return field + "最多 " + (precision - AMOUNT_SCALE) + " 位整數、" + AMOUNT_SCALE + " 位小數";
+    }
+
+    private static String cell(List<String> row, int index) {
+        if (index < 0 || index >= row.size() || row.get(index) == null) {
+            return "";
+        }
+        return row.get(index).trim();
+    }
+
+    private static boolean isBlank(List<String> row) {
+        for (String value : row) {
+            if (value != null && !value.isBlank()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 匯入過程中的狀態，待寫入批次最多 batchSize 筆
+     */
+    private static final class ImportState {
+
+        private final Long purchaseId;
+        private final Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        private final List<Object[]> batch = new ArrayList<>();
+        private final List<PurchaseImportResultDTO.RowError> errors = new ArrayList<>();
+        private int errorCount;
+        private int totalRows;
+        private int importedRows;
+        private BigDecimal totalAmount = BigDecimal.ZERO;
+
+        private ImportState(Long purchaseId) {
+            this.purchaseId = purchaseId;
+        }
+
+        private void addError(int rowNumber, String message, int maxErrors) {
+            errorCount++;
+            if (errors.size() < maxErrors) {
+                errors.add(new PurchaseImportResultDTO.RowError(rowNumber, message));
+            }
+            // 有錯誤時不再寫入
+            batch.clear();
+        }
+    }
+
+    /**
+     * 標題列欄位對應
+     */
+    private record ColumnMapping(int code, int quantity, int unitPrice, int note) {
+
+        static ColumnMapping of(List<String> header) {
+            if (header == null) {
+                throw new IllegalArgumentException("檔案沒有標題列");
+            }
+
+            int code = -1;
+            int quantity = -1;
+            int unitPrice = -1;
+            int note = -1;
+            for (int i = 0; i < header.size(); i++) {
+                String name = header.get(i) == null ? "" : header.get(i).trim().toLowerCase(Locale.ROOT);
+                if (CODE_HEADERS.contains(name)) {
+                    code = i;
+                } else if (QUANTITY_HEADERS.contains(name)) {
+                    quantity = i;
+                } else if (UNIT_PRICE_HEADERS.contains(name)) {
+                    unitPrice = i;
+                } else if (NOTE_HEADERS.contains(name)) {
+                    note = i;
+                }
+            }
+
+            if (code < 0 || quantity < 0 || unitPrice < 0) {
+                throw new IllegalArgumentException("標題列須包含原物料編號 (material_code)、數量 (quantity)、單價 (unit_price) 欄位");
+            }
+            return new ColumnMapping(code, quantity, unitPrice, note);
+        }
+    }
+}
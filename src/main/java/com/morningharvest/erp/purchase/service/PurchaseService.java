@@ -4,6 +4,7 @@ import com.morningharvest.erp.common.dto.PageResponse;
 import com.morningharvest.erp.common.dto.PageableRequest;
 import com.morningharvest.erp.common.event.EventPublisher;
 import com.morningharvest.erp.common.exception.ResourceNotFoundException;
+import com.morningharvest.erp.common.sequence.DocumentSequenceService;
 import com.morningharvest.erp.material.entity.Material;
 import com.morningharvest.erp.material.repository.MaterialRepository;
 import com.morningharvest.erp.purchase.constant.PurchaseStatus;
@@ -24,7 +25,6 @@ import org.springframework.transaction.annotation.Transactional;
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -33,11 +33,17 @@ import java.util.stream.Collectors;
 @Slf4j
 public class PurchaseService {
 
+    /**
+     * 進貨單號前綴 (格式: PO-YYYYMMDD-XXXX)
+     */
+    static final String NUMBER_PREFIX = "PO";
+
     private final PurchaseRepository purchaseRepository;
     private final PurchaseItemRepository purchaseItemRepository;
     private final SupplierRepository supplierRepository;
     private final MaterialRepository materialRepository;
     private final EventPublisher eventPublisher;
+    private final DocumentSequenceService documentSequenceService;
 
     /**
      * 建立進貨單
@@ -55,7 +61,7 @@ public class PurchaseService {
         }
 
         // 產生進貨單號
-        String purchaseNumber = generatePurchaseNumber();
+        String purchaseNumber = documentSequenceService.nextNumber(NUMBER_PREFIX);
 
         // 建立進貨單主檔
         Purchase purchase = Purchase.builder()
@@ -222,16 +228,6 @@ public class PurchaseService {
 
     // ========== 內部方法 ==========
 
-    /**
-     * 產生進貨單號
-     * 格式: PO-YYYYMMDD-XXXX
-     */
-    private String generatePurchaseNumber() {
-        String datePrefix = "PO-" + LocalDate.now().format(DateTimeFormatter.ofPattern("yyyyMMdd")) + "-";
-        long count = purchaseRepository.countByPurchaseNumberPrefix(datePrefix);
-        return datePrefix + String.format("%04d", count + 1);
-    }
-
     /**
      * 取得草稿狀態的進貨單
      */
@@ -0,0 +1,396 @@
+package com.morningharvest.erp.purchase.service;
+
+import com.morningharvest.erp.inventorycheck.constant.InventoryCheckStatus;
+import com.morningharvest.erp.inventorycheck.repository.InventoryCheckItemRepository;
+import com.morningharvest.erp.material.entity.Material;
+import com.morningharvest.erp.material.repository.MaterialRepository;
+import com.morningharvest.erp.order.repository.OrderItemRepository;
+import com.morningharvest.erp.product.entity.ProductRecipe;
+import com.morningharvest.erp.product.repository.ProductRecipeRepository;
+import com.morningharvest.erp.purchase.constant.PurchaseStatus;
+import com.morningharvest.erp.purchase.dto.*;
+import com.morningharvest.erp.purchase.repository.PurchaseItemRepository;
+import com.morningharvest.erp.purchase.repository.PurchaseRepository;
+import com.morningharvest.erp.supplier.entity.Supplier;
+import com.morningharvest.erp.supplier.repository.SupplierRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.*;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * 補貨建議服務
+ *
+ * 由銷售（經配方展開）與盤虧推算每種原物料的每日耗用量，
+ * 以移動平均搭配星期季節性預測未來耗用，
+ * 若在供應商交期內預估庫存會低於安全庫存，即產生補貨建議
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ReorderSuggestionService {
+
+    /**
+     * 計入銷售的訂單狀態
+     */
+    private static final List<String> SALE_ORDER_STATUSES = List.of("PAID", "COMPLETED");
+
+    /**
+     * 自動產生的進貨草稿備註
+     */
+    static final String AUTO_DRAFT_NOTE = "自動補貨建議";
+
+    private final MaterialRepository materialRepository;
+    private final ProductRecipeRepository productRecipeRepository;
+    private final OrderItemRepository orderItemRepository;
+    private final PurchaseItemRepository purchaseItemRepository;
+    private final PurchaseRepository purchaseRepository;
+    private final InventoryCheckItemRepository inventoryCheckItemRepository;
+    private final SupplierRepository supplierRepository;
+    private final PurchaseService purchaseService;
+
+    @Value("${purchase.reorder.history-days:365}")
+    private int historyDays;
+
+    @Value("${purchase.reorder.moving-average-days:28}")
+    private int movingAverageDays;
+
+    @Value("${purchase.reorder.default-lead-time-days:2}")
+    private int defaultLeadTimeDays;
+
+    @Value("${purchase.reorder.coverage-days:7}")
+    private int coverageDays;
+
+    /**
+     * 計算補貨建議（依供應商分組）
+     */
+    @Transactional(readOnly = true)
+    public List<ReorderSuggestionDTO> listSuggestions() {
+        long startedAt = System.currentTimeMillis();
+        LocalDate today = LocalDate.now();
+        LocalDate startDate = today.minusDays(historyDays);
+
+        List<Material> materials = materialRepository.findByIsActive(true, Pageable.unpaged()).getContent();
+        Map<Long, Integer> materialIndex = new HashMap<>();
+        for (int i = 0; i < materials.size(); i++) {
+            materialIndex.put(materials.get(i).getId(), i);
+        }
+
+        // 每種原物料每日耗用量
+        double[][] consumption = new double[materials.size()][historyDays];
+        accumulateSalesConsumption(consumption, materialIndex, startDate, today);
+        accumulateShrinkage(consumption, materialIndex, startDate);
+
+        // 由進貨歷史推得原物料的主要供應商、最近單價與供應商交期
+        Map<Long, Long> supplierByMaterial = new HashMap<>();
+        Map<Long, BigDecimal> lastPriceByMaterial = new HashMap<>();
+        Map<Long, int[]> leadTimeStats = new HashMap<>();
+        for (PurchaseItemRepository.MaterialPurchaseHistory row :
+                purchaseItemRepository.findPurchaseHistory(PurchaseStatus.CONFIRMED, startDate)) {
+            supplierByMaterial.put(row.getMaterialId(), row.getSupplierId());
+            if (row.getUnitPrice() != null) {
+                lastPriceByMaterial.put(row.getMaterialId(), row.getUnitPrice());
+            }
+            if (row.getConfirmedAt() != null && row.getPurchaseDate() != null) {
+                long days = ChronoUnit.DAYS.between(row.getPurchaseDate(), row.getConfirmedAt().toLocalDate());
+                int[] stats = leadTimeStats.computeIfAbsent(row.getSupplierId(), id -> new int[2]);
+                stats[0] += (int) Math.max(days, 0);
+                stats[1]++;
+            }
+        }
+        Map<Long, Integer> leadTimeBySupplier = new HashMap<>();
+        leadTimeStats.forEach((supplierId, stats) ->
+                leadTimeBySupplier.put(supplierId, Math.max(1, (int) Math.ceil((double) stats[0] / stats[1]))));
+
+        // 各原物料預測互不相依，平行計算
+        List<MaterialForecast> forecasts = IntStream.range(0, materials.size())
+                .parallel()
+                .mapToObj(i -> {
+                    Material material = materials.get(i);
+                    Long supplierId = supplierByMaterial.get(material.getId());
+                    int leadTime = supplierId != null ?
+                            leadTimeBySupplier.getOrDefault(supplierId, defaultLeadTimeDays) : defaultLeadTimeDays;
+                    return forecast(material, consumption[i], startDate, today, supplierId, leadTime);
+                })
+                .filter(Objects::nonNull)
+                .toList();
+
+        List<ReorderSuggestionDTO> suggestions = groupBySupplier(forecasts, lastPriceByMaterial, leadTimeBySupplier);
+
+        log.info("補貨建議計算完成, 原物料數: {}, 建議品項數: {}, 供應商數: {}, 耗時: {} ms",
+                materials.size(), forecasts.size(), suggestions.size(), System.currentTimeMillis() - startedAt);
+        return suggestions;
+    }
+
+    /**
+     * 依補貨建議為每個供應商建立進貨草稿
+     * 已有草稿進貨單的供應商會略過，避免重複下單
+     */
+    @Transactional
+    public List<PurchaseDetailDTO> generateDraftPurchases() {
+        log.info("依補貨建議產生進貨草稿");
+
+        List<PurchaseDetailDTO> created = new ArrayList<>();
+        for (ReorderSuggestionDTO suggestion : listSuggestions()) {
+            if (suggestion.getSupplierId() == null) {
+                log.info("{} 項原物料沒有進貨紀錄，無法指定供應商", suggestion.getItems().size());
+                continue;
+            }
+            if (purchaseRepository.existsBySupplierIdAndStatus(suggestion.getSupplierId(), PurchaseStatus.DRAFT)) {
+                log.info("供應商已有草稿進貨單，略過, supplierId: {}", suggestion.getSupplierId());
+                continue;
+            }
+
+            List<CreatePurchaseItemRequest> items = suggestion.getItems().stream()
+                    .map(item -> CreatePurchaseItemRequest.builder()
+                            .materialId(item.getMaterialId())
+                            .quantity(item.getSuggestedQuantity())
+                            .unitPrice(item.getUnitPrice())
+                            .build())
+                    .collect(Collectors.toList());
+
+            CreatePurchaseRequest request = CreatePurchaseRequest.builder()
+                    .supplierId(suggestion.getSupplierId())
+                    .purchaseDate(LocalDate.now())
+                    .note(AUTO_DRAFT_NOTE)
+                    .items(items)
+                    .build();
+
+            created.add(purchaseService.createPurchase(request));
+        }
+
+        log.info("進貨草稿產生完成, 共 {} 張", created.size());
+        return created;
+    }
+
+    // ========== 內部方法 ==========
+
+    /**
+     * 將商品銷售依配方展開為原物料耗用
+     */
+    private void accumulateSalesConsumption(double[][] consumption, Map<Long, Integer> materialIndex,
+                                            LocalDate startDate, LocalDate today) {
+        Map<Long, List<ProductRecipe>> recipesByProduct = productRecipeRepository.findAll().stream()
+                .filter(recipe -> recipe.getProductId() != null && recipe.getQuantity() != null)
+                .collect(Collectors.groupingBy(ProductRecipe::getProductId));
+
+        LocalDateTime start = startDate.atStartOfDay();
+        LocalDateTime end = today.atStartOfDay();
+        List<OrderItemRepository.DailyProductSales> sales = new ArrayList<>(
+                orderItemRepository.sumSingleItemQuantityByDay(SALE_ORDER_STATUSES, start, end));
+        sales.addAll(orderItemRepository.sumComboItemQuantityByDay(SALE_ORDER_STATUSES, start, end));
+
+        for (OrderItemRepository.DailyProductSales sale : sales) {
+            int day = dayIndex(startDate, sale.getSaleDate());
+            List<ProductRecipe> recipes = recipesByProduct.get(sale.getProductId());
+            if (day < 0 || recipes == null || sale.getQuantity() == null) {
+                continue;
+            }
+            for (ProductRecipe recipe : recipes) {
+                Integer index = materialIndex.get(recipe.getMaterialId());
+                if (index != null) {
+                    consumption[index][day] += sale.getQuantity() * recipe.getQuantity().doubleValue();
+                }
+            }
+        }
+    }
+
+    /**
+     * 將盤虧視為未記錄的耗用（損耗）
+     */
+    private void accumulateShrinkage(double[][] consumption, Map<Long, Integer> materialIndex,
+                                     LocalDate startDate) {
+        for (InventoryCheckItemRepository.MaterialShrinkage shrinkage : inventoryCheckItemRepository
+                .findShrinkageSince(InventoryCheckStatus.CONFIRMED, startDate.atStartOfDay())) {
+            Integer index = materialIndex.get(shrinkage.getMaterialId());
+            int day = dayIndex(startDate, shrinkage.getConfirmedAt().toLocalDate());
+            if (index != null && day >= 0) {
+                consumption[index][day] -= shrinkage.getDifferenceQuantity().doubleValue();
+            }
+        }
+    }
+
+    /**
+     * 預測單一原物料，若交期內會低於安全庫存則回傳建議
+     */
+    private MaterialForecast forecast(Material material, double[] history, LocalDate startDate,
+                                      LocalDate today, Long supplierId, int leadTimeDays) {
+        int days = history.length;
+        if (days == 0) {
+            return null;
+        }
+
+        // 移動平均作為基準日耗用量
+        int window = Math.min(movingAverageDays, days);
+        double base = 0;
+        for (int d = days - window; d < days; d++) {
+            base += history[d];
+        }
+        base /= window;
+        if (base <= 0) {
+            return null;
+        }
+
+        // 星期季節性係數：各星期平均耗用 / 整體平均耗用
+        double[] weekdaySum = new double[7];
+        int[] weekdayCount = new int[7];
+        double total = 0;
+        for (int d = 0; d < days; d++) {
+            int weekday = startDate.plusDays(d).getDayOfWeek().getValue() - 1;
+            weekdaySum[weekday] += history[d];
+            weekdayCount[weekday]++;
+            total += history[d];
+        }
+        double overall = total / days;
+        double[] factor = new double[7];
+        for (int w = 0; w < 7; w++) {
+            factor[w] = overall > 0 && weekdayCount[w] > 0 ? (weekdaySum[w] / weekdayCount[w]) / overall : 1.0;
+        }
+
+        double current = toDouble(material.getCurrentStockQuantity());
+        double safe = toDouble(material.getSafeStockQuantity());
+
+        double leadTimeDemand = 0;
+        double coverageDemand = 0;
+        for (int f = 0; f < leadTimeDays + coverageDays; f++) {
+            int weekday = today.plusDays(f).getDayOfWeek().getValue() - 1;
+            double demand = base * factor[weekday];
+            if (f < leadTimeDays) {
+                leadTimeDemand += demand;
+            }
+            coverageDemand += demand;
+        }
+
+        double projected = current - leadTimeDemand;
+        if (projected >= safe) {
+            return null;
+        }
+
+        double suggested = safe + coverageDemand - current;
+        if (suggested <= 0) {
+            return null;
+        }
+
+        return new MaterialForecast(material, supplierId, base, projected, suggested);
+    }
+
+    /**
+     * 將預測結果依供應商分組
+     */
+    private List<ReorderSuggestionDTO> groupBySupplier(List<MaterialForecast> forecasts,
+                                                       Map<Long, BigDecimal> lastPriceByMaterial,
+                                                       Map<Long, Integer> leadTimeBySupplier) {
+        Map<Long, List<MaterialForecast>> bySupplier = forecasts.stream()
+                .collect(Collectors.groupingBy(
+                        forecast -> forecast.supplierId() != null ? forecast.supplierId() : -1L,
+                        LinkedHashMap::new, Collectors.toList()));
+
+        Map<Long, Supplier> suppliers = supplierRepository.findAllById(bySupplier.keySet()).stream()
+                .collect(Collectors.toMap(Supplier::getId, supplier -> supplier));
+
+        List<ReorderSuggestionDTO> result = new ArrayList<>();
+        bySupplier.forEach((key, group) -> {
+            Long supplierId = key >= 0 ? key : null;
+            Supplier supplier = supplierId != null ? suppliers.get(supplierId) : null;
+            if (supplier != null && !Boolean.TRUE.equals(supplier.getIsActive())) {
+                // 供應商已停用，歸入未指定供應商
+                supplierId = null;
+                supplier = null;
+            }
+
+            List<ReorderSuggestionItemDTO> items = group.stream()
+                    .sorted(Comparator.comparing(forecast -> forecast.material().getCode(),
+                            Comparator.nullsLast(Comparator.naturalOrder())))
+                    .map(forecast -> toItemDTO(forecast, lastPriceByMaterial))
+                    .collect(Collectors.toList());
+
+            BigDecimal estimatedAmount = items.stream()
+                    .map(item -> item.getSuggestedQuantity().multiply(item.getUnitPrice()))
+                    .reduce(BigDecimal.ZERO, BigDecimal::add)
+                    .setScale(2, RoundingMode.HALF_UP);
+
+            result.add(ReorderSuggestionDTO.builder()
+                    .supplierId(supplierId)
+                    .supplierName(supplier != null ? supplier.getName() : null)
+                    .leadTimeDays(supplierId != null ?
+                            leadTimeBySupplier.getOrDefault(supplierId, defaultLeadTimeDays) : defaultLeadTimeDays)
+                    .estimatedAmount(estimatedAmount)
+                    .items(items)
+                    .build());
+        });
+
+        // 停用供應商歸入後可能出現多組未指定供應商，合併為一組
+        return mergeUnassigned(result);
+    }
+
+    private List<ReorderSuggestionDTO> mergeUnassigned(List<ReorderSuggestionDTO> suggestions) {
+        List<ReorderSuggestionDTO> assigned = new ArrayList<>();
+        ReorderSuggestionDTO unassigned = null;
+        for (ReorderSuggestionDTO suggestion : suggestions) {
+            if (suggestion.getSupplierId() != null) {
+                assigned.add(suggestion);
+            } else if (unassigned == null) {
+                unassigned = suggestion;
+            } else {
+                unassigned.getItems().addAll(suggestion.getItems());
+                unassigned.setEstimatedAmount(unassigned.getEstimatedAmount().add(suggestion.getEstimatedAmount()));
+            }
+        }
+        if (unassigned != null) {
+            assigned.add(unassigned);
+        }
+        return assigned;
+    }
+
+    private ReorderSuggestionItemDTO toItemDTO(MaterialForecast forecast, Map<Long, BigDecimal> lastPriceByMaterial) {
+        Material material = forecast.material();
+        BigDecimal unitPrice = lastPriceByMaterial.getOrDefault(material.getId(),
+                material.getCostPrice() != null ? material.getCostPrice() : BigDecimal.ZERO);
+
+        return ReorderSuggestionItemDTO.builder()
+                .materialId(material.getId())
+                .materialCode(material.getCode())
+                .materialName(material.getName())
+                .materialUnit(material.getUnit())
+                .currentStockQuantity(material.getCurrentStockQuantity())
+                .safeStockQuantity(material.getSafeStockQuantity())
+                .averageDailyConsumption(BigDecimal.valueOf(forecast.averageDailyConsumption())
+                        .setScale(2, RoundingMode.HALF_UP))
+                .projectedStockQuantity(BigDecimal.valueOf(forecast.projectedStock())
+                        .setScale(2, RoundingMode.HALF_UP))
+                .suggestedQuantity(BigDecimal.valueOf(forecast.suggestedQuantity())
+                        .setScale(2, RoundingMode.CEILING))
+                .unitPrice(unitPrice)
+                .build();
+    }
+
+    private int dayIndex(LocalDate startDate, LocalDate date) {
+        if (date == null) {
+            return -1;
+        }
+        long day = ChronoUnit.DAYS.between(startDate, date);
+        return day >= 0 && day < historyDays ? (int) day : -1;
+    }
+
+    private double toDouble(BigDecimal value) {
+        return value != null ? value.doubleValue() : 0;
+    }
+
+    /**
+     * 單一原物料的預測結果
+     */
+    private record MaterialForecast(Material material, Long supplierId, double averageDailyConsumption,
+                                    double projectedStock, double suggestedQuantity) {
+    }
+}
@@ -0,0 +1,19 @@
+package com.morningharvest.erp.search.constant;
+
+import java.util.Set;
+
+/**
+ * 搜尋項目類型常數
+ */
+public final class SearchItemType {
+
+    public static final String PRODUCT = "PRODUCT";
+    public static final String COMBO = "COMBO";
+    public static final String MATERIAL = "MATERIAL";
+    public static final String SUPPLIER = "SUPPLIER";
+
+    public static final Set<String> ALL = Set.of(PRODUCT, COMBO, MATERIAL, SUPPLIER);
+
+    private SearchItemType() {
+    }
+}
@@ -0,0 +1,48 @@
+package com.morningharvest.erp.search.controller;
+
+import com.morningharvest.erp.common.dto.ApiResponse;
+import com.morningharvest.erp.search.dto.SearchResultDTO;
+import com.morningharvest.erp.search.service.CatalogSearchService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+/**
+ * 搜尋 API
+ */
+@Slf4j
+@RestController
+@RequestMapping("/api/search")
+@RequiredArgsConstructor
+@Tag(name = "搜尋", description = "商品、套餐、原物料、供應商關鍵字搜尋")
+public class SearchController {
+
+    private final CatalogSearchService catalogSearchService;
+
+    @GetMapping("/list")
+    @Operation(summary = "關鍵字搜尋",
+               description = "依名稱、編號、分類、簡稱或聯絡人搜尋，支援中文單字與部分字詞，結果依相關度排序")
+    public ApiResponse<List<SearchResultDTO>> search(
+            @Parameter(description = "關鍵字") @RequestParam String keyword,
+            @Parameter(description = "項目類型 (PRODUCT/COMBO/MATERIAL/SUPPLIER)，可多選，不填表示全部")
+            @RequestParam(required = false) List<String> types,
+            @Parameter(description = "是否只回傳啟用中的項目") @RequestParam(defaultValue = "false") boolean activeOnly,
+            @Parameter(description = "回傳筆數上限") @RequestParam(defaultValue = "20") int limit) {
+        log.debug("關鍵字搜尋, keyword: {}, types: {}", keyword, types);
+        List<SearchResultDTO> results = catalogSearchService.search(keyword, types, activeOnly, limit);
+        return ApiResponse.success(results);
+    }
+
+    @PostMapping("/rebuild")
+    @Operation(summary = "重建搜尋索引", description = "依目前資料全量重建記憶體搜尋索引")
+    public ApiResponse<Void> rebuild() {
+        log.info("重建搜尋索引");
+        catalogSearchService.rebuild();
+        return ApiResponse.success("搜尋索引已重建", null);
+    }
+}
@@ -0,0 +1,29 @@
+package com.morningharvest.erp.search.dto;
+
+import lombok.*;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SearchResultDTO {
+
+    /**
+     * 項目類型 (PRODUCT/COMBO/MATERIAL/SUPPLIER)
+     */
+    private String type;
+    private Long id;
+    private String code;
+    private String name;
+
+    /**
+     * 補充說明：商品與套餐為分類名稱，原物料為分類，供應商為簡稱
+     */
+    private String subtitle;
+    private Boolean isActive;
+
+    /**
+     * 相關度分數，越高越相關
+     */
+    private Integer score;
+}
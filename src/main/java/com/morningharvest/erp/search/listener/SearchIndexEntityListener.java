@@ -0,0 +1,69 @@
+package com.morningharvest.erp.search.listener;
+
+import com.morningharvest.erp.search.service.CatalogSearchService;
+import com.morningharvest.erp.search.service.SearchDocument;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.function.Consumer;
+
+/**
+ * 搜尋索引實體監聽器
+ *
+ * 掛在商品、套餐、原物料、供應商實體上，新增、修改、刪除時於交易提交後更新搜尋索引；
+ * 交易回滾則不更新。CatalogSearchService 依賴 repository，而 repository 依賴
+ * EntityManagerFactory，故以 ObjectProvider 延遲取得，避免建立 EntityManagerFactory 時循環依賴
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class SearchIndexEntityListener {
+
+    private final ObjectProvider<CatalogSearchService> searchServiceProvider;
+
+    @PostPersist
+    @PostUpdate
+    public void onSaved(Object entity) {
+        SearchDocument.of(entity).ifPresent(document ->
+                afterCommit(service -> service.upsert(document)));
+    }
+
+    @PostRemove
+    public void onRemoved(Object entity) {
+        SearchDocument.of(entity).ifPresent(document ->
+                afterCommit(service -> service.remove(document.type(), document.id())));
+    }
+
+    private void afterCommit(Consumer<CatalogSearchService> action) {
+        Runnable task = () -> {
+            CatalogSearchService service = searchServiceProvider.getIfAvailable();
+            if (service == null) {
+                return;
+            }
+            try {
+                action.accept(service);
+            } catch (Exception e) {
+                // 索引更新失敗不影響業務交易，由定期重建修正
+                log.error("搜尋索引更新失敗: {}", e.getMessage(), e);
+            }
+        };
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    task.run();
+                }
+            });
+        } else {
+            task.run();
+        }
+    }
+}
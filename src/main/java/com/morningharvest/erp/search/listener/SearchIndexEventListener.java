@@ -0,0 +1,68 @@
+package com.morningharvest.erp.search.listener;
+
+import com.morningharvest.erp.catalog.event.CatalogImportedEvent;
+import com.morningharvest.erp.common.event.EventLane;
+import com.morningharvest.erp.common.event.RemoteEvent;
+import com.morningharvest.erp.material.event.MaterialUpdatedEvent;
+import com.morningharvest.erp.product.event.ProductUpdatedEvent;
+import com.morningharvest.erp.search.constant.SearchItemType;
+import com.morningharvest.erp.search.service.CatalogSearchService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * 搜尋索引事件監聽器
+ *
+ * 處理不經過實體監聽器的批次寫入；其他節點的匯入與商品、原物料更新經 Redis Stream 事件匯流排通知
+ * （實體監聽器只在寫入的節點觸發）
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class SearchIndexEventListener {
+
+    private final CatalogSearchService catalogSearchService;
+
+    /**
+     * 菜單資料包以 JDBC 批次寫入，匯入後全量重建索引
+     */
+    @EventLane
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCatalogImported(CatalogImportedEvent event) {
+        log.info("收到菜單資料包匯入事件, 重建搜尋索引: {}", event);
+        catalogSearchService.rebuild();
+    }
+
+    /**
+     * 其他節點匯入菜單資料包，本機索引同樣全量重建（不等定期重建）
+     */
+    @EventLane
+    @EventListener
+    public void onRemoteCatalogImported(RemoteEvent<CatalogImportedEvent> event) {
+        log.info("收到其他節點的菜單資料包匯入事件, 重建搜尋索引: {}", event);
+        catalogSearchService.rebuild();
+    }
+
+    /**
+     * 其他節點更新商品，重新讀取後更新本機索引
+     */
+    @EventLane
+    @EventListener
+    public void onRemoteProductUpdated(RemoteEvent<ProductUpdatedEvent> event) {
+        log.debug("收到其他節點的商品更新事件, 更新搜尋索引: {}", event);
+        catalogSearchService.refresh(SearchItemType.PRODUCT, event.getEvent().getProductId());
+    }
+
+    /**
+     * 其他節點更新原物料，重新讀取後更新本機索引
+     */
+    @EventLane
+    @EventListener
+    public void onRemoteMaterialUpdated(RemoteEvent<MaterialUpdatedEvent> event) {
+        log.debug("收到其他節點的原物料更新事件, 更新搜尋索引: {}", event);
+        catalogSearchService.refresh(SearchItemType.MATERIAL, event.getEvent().getMaterialId());
+    }
+}
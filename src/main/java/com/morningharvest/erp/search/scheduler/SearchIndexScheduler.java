@@ -0,0 +1,30 @@
+package com.morningharvest.erp.search.scheduler;
+
+import com.morningharvest.erp.search.service.CatalogSearchService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * 搜尋索引重建排程
+ *
+ * 實體監聽器只更新本節點的索引，且不涵蓋批次 UPDATE 與其他節點的變更，
+ * 故定期全量重建（search.index.rebuild-cron 設為 "-" 可停用）
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class SearchIndexScheduler {
+
+    private final CatalogSearchService catalogSearchService;
+
+    @Scheduled(cron = "${search.index.rebuild-cron:0 */10 * * * *}")
+    public void rebuild() {
+        try {
+            catalogSearchService.rebuild();
+        } catch (Exception e) {
+            log.error("搜尋索引重建排程失敗: {}", e.getMessage(), e);
+        }
+    }
+}
@@ -0,0 +1,414 @@
+package com.morningharvest.erp.search.service;
+
+import com.morningharvest.erp.combo.repository.ComboRepository;
+import com.morningharvest.erp.material.repository.MaterialRepository;
+import com.morningharvest.erp.product.repository.ProductRepository;
+import com.morningharvest.erp.search.constant.SearchItemType;
+import com.morningharvest.erp.search.dto.SearchResultDTO;
+import com.morningharvest.erp.supplier.repository.SupplierRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.text.Normalizer;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * 商品、套餐、原物料、供應商搜尋服務
+ *
+ * 於記憶體維護 n-gram 反向索引：名稱、編號等欄位經 NFKC 正規化（全形轉半形）與轉小寫後，
+ * 以單字元與相鄰兩字元為詞彙建立索引。中文不需斷詞，單字查詢直接取單字元索引，
+ * 多字查詢取所有兩字元詞彙的交集（由最小的集合開始），再以子字串比對排除誤判並計算相關度。
+ * 查詢成本只與候選數量有關，不隨資料表大小做全表掃描
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class CatalogSearchService {
+
+    private static final int SCORE_CODE_EXACT = 100;
+    private static final int SCORE_NAME_EXACT = 90;
+    private static final int SCORE_CODE_PREFIX = 80;
+    private static final int SCORE_NAME_PREFIX = 70;
+    private static final int SCORE_NAME_CONTAINS = 50;
+    private static final int SCORE_KEYWORD_CONTAINS = 30;
+    private static final int SCORE_ACTIVE_BONUS = 5;
+
+    private final ProductRepository productRepository;
+    private final ComboRepository comboRepository;
+    private final MaterialRepository materialRepository;
+    private final SupplierRepository supplierRepository;
+
+    /**
+     * 目前的索引，尚未載入時為 null
+     */
+    private volatile Index index;
+
+    /**
+     * 全量重建互斥；期間讀取資料庫，使用 ReentrantLock 而非 synchronized，避免釘選虛擬執行緒
+     */
+    private final ReentrantLock rebuildLock = new ReentrantLock();
+
+    /**
+     * 增量更新與索引替換互斥；只保護記憶體操作，不等待重建讀取資料庫
+     */
+    private final ReentrantLock changeLock = new ReentrantLock();
+
+    /**
+     * 重建期間的增量更新，替換索引前依序套用到新索引；未重建時為 null
+     */
+    private List<Consumer<Index>> pendingChanges;
+
+    /**
+     * 搜尋
+     *
+     * @param keyword    關鍵字（名稱、編號、分類、簡稱、聯絡人）
+     * @param types      限定的項目類型，空值表示全部
+     * @param activeOnly 是否只回傳啟用中的項目
+     * @param limit      回傳筆數上限
+     * @return 依相關度排序的結果
+     */
+    public List<SearchResultDTO> search(String keyword, Collection<String> types, boolean activeOnly, int limit) {
+        if (limit <= 0) {
+            throw new IllegalArgumentException("回傳筆數上限必須大於 0");
+        }
+        if (types != null) {
+            for (String type : types) {
+                if (!SearchItemType.ALL.contains(type)) {
+                    throw new IllegalArgumentException("無效的搜尋類型: " + type);
+                }
+            }
+        }
+
+        String query = normalize(keyword);
+        if (query.isEmpty()) {
+            return List.of();
+        }
+
+        Index current = loadedIndex();
+        List<Match> matches = new ArrayList<>();
+        for (String key : current.candidates(query)) {
+            IndexedDocument entry = current.documents.get(key);
+            if (entry == null
+                    || (types != null && !types.isEmpty() && !types.contains(entry.document.type()))
+                    || (activeOnly && !entry.document.active())) {
+                continue;
+            }
+            int score = entry.score(query);
+            if (score > 0) {
+                matches.add(new Match(entry, score));
+            }
+        }
+
+        log.debug("搜尋: {}, 命中: {}", keyword, matches.size());
+        return matches.stream()
+                .sorted(Comparator.comparingInt(Match::score).reversed()
+                        .thenComparingInt(m -> m.entry.name.length())
+                        .thenComparing(m -> m.entry.document.id()))
+                .limit(limit)
+                .map(Match::toDTO)
+                .toList();
+    }
+
+    /**
+     * 全量重建索引
+     */
+    @Transactional(readOnly = true)
+    public void rebuild() {
+        rebuildLock.lock();
+        try {
+            rebuildIndex();
+        } finally {
+            rebuildLock.unlock();
+        }
+    }
+
+    private void rebuildIndex() {
+        log.info("重建搜尋索引");
+
+        changeLock.lock();
+        try {
+            pendingChanges = new ArrayList<>();
+        } finally {
+            changeLock.unlock();
+        }
+
+        Index rebuilt = new Index();
+        try {
+            Stream.of(productRepository.findAll(), comboRepository.findAll(),
+                            materialRepository.findAll(), supplierRepository.findAll())
+                    .flatMap(List::stream)
+                    .map(SearchDocument::of)
+                    .flatMap(Optional::stream)
+                    .forEach(rebuilt::put);
+        } catch (RuntimeException e) {
+            changeLock.lock();
+            try {
+                pendingChanges = null;
+            } finally {
+                changeLock.unlock();
+            }
+            throw e;
+        }
+
+        changeLock.lock();
+        try {
+            // 讀取資料庫期間的增量更新不一定反映在讀到的資料中，重新套用後才替換，避免遺失
+            pendingChanges.forEach(change -> change.accept(rebuilt));
+            pendingChanges = null;
+            index = rebuilt;
+        } finally {
+            changeLock.unlock();
+        }
+
+        log.info("搜尋索引重建完成, 文件數: {}, 詞彙數: {}", rebuilt.documents.size(), rebuilt.postings.size());
+    }
+
+    /**
+     * 新增或更新單筆文件
+     */
+    public void upsert(SearchDocument document) {
+        if (document.id() == null) {
+            return;
+        }
+        apply(current -> current.put(document));
+    }
+
+    /**
+     * 依資料庫目前內容更新單筆文件，資料已刪除時移除
+     *
+     * 用於其他節點的變更：事件可能晚於後續修改到達，以重新讀取取代事件內容
+     *
+     * @param type 項目類型
+     * @param id   項目 ID
+     */
+    @Transactional(readOnly = true)
+    public void refresh(String type, Long id) {
+        Optional<?> entity = switch (type) {
+            case SearchItemType.PRODUCT -> productRepository.findById(id);
+            case SearchItemType.COMBO -> comboRepository.findById(id);
+            case SearchItemType.MATERIAL -> materialRepository.findById(id);
+            case SearchItemType.SUPPLIER -> supplierRepository.findById(id);
+            default -> throw new IllegalArgumentException("無效的搜尋類型: " + type);
+        };
+        entity.flatMap(SearchDocument::of).ifPresentOrElse(this::upsert, () -> remove(type, id));
+    }
+
+    /**
+     * 移除單筆文件
+     */
+    public void remove(String type, Long id) {
+        if (id == null) {
+            return;
+        }
+        String key = SearchDocument.key(type, id);
+        apply(current -> current.remove(key));
+    }
+
+    /**
+     * 套用增量更新到目前索引；重建中時另記錄待套用到新索引。
+     * 尚未載入且未重建時忽略，由下次查詢全量建立
+     */
+    private void apply(Consumer<Index> change) {
+        changeLock.lock();
+        try {
+            Index current = index;
+            if (current != null) {
+                change.accept(current);
+            }
+            if (pendingChanges != null) {
+                pendingChanges.add(change);
+            }
+        } finally {
+            changeLock.unlock();
+        }
+    }
+
+    /**
+     * 目前索引的文件數，尚未載入時為 0
+     */
+    public int size() {
+        Index current = index;
+        return current != null ? current.documents.size() : 0;
+    }
+
+    private Index loadedIndex() {
+        Index current = index;
+        if (current != null) {
+            return current;
+        }
+        rebuildLock.lock();
+        try {
+            // 等待期間其他執行緒可能已建立
+            if (index == null) {
+                rebuildIndex();
+            }
+            return index;
+        } finally {
+            rebuildLock.unlock();
+        }
+    }
+
+    /**
+     * 正規化：NFKC（全形英數轉半形）、轉小寫、去除空白
+     */
+    static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        String normalized = Normalizer.normalize(text, Normalizer.Form.NFKC).toLowerCase(Locale.ROOT);
+        StringBuilder sb = new StringBuilder(normalized.length());
+        normalized.codePoints()
+                .filter(cp -> !Character.isWhitespace(cp) && !Character.isSpaceChar(cp))
+                .forEach(sb::appendCodePoint);
+        return sb.toString();
+    }
+
+    /**
+     * 單字元與相鄰兩字元詞彙（以 code point 切分，避免拆開代理對）
+     */
+    static Set<String> grams(String normalized) {
+        int[] cps = normalized.codePoints().toArray();
+        Set<String> grams = new HashSet<>();
+        for (int i = 0; i < cps.length; i++) {
+            grams.add(new String(cps, i, 1));
+            if (i + 1 < cps.length) {
+                grams.add(new String(cps, i, 2));
+            }
+        }
+        return grams;
+    }
+
+    /**
+     * 查詢使用的詞彙：單字元查詢用單字元，否則用所有兩字元詞彙
+     */
+    static Set<String> queryGrams(String normalized) {
+        int[] cps = normalized.codePoints().toArray();
+        if (cps.length == 1) {
+            return Set.of(normalized);
+        }
+        Set<String> grams = new HashSet<>();
+        for (int i = 0; i + 1 < cps.length; i++) {
+            grams.add(new String(cps, i, 2));
+        }
+        return grams;
+    }
+
+    /**
+     * 反向索引：文件 key → 文件，詞彙 → 文件 key 集合
+     */
+    private static final class Index {
+
+        private final Map<String, IndexedDocument> documents = new ConcurrentHashMap<>();
+        private final Map<String, Set<String>> postings = new ConcurrentHashMap<>();
+
+        synchronized void put(SearchDocument document) {
+            String key = document.key();
+            remove(key);
+
+            IndexedDocument entry = new IndexedDocument(document);
+            documents.put(key, entry);
+            for (String gram : entry.grams) {
+                postings.computeIfAbsent(gram, g -> ConcurrentHashMap.newKeySet()).add(key);
+            }
+        }
+
+        synchronized void remove(String key) {
+            IndexedDocument previous = documents.remove(key);
+            if (previous == null) {
+                return;
+            }
+            for (String gram : previous.grams) {
+                postings.computeIfPresent(gram, (g, keys) -> {
+                    keys.remove(key);
+                    return keys.isEmpty() ? null : keys;
+                });
+            }
+        }
+
+        Set<String> candidates(String query) {
+            List<Set<String>> sets = new ArrayList<>();
+            for (String gram : queryGrams(query)) {
+                Set<String> keys = postings.get(gram);
+                if (keys == null) {
+                    return Set.of();
+                }
+                sets.add(keys);
+            }
+            sets.sort(Comparator.comparingInt(Set::size));
+
+            Set<String> result = new HashSet<>(sets.get(0));
+            for (int i = 1; i < sets.size() && !result.isEmpty(); i++) {
+                result.retainAll(sets.get(i));
+            }
+            return result;
+        }
+    }
+
+    /**
+     * 已正規化的索引文件
+     */
+    private static final class IndexedDocument {
+
+        private final SearchDocument document;
+        private final String code;
+        private final String name;
+        private final List<String> keywords;
+        private final Set<String> grams = new HashSet<>();
+
+        IndexedDocument(SearchDocument document) {
+            this.document = document;
+            this.code = normalize(document.code());
+            this.name = normalize(document.name());
+            this.keywords = document.keywords().stream().map(CatalogSearchService::normalize).toList();
+
+            grams.addAll(CatalogSearchService.grams(code));
+            grams.addAll(CatalogSearchService.grams(name));
+            keywords.forEach(k -> grams.addAll(CatalogSearchService.grams(k)));
+        }
+
+        int score(String query) {
+            int score = 0;
+            if (!code.isEmpty()) {
+                if (code.equals(query)) {
+                    score = SCORE_CODE_EXACT;
+                } else if (code.startsWith(query)) {
+                    score = SCORE_CODE_PREFIX;
+                }
+            }
+            if (name.equals(query)) {
+                score = Math.max(score, SCORE_NAME_EXACT);
+            } else if (name.startsWith(query)) {
+                score = Math.max(score, SCORE_NAME_PREFIX);
+            } else if (name.contains(query)) {
+                // 查詢佔名稱比例越高越相關
+                score = Math.max(score, SCORE_NAME_CONTAINS + query.length() * 10 / name.length());
+            }
+            if (score == 0 && (code.contains(query) || keywords.stream().anyMatch(k -> k.contains(query)))) {
+                score = SCORE_KEYWORD_CONTAINS;
+            }
+            return score > 0 && document.active() ? score + SCORE_ACTIVE_BONUS : score;
+        }
+    }
+
+    private record Match(IndexedDocument entry, int score) {
+
+        SearchResultDTO toDTO() {
+            SearchDocument document = entry.document;
+            return SearchResultDTO.builder()
+                    .type(document.type())
+                    .id(document.id())
+                    .code(document.code())
+                    .name(document.name())
+                    .subtitle(document.subtitle())
+                    .isActive(document.active())
+                    .score(score)
+                    .build();
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package com.morningharvest.erp.search.service;
+
+import com.morningharvest.erp.combo.entity.Combo;
+import com.morningharvest.erp.material.entity.Material;
+import com.morningharvest.erp.product.entity.Product;
+import com.morningharvest.erp.search.constant.SearchItemType;
+import com.morningharvest.erp.supplier.entity.Supplier;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * 搜尋索引文件
+ *
+ * @param type     項目類型
+ * @param id       項目 ID
+ * @param code     編號（商品、套餐無編號）
+ * @param name     名稱
+ * @param subtitle 補充說明
+ * @param keywords 其他可搜尋欄位
+ * @param active   是否啟用
+ */
+public record SearchDocument(String type, Long id, String code, String name,
+                             String subtitle, List<String> keywords, boolean active) {
+
+    /**
+     * 索引 key（類型 + ID）
+     */
+    public String key() {
+        return key(type, id);
+    }
+
+    static String key(String type, Long id) {
+        return type + ":" + id;
+    }
+
+    /**
+     * 由實體建立索引文件，非索引對象時回傳 empty
+     */
+    public static Optional<SearchDocument> of(Object entity) {
+        if (entity instanceof Product product) {
+            return Optional.of(new SearchDocument(SearchItemType.PRODUCT, product.getId(), null,
+                    product.getName(), product.getCategoryName(),
+                    keywords(product.getCategoryName()), Boolean.TRUE.equals(product.getIsActive())));
+        }
+        if (entity instanceof Combo combo) {
+            return Optional.of(new SearchDocument(SearchItemType.COMBO, combo.getId(), null,
+                    combo.getName(), combo.getCategoryName(),
+                    keywords(combo.getCategoryName()), Boolean.TRUE.equals(combo.getIsActive())));
+        }
+        if (entity instanceof Material material) {
+            return Optional.of(new SearchDocument(SearchItemType.MATERIAL, material.getId(), material.getCode(),
+                    material.getName(), material.getCategory(),
+                    keywords(material.getCategory(), material.getSpecification()),
+                    Boolean.TRUE.equals(material.getIsActive())));
+        }
+        if (entity instanceof Supplier supplier) {
+            return Optional.of(new SearchDocument(SearchItemType.SUPPLIER, supplier.getId(), supplier.getCode(),
+                    supplier.getName(), supplier.getShortName(),
+                    keywords(supplier.getShortName(), supplier.getContactPerson()),
+                    Boolean.TRUE.equals(supplier.getIsActive())));
+        }
+        return Optional.empty();
+    }
+
+    private static List<String> keywords(String... values) {
+        List<String> result = new ArrayList<>();
+        for (String value : values) {
+            if (value != null && !value.isBlank()) {
+                result.add(value);
+            }
+        }
+        return result;
+    }
+}
@@ -0,0 +1,14 @@
+package com.morningharvest.erp.storage.constant;
+
+/**
+ * 圖片資產衍生狀態常數
+ */
+public final class ImageAssetStatus {
+
+    public static final String PENDING = "PENDING";
+    public static final String READY = "READY";
+    public static final String FAILED = "FAILED";
+
+    private ImageAssetStatus() {
+    }
+}
@@ -0,0 +1,47 @@
+package com.morningharvest.erp.storage.constant;
+
+/**
+ * 圖片衍生尺寸
+ *
+ * 衍生圖一律存放於 public bucket 的 derivatives/{內容雜湊}/{尺寸}.jpg，
+ * 內容相同的上傳共用同一組衍生圖
+ */
+public enum ImageVariant {
+
+    /**
+     * 縮圖（列表、購物車）
+     */
+    THUMBNAIL(160),
+
+    /**
+     * 菜單磚（POS 點餐畫面）
+     */
+    TILE(480),
+
+    /**
+     * 詳情大圖
+     */
+    DETAIL(1080);
+
+    public static final String FOLDER = "derivatives";
+
+    /**
+     * 長邊上限 (px)
+     */
+    private final int maxSize;
+
+    ImageVariant(int maxSize) {
+        this.maxSize = maxSize;
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    /**
+     * 衍生圖物件名稱
+     */
+    public String objectName(String contentHash) {
+        return FOLDER + "/" + contentHash + "/" + name().toLowerCase() + ".jpg";
+    }
+}
@@ -1,19 +1,27 @@
 package com.morningharvest.erp.storage.controller;
 
 import com.morningharvest.erp.common.dto.ApiResponse;
+import com.morningharvest.erp.storage.dto.ConfirmUploadRequest;
 import com.morningharvest.erp.storage.dto.FileUploadResponse;
+import com.morningharvest.erp.storage.dto.PresignUploadRequest;
+import com.morningharvest.erp.storage.dto.PresignedUploadResponse;
+import com.morningharvest.erp.storage.service.ImageDerivativeService;
+import com.morningharvest.erp.storage.service.PresignedUploadService;
 import com.morningharvest.erp.storage.service.StorageService;
 import com.morningharvest.erp.storage.util.FileValidator;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.InputStream;
+
 /**
  * 檔案管理 Controller
  * 提供檔案上傳、刪除等 API
@@ -26,6 +34,8 @@ import org.springframework.web.multipart.MultipartFile;
 public class FileController {
 
     private final StorageService storageService;
+    private final ImageDerivativeService imageDerivativeService;
+    private final PresignedUploadService presignedUploadService;
 
     /**
      * 上傳檔案
@@ -33,7 +43,8 @@ public class FileController {
     @PostMapping(value = "/upload", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
     @Operation(
             summary = "上傳檔案",
-            description = "上傳圖片檔案到 MinIO，支援 jpg, png, gif, webp, bmp 等格式，檔案大小限制 10MB"
+            description = "上傳圖片檔案到 MinIO，支援 jpg, png, gif, webp, bmp 等格式，檔案大小限制 10MB；"
+                    + "上傳後於背景產生縮圖、菜單磚、詳情大圖（webp 原圖不產生）"
     )
     public ApiResponse<FileUploadResponse> uploadFile(
             @Parameter(
@@ -58,6 +69,14 @@ public class FileController {
         // 上傳檔案
         String fileUrl = storageService.uploadFile(file, folder);
 
+        // 登記圖片資產，背景產生衍生圖（失敗不影響上傳結果，原圖仍可使用）
+        // 以串流計算內容雜湊，不將上傳檔案整份載入記憶體
+        try (InputStream content = file.getInputStream()) {
+            imageDerivativeService.register(fileUrl, content);
+        } catch (Exception e) {
+            log.error("圖片資產登記失敗 - URL: {}, error: {}", fileUrl, e.getMessage(), e);
+        }
+
         // 建立回應
         FileUploadResponse response = new FileUploadResponse(
                 fileUrl,
@@ -70,6 +89,33 @@ public class FileController {
         return ApiResponse.success(response);
     }
 
+    /**
+     * 申請直傳上傳 URL
+     */
+    @PostMapping("/presign")
+    @Operation(
+            summary = "申請直傳上傳 URL",
+            description = "驗證檔名、類型、大小後核發預簽名 PUT URL，前端直接上傳至 MinIO，完成後呼叫確認 API"
+    )
+    public ApiResponse<PresignedUploadResponse> presignUpload(@Valid @RequestBody PresignUploadRequest request) {
+        log.info("收到直傳上傳申請 - 檔案名稱: {}, 大小: {} bytes, 資料夾: {}",
+                request.getFilename(), request.getFileSize(), request.getFolder());
+        return ApiResponse.success(presignedUploadService.presign(request));
+    }
+
+    /**
+     * 確認直傳上傳完成
+     */
+    @PostMapping("/confirm")
+    @Operation(
+            summary = "確認直傳上傳完成",
+            description = "驗證已上傳物件的類型與大小並登記圖片資產，於背景產生衍生圖；驗證失敗的物件會被刪除"
+    )
+    public ApiResponse<FileUploadResponse> confirmUpload(@Valid @RequestBody ConfirmUploadRequest request) {
+        log.info("收到直傳上傳確認 - 物件: {}", request.getObjectKey());
+        return ApiResponse.success(presignedUploadService.confirm(request));
+    }
+
     /**
      * 刪除檔案
      */
@@ -0,0 +1,117 @@
+package com.morningharvest.erp.storage.controller;
+
+import com.morningharvest.erp.common.exception.ResourceNotFoundException;
+import com.morningharvest.erp.storage.dto.CachedImage;
+import com.morningharvest.erp.storage.service.ImageProxyCache;
+import com.morningharvest.erp.storage.util.ByteRange;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+
+/**
+ * 圖片代理 Controller
+ * 無法直接連線 MinIO 對外位址的平板經由 API 取得 public bucket 圖片
+ */
+@Slf4j
+@RestController
+@RequestMapping("/api/images")
+@RequiredArgsConstructor
+@Tag(name = "圖片代理", description = "經由 API 讀取 public bucket 圖片（本機快取）")
+public class ImageProxyController {
+
+    private final ImageProxyCache imageProxyCache;
+
+    @Value("${storage.image-proxy.max-age-seconds:2592000}")
+    private long maxAgeSeconds;
+
+    /**
+     * 讀取圖片
+     */
+    @GetMapping("/{*objectName}")
+    @Operation(
+            summary = "讀取圖片",
+            description = "以 public bucket 物件名稱讀取圖片（如 /api/images/products/abc.jpg），"
+                    + "回應帶長效 Cache-Control 與內容 ETag，支援 If-None-Match (304) 與單一區間 Range (206)"
+    )
+    public void getImage(
+            @Parameter(description = "物件名稱（含路徑）", example = "products/abc123.jpg")
+            @PathVariable("objectName") String objectName,
+
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestHeader(value = HttpHeaders.RANGE, required = false) String range,
+            @RequestHeader(value = HttpHeaders.IF_RANGE, required = false) String ifRange,
+            HttpServletResponse response
+    ) throws IOException {
+        String name = objectName.startsWith("/") ? objectName.substring(1) : objectName;
+
+        try (CachedImage image = imageProxyCache.get(name)
+                .orElseThrow(() -> new ResourceNotFoundException("圖片不存在: " + name))) {
+            String etag = "\"" + image.etag() + "\"";
+            response.setHeader(HttpHeaders.ETAG, etag);
+            response.setHeader(HttpHeaders.CACHE_CONTROL, "public, max-age=" + maxAgeSeconds);
+            response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+            if (image.lastModified() > 0) {
+                response.setDateHeader(HttpHeaders.LAST_MODIFIED, image.lastModified());
+            }
+
+            if (matches(ifNoneMatch, image.etag())) {
+                response.setStatus(HttpStatus.NOT_MODIFIED.value());
+                return;
+            }
+
+            // If-Range 與目前內容不符時忽略 Range，回傳完整內容
+            ByteRange byteRange = ifRange == null || ifRange.trim().equals(etag)
+                    ? ByteRange.parse(range, image.size())
+                    : null;
+            if (byteRange != null && !byteRange.isSatisfiable()) {
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + image.size());
+                response.setStatus(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE.value());
+                return;
+            }
+
+            response.setContentType(image.contentType() != null
+                    ? image.contentType()
+                    : MediaType.APPLICATION_OCTET_STREAM_VALUE);
+            long start = 0;
+            long length = image.size();
+            if (byteRange != null) {
+                start = byteRange.start();
+                length = byteRange.length();
+                response.setStatus(HttpStatus.PARTIAL_CONTENT.value());
+                response.setHeader(HttpHeaders.CONTENT_RANGE,
+                        "bytes " + byteRange.start() + "-" + byteRange.end() + "/" + image.size());
+            }
+            response.setContentLengthLong(length);
+            image.writeTo(response.getOutputStream(), start, length);
+        }
+    }
+
+    /**
+     * If-None-Match 是否命中（弱比對）
+     */
+    private static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null || ifNoneMatch.isBlank()) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (tag.equals("*") || tag.equals("\"" + etag + "\"")) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
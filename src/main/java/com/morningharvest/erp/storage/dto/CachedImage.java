@@ -0,0 +1,56 @@
+package com.morningharvest.erp.storage.dto;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+
+/**
+ * 圖片代理快取命中的內容（使用後須關閉）
+ *
+ * 記憶體快取命中時 content 有值；磁碟快取命中時 channel 為已開啟的快取檔，
+ * 開啟後即使檔案被淘汰刪除仍可讀取
+ *
+ * @param contentType  檔案類型
+ * @param size         檔案大小（位元組）
+ * @param etag         依內容計算的 ETag（不含引號）
+ * @param lastModified 物件最後修改時間（epoch 毫秒）
+ * @param content      記憶體快取內容
+ * @param channel      磁碟快取檔
+ */
+public record CachedImage(String contentType, long size, String etag, long lastModified,
+                          byte[] content, FileChannel channel) implements AutoCloseable {
+
+    /**
+     * 寫出指定區間；磁碟快取以 FileChannel.transferTo 傳送，不將檔案載入記憶體
+     *
+     * @param out    輸出串流
+     * @param start  起始位置
+     * @param length 長度
+     */
+    public void writeTo(OutputStream out, long start, long length) throws IOException {
+        if (content != null) {
+            out.write(content, (int) start, (int) length);
+            return;
+        }
+        WritableByteChannel target = Channels.newChannel(out);
+        long position = start;
+        long remaining = length;
+        while (remaining > 0) {
+            long transferred = channel.transferTo(position, remaining, target);
+            if (transferred <= 0) {
+                throw new IOException("快取檔內容不足: 預期 " + length + " bytes");
+            }
+            position += transferred;
+            remaining -= transferred;
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (channel != null) {
+            channel.close();
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package com.morningharvest.erp.storage.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotBlank;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 直傳上傳完成確認 DTO
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "直傳上傳完成確認")
+public class ConfirmUploadRequest {
+
+    @NotBlank(message = "物件名稱不可為空")
+    @Schema(description = "申請直傳時取得的物件名稱", example = "products/3f2b9c1e-8a4d-4e5f-9b6a-1c2d3e4f5a6b.jpg")
+    private String objectKey;
+
+    @Schema(description = "原始檔案名稱", example = "product-image.jpg")
+    private String originalFilename;
+}
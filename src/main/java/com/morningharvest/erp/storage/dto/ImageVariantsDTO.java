@@ -0,0 +1,27 @@
+package com.morningharvest.erp.storage.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 圖片衍生尺寸 URL
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "圖片衍生尺寸 URL（衍生圖尚未產生時整個欄位為 null，請使用原圖）")
+public class ImageVariantsDTO {
+
+    @Schema(description = "縮圖 URL（長邊 160px）")
+    private String thumbnailUrl;
+
+    @Schema(description = "菜單磚 URL（長邊 480px）")
+    private String tileUrl;
+
+    @Schema(description = "詳情大圖 URL（長邊 1080px）")
+    private String detailUrl;
+}
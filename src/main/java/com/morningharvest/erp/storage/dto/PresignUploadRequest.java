@@ -0,0 +1,38 @@
+package com.morningharvest.erp.storage.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 直傳上傳申請 DTO
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "直傳上傳申請")
+public class PresignUploadRequest {
+
+    @NotBlank(message = "檔案名稱不可為空")
+    @Schema(description = "原始檔案名稱", example = "product-image.jpg")
+    private String filename;
+
+    @NotBlank(message = "檔案類型不可為空")
+    @Schema(description = "檔案類型", example = "image/jpeg")
+    private String contentType;
+
+    @NotNull(message = "檔案大小不可為空")
+    @Positive(message = "檔案大小必須大於 0")
+    @Schema(description = "檔案大小（位元組）", example = "102400")
+    private Long fileSize;
+
+    @Builder.Default
+    @Schema(description = "存放資料夾 (products, documents 等)", example = "products")
+    private String folder = "general";
+}
@@ -0,0 +1,38 @@
+package com.morningharvest.erp.storage.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * 直傳上傳申請回應 DTO
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "直傳上傳申請回應")
+public class PresignedUploadResponse {
+
+    @Schema(description = "預簽名上傳 URL，以 PUT 直接上傳檔案內容")
+    private String uploadUrl;
+
+    @Schema(description = "上傳方法", example = "PUT")
+    private String method;
+
+    @Schema(description = "物件名稱，上傳完成後以此確認", example = "products/3f2b9c1e-8a4d-4e5f-9b6a-1c2d3e4f5a6b.jpg")
+    private String objectKey;
+
+    @Schema(description = "上傳完成後的檔案 URL", example = "http://morning-harvest-minio:9000/public/products/3f2b9c1e-8a4d-4e5f-9b6a-1c2d3e4f5a6b.jpg")
+    private String fileUrl;
+
+    @Schema(description = "上傳時須帶的 Content-Type", example = "image/jpeg")
+    private String contentType;
+
+    @Schema(description = "上傳 URL 到期時間")
+    private LocalDateTime expiresAt;
+}
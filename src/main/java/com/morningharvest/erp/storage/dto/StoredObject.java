@@ -0,0 +1,13 @@
+package com.morningharvest.erp.storage.dto;
+
+import java.time.ZonedDateTime;
+
+/**
+ * 物件列表中的單一物件
+ *
+ * @param objectName   物件名稱（含路徑）
+ * @param size         檔案大小（位元組）
+ * @param lastModified 最後修改時間
+ */
+public record StoredObject(String objectName, long size, ZonedDateTime lastModified) {
+}
@@ -0,0 +1,13 @@
+package com.morningharvest.erp.storage.dto;
+
+import java.time.ZonedDateTime;
+
+/**
+ * 物件儲存中的檔案資訊
+ *
+ * @param size         檔案大小（位元組）
+ * @param contentType  檔案類型
+ * @param lastModified 最後修改時間
+ */
+public record StoredObjectInfo(long size, String contentType, ZonedDateTime lastModified) {
+}
@@ -0,0 +1,69 @@
+package com.morningharvest.erp.storage.entity;
+
+import com.morningharvest.erp.pos.listener.MenuSnapshotEntityListener;
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * 圖片資產實體
+ *
+ * 記錄每個上傳原圖的內容雜湊與衍生圖產生狀態；衍生圖完成時 POS 菜單快照需重新編譯以帶入衍生圖 URL
+ */
+@Entity
+@EntityListeners(MenuSnapshotEntityListener.class)
+@Table(name = "image_assets")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ImageAsset {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "source_url", nullable = false, length = 500)
+    private String sourceUrl;
+
+    /**
+     * 原圖內容 SHA-256；直傳物件儲存的圖片於產生衍生圖時才計算，之前為 null
+     */
+    @Column(name = "content_hash", length = 64)
+    private String contentHash;
+
+    @Column(name = "status", nullable = false, length = 20)
+    private String status;
+
+    @Column(name = "width")
+    private Integer width;
+
+    @Column(name = "height")
+    private Integer height;
+
+    @Column(name = "attempts", nullable = false)
+    @Builder.Default
+    private Integer attempts = 0;
+
+    @Column(name = "error_message", length = 500)
+    private String errorMessage;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+        updatedAt = LocalDateTime.now();
+    }
+
+    @PreUpdate
+    protected void onUpdate() {
+        updatedAt = LocalDateTime.now();
+    }
+}
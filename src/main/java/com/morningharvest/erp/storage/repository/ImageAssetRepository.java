@@ -0,0 +1,53 @@
+package com.morningharvest.erp.storage.repository;
+
+import com.morningharvest.erp.storage.entity.ImageAsset;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+
+@Repository
+public interface ImageAssetRepository extends JpaRepository<ImageAsset, Long> {
+
+    Optional<ImageAsset> findBySourceUrl(String sourceUrl);
+
+    List<ImageAsset> findBySourceUrlInAndStatus(Collection<String> sourceUrls, String status);
+
+    Optional<ImageAsset> findFirstByContentHashAndStatus(String contentHash, String status);
+
+    List<ImageAsset> findByStatusAndUpdatedAtBefore(String status, LocalDateTime before);
+
+    List<ImageAsset> findByContentHashIn(Collection<String> contentHashes);
+
+    @Modifying
+    void deleteBySourceUrlIn(Collection<String> sourceUrls);
+
+    /**
+     * 串流讀取已計算雜湊的圖片資產（孤兒物件清理用）
+     */
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "" + Integer.MIN_VALUE))
+    @Query("SELECT a.sourceUrl AS sourceUrl, a.contentHash AS contentHash, a.updatedAt AS updatedAt " +
+           "FROM ImageAsset a WHERE a.contentHash IS NOT NULL")
+    Stream<AssetReference> streamHashedAssets();
+
+    /**
+     * 圖片資產與衍生圖的對應
+     */
+    interface AssetReference {
+        String getSourceUrl();
+
+        String getContentHash();
+
+        LocalDateTime getUpdatedAt();
+    }
+}
@@ -0,0 +1,35 @@
+package com.morningharvest.erp.storage.scheduler;
+
+import com.morningharvest.erp.storage.service.ImageDerivativeService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+
+/**
+ * 圖片衍生圖重試排程
+ *
+ * 重新送出佇列已滿被拒、處理失敗待重試或節點重啟遺失的 PENDING 資產
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class ImageDerivativeScheduler {
+
+    private final ImageDerivativeService imageDerivativeService;
+
+    @Value("${storage.image.derivative.retry-delay-seconds:60}")
+    private long retryDelaySeconds;
+
+    @Scheduled(fixedDelayString = "${storage.image.derivative.retry-interval:60000}")
+    public void retryPending() {
+        try {
+            imageDerivativeService.retryPending(LocalDateTime.now().minusSeconds(retryDelaySeconds));
+        } catch (Exception e) {
+            log.error("圖片衍生圖重試排程失敗: {}", e.getMessage(), e);
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package com.morningharvest.erp.storage.scheduler;
+
+import com.morningharvest.erp.storage.service.OrphanObjectCollector;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * 孤兒物件清理排程
+ *
+ * 每日離峰時段刪除未被商品、套餐引用的圖片（storage.orphan-gc.cron 設為 "-" 可停用）
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class OrphanObjectScheduler {
+
+    private final OrphanObjectCollector orphanObjectCollector;
+
+    @Scheduled(cron = "${storage.orphan-gc.cron:0 45 3 * * *}")
+    public void collect() {
+        try {
+            orphanObjectCollector.collect();
+        } catch (Exception e) {
+            log.error("孤兒物件清理排程失敗: {}", e.getMessage(), e);
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package com.morningharvest.erp.storage.service;
+
+import com.morningharvest.erp.storage.constant.ImageVariant;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.EnumMap;
+import java.util.Iterator;
+import java.util.Map;
+
+/**
+ * 圖片衍生圖產生器
+ *
+ * 以 JDK ImageIO 解碼原圖（JPEG、PNG、GIF、BMP），依各衍生尺寸等比縮小（不放大）後編碼為 JPEG；
+ * 透明背景以白色填滿。解碼前先讀取尺寸，超過像素上限的圖片直接拒絕，避免解壓縮炸彈耗盡記憶體
+ */
+@Component
+public class ImageDerivativeGenerator {
+
+    @Value("${storage.image.derivative.jpeg-quality:0.82}")
+    private float jpegQuality = 0.82f;
+
+    @Value("${storage.image.derivative.max-pixels:40000000}")
+    private long maxPixels = 40_000_000L;
+
+    /**
+     * 產生結果
+     *
+     * @param width  原圖寬度
+     * @param height 原圖高度
+     * @param images 各衍生尺寸的 JPEG 內容
+     */
+    public record Derivatives(int width, int height, Map<ImageVariant, byte[]> images) {
+    }
+
+    public Derivatives generate(byte[] source) throws IOException {
+        BufferedImage original = decode(source);
+
+        Map<ImageVariant, byte[]> images = new EnumMap<>(ImageVariant.class);
+        for (ImageVariant variant : ImageVariant.values()) {
+            images.put(variant, encodeJpeg(resize(original, variant.getMaxSize())));
+        }
+        return new Derivatives(original.getWidth(), original.getHeight(), images);
+    }
+
+    private BufferedImage decode(byte[] source) throws IOException {
+        try (ImageInputStream input = ImageIO.createImageInputStream(new ByteArrayInputStream(source))) {
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(input);
+            if (!readers.hasNext()) {
+                throw new IllegalArgumentException("不支援的圖片格式");
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(input, true, true);
+                long pixels = (long) reader.getWidth(0) * reader.getHeight(0);
+                if (pixels > maxPixels) {
+                    throw new IllegalArgumentException(String.format("圖片像素過大: %dx%d",
+                            reader.getWidth(0), reader.getHeight(0)));
+                }
+                return reader.read(0);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    /**
+     * 等比縮小至長邊不超過 maxSize；先以兩倍遞減，最後一步雙三次插值，兼顧速度與畫質
+     */
+    static BufferedImage resize(BufferedImage source, int maxSize) {
+        int width = source.getWidth();
+        int height = source.getHeight();
+        double scale = Math.min(1.0, (double) maxSize / Math.max(width, height));
+        int targetWidth = Math.max(1, (int) Math.round(width * scale));
+        int targetHeight = Math.max(1, (int) Math.round(height * scale));
+
+        BufferedImage current = source;
+        int currentWidth = width;
+        int currentHeight = height;
+        do {
+            currentWidth = Math.max(targetWidth, currentWidth / 2);
+            currentHeight = Math.max(targetHeight, currentHeight / 2);
+            if (currentWidth < targetWidth * 2 && currentHeight < targetHeight * 2) {
+                currentWidth = targetWidth;
+                currentHeight = targetHeight;
+            }
+
+            BufferedImage next = new BufferedImage(currentWidth, currentHeight, BufferedImage.TYPE_INT_RGB);
+            Graphics2D g = next.createGraphics();
+            try {
+                g.setColor(Color.WHITE);
+                g.fillRect(0, 0, currentWidth, currentHeight);
+                g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BICUBIC);
+                g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+                g.drawImage(current, 0, 0, currentWidth, currentHeight, null);
+            } finally {
+                g.dispose();
+            }
+            current = next;
+        } while (currentWidth != targetWidth || currentHeight != targetHeight);
+
+        return current;
+    }
+
+    private byte[] encodeJpeg(BufferedImage image) throws IOException {
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (ImageOutputStream output = ImageIO.createImageOutputStream(out)) {
+            writer.setOutput(output);
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            param.setCompressionQuality(jpegQuality);
+            param.setProgressiveMode(ImageWriteParam.MODE_DEFAULT);
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+        return out.toByteArray();
+    }
+}
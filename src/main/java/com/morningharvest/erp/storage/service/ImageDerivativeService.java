@@ -0,0 +1,340 @@
+package com.morningharvest.erp.storage.service;
+
+import com.morningharvest.erp.common.cache.CacheNames;
+import com.morningharvest.erp.storage.constant.ImageAssetStatus;
+import com.morningharvest.erp.storage.constant.ImageVariant;
+import com.morningharvest.erp.storage.dto.ImageVariantsDTO;
+import com.morningharvest.erp.storage.entity.ImageAsset;
+import com.morningharvest.erp.storage.repository.ImageAssetRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+/**
+ * 圖片衍生圖服務
+ *
+ * 上傳原圖後登記圖片資產，交易提交後交由固定大小的工作執行緒池產生縮圖、菜單磚、詳情大圖，
+ * 上傳請求不等待圖片處理；直傳物件儲存的原圖由工作執行緒下載並計算內容雜湊。
+ * 衍生圖依原圖內容雜湊命名，內容相同的上傳直接共用已產生的衍生圖。
+ * 佇列已滿或處理失敗的資產維持 PENDING，由排程重試，超過次數上限則標記為 FAILED
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ImageDerivativeService {
+
+    static final String BUCKET = "public";
+
+    private final ImageAssetRepository imageAssetRepository;
+    private final StorageService storageService;
+    private final ImageDerivativeGenerator imageDerivativeGenerator;
+    private final CacheManager cacheManager;
+
+    @Value("${storage.image.derivative.workers:2}")
+    private int workers;
+
+    @Value("${storage.image.derivative.queue-capacity:100}")
+    private int queueCapacity;
+
+    @Value("${storage.image.derivative.max-attempts:3}")
+    private int maxAttempts;
+
+    /**
+     * 本節點已排入佇列或處理中的資產，避免排程重複送出
+     */
+    private final Set<Long> inFlight = ConcurrentHashMap.newKeySet();
+
+    private ThreadPoolExecutor executor;
+
+    @PostConstruct
+    void startWorkers() {
+        AtomicInteger threadNumber = new AtomicInteger();
+        executor = new ThreadPoolExecutor(workers, workers, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+                    Thread thread = new Thread(runnable, "image-derivative-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        log.info("圖片衍生圖執行緒池已初始化: workers={}, queueCapacity={}", workers, queueCapacity);
+    }
+
+    @PreDestroy
+    void stopWorkers() throws InterruptedException {
+        executor.shutdown();
+        if (!executor.awaitTermination(30, TimeUnit.SECONDS)) {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * 登記上傳的原圖，交易提交後排入衍生圖產生佇列
+     *
+     * 內容以串流逐段計算雜湊，不將整張原圖載入記憶體
+     *
+     * @param sourceUrl 原圖 URL
+     * @param content   原圖內容串流（由呼叫端關閉）
+     * @return 圖片資產
+     */
+    @Transactional
+    public ImageAsset register(String sourceUrl, InputStream content) throws IOException {
+        Optional<ImageAsset> existing = imageAssetRepository.findBySourceUrl(sourceUrl);
+        if (existing.isPresent()) {
+            return existing.get();
+        }
+
+        String contentHash = sha256(content);
+        Optional<ImageAsset> ready = imageAssetRepository.findFirstByContentHashAndStatus(
+                contentHash, ImageAssetStatus.READY);
+
+        ImageAsset asset = imageAssetRepository.save(ImageAsset.builder()
+                .sourceUrl(sourceUrl)
+                .contentHash(contentHash)
+                .status(ready.isPresent() ? ImageAssetStatus.READY : ImageAssetStatus.PENDING)
+                .width(ready.map(ImageAsset::getWidth).orElse(null))
+                .height(ready.map(ImageAsset::getHeight).orElse(null))
+                .build());
+
+        if (ready.isPresent()) {
+            log.info("圖片內容與既有資產相同，共用衍生圖, url: {}, hash: {}", sourceUrl, contentHash);
+        } else {
+            Long assetId = asset.getId();
+            afterCommit(() -> submit(assetId));
+        }
+        return asset;
+    }
+
+    /**
+     * 登記已直傳至物件儲存的原圖，內容雜湊由背景工作下載原圖時計算，API 不讀取檔案內容
+     *
+     * @param sourceUrl 原圖 URL
+     * @return 圖片資產
+     */
+    @Transactional
+    public ImageAsset registerUploaded(String sourceUrl) {
+        Optional<ImageAsset> existing = imageAssetRepository.findBySourceUrl(sourceUrl);
+        if (existing.isPresent()) {
+            return existing.get();
+        }
+
+        ImageAsset asset = imageAssetRepository.save(ImageAsset.builder()
+                .sourceUrl(sourceUrl)
+                .status(ImageAssetStatus.PENDING)
+                .build());
+        Long assetId = asset.getId();
+        afterCommit(() -> submit(assetId));
+        return asset;
+    }
+
+    /**
+     * 查詢多張原圖的衍生圖 URL，只回傳已完成者
+     *
+     * @param sourceUrls 原圖 URL
+     * @return 原圖 URL -> 衍生圖 URL
+     */
+    @Transactional(readOnly = true)
+    public Map<String, ImageVariantsDTO> findVariants(Collection<String> sourceUrls) {
+        Set<String> urls = sourceUrls.stream()
+                .filter(url -> url != null && !url.isBlank())
+                .collect(Collectors.toSet());
+        if (urls.isEmpty()) {
+            return Map.of();
+        }
+        return imageAssetRepository.findBySourceUrlInAndStatus(urls, ImageAssetStatus.READY).stream()
+                .collect(Collectors.toMap(ImageAsset::getSourceUrl, asset -> toVariants(asset.getContentHash()),
+                        (a, b) -> a));
+    }
+
+    /**
+     * 查詢單張原圖的衍生圖 URL，尚未完成時回傳 null
+     */
+    @Transactional(readOnly = true)
+    public ImageVariantsDTO findVariants(String sourceUrl) {
+        if (sourceUrl == null || sourceUrl.isBlank()) {
+            return null;
+        }
+        return findVariants(List.of(sourceUrl)).get(sourceUrl);
+    }
+
+    /**
+     * 重新送出逾時仍為 PENDING 的資產（佇列已滿被拒、處理失敗待重試、節點重啟遺失）
+     *
+     * @param olderThan 最後更新早於此時間者才重送
+     * @return 送出的資產數
+     */
+    public int retryPending(LocalDateTime olderThan) {
+        List<ImageAsset> pending = imageAssetRepository.findByStatusAndUpdatedAtBefore(
+                ImageAssetStatus.PENDING, olderThan);
+        int submitted = 0;
+        for (ImageAsset asset : pending) {
+            if (submit(asset.getId())) {
+                submitted++;
+            }
+        }
+        if (submitted > 0) {
+            log.info("重新送出圖片衍生圖產生, 筆數: {}", submitted);
+        }
+        return submitted;
+    }
+
+    /**
+     * 排入衍生圖產生佇列
+     *
+     * @return 是否成功排入（已在佇列中或佇列已滿時回傳 false）
+     */
+    boolean submit(Long assetId) {
+        if (!inFlight.add(assetId)) {
+            return false;
+        }
+        try {
+            executor.execute(() -> {
+                try {
+                    process(assetId);
+                } finally {
+                    inFlight.remove(assetId);
+                }
+            });
+            return true;
+        } catch (RejectedExecutionException e) {
+            inFlight.remove(assetId);
+            log.warn("圖片衍生圖佇列已滿，留待排程重試, assetId: {}", assetId);
+            return false;
+        }
+    }
+
+    /**
+     * 產生並上傳單一資產的衍生圖
+     */
+    void process(Long assetId) {
+        ImageAsset asset = imageAssetRepository.findById(assetId).orElse(null);
+        if (asset == null || !ImageAssetStatus.PENDING.equals(asset.getStatus())) {
+            return;
+        }
+
+        long start = System.nanoTime();
+        try {
+            byte[] source = null;
+            if (asset.getContentHash() == null) {
+                source = storageService.downloadFile(asset.getSourceUrl());
+                asset.setContentHash(sha256(source));
+            }
+
+            Optional<ImageAsset> ready = imageAssetRepository.findFirstByContentHashAndStatus(
+                    asset.getContentHash(), ImageAssetStatus.READY);
+            if (ready.isPresent()) {
+                // 相同內容已由其他上傳產生
+                asset.setWidth(ready.get().getWidth());
+                asset.setHeight(ready.get().getHeight());
+            } else {
+                if (source == null) {
+                    source = storageService.downloadFile(asset.getSourceUrl());
+                }
+                ImageDerivativeGenerator.Derivatives derivatives = imageDerivativeGenerator.generate(source);
+                for (Map.Entry<ImageVariant, byte[]> entry : derivatives.images().entrySet()) {
+                    storageService.putObject(BUCKET, entry.getKey().objectName(asset.getContentHash()),
+                            entry.getValue(), "image/jpeg");
+                }
+                asset.setWidth(derivatives.width());
+                asset.setHeight(derivatives.height());
+            }
+
+            asset.setStatus(ImageAssetStatus.READY);
+            asset.setErrorMessage(null);
+            imageAssetRepository.save(asset);
+            clearCaches();
+
+            log.info("圖片衍生圖產生完成, assetId: {}, hash: {}, 耗時: {} ms",
+                    assetId, asset.getContentHash(), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        } catch (Exception e) {
+            int attempts = asset.getAttempts() + 1;
+            asset.setAttempts(attempts);
+            asset.setErrorMessage(truncate(e.getMessage()));
+            // 格式不支援等內容錯誤不會因重試而成功
+            if (attempts >= maxAttempts || e instanceof IllegalArgumentException) {
+                asset.setStatus(ImageAssetStatus.FAILED);
+            }
+            imageAssetRepository.save(asset);
+            log.error("圖片衍生圖產生失敗, assetId: {}, 第 {} 次, error: {}", assetId, attempts, e.getMessage(), e);
+        }
+    }
+
+    /**
+     * 衍生圖 URL
+     */
+    ImageVariantsDTO toVariants(String contentHash) {
+        return ImageVariantsDTO.builder()
+                .thumbnailUrl(storageService.getFileUrl(BUCKET, ImageVariant.THUMBNAIL.objectName(contentHash)))
+                .tileUrl(storageService.getFileUrl(BUCKET, ImageVariant.TILE.objectName(contentHash)))
+                .detailUrl(storageService.getFileUrl(BUCKET, ImageVariant.DETAIL.objectName(contentHash)))
+                .build();
+    }
+
+    /**
+     * 商品 DTO 快取內含衍生圖 URL，衍生圖完成後清除
+     */
+    private void clearCaches() {
+        Cache cache = cacheManager.getCache(CacheNames.PRODUCTS);
+        if (cache != null) {
+            cache.clear();
+        }
+    }
+
+    private static void afterCommit(Runnable task) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    task.run();
+                }
+            });
+        } else {
+            task.run();
+        }
+    }
+
+    static String sha256(byte[] content) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(content));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    static String sha256(InputStream content) throws IOException {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            byte[] buffer = new byte[8192];
+            int read;
+            while ((read = content.read(buffer)) != -1) {
+                digest.update(buffer, 0, read);
+            }
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static String truncate(String message) {
+        if (message == null) {
+            return null;
+        }
+        return message.length() > 500 ? message.substring(0, 500) : message;
+    }
+}
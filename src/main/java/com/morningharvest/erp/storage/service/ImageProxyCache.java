@@ -0,0 +1,411 @@
+package com.morningharvest.erp.storage.service;
+
+import com.morningharvest.erp.storage.dto.CachedImage;
+import com.morningharvest.erp.storage.dto.StoredObjectInfo;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 圖片代理快取
+ *
+ * 供無法直接連線 MinIO 的平板經由 API 取得 public bucket 的圖片。
+ * 物件第一次被請求時自 StorageService 串流寫入本機磁碟快取，並計算內容雜湊作為 ETag；
+ * 小於記憶體上限的物件同時保留於記憶體快取。兩層快取皆依總位元組數上限以 LRU 淘汰，
+ * 同一物件同時有多個請求時只向物件儲存讀取一次。
+ * 上傳物件名稱不重複、衍生圖依內容雜湊命名，內容幾乎不變，
+ * 快取項目超過 revalidate-after 後才以 statObject 確認物件仍存在且未變更（被孤兒清理刪除者回應不存在）。
+ * 索引只存在記憶體，啟動時清空快取目錄
+ */
+@Slf4j
+@Service
+public class ImageProxyCache {
+
+    static final String BUCKET = "public";
+
+    private static final String FILE_SUFFIX = ".img";
+    private static final String TEMP_SUFFIX = ".tmp";
+
+    private final StorageService storageService;
+
+    @Value("${storage.image-proxy.cache-dir:${java.io.tmpdir}/mh-image-cache}")
+    private Path cacheDir = Path.of(System.getProperty("java.io.tmpdir"), "mh-image-cache");
+
+    @Value("${storage.image-proxy.disk-max-bytes:1073741824}")
+    private long diskMaxBytes = 1024L * 1024 * 1024;
+
+    @Value("${storage.image-proxy.memory-max-bytes:33554432}")
+    private long memoryMaxBytes = 32L * 1024 * 1024;
+
+    @Value("${storage.image-proxy.memory-max-object-bytes:262144}")
+    private long memoryMaxObjectBytes = 256L * 1024;
+
+    @Value("${storage.image-proxy.max-object-bytes:10485760}")
+    private long maxObjectBytes = 10L * 1024 * 1024;
+
+    @Value("${storage.image-proxy.revalidate-after:1h}")
+    private Duration revalidateAfter = Duration.ofHours(1);
+
+    /**
+     * 記憶體快取（access-order，最久未使用者在前）
+     */
+    private final LinkedHashMap<String, MemoryEntry> memory = new LinkedHashMap<>(64, 0.75f, true);
+    private long memoryBytes;
+
+    /**
+     * 磁碟快取索引（access-order，最久未使用者在前）
+     */
+    private final LinkedHashMap<String, DiskEntry> disk = new LinkedHashMap<>(256, 0.75f, true);
+    private long diskBytes;
+
+    /**
+     * 載入中的物件，同一物件的並行請求等待同一次載入
+     */
+    private final Map<String, CompletableFuture<Boolean>> loading = new ConcurrentHashMap<>();
+
+    public ImageProxyCache(StorageService storageService) {
+        this.storageService = storageService;
+    }
+
+    private record MemoryEntry(byte[] content, String contentType, String etag, long lastModified,
+                               long validatedAt) {
+    }
+
+    private record DiskEntry(Path file, long size, String contentType, String etag, long lastModified,
+                             long validatedAt) {
+    }
+
+    @PostConstruct
+    void init() throws IOException {
+        Files.createDirectories(cacheDir);
+        int removed = 0;
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(cacheDir, "*{" + FILE_SUFFIX + "," + TEMP_SUFFIX + "}")) {
+            for (Path file : files) {
+                Files.deleteIfExists(file);
+                removed++;
+            }
+        }
+        log.info("圖片代理快取已初始化: dir={}, diskMaxBytes={}, memoryMaxBytes={}, 清除舊快取檔: {}",
+                cacheDir, diskMaxBytes, memoryMaxBytes, removed);
+    }
+
+    /**
+     * 取得 public bucket 中的圖片，未快取時自物件儲存載入
+     *
+     * @param objectName 物件名稱（含路徑）
+     * @return 圖片內容（使用後須關閉），物件不存在時為空
+     */
+    public Optional<CachedImage> get(String objectName) {
+        validateObjectName(objectName);
+
+        Optional<CachedImage> hit = lookup(objectName);
+        if (hit.isPresent()) {
+            return hit;
+        }
+
+        CompletableFuture<Boolean> mine = new CompletableFuture<>();
+        CompletableFuture<Boolean> existing = loading.putIfAbsent(objectName, mine);
+        if (existing != null) {
+            boolean found;
+            try {
+                found = existing.join();
+            } catch (CompletionException e) {
+                throw new RuntimeException("圖片讀取失敗: " + e.getCause().getMessage(), e.getCause());
+            }
+            if (!found) {
+                return Optional.empty();
+            }
+            hit = lookup(objectName);
+            // 載入後立即被淘汰（快取容量過小）時自行載入
+            return hit.isPresent() ? hit : fill(objectName);
+        }
+
+        try {
+            Optional<CachedImage> loaded = fill(objectName);
+            mine.complete(loaded.isPresent());
+            return loaded;
+        } catch (RuntimeException e) {
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            loading.remove(objectName, mine);
+        }
+    }
+
+    /**
+     * 移除快取項目
+     *
+     * @param objectName 物件名稱（含路徑）
+     */
+    public void evict(String objectName) {
+        synchronized (memory) {
+            removeMemory(objectName);
+        }
+        synchronized (disk) {
+            removeDisk(objectName);
+        }
+    }
+
+    /**
+     * 物件名稱只允許相對路徑，不可跳出 bucket
+     */
+    static void validateObjectName(String objectName) {
+        if (objectName == null || objectName.isBlank() || objectName.startsWith("/")
+                || objectName.contains("\\") || objectName.length() > 512) {
+            throw new IllegalArgumentException("無效的圖片路徑: " + objectName);
+        }
+        for (String segment : objectName.split("/")) {
+            if (segment.isEmpty() || segment.equals(".") || segment.equals("..")) {
+                throw new IllegalArgumentException("無效的圖片路徑: " + objectName);
+            }
+        }
+    }
+
+    /**
+     * 依序查詢記憶體、磁碟快取；超過 revalidate-after 的項目先向物件儲存確認
+     */
+    private Optional<CachedImage> lookup(String objectName) {
+        MemoryEntry memoryEntry;
+        synchronized (memory) {
+            memoryEntry = memory.get(objectName);
+        }
+        if (memoryEntry != null) {
+            if (isStale(memoryEntry.validatedAt())
+                    && !revalidate(objectName, memoryEntry.content().length, memoryEntry.lastModified())) {
+                return Optional.empty();
+            }
+            return Optional.of(new CachedImage(memoryEntry.contentType(), memoryEntry.content().length,
+                    memoryEntry.etag(), memoryEntry.lastModified(), memoryEntry.content(), null));
+        }
+
+        DiskEntry diskEntry;
+        synchronized (disk) {
+            diskEntry = disk.get(objectName);
+        }
+        if (diskEntry == null) {
+            return Optional.empty();
+        }
+        if (isStale(diskEntry.validatedAt())
+                && !revalidate(objectName, diskEntry.size(), diskEntry.lastModified())) {
+            return Optional.empty();
+        }
+        return openDisk(objectName);
+    }
+
+    /**
+     * 開啟磁碟快取檔；與淘汰在同一把鎖內進行，開啟後檔案被刪除仍可讀取
+     */
+    private Optional<CachedImage> openDisk(String objectName) {
+        DiskEntry entry;
+        FileChannel channel;
+        synchronized (disk) {
+            entry = disk.get(objectName);
+            if (entry == null) {
+                return Optional.empty();
+            }
+            try {
+                channel = FileChannel.open(entry.file(), StandardOpenOption.READ);
+            } catch (IOException e) {
+                log.warn("圖片快取檔無法開啟，移除快取項目, object: {}, error: {}", objectName, e.getMessage());
+                removeDisk(objectName);
+                return Optional.empty();
+            }
+        }
+        return Optional.of(new CachedImage(entry.contentType(), entry.size(), entry.etag(),
+                entry.lastModified(), null, channel));
+    }
+
+    private boolean isStale(long validatedAt) {
+        return System.currentTimeMillis() - validatedAt > revalidateAfter.toMillis();
+    }
+
+    /**
+     * 確認快取項目與物件儲存一致
+     *
+     * @return 仍一致時更新確認時間並回傳 true；已刪除或變更時移除快取並回傳 false
+     */
+    private boolean revalidate(String objectName, long size, long lastModified) {
+        Optional<StoredObjectInfo> info = storageService.statObject(BUCKET, objectName);
+        if (info.isEmpty() || info.get().size() != size || toMillis(info.get()) != lastModified) {
+            log.debug("圖片已變更或刪除，移除快取項目, object: {}", objectName);
+            evict(objectName);
+            return false;
+        }
+        long now = System.currentTimeMillis();
+        synchronized (memory) {
+            memory.computeIfPresent(objectName, (key, entry) -> new MemoryEntry(entry.content(),
+                    entry.contentType(), entry.etag(), entry.lastModified(), now));
+        }
+        synchronized (disk) {
+            disk.computeIfPresent(objectName, (key, entry) -> new DiskEntry(entry.file(), entry.size(),
+                    entry.contentType(), entry.etag(), entry.lastModified(), now));
+        }
+        return true;
+    }
+
+    /**
+     * 自物件儲存串流寫入暫存檔並計算內容雜湊，完成後更名為快取檔
+     */
+    private Optional<CachedImage> fill(String objectName) {
+        Optional<StoredObjectInfo> info = storageService.statObject(BUCKET, objectName);
+        if (info.isEmpty()) {
+            return Optional.empty();
+        }
+        long size = info.get().size();
+        if (size > maxObjectBytes) {
+            throw new IllegalArgumentException("圖片超過代理大小上限 (" + maxObjectBytes + " bytes): " + objectName);
+        }
+
+        long start = System.currentTimeMillis();
+        Path temp = null;
+        try {
+            temp = Files.createTempFile(cacheDir, "fill-", TEMP_SUFFIX);
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            try (InputStream in = new DigestInputStream(storageService.openObject(BUCKET, objectName), digest);
+                 OutputStream out = Files.newOutputStream(temp)) {
+                in.transferTo(out);
+            }
+            long written = Files.size(temp);
+            String etag = HexFormat.of().formatHex(digest.digest(), 0, 16);
+            String contentType = info.get().contentType();
+            long lastModified = toMillis(info.get());
+            long now = System.currentTimeMillis();
+
+            byte[] content = written <= memoryMaxObjectBytes ? Files.readAllBytes(temp) : null;
+            Path file = cacheDir.resolve(fileName(objectName));
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            temp = null;
+
+            putDisk(objectName, new DiskEntry(file, written, contentType, etag, lastModified, now));
+            log.debug("圖片載入代理快取, object: {}, size: {}, 耗時: {} ms",
+                    objectName, written, System.currentTimeMillis() - start);
+
+            if (content != null) {
+                putMemory(objectName, new MemoryEntry(content, contentType, etag, lastModified, now));
+                return Optional.of(new CachedImage(contentType, written, etag, lastModified, content, null));
+            }
+            Optional<CachedImage> opened = openDisk(objectName);
+            if (opened.isPresent()) {
+                return opened;
+            }
+            throw new IllegalStateException("圖片快取檔已被淘汰: " + objectName);
+        } catch (IOException | NoSuchAlgorithmException e) {
+            log.error("圖片代理載入失敗, object: {}", objectName, e);
+            throw new RuntimeException("圖片讀取失敗: " + e.getMessage(), e);
+        } finally {
+            if (temp != null) {
+                try {
+                    Files.deleteIfExists(temp);
+                } catch (IOException e) {
+                    log.warn("暫存檔刪除失敗: {}", temp);
+                }
+            }
+        }
+    }
+
+    private void putMemory(String objectName, MemoryEntry entry) {
+        if (entry.content().length > memoryMaxBytes) {
+            return;
+        }
+        synchronized (memory) {
+            removeMemory(objectName);
+            memory.put(objectName, entry);
+            memoryBytes += entry.content().length;
+            Iterator<Map.Entry<String, MemoryEntry>> iterator = memory.entrySet().iterator();
+            while (memoryBytes > memoryMaxBytes && iterator.hasNext()) {
+                Map.Entry<String, MemoryEntry> eldest = iterator.next();
+                if (eldest.getKey().equals(objectName)) {
+                    continue;
+                }
+                memoryBytes -= eldest.getValue().content().length;
+                iterator.remove();
+            }
+        }
+    }
+
+    private void putDisk(String objectName, DiskEntry entry) {
+        synchronized (disk) {
+            DiskEntry previous = disk.put(objectName, entry);
+            if (previous != null) {
+                // 同名物件的快取檔已被新檔覆寫
+                diskBytes -= previous.size();
+            }
+            diskBytes += entry.size();
+            Iterator<Map.Entry<String, DiskEntry>> iterator = disk.entrySet().iterator();
+            while (diskBytes > diskMaxBytes && iterator.hasNext()) {
+                Map.Entry<String, DiskEntry> eldest = iterator.next();
+                if (eldest.getKey().equals(objectName)) {
+                    continue;
+                }
+                diskBytes -= eldest.getValue().size();
+                iterator.remove();
+                deleteQuietly(eldest.getValue().file());
+            }
+        }
+    }
+
+    /**
+     * 呼叫端須持有 memory 鎖
+     */
+    private void removeMemory(String objectName) {
+        MemoryEntry removed = memory.remove(objectName);
+        if (removed != null) {
+            memoryBytes -= removed.content().length;
+        }
+    }
+
+    /**
+     * 呼叫端須持有 disk 鎖
+     */
+    private void removeDisk(String objectName) {
+        DiskEntry removed = disk.remove(objectName);
+        if (removed != null) {
+            diskBytes -= removed.size();
+            deleteQuietly(removed.file());
+        }
+    }
+
+    private void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.warn("圖片快取檔刪除失敗: {}, error: {}", file, e.getMessage());
+        }
+    }
+
+    /**
+     * 快取檔名：物件名稱的雜湊，避免路徑字元
+     */
+    private static String fileName(String objectName) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(objectName.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(hash) + FILE_SUFFIX;
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 不可用", e);
+        }
+    }
+
+    private static long toMillis(StoredObjectInfo info) {
+        return info.lastModified() != null ? info.lastModified().toInstant().toEpochMilli() : 0L;
+    }
+}
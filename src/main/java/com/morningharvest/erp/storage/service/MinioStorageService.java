@@ -1,16 +1,36 @@
 package com.morningharvest.erp.storage.service;
 
+import com.morningharvest.erp.common.id.TimeOrderedId;
+import com.morningharvest.erp.storage.dto.StoredObject;
+import com.morningharvest.erp.storage.dto.StoredObjectInfo;
+import io.minio.GetObjectArgs;
+import io.minio.GetPresignedObjectUrlArgs;
+import io.minio.ListObjectsArgs;
 import io.minio.MinioClient;
 import io.minio.PutObjectArgs;
 import io.minio.RemoveObjectArgs;
+import io.minio.RemoveObjectsArgs;
+import io.minio.Result;
+import io.minio.StatObjectArgs;
+import io.minio.StatObjectResponse;
+import io.minio.errors.ErrorResponseException;
+import io.minio.messages.DeleteError;
+import io.minio.messages.DeleteObject;
+import io.minio.messages.Item;
+import io.minio.http.Method;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.ByteArrayInputStream;
 import java.io.InputStream;
-import java.util.UUID;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * MinIO 儲存服務實作
@@ -29,6 +49,23 @@ public class MinioStorageService implements StorageService {
     @Value("${storage.minio.public-url:${storage.minio.endpoint}}")
     private String publicUrl;
 
+    /**
+     * 用戶端直傳使用的 MinIO 位址（需可由用戶端連線，不可為 CDN）
+     */
+    @Value("${storage.minio.upload-url:${storage.minio.public-url:${storage.minio.endpoint}}}")
+    private String uploadUrl;
+
+    @Value("${storage.minio.access-key}")
+    private String accessKey;
+
+    @Value("${storage.minio.secret-key}")
+    private String secretKey;
+
+    @Value("${storage.minio.region:us-east-1}")
+    private String region;
+
+    private volatile MinioClient presignClient;
+
     /**
      * 上傳檔案到 MinIO
      *
@@ -39,10 +76,10 @@ public class MinioStorageService implements StorageService {
     @Override
     public String uploadFile(MultipartFile file, String folder) {
         try {
-            // 產生唯一檔名：UUID + 原始副檔名
+            // 產生唯一檔名：時間排序識別碼 + 原始副檔名（同資料夾的物件名稱依上傳順序排列）
             String originalFilename = file.getOriginalFilename();
             String extension = getFileExtension(originalFilename);
-            String uniqueFilename = UUID.randomUUID() + extension;
+            String uniqueFilename = TimeOrderedId.next() + extension;
 
             // 組合物件名稱：folder/filename
             String objectName = folder + "/" + uniqueFilename;
@@ -79,13 +116,7 @@ public class MinioStorageService implements StorageService {
     @Override
     public void deleteFile(String fileUrl) {
         try {
-            // 從 URL 解析 bucket 和 objectName
-            // URL 格式: http://morning-harvest-minio:9000/public/products/xxx.jpg
-            String[] parts = fileUrl.replace(endpoint + "/", "").split("/", 2);
-            if (parts.length < 2) {
-                throw new IllegalArgumentException("無效的檔案 URL: " + fileUrl);
-            }
-
+            String[] parts = parseFileUrl(fileUrl);
             String bucket = parts[0];
             String objectName = parts[1];
 
@@ -104,6 +135,203 @@ public class MinioStorageService implements StorageService {
         }
     }
 
+    /**
+     * 下載檔案內容
+     *
+     * @param fileUrl 檔案 URL
+     * @return 檔案內容
+     */
+    @Override
+    public byte[] downloadFile(String fileUrl) {
+        String[] parts = parseFileUrl(fileUrl);
+        try (InputStream inputStream = minioClient.getObject(
+                GetObjectArgs.builder()
+                        .bucket(parts[0])
+                        .object(parts[1])
+                        .build())) {
+            return inputStream.readAllBytes();
+        } catch (Exception e) {
+            log.error("檔案下載失敗 - URL: {}", fileUrl, e);
+            throw new RuntimeException("檔案下載失敗: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * 開啟物件內容串流
+     */
+    @Override
+    public InputStream openObject(String bucket, String objectName) {
+        try {
+            return minioClient.getObject(
+                    GetObjectArgs.builder()
+                            .bucket(bucket)
+                            .object(objectName)
+                            .build());
+        } catch (Exception e) {
+            log.error("檔案讀取失敗 - bucket: {}, object: {}", bucket, objectName, e);
+            throw new RuntimeException("檔案讀取失敗: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * 以指定物件名稱寫入檔案（覆寫同名物件）
+     */
+    @Override
+    public String putObject(String bucket, String objectName, byte[] content, String contentType) {
+        try (InputStream inputStream = new ByteArrayInputStream(content)) {
+            minioClient.putObject(
+                    PutObjectArgs.builder()
+                            .bucket(bucket)
+                            .object(objectName)
+                            .stream(inputStream, content.length, -1)
+                            .contentType(contentType)
+                            .build()
+            );
+            return getFileUrl(bucket, objectName);
+        } catch (Exception e) {
+            log.error("檔案寫入失敗 - bucket: {}, object: {}", bucket, objectName, e);
+            throw new RuntimeException("檔案寫入失敗: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * 物件是否存在
+     */
+    @Override
+    public boolean objectExists(String bucket, String objectName) {
+        return statObject(bucket, objectName).isPresent();
+    }
+
+    /**
+     * 查詢物件資訊
+     */
+    @Override
+    public Optional<StoredObjectInfo> statObject(String bucket, String objectName) {
+        try {
+            StatObjectResponse stat = minioClient.statObject(
+                    StatObjectArgs.builder()
+                            .bucket(bucket)
+                            .object(objectName)
+                            .build()
+            );
+            return Optional.of(new StoredObjectInfo(stat.size(), stat.contentType(), stat.lastModified()));
+        } catch (ErrorResponseException e) {
+            if ("NoSuchKey".equals(e.errorResponse().code())) {
+                return Optional.empty();
+            }
+            throw new RuntimeException("查詢檔案失敗: " + e.getMessage(), e);
+        } catch (Exception e) {
+            throw new RuntimeException("查詢檔案失敗: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * 產生直接上傳用的預簽章 PUT URL
+     *
+     * 簽章涵蓋 Host，故以用戶端連線的 upload-url 建立簽章用 client；
+     * 指定 region 使簽章完全在本機計算，不需連線 MinIO
+     */
+    @Override
+    public String createPresignedUploadUrl(String bucket, String objectName, int expirySeconds) {
+        try {
+            return presignClient().getPresignedObjectUrl(
+                    GetPresignedObjectUrlArgs.builder()
+                            .method(Method.PUT)
+                            .bucket(bucket)
+                            .object(objectName)
+                            .expiry(expirySeconds)
+                            .build()
+            );
+        } catch (Exception e) {
+            log.error("產生預簽章上傳 URL 失敗 - bucket: {}, object: {}", bucket, objectName, e);
+            throw new RuntimeException("產生預簽章上傳 URL 失敗: " + e.getMessage(), e);
+        }
+    }
+
+    private MinioClient presignClient() {
+        MinioClient client = presignClient;
+        if (client == null) {
+            client = MinioClient.builder()
+                    .endpoint(uploadUrl)
+                    .credentials(accessKey, secretKey)
+                    .region(region)
+                    .build();
+            presignClient = client;
+        }
+        return client;
+    }
+
+    /**
+     * 串流列出 bucket 內所有物件
+     *
+     * MinIO 列表為延遲分頁（每頁最多 1000 筆），串流消費時才向伺服器取得下一頁
+     */
+    @Override
+    public Stream<StoredObject> listObjects(String bucket) {
+        Iterable<Result<Item>> results = minioClient.listObjects(
+                ListObjectsArgs.builder()
+                        .bucket(bucket)
+                        .recursive(true)
+                        .build()
+        );
+        return StreamSupport.stream(results.spliterator(), false)
+                .map(result -> {
+                    try {
+                        return result.get();
+                    } catch (Exception e) {
+                        throw new RuntimeException("列出檔案失敗: " + e.getMessage(), e);
+                    }
+                })
+                .filter(item -> !item.isDir())
+                .map(item -> new StoredObject(item.objectName(), item.size(), item.lastModified()));
+    }
+
+    /**
+     * 批次刪除物件
+     */
+    @Override
+    public List<String> deleteObjects(String bucket, List<String> objectNames) {
+        if (objectNames.isEmpty()) {
+            return List.of();
+        }
+        // 刪除於迭代結果時才實際送出
+        Iterable<Result<DeleteError>> results = minioClient.removeObjects(
+                RemoveObjectsArgs.builder()
+                        .bucket(bucket)
+                        .objects(objectNames.stream().map(DeleteObject::new).toList())
+                        .build()
+        );
+        List<String> failed = new ArrayList<>();
+        try {
+            for (Result<DeleteError> result : results) {
+                DeleteError error = result.get();
+                log.warn("檔案刪除失敗 - bucket: {}, object: {}, error: {}",
+                        bucket, error.objectName(), error.message());
+                failed.add(error.objectName());
+            }
+        } catch (Exception e) {
+            log.error("批次刪除檔案失敗 - bucket: {}", bucket, e);
+            throw new RuntimeException("批次刪除檔案失敗: " + e.getMessage(), e);
+        }
+        return failed;
+    }
+
+    /**
+     * 將檔案 URL 轉為「bucket/物件名稱」
+     */
+    @Override
+    public Optional<String> toObjectPath(String fileUrl) {
+        if (fileUrl == null || fileUrl.isBlank()) {
+            return Optional.empty();
+        }
+        try {
+            String[] parts = parseFileUrl(fileUrl);
+            return Optional.of(parts[0] + "/" + parts[1]);
+        } catch (IllegalArgumentException e) {
+            return Optional.empty();
+        }
+    }
+
     /**
      * 取得檔案的完整 URL
      *
@@ -118,6 +346,27 @@ public class MinioStorageService implements StorageService {
         return publicUrl + "/" + bucket + "/" + objectName;
     }
 
+    /**
+     * 從 URL 解析 bucket 和 objectName
+     * URL 格式: {public-url 或 endpoint}/public/products/xxx.jpg
+     */
+    private String[] parseFileUrl(String fileUrl) {
+        String path;
+        if (fileUrl.startsWith(publicUrl + "/")) {
+            path = fileUrl.substring(publicUrl.length() + 1);
+        } else if (fileUrl.startsWith(endpoint + "/")) {
+            path = fileUrl.substring(endpoint.length() + 1);
+        } else {
+            throw new IllegalArgumentException("無效的檔案 URL: " + fileUrl);
+        }
+
+        String[] parts = path.split("/", 2);
+        if (parts.length < 2 || parts[1].isEmpty()) {
+            throw new IllegalArgumentException("無效的檔案 URL: " + fileUrl);
+        }
+        return parts;
+    }
+
     /**
      * 取得檔案副檔名（含點號）
      */
@@ -0,0 +1,260 @@
+package com.morningharvest.erp.storage.service;
+
+import com.morningharvest.erp.combo.repository.ComboRepository;
+import com.morningharvest.erp.product.repository.ProductRepository;
+import com.morningharvest.erp.storage.constant.ImageVariant;
+import com.morningharvest.erp.storage.dto.StoredObject;
+import com.morningharvest.erp.storage.entity.ImageAsset;
+import com.morningharvest.erp.storage.repository.ImageAssetRepository;
+import com.morningharvest.erp.storage.util.BloomFilter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.time.ZonedDateTime;
+import java.util.*;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * 孤兒物件清理服務
+ *
+ * 更換商品、套餐圖片時舊圖不會被刪除，bucket 會持續成長。
+ * 清理時先串流讀取商品、套餐的圖片 URL 建立布隆過濾器（記憶體用量固定，不需載入全部 URL），
+ * 再串流列出 bucket 物件：過濾器判定「必定未引用」且超過保留期的物件才列為候選，
+ * 每批刪除前再以資料庫精確比對一次，排除過濾器建立後才被引用的物件。
+ * 衍生圖以所屬原圖是否被引用判斷；刪除的原圖一併移除其圖片資產紀錄。
+ * 分批刪除並於批次間暫停，每次執行有刪除上限，避免對 MinIO 與資料庫造成尖峰負載
+ */
+@Slf4j
+@Service
+public class OrphanObjectCollector {
+
+    private static final String DERIVATIVE_PREFIX = ImageVariant.FOLDER + "/";
+
+    private final StorageService storageService;
+    private final ProductRepository productRepository;
+    private final ComboRepository comboRepository;
+    private final ImageAssetRepository imageAssetRepository;
+    private final TransactionTemplate readOnlyTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${storage.orphan-gc.buckets:public}")
+    private List<String> buckets = List.of("public");
+
+    @Value("${storage.orphan-gc.grace-hours:24}")
+    private long graceHours = 24;
+
+    @Value("${storage.orphan-gc.batch-size:200}")
+    private int batchSize = 200;
+
+    @Value("${storage.orphan-gc.batch-pause-ms:500}")
+    private long batchPauseMs = 500;
+
+    @Value("${storage.orphan-gc.max-deletes-per-run:5000}")
+    private int maxDeletesPerRun = 5000;
+
+    @Value("${storage.orphan-gc.false-positive-rate:0.001}")
+    private double falsePositiveRate = 0.001;
+
+    public OrphanObjectCollector(StorageService storageService,
+                                 ProductRepository productRepository,
+                                 ComboRepository comboRepository,
+                                 ImageAssetRepository imageAssetRepository,
+                                 PlatformTransactionManager transactionManager) {
+        this.storageService = storageService;
+        this.productRepository = productRepository;
+        this.comboRepository = comboRepository;
+        this.imageAssetRepository = imageAssetRepository;
+        // 串流查詢須在交易內進行
+        this.readOnlyTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTemplate.setReadOnly(true);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * 清理結果
+     *
+     * @param scanned    掃描的物件數
+     * @param candidates 判定為孤兒的物件數（含精確比對後保留者）
+     * @param deleted    實際刪除的物件數
+     */
+    public record Result(int scanned, int candidates, int deleted) {
+    }
+
+    /**
+     * 清理所有設定的 bucket
+     */
+    public Result collect() {
+        long start = System.currentTimeMillis();
+        ZonedDateTime cutoff = ZonedDateTime.now().minusHours(graceHours);
+        BloomFilter referenced = readOnlyTemplate.execute(status -> buildReferenceFilter(cutoff.toLocalDateTime()));
+
+        Progress progress = new Progress();
+        for (String bucket : buckets) {
+            if (progress.deleted >= maxDeletesPerRun) {
+                break;
+            }
+            try {
+                collectBucket(bucket, cutoff, referenced, progress);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                log.warn("孤兒物件清理被中斷, bucket: {}", bucket);
+                break;
+            } catch (Exception e) {
+                log.error("孤兒物件清理失敗, bucket: {}, error: {}", bucket, e.getMessage(), e);
+            }
+        }
+
+        log.info("孤兒物件清理完成, 掃描: {}, 候選: {}, 刪除: {}, 過濾器: {} KB, 耗時: {} ms",
+                progress.scanned, progress.candidates, progress.deleted,
+                referenced.sizeInBytes() / 1024, System.currentTimeMillis() - start);
+        return new Result(progress.scanned, progress.candidates, progress.deleted);
+    }
+
+    private void collectBucket(String bucket, ZonedDateTime cutoff, BloomFilter referenced, Progress progress)
+            throws InterruptedException {
+        List<StoredObject> batch = new ArrayList<>(batchSize);
+        try (Stream<StoredObject> objects = storageService.listObjects(bucket)) {
+            Iterator<StoredObject> iterator = objects.iterator();
+            while (iterator.hasNext() && progress.deleted < maxDeletesPerRun) {
+                StoredObject object = iterator.next();
+                progress.scanned++;
+                if (object.lastModified().isAfter(cutoff)
+                        || referenced.mightContain(referenceKey(bucket, object.objectName()))) {
+                    continue;
+                }
+                progress.candidates++;
+                batch.add(object);
+                if (batch.size() >= batchSize) {
+                    progress.deleted += deleteBatch(bucket, batch, cutoff.toLocalDateTime());
+                    batch.clear();
+                    Thread.sleep(batchPauseMs);
+                }
+            }
+        }
+        if (!batch.isEmpty() && progress.deleted < maxDeletesPerRun) {
+            progress.deleted += deleteBatch(bucket, batch, cutoff.toLocalDateTime());
+        }
+    }
+
+    /**
+     * 建立被引用物件的布隆過濾器：商品、套餐圖片，以及被引用或仍在保留期內的原圖之衍生圖目錄
+     */
+    private BloomFilter buildReferenceFilter(LocalDateTime cutoff) {
+        long expected = productRepository.count() + comboRepository.count() + imageAssetRepository.count();
+        BloomFilter filter = new BloomFilter(Math.max(1000, expected), falsePositiveRate);
+
+        try (Stream<String> urls = productRepository.streamImageUrls()) {
+            urls.forEach(url -> storageService.toObjectPath(url).ifPresent(filter::put));
+        }
+        try (Stream<String> urls = comboRepository.streamImageUrls()) {
+            urls.forEach(url -> storageService.toObjectPath(url).ifPresent(filter::put));
+        }
+        try (Stream<ImageAssetRepository.AssetReference> assets = imageAssetRepository.streamHashedAssets()) {
+            assets.forEach(asset -> {
+                boolean recent = asset.getUpdatedAt() != null && asset.getUpdatedAt().isAfter(cutoff);
+                boolean sourceReferenced = storageService.toObjectPath(asset.getSourceUrl())
+                        .map(filter::mightContain)
+                        .orElse(false);
+                if (recent || sourceReferenced) {
+                    filter.put(ImageDerivativeService.BUCKET + "/" + DERIVATIVE_PREFIX + asset.getContentHash() + "/");
+                }
+            });
+        }
+        return filter;
+    }
+
+    /**
+     * 精確比對後刪除一批候選物件
+     *
+     * @return 實際刪除數
+     */
+    private int deleteBatch(String bucket, List<StoredObject> batch, LocalDateTime cutoff) {
+        Map<String, String> sources = new LinkedHashMap<>();
+        Map<String, List<String>> derivativesByHash = new LinkedHashMap<>();
+        for (StoredObject object : batch) {
+            String hash = derivativeHash(bucket, object.objectName());
+            if (hash != null) {
+                derivativesByHash.computeIfAbsent(hash, h -> new ArrayList<>()).add(object.objectName());
+            } else {
+                sources.put(storageService.getFileUrl(bucket, object.objectName()), object.objectName());
+            }
+        }
+
+        // 過濾器建立後才被引用的原圖
+        referencedUrls(sources.keySet()).forEach(sources::remove);
+
+        // 衍生圖：所屬原圖仍被引用或仍在保留期內者保留
+        if (!derivativesByHash.isEmpty()) {
+            List<ImageAsset> assets = imageAssetRepository.findByContentHashIn(derivativesByHash.keySet());
+            Set<String> referencedSources = referencedUrls(assets.stream()
+                    .map(ImageAsset::getSourceUrl)
+                    .collect(Collectors.toSet()));
+            for (ImageAsset asset : assets) {
+                boolean recent = asset.getUpdatedAt() != null && asset.getUpdatedAt().isAfter(cutoff);
+                if (recent || referencedSources.contains(asset.getSourceUrl())) {
+                    derivativesByHash.remove(asset.getContentHash());
+                }
+            }
+        }
+
+        List<String> objectNames = new ArrayList<>(sources.values());
+        derivativesByHash.values().forEach(objectNames::addAll);
+        if (objectNames.isEmpty()) {
+            return 0;
+        }
+
+        Set<String> failed = new HashSet<>(storageService.deleteObjects(bucket, objectNames));
+        List<String> deletedSources = sources.entrySet().stream()
+                .filter(entry -> !failed.contains(entry.getValue()))
+                .map(Map.Entry::getKey)
+                .toList();
+        if (!deletedSources.isEmpty()) {
+            transactionTemplate.executeWithoutResult(status -> imageAssetRepository.deleteBySourceUrlIn(deletedSources));
+        }
+
+        int deleted = objectNames.size() - failed.size();
+        log.info("刪除孤兒物件, bucket: {}, 筆數: {}", bucket, deleted);
+        return deleted;
+    }
+
+    private Set<String> referencedUrls(Collection<String> urls) {
+        if (urls.isEmpty()) {
+            return Set.of();
+        }
+        Set<String> referenced = new HashSet<>(productRepository.findImageUrlsIn(urls));
+        referenced.addAll(comboRepository.findImageUrlsIn(urls));
+        return referenced;
+    }
+
+    /**
+     * 過濾器鍵：一般物件為「bucket/物件名稱」，衍生圖為所屬雜湊目錄
+     */
+    private static String referenceKey(String bucket, String objectName) {
+        String hash = derivativeHash(bucket, objectName);
+        return hash != null
+                ? bucket + "/" + DERIVATIVE_PREFIX + hash + "/"
+                : bucket + "/" + objectName;
+    }
+
+    /**
+     * 衍生圖物件（derivatives/{hash}/{variant}.jpg）的原圖雜湊，非衍生圖時為 null
+     */
+    private static String derivativeHash(String bucket, String objectName) {
+        if (!ImageDerivativeService.BUCKET.equals(bucket) || !objectName.startsWith(DERIVATIVE_PREFIX)) {
+            return null;
+        }
+        int end = objectName.indexOf('/', DERIVATIVE_PREFIX.length());
+        return end > DERIVATIVE_PREFIX.length() ? objectName.substring(DERIVATIVE_PREFIX.length(), end) : null;
+    }
+
+    private static class Progress {
+        private int scanned;
+        private int candidates;
+        private int deleted;
+    }
+}
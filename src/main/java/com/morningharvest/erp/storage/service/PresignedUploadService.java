@@ -0,0 +1,115 @@
+package com.morningharvest.erp.storage.service;
+
+import com.morningharvest.erp.common.exception.ResourceNotFoundException;
+import com.morningharvest.erp.common.id.TimeOrderedId;
+import com.morningharvest.erp.storage.constant.ImageVariant;
+import com.morningharvest.erp.storage.dto.ConfirmUploadRequest;
+import com.morningharvest.erp.storage.dto.FileUploadResponse;
+import com.morningharvest.erp.storage.dto.PresignUploadRequest;
+import com.morningharvest.erp.storage.dto.PresignedUploadResponse;
+import com.morningharvest.erp.storage.dto.StoredObjectInfo;
+import com.morningharvest.erp.storage.util.FileValidator;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.regex.Pattern;
+
+/**
+ * 直傳上傳服務
+ *
+ * 前端先申請預簽名 URL，以 PUT 將檔案直接上傳至物件儲存，完成後再呼叫確認；
+ * 檔案內容不經過 API 節點。預簽名 PUT 不綁定 Content-Type 與大小，
+ * 確認時以物件中繼資料重新驗證，不符者刪除物件。申請後未確認的物件由孤兒物件清理處理
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class PresignedUploadService {
+
+    private static final String BUCKET = "public";
+
+    private static final Pattern FOLDER_PATTERN = Pattern.compile("[a-z0-9_-]{1,50}");
+
+    private static final Pattern OBJECT_KEY_PATTERN = Pattern.compile(
+            "[a-z0-9_-]{1,50}/[0-9a-f]{8}-[0-9a-f]{4}-[0-9a-f]{4}-[0-9a-f]{4}-[0-9a-f]{12}\\.[a-z]{3,4}");
+
+    private final StorageService storageService;
+    private final ImageDerivativeService imageDerivativeService;
+
+    @Value("${storage.minio.presign-expiry-seconds:300}")
+    private int expirySeconds = 300;
+
+    /**
+     * 申請直傳上傳 URL
+     *
+     * @param request 檔案中繼資料
+     * @return 預簽名上傳 URL 與物件名稱
+     */
+    public PresignedUploadResponse presign(PresignUploadRequest request) {
+        String folder = request.getFolder() == null || request.getFolder().isBlank()
+                ? "general" : request.getFolder();
+        if (!FOLDER_PATTERN.matcher(folder).matches() || ImageVariant.FOLDER.equals(folder)) {
+            throw new IllegalArgumentException("無效的資料夾名稱: " + folder);
+        }
+        FileValidator.validateImageMetadata(request.getFilename(), request.getContentType(), request.getFileSize());
+
+        String extension = FileValidator.getFileExtension(request.getFilename()).toLowerCase();
+        String objectKey = folder + "/" + TimeOrderedId.next() + extension;
+        String uploadUrl = storageService.createPresignedUploadUrl(BUCKET, objectKey, expirySeconds);
+
+        log.info("核發直傳上傳 URL - 檔案名稱: {}, 大小: {} bytes, 物件: {}",
+                request.getFilename(), request.getFileSize(), objectKey);
+
+        return PresignedUploadResponse.builder()
+                .uploadUrl(uploadUrl)
+                .method("PUT")
+                .objectKey(objectKey)
+                .fileUrl(storageService.getFileUrl(BUCKET, objectKey))
+                .contentType(request.getContentType().toLowerCase())
+                .expiresAt(LocalDateTime.now().plusSeconds(expirySeconds))
+                .build();
+    }
+
+    /**
+     * 確認直傳上傳完成，驗證物件並登記圖片資產
+     *
+     * @param request 物件名稱
+     * @return 檔案上傳結果
+     */
+    public FileUploadResponse confirm(ConfirmUploadRequest request) {
+        String objectKey = request.getObjectKey();
+        if (!OBJECT_KEY_PATTERN.matcher(objectKey).matches()) {
+            throw new IllegalArgumentException("無效的物件名稱: " + objectKey);
+        }
+
+        StoredObjectInfo info = storageService.statObject(BUCKET, objectKey)
+                .orElseThrow(() -> new ResourceNotFoundException("上傳的檔案不存在: " + objectKey));
+        String fileUrl = storageService.getFileUrl(BUCKET, objectKey);
+
+        try {
+            FileValidator.validateImageMetadata(objectKey, info.contentType(), info.size());
+        } catch (IllegalArgumentException e) {
+            log.warn("直傳檔案驗證失敗，刪除物件 - 物件: {}, error: {}", objectKey, e.getMessage());
+            storageService.deleteFile(fileUrl);
+            throw e;
+        }
+
+        // 登記圖片資產，背景產生衍生圖（失敗不影響上傳結果，原圖仍可使用）
+        try {
+            imageDerivativeService.registerUploaded(fileUrl);
+        } catch (Exception e) {
+            log.error("圖片資產登記失敗 - URL: {}, error: {}", fileUrl, e.getMessage(), e);
+        }
+
+        log.info("直傳上傳確認完成 - URL: {}, 大小: {} bytes", fileUrl, info.size());
+        return new FileUploadResponse(
+                fileUrl,
+                request.getOriginalFilename(),
+                info.size(),
+                info.contentType()
+        );
+    }
+}
@@ -1,7 +1,14 @@
 package com.morningharvest.erp.storage.service;
 
+import com.morningharvest.erp.storage.dto.StoredObject;
+import com.morningharvest.erp.storage.dto.StoredObjectInfo;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.InputStream;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
 /**
  * 檔案儲存服務介面
  * 定義檔案上傳、刪除、URL 生成等操作
@@ -24,6 +31,61 @@ public interface StorageService {
      */
     void deleteFile(String fileUrl);
 
+    /**
+     * 下載檔案內容
+     *
+     * @param fileUrl 檔案 URL
+     * @return 檔案內容
+     */
+    byte[] downloadFile(String fileUrl);
+
+    /**
+     * 開啟物件內容串流（呼叫端負責關閉）
+     *
+     * @param bucket bucket 名稱
+     * @param objectName 物件名稱（含路徑）
+     * @return 物件內容串流
+     */
+    InputStream openObject(String bucket, String objectName);
+
+    /**
+     * 以指定物件名稱寫入檔案（覆寫同名物件）
+     *
+     * @param bucket bucket 名稱
+     * @param objectName 物件名稱（含路徑）
+     * @param content 檔案內容
+     * @param contentType 檔案類型
+     * @return 檔案的完整 URL
+     */
+    String putObject(String bucket, String objectName, byte[] content, String contentType);
+
+    /**
+     * 物件是否存在
+     *
+     * @param bucket bucket 名稱
+     * @param objectName 物件名稱（含路徑）
+     */
+    boolean objectExists(String bucket, String objectName);
+
+    /**
+     * 查詢物件資訊
+     *
+     * @param bucket bucket 名稱
+     * @param objectName 物件名稱（含路徑）
+     * @return 物件資訊，不存在時為空
+     */
+    Optional<StoredObjectInfo> statObject(String bucket, String objectName);
+
+    /**
+     * 產生直接上傳用的預簽章 PUT URL
+     *
+     * @param bucket bucket 名稱
+     * @param objectName 物件名稱（含路徑）
+     * @param expirySeconds 有效秒數
+     * @return 預簽章 URL
+     */
+    String createPresignedUploadUrl(String bucket, String objectName, int expirySeconds);
+
     /**
      * 取得檔案的完整 URL
      *
@@ -32,4 +94,29 @@ public interface StorageService {
      * @return 檔案的完整 URL
      */
     String getFileUrl(String bucket, String objectName);
+
+    /**
+     * 串流列出 bucket 內所有物件（分頁向儲存系統取得，使用後須關閉）
+     *
+     * @param bucket bucket 名稱
+     * @return 物件串流
+     */
+    Stream<StoredObject> listObjects(String bucket);
+
+    /**
+     * 批次刪除物件
+     *
+     * @param bucket bucket 名稱
+     * @param objectNames 物件名稱（含路徑）
+     * @return 刪除失敗的物件名稱
+     */
+    List<String> deleteObjects(String bucket, List<String> objectNames);
+
+    /**
+     * 將檔案 URL 轉為「bucket/物件名稱」
+     *
+     * @param fileUrl 檔案 URL
+     * @return bucket/物件名稱，非本儲存系統的 URL 時為空
+     */
+    Optional<String> toObjectPath(String fileUrl);
 }
@@ -0,0 +1,70 @@
+package com.morningharvest.erp.storage.util;
+
+/**
+ * HTTP Range 請求的單一位元組區間
+ *
+ * @param start 起始位置（含）
+ * @param end   結束位置（含）
+ */
+public record ByteRange(long start, long end) {
+
+    /**
+     * 區間超出內容範圍（回應 416）
+     */
+    public static final ByteRange UNSATISFIABLE = new ByteRange(-1, -1);
+
+    public long length() {
+        return end - start + 1;
+    }
+
+    public boolean isSatisfiable() {
+        return start >= 0;
+    }
+
+    /**
+     * 解析 Range 標頭
+     *
+     * 只支援單一區間（bytes=a-b、bytes=a-、bytes=-n）；多區間或格式不符時依 RFC 9110 忽略 Range，回傳完整內容
+     *
+     * @param header Range 標頭
+     * @param size   內容大小（位元組）
+     * @return 區間；應回傳完整內容時為 null，超出範圍時為 {@link #UNSATISFIABLE}
+     */
+    public static ByteRange parse(String header, long size) {
+        if (header == null || !header.startsWith("bytes=")) {
+            return null;
+        }
+        String spec = header.substring("bytes=".length()).trim();
+        int dash = spec.indexOf('-');
+        if (dash < 0 || spec.indexOf(',') >= 0) {
+            return null;
+        }
+        String first = spec.substring(0, dash).trim();
+        String last = spec.substring(dash + 1).trim();
+        try {
+            if (first.isEmpty()) {
+                // 最後 n 個位元組
+                if (last.isEmpty()) {
+                    return null;
+                }
+                long suffix = Long.parseLong(last);
+                if (suffix <= 0 || size == 0) {
+                    return UNSATISFIABLE;
+                }
+                return new ByteRange(Math.max(0, size - suffix), size - 1);
+            }
+            long start = Long.parseLong(first);
+            // 未指定結束位置時到內容結尾；只有明確指定的結束位置小於起始位置才視為格式不符
+            long end = last.isEmpty() ? Long.MAX_VALUE : Long.parseLong(last);
+            if (start < 0 || end < start) {
+                return null;
+            }
+            if (start >= size) {
+                return UNSATISFIABLE;
+            }
+            return new ByteRange(start, Math.min(end, size - 1));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
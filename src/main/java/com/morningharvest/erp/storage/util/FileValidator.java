@@ -36,15 +36,29 @@ public class FileValidator {
             throw new IllegalArgumentException("檔案不能為空");
         }
 
+        validateImageMetadata(file.getOriginalFilename(), file.getContentType(), file.getSize());
+    }
+
+    /**
+     * 依檔名、類型、大小驗證圖片（直傳物件儲存時，API 只取得中繼資料）
+     *
+     * @param originalFilename 原始檔名
+     * @param contentType 檔案類型
+     * @param size 檔案大小（位元組）
+     * @throws IllegalArgumentException 如果檔案無效
+     */
+    public static void validateImageMetadata(String originalFilename, String contentType, long size) {
         // 檢查檔案大小
-        if (file.getSize() > MAX_FILE_SIZE) {
+        if (size <= 0) {
+            throw new IllegalArgumentException("檔案不能為空");
+        }
+        if (size > MAX_FILE_SIZE) {
             throw new IllegalArgumentException(
                     String.format("檔案大小不能超過 %d MB", MAX_FILE_SIZE / 1024 / 1024)
             );
         }
 
         // 檢查檔案名稱
-        String originalFilename = file.getOriginalFilename();
         if (originalFilename == null || originalFilename.trim().isEmpty()) {
             throw new IllegalArgumentException("檔案名稱不能為空");
         }
@@ -58,7 +72,6 @@ public class FileValidator {
         }
 
         // 檢查 MIME 類型
-        String contentType = file.getContentType();
         if (contentType == null || !ALLOWED_IMAGE_MIME_TYPES.contains(contentType.toLowerCase())) {
             throw new IllegalArgumentException(
                     "不支援的檔案類型。允許的類型：" + String.join(", ", ALLOWED_IMAGE_MIME_TYPES)
@@ -95,7 +108,7 @@ public class FileValidator {
     /**
      * 取得檔案副檔名（含點號）
      */
-    private static String getFileExtension(String filename) {
+    public static String getFileExtension(String filename) {
         if (filename == null || !filename.contains(".")) {
             return "";
         }
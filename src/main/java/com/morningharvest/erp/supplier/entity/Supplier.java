@@ -1,5 +1,6 @@
 package com.morningharvest.erp.supplier.entity;
 
+import com.morningharvest.erp.search.listener.SearchIndexEntityListener;
 import jakarta.persistence.*;
 import lombok.*;
 
@@ -9,6 +10,7 @@ import java.time.LocalDateTime;
  * 供應商實體
  */
 @Entity
+@EntityListeners(SearchIndexEntityListener.class)
 @Table(name = "suppliers")
 @Getter
 @Setter
@@ -1,13 +1,17 @@
 package com.morningharvest.erp.table.dto;
 
 import com.morningharvest.erp.table.entity.DiningTable;
+import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
+import lombok.NoArgsConstructor;
 
 import java.time.LocalDateTime;
 
 @Data
 @Builder
+@NoArgsConstructor
+@AllArgsConstructor
 public class TableDTO {
 
     private Long id;
@@ -1,5 +1,6 @@
 package com.morningharvest.erp.table.service;
 
+import com.morningharvest.erp.common.cache.CacheNames;
 import com.morningharvest.erp.common.dto.PageResponse;
 import com.morningharvest.erp.common.dto.PageableRequest;
 import com.morningharvest.erp.common.exception.ResourceNotFoundException;
@@ -11,6 +12,8 @@ import com.morningharvest.erp.table.entity.DiningTable;
 import com.morningharvest.erp.table.repository.DiningTableRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.domain.Page;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -25,6 +28,7 @@ public class TableService {
     private final DiningTableRepository diningTableRepository;
 
     @Transactional
+    @CacheEvict(cacheNames = {CacheNames.TABLES, CacheNames.ACTIVE_TABLES}, allEntries = true)
     public TableDTO createTable(CreateTableRequest request) {
         log.info("建立桌位: {}", request.getTableNumber());
 
@@ -48,6 +52,7 @@ public class TableService {
     }
 
     @Transactional
+    @CacheEvict(cacheNames = {CacheNames.TABLES, CacheNames.ACTIVE_TABLES}, allEntries = true)
     public TableDTO updateTable(Long id, UpdateTableRequest request) {
         log.info("更新桌位, id: {}", id);
 
@@ -80,6 +85,7 @@ public class TableService {
     }
 
     @Transactional
+    @CacheEvict(cacheNames = {CacheNames.TABLES, CacheNames.ACTIVE_TABLES}, allEntries = true)
     public void deleteTable(Long id) {
         log.info("刪除桌位, id: {}", id);
 
@@ -98,6 +104,7 @@ public class TableService {
     }
 
     @Transactional(readOnly = true)
+    @Cacheable(cacheNames = CacheNames.TABLES, key = "#id")
     public TableDTO getTableById(Long id) {
         log.debug("查詢桌位, id: {}", id);
 
@@ -124,6 +131,7 @@ public class TableService {
     }
 
     @Transactional(readOnly = true)
+    @Cacheable(cacheNames = CacheNames.ACTIVE_TABLES, key = "'all'")
     public List<TableDTO> listAllActiveTables() {
         log.debug("查詢所有啟用桌位");
         return diningTableRepository.findByIsActiveTrueOrderByTableNumberAsc()
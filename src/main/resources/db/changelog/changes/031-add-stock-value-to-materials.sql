@@ -0,0 +1,10 @@
+--liquibase formatted sql
+
+--changeset morning-harvest:031-add-stock-value-to-materials
+--comment: 新增原物料庫存總值欄位 (移動加權平均成本)
+
+ALTER TABLE materials
+    ADD COLUMN stock_value DECIMAL(14, 4) COMMENT '庫存總值 (移動加權平均成本用，應用層維護)' AFTER cost_price;
+
+UPDATE materials
+SET stock_value = COALESCE(current_stock_quantity, 0) * COALESCE(cost_price, 0);
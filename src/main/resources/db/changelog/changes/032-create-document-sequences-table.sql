@@ -0,0 +1,23 @@
+--liquibase formatted sql
+
+--changeset morning-harvest:032-create-document-sequences-table
+--comment: 建立單據流水號表
+
+CREATE TABLE document_sequences (
+    seq_key VARCHAR(50) PRIMARY KEY COMMENT '序號鍵 (前綴-日期，例如 PO-20251205)',
+    next_value BIGINT NOT NULL COMMENT '下一個可配置的序號',
+    updated_at DATETIME(6) DEFAULT CURRENT_TIMESTAMP(6) ON UPDATE CURRENT_TIMESTAMP(6) COMMENT '更新時間'
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_0900_ai_ci COMMENT='單據流水號表';
+
+-- 由既有單號接續序號，避免與當日已產生的單號重複
+INSERT INTO document_sequences (seq_key, next_value)
+SELECT SUBSTRING(purchase_number, 1, 11), MAX(CAST(SUBSTRING(purchase_number, 13) AS UNSIGNED)) + 1
+FROM purchases
+WHERE purchase_number LIKE 'PO-________-%'
+GROUP BY SUBSTRING(purchase_number, 1, 11);
+
+INSERT INTO document_sequences (seq_key, next_value)
+SELECT SUBSTRING(check_number, 1, 11), MAX(CAST(SUBSTRING(check_number, 13) AS UNSIGNED)) + 1
+FROM inventory_checks
+WHERE check_number LIKE 'IC-________-%'
+GROUP BY SUBSTRING(check_number, 1, 11);
@@ -0,0 +1,30 @@
+--liquibase formatted sql
+
+--changeset morning-harvest:033-create-menu-schedules-table
+--comment: 建立菜單時段表與時段菜單項目表
+
+CREATE TABLE menu_schedules (
+    id BIGINT PRIMARY KEY AUTO_INCREMENT COMMENT '菜單時段ID',
+    name VARCHAR(50) NOT NULL COMMENT '時段名稱 (如: 早餐、午餐、週末早午餐)',
+    start_time TIME NOT NULL COMMENT '每日開始時間 (含)',
+    end_time TIME NOT NULL COMMENT '每日結束時間 (不含)，小於開始時間表示跨夜',
+    days_of_week VARCHAR(100) COMMENT '適用星期 (逗號分隔，如 SATURDAY,SUNDAY)，空值表示每天',
+    effective_from DATE COMMENT '生效日 (含)，空值表示不限',
+    effective_to DATE COMMENT '失效日 (含)，空值表示不限',
+    priority INT NOT NULL DEFAULT 0 COMMENT '優先序，多個時段重疊時取數值大者',
+    is_active BOOLEAN DEFAULT TRUE COMMENT '是否啟用',
+    created_at DATETIME(6) NOT NULL COMMENT '建立時間',
+    updated_at DATETIME(6) NOT NULL COMMENT '更新時間'
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_0900_ai_ci COMMENT='菜單時段表';
+
+CREATE TABLE menu_schedule_items (
+    id BIGINT PRIMARY KEY AUTO_INCREMENT COMMENT '時段菜單項目ID',
+    schedule_id BIGINT NOT NULL COMMENT '菜單時段ID',
+    item_type VARCHAR(20) NOT NULL COMMENT '項目類型 (SINGLE/COMBO)',
+    item_id BIGINT NOT NULL COMMENT '商品ID或套餐ID',
+    price_override DECIMAL(10, 2) COMMENT '時段售價，空值表示沿用原售價',
+    created_at DATETIME(6) NOT NULL COMMENT '建立時間',
+    updated_at DATETIME(6) NOT NULL COMMENT '更新時間',
+    UNIQUE KEY uk_schedule_item (schedule_id, item_type, item_id),
+    INDEX idx_schedule_id (schedule_id)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_0900_ai_ci COMMENT='時段菜單項目表';
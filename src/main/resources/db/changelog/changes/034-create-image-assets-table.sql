@@ -0,0 +1,20 @@
+--liquibase formatted sql
+
+--changeset morning-harvest:034-create-image-assets-table
+--comment: 建立圖片資產表（原圖與縮圖衍生狀態）
+
+CREATE TABLE image_assets (
+    id BIGINT PRIMARY KEY AUTO_INCREMENT COMMENT '圖片資產ID',
+    source_url VARCHAR(500) NOT NULL COMMENT '原圖 URL',
+    content_hash CHAR(64) NOT NULL COMMENT '原圖內容 SHA-256，衍生圖依此命名',
+    status VARCHAR(20) NOT NULL COMMENT '衍生狀態 (PENDING/READY/FAILED)',
+    width INT COMMENT '原圖寬度 (px)',
+    height INT COMMENT '原圖高度 (px)',
+    attempts INT NOT NULL DEFAULT 0 COMMENT '已嘗試產生次數',
+    error_message VARCHAR(500) COMMENT '最後一次失敗原因',
+    created_at DATETIME(6) NOT NULL COMMENT '建立時間',
+    updated_at DATETIME(6) NOT NULL COMMENT '更新時間',
+    UNIQUE KEY uk_source_url (source_url),
+    INDEX idx_content_hash (content_hash),
+    INDEX idx_status (status)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_0900_ai_ci COMMENT='圖片資產表';
@@ -0,0 +1,7 @@
+--liquibase formatted sql
+
+--changeset morning-harvest:035-allow-pending-image-asset-hash
+--comment: 直傳物件儲存的圖片於背景計算內容雜湊，登記時雜湊可為空
+
+ALTER TABLE image_assets
+    MODIFY COLUMN content_hash CHAR(64) NULL COMMENT '原圖內容 SHA-256，衍生圖依此命名；直傳圖片於產生衍生圖時計算';
@@ -0,0 +1,20 @@
+--liquibase formatted sql
+
+--changeset morning-harvest:036-create-event-outbox-table
+--comment: 建立事件 outbox 表（與業務資料同一交易寫入，提交後派送）
+
+CREATE TABLE event_outbox (
+    id BIGINT PRIMARY KEY AUTO_INCREMENT COMMENT 'outbox ID（派送順序）',
+    event_id VARCHAR(36) NOT NULL COMMENT '事件唯一識別碼',
+    event_type VARCHAR(255) NOT NULL COMMENT '事件類別完整名稱',
+    aggregate_key VARCHAR(100) NOT NULL COMMENT '聚合鍵，同鍵事件依序派送',
+    payload MEDIUMTEXT NOT NULL COMMENT '事件內容 (JSON)',
+    status VARCHAR(20) NOT NULL COMMENT '派送狀態 (PENDING/DISPATCHED/FAILED)',
+    attempts INT NOT NULL DEFAULT 0 COMMENT '派送失敗次數',
+    last_error VARCHAR(500) COMMENT '最後一次失敗原因',
+    created_at DATETIME(6) NOT NULL COMMENT '建立時間',
+    dispatched_at DATETIME(6) COMMENT '派送時間',
+    UNIQUE KEY uk_event_id (event_id),
+    INDEX idx_status_id (status, id),
+    INDEX idx_dispatched_at (dispatched_at)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_0900_ai_ci COMMENT='事件 outbox 表';
@@ -0,0 +1,22 @@
+--liquibase formatted sql
+
+--changeset morning-harvest:037-create-event-dead-letter-table
+--comment: 建立事件死信表（監聽器處理失敗的事件，自動重試與人工重送）
+
+CREATE TABLE event_dead_letter (
+    id BIGINT PRIMARY KEY AUTO_INCREMENT COMMENT '死信 ID',
+    event_id VARCHAR(36) NOT NULL COMMENT '事件唯一識別碼',
+    event_type VARCHAR(255) NOT NULL COMMENT '事件類別完整名稱',
+    aggregate_key VARCHAR(100) NOT NULL COMMENT '聚合鍵',
+    listener VARCHAR(255) NOT NULL COMMENT '監聽器（類別完整名稱#方法名稱）',
+    payload MEDIUMTEXT NOT NULL COMMENT '事件內容 (JSON)',
+    status VARCHAR(20) NOT NULL COMMENT '狀態 (PENDING/DEAD/RESOLVED/DISCARDED)',
+    attempts INT NOT NULL DEFAULT 0 COMMENT '失敗次數',
+    last_error VARCHAR(1000) COMMENT '最後一次失敗原因',
+    next_retry_at DATETIME(6) COMMENT '下次重試時間',
+    created_at DATETIME(6) NOT NULL COMMENT '建立時間',
+    updated_at DATETIME(6) NOT NULL COMMENT '更新時間',
+    UNIQUE KEY uk_event_listener (event_id, listener),
+    INDEX idx_status_next_retry (status, next_retry_at),
+    INDEX idx_status_updated_at (status, updated_at)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_0900_ai_ci COMMENT='事件死信表';
@@ -0,0 +1,13 @@
+--liquibase formatted sql
+
+--changeset morning-harvest:038-create-processed-event-table
+--comment: 建立已處理事件表（冪等監聽器，與監聽器交易一同提交）
+
+CREATE TABLE processed_event (
+    id BIGINT PRIMARY KEY AUTO_INCREMENT COMMENT 'ID',
+    event_id VARCHAR(36) NOT NULL COMMENT '事件唯一識別碼',
+    listener VARCHAR(255) NOT NULL COMMENT '監聽器（類別完整名稱#方法名稱）',
+    processed_at DATETIME(6) NOT NULL COMMENT '處理時間',
+    UNIQUE KEY uk_event_listener (event_id, listener),
+    INDEX idx_processed_at (processed_at)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_0900_ai_ci COMMENT='已處理事件表';
@@ -0,0 +1,8 @@
+--liquibase formatted sql
+
+--changeset morning-harvest:039-add-event-outbox-next-attempt
+--comment: outbox 改為短交易認領後派送，發布失敗依退避時間重試
+
+ALTER TABLE event_outbox
+    ADD COLUMN next_attempt_at DATETIME(6) NULL COMMENT '下次可派送時間（認領期限或失敗退避），NULL 表示立即可派送' AFTER last_error,
+    ADD INDEX idx_aggregate_status_id (aggregate_key, status, id);
@@ -0,0 +1,291 @@
+package com.morningharvest.erp.catalog.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.morningharvest.erp.catalog.constant.CatalogLineType;
+import com.morningharvest.erp.catalog.dto.CatalogImportResultDTO;
+import com.morningharvest.erp.catalog.event.CatalogImportedEvent;
+import com.morningharvest.erp.combo.entity.Combo;
+import com.morningharvest.erp.combo.entity.ComboItem;
+import com.morningharvest.erp.combo.repository.ComboItemRepository;
+import com.morningharvest.erp.combo.repository.ComboRepository;
+import com.morningharvest.erp.common.event.EventPublisher;
+import com.morningharvest.erp.common.test.TestDataFactory;
+import com.morningharvest.erp.material.repository.MaterialRepository;
+import com.morningharvest.erp.product.repository.ProductCategoryRepository;
+import com.morningharvest.erp.product.repository.ProductOptionGroupRepository;
+import com.morningharvest.erp.product.repository.ProductOptionValueRepository;
+import com.morningharvest.erp.product.repository.ProductRecipeRepository;
+import com.morningharvest.erp.product.repository.ProductRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("CatalogBundleService 單元測試")
+class CatalogBundleServiceTest {
+
+    @Mock
+    private ProductCategoryRepository productCategoryRepository;
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @Mock
+    private ProductOptionGroupRepository productOptionGroupRepository;
+
+    @Mock
+    private ProductOptionValueRepository productOptionValueRepository;
+
+    @Mock
+    private ComboRepository comboRepository;
+
+    @Mock
+    private ComboItemRepository comboItemRepository;
+
+    @Mock
+    private ProductRecipeRepository productRecipeRepository;
+
+    @Mock
+    private MaterialRepository materialRepository;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper();
+
+    @Mock
+    private EventPublisher eventPublisher;
+
+    @InjectMocks
+    private CatalogBundleService catalogBundleService;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(catalogBundleService, "maxLines", 100);
+        ReflectionTestUtils.setField(catalogBundleService, "batchSize", 2);
+        ReflectionTestUtils.setField(catalogBundleService, "maxErrors", 10);
+    }
+
+    private static MockMultipartFile bundle(String... lines) {
+        return new MockMultipartFile("file", "catalog.jsonl", "application/x-ndjson",
+                String.join("\n", lines).getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * 模擬寫入後以名稱取回 ID 的查詢，回傳一列
+     */
+    private void givenGeneratedId(String table, Long id, String name, Long productId) throws Exception {
+        ResultSet rs = mock(ResultSet.class);
+        when(rs.getLong("id")).thenReturn(id);
+        when(rs.getString("name")).thenReturn(name);
+        if (productId != null) {
+            when(rs.getLong("product_id")).thenReturn(productId);
+        }
+        doAnswer(invocation -> {
+            invocation.getArgument(2, RowCallbackHandler.class).processRow(rs);
+            return null;
+        }).when(namedParameterJdbcTemplate).query(contains("FROM " + table + " "), anyMap(), any(RowCallbackHandler.class));
+    }
+
+    @Nested
+    @DisplayName("importBundle 方法測試")
+    class ImportTests {
+
+        @Test
+        @DisplayName("依相依順序批次寫入並以取回的 ID 串接下層資料")
+        void importBundle_Success() throws Exception {
+            // Given
+            when(materialRepository.findAll()).thenReturn(List.of(
+                    TestDataFactory.defaultMaterial().id(7L).code("M001").name("雞蛋").build()));
+            givenGeneratedId("product_categories", 1L, "蛋餅類", null);
+            givenGeneratedId("products", 2L, "蛋餅", null);
+            givenGeneratedId("product_option_groups", 3L, "辣度", 2L);
+            givenGeneratedId("combos", 4L, "早安套餐", null);
+
+            MockMultipartFile file = bundle(
+                    "\uFEFF{\"type\":\"CATEGORY\",\"name\":\"蛋餅類\",\"sortOrder\":1}",
+                    "{\"type\":\"PRODUCT\",\"name\":\"蛋餅\",\"price\":35,\"category\":\"蛋餅類\"}",
+                    "",
+                    "{\"type\":\"OPTION_GROUP\",\"product\":\"蛋餅\",\"name\":\"辣度\",\"minSelections\":0,\"maxSelections\":1}",
+                    "{\"type\":\"OPTION_VALUE\",\"product\":\"蛋餅\",\"group\":\"辣度\",\"name\":\"小辣\"}",
+                    "{\"type\":\"OPTION_VALUE\",\"product\":\"蛋餅\",\"group\":\"辣度\",\"name\":\"大辣\",\"priceAdjustment\":5}",
+                    "{\"type\":\"COMBO\",\"name\":\"早安套餐\",\"price\":79,\"category\":\"蛋餅類\"}",
+                    "{\"type\":\"COMBO_ITEM\",\"combo\":\"早安套餐\",\"product\":\"蛋餅\",\"quantity\":1}",
+                    "{\"type\":\"RECIPE\",\"product\":\"蛋餅\",\"materialCode\":\"M001\",\"quantity\":1.5}");
+
+            // When
+            CatalogImportResultDTO result = catalogBundleService.importBundle(file);
+
+            // Then
+            assertThat(result.getSuccess()).isTrue();
+            assertThat(result.getTotalLines()).isEqualTo(8);
+            assertThat(result.getImportedCounts())
+                    .containsEntry(CatalogLineType.CATEGORY, 1)
+                    .containsEntry(CatalogLineType.OPTION_VALUE, 2)
+                    .containsEntry(CatalogLineType.RECIPE, 1);
+
+            @SuppressWarnings("unchecked")
+            ArgumentCaptor<List<Object[]>> captor = ArgumentCaptor.forClass(List.class);
+            verify(jdbcTemplate).batchUpdate(startsWith("INSERT INTO products "), captor.capture());
+            assertThat(captor.getValue().get(0)[4]).isEqualTo(1L);
+
+            verify(jdbcTemplate).batchUpdate(startsWith("INSERT INTO product_option_values"), captor.capture());
+            assertThat(captor.getValue()).hasSize(2);
+            assertThat(captor.getValue().get(1)[0]).isEqualTo(3L);
+            assertThat(captor.getValue().get(1)[2]).isEqualTo(new BigDecimal("5"));
+
+            verify(jdbcTemplate).batchUpdate(startsWith("INSERT INTO combo_items"), captor.capture());
+            assertThat(captor.getValue().get(0)).startsWith(4L, 2L, "蛋餅", 1);
+
+            verify(jdbcTemplate).batchUpdate(startsWith("INSERT INTO product_recipes"), captor.capture());
+            assertThat(captor.getValue().get(0)).startsWith(2L, "蛋餅", 7L, "M001", "雞蛋");
+
+            ArgumentCaptor<CatalogImportedEvent> eventCaptor = ArgumentCaptor.forClass(CatalogImportedEvent.class);
+            verify(eventPublisher).publish(eventCaptor.capture(), anyString());
+            assertThat(eventCaptor.getValue().getRecipeProductIds()).containsExactly(2L);
+        }
+
+        @Test
+        @DisplayName("參照既有資料，不需重新寫入")
+        void importBundle_ReferencesExisting() {
+            // Given
+            when(productRepository.findAll()).thenReturn(List.of(
+                    TestDataFactory.defaultProduct().id(5L).name("大冰奶").build()));
+            when(comboRepository.findAll()).thenReturn(List.of(
+                    Combo.builder().id(6L).name("早安套餐").build()));
+
+            MockMultipartFile file = bundle(
+                    "{\"type\":\"COMBO_ITEM\",\"combo\":\"早安套餐\",\"product\":\"大冰奶\",\"quantity\":2}");
+
+            // When
+            CatalogImportResultDTO result = catalogBundleService.importBundle(file);
+
+            // Then
+            assertThat(result.getSuccess()).isTrue();
+            @SuppressWarnings("unchecked")
+            ArgumentCaptor<List<Object[]>> captor = ArgumentCaptor.forClass(List.class);
+            verify(jdbcTemplate).batchUpdate(startsWith("INSERT INTO combo_items"), captor.capture());
+            assertThat(captor.getValue().get(0)).startsWith(6L, 5L, "大冰奶", 2);
+            verify(jdbcTemplate, never()).batchUpdate(startsWith("INSERT INTO products "), anyList());
+        }
+
+        @Test
+        @DisplayName("驗證失敗時不寫入並回傳各行錯誤")
+        void importBundle_ValidationErrors() {
+            // Given
+            when(productRepository.findAll()).thenReturn(List.of(
+                    TestDataFactory.defaultProduct().id(5L).name("大冰奶").build()));
+
+            MockMultipartFile file = bundle(
+                    "{\"type\":\"PRODUCT\",\"name\":\"大冰奶\",\"price\":30}",
+                    "{\"type\":\"OPTION_GROUP\",\"product\":\"薯餅\",\"name\":\"醬料\"}",
+                    "{\"type\":\"OPTION_GROUP\",\"product\":\"大冰奶\",\"name\":\"甜度\",\"minSelections\":2,\"maxSelections\":1}",
+                    "{\"type\":\"ORDER\",\"name\":\"x\"}",
+                    "{not json",
+                    "{\"type\":\"RECIPE\",\"product\":\"大冰奶\",\"materialCode\":\"M999\",\"quantity\":1}");
+
+            // When
+            CatalogImportResultDTO result = catalogBundleService.importBundle(file);
+
+            // Then
+            assertThat(result.getSuccess()).isFalse();
+            assertThat(result.getErrors()).extracting(CatalogImportResultDTO.LineError::getLineNumber)
+                    .containsExactly(1, 2, 3, 4, 5, 6);
+            assertThat(result.getErrors().get(0).getMessage()).contains("商品名稱已存在");
+            assertThat(result.getErrors().get(1).getMessage()).contains("商品不存在");
+            assertThat(result.getErrors().get(2).getMessage()).contains("最少選擇數不可大於最多選擇數");
+            assertThat(result.getErrors().get(4).getMessage()).contains("格式錯誤");
+            assertThat(result.getErrors().get(5).getMessage()).contains("原物料不存在");
+            verifyNoInteractions(jdbcTemplate, eventPublisher);
+        }
+
+        @Test
+        @DisplayName("同一資料包內重複的套餐項目與非整數數量")
+        void importBundle_DuplicateInBundle() {
+            // Given
+            when(productRepository.findAll()).thenReturn(List.of(
+                    TestDataFactory.defaultProduct().id(5L).name("大冰奶").build()));
+            when(comboRepository.findAll()).thenReturn(List.of(
+                    Combo.builder().id(6L).name("早安套餐").build()));
+
+            MockMultipartFile file = bundle(
+                    "{\"type\":\"COMBO_ITEM\",\"combo\":\"早安套餐\",\"product\":\"大冰奶\"}",
+                    "{\"type\":\"COMBO_ITEM\",\"combo\":\"早安套餐\",\"product\":\"大冰奶\",\"quantity\":2}",
+                    "{\"type\":\"COMBO_ITEM\",\"combo\":\"早安套餐\",\"product\":\"大冰奶\",\"quantity\":1.5}");
+
+            // When
+            CatalogImportResultDTO result = catalogBundleService.importBundle(file);
+
+            // Then
+            assertThat(result.getSuccess()).isFalse();
+            assertThat(result.getErrors()).hasSize(2);
+            assertThat(result.getErrors().get(0).getMessage()).contains("此套餐已包含此商品");
+            assertThat(result.getErrors().get(1).getMessage()).contains("數量必須為正整數");
+        }
+
+        @Test
+        @DisplayName("空檔案拋出例外")
+        void importBundle_EmptyFile_ThrowsException() {
+            assertThatThrownBy(() -> catalogBundleService.importBundle(bundle()))
+                    .isInstanceOf(IllegalArgumentException.class)
+                    .hasMessageContaining("檔案不能為空");
+        }
+    }
+
+    @Nested
+    @DisplayName("exportBundle 方法測試")
+    class ExportTests {
+
+        @Test
+        @DisplayName("依相依順序輸出，並以名稱取代 ID")
+        void exportBundle_WritesLinesByName() throws Exception {
+            // Given
+            when(productCategoryRepository.findAll()).thenReturn(List.of(
+                    TestDataFactory.defaultCategory().id(1L).name("蛋餅類").build()));
+            when(productRepository.findAll()).thenReturn(List.of(
+                    TestDataFactory.defaultProduct().id(2L).name("蛋餅").categoryId(1L).build()));
+            when(comboRepository.findAll()).thenReturn(List.of(
+                    Combo.builder().id(4L).name("早安套餐").price(new BigDecimal("79.00")).build()));
+            when(comboItemRepository.findAll()).thenReturn(List.of(
+                    ComboItem.builder().comboId(4L).productId(2L).quantity(1).sortOrder(0).build()));
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+            // When
+            int lines = catalogBundleService.exportBundle(out);
+
+            // Then
+            String[] written = out.toString(StandardCharsets.UTF_8).split("\n");
+            assertThat(lines).isEqualTo(4).isEqualTo(written.length);
+            assertThat(written[0]).contains("\"type\":\"CATEGORY\"", "\"name\":\"蛋餅類\"");
+            assertThat(written[1]).contains("\"type\":\"PRODUCT\"", "\"category\":\"蛋餅類\"").doesNotContain("\"id\"");
+            assertThat(written[3]).contains("\"combo\":\"早安套餐\"", "\"product\":\"蛋餅\"");
+        }
+    }
+}
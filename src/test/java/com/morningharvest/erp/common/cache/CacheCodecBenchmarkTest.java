@@ -0,0 +1,209 @@
+package com.morningharvest.erp.common.cache;
+
+import com.fasterxml.jackson.annotation.JsonTypeInfo;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.morningharvest.erp.order.dto.OrderDetailDTO;
+import com.morningharvest.erp.order.dto.OrderItemDTO;
+import com.morningharvest.erp.order.dto.OrderItemOptionDTO;
+import com.morningharvest.erp.pos.dto.ComboItemInfoDTO;
+import com.morningharvest.erp.pos.dto.SaleItemDTO;
+import com.morningharvest.erp.pos.dto.SaleItemPayloadDTO;
+import com.morningharvest.erp.product.dto.ProductOptionGroupDetailDTO;
+import com.morningharvest.erp.product.dto.ProductOptionValueDTO;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Redis 快取編碼效能比較
+ *
+ * 比較既有 GenericJackson2JsonRedisSerializer 與 CompactRedisSerializer（JSON / Smile、有無壓縮）
+ * 的編碼大小與編解碼時間。預設不執行：
+ * mvn test -Dtest=CacheCodecBenchmarkTest -Dbenchmark=true
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+@DisplayName("快取編碼效能比較")
+class CacheCodecBenchmarkTest {
+
+    private static final int WARMUP_ITERATIONS = 20_000;
+    private static final int MEASURE_ITERATIONS = 50_000;
+
+    private final ObjectMapper objectMapper = new ObjectMapper()
+            .registerModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+    @Test
+    @DisplayName("SaleItemDTO（套餐含選項）")
+    void benchmarkSaleItem() {
+        run("SaleItemDTO", comboSaleItem(), SaleItemDTO.class);
+    }
+
+    @Test
+    @DisplayName("OrderDetailDTO（8 筆明細）")
+    void benchmarkOrderDetail() {
+        run("OrderDetailDTO", orderDetail(), OrderDetailDTO.class);
+    }
+
+    private <T> void run(String label, T value, Class<T> type) {
+        Map<String, RedisSerializer<Object>> codecs = new LinkedHashMap<>();
+        codecs.put("generic-json", new GenericJackson2JsonRedisSerializer(objectMapper.copy()
+                .activateDefaultTyping(objectMapper.getPolymorphicTypeValidator(),
+                        ObjectMapper.DefaultTyping.NON_FINAL, JsonTypeInfo.As.PROPERTY)));
+        codecs.put("compact-json", typed(CacheCodecFormat.JSON, type, 0));
+        codecs.put("compact-json+deflate", typed(CacheCodecFormat.JSON, type, 256));
+        codecs.put("compact-smile", typed(CacheCodecFormat.SMILE, type, 0));
+        codecs.put("compact-smile+deflate", typed(CacheCodecFormat.SMILE, type, 256));
+
+        System.out.printf("%n%s%n%-24s %8s %12s %12s%n", label, "codec", "bytes", "encode ns", "decode ns");
+        int baseline = -1;
+        for (Map.Entry<String, RedisSerializer<Object>> entry : codecs.entrySet()) {
+            RedisSerializer<Object> codec = entry.getValue();
+            byte[] bytes = codec.serialize(value);
+            assertThat(codec.deserialize(bytes)).isEqualTo(value);
+
+            long encodeNanos = measure(() -> codec.serialize(value));
+            long decodeNanos = measure(() -> codec.deserialize(bytes));
+            System.out.printf("%-24s %8d %12d %12d%n", entry.getKey(), bytes.length, encodeNanos, decodeNanos);
+
+            if (baseline < 0) {
+                baseline = bytes.length;
+            } else {
+                assertThat(bytes.length).isLessThan(baseline);
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> RedisSerializer<Object> typed(CacheCodecFormat format, Class<T> type, int threshold) {
+        ObjectMapper mapper = format.mapper(objectMapper);
+        return (RedisSerializer<Object>) (RedisSerializer<?>)
+                new CompactRedisSerializer<>(mapper, mapper.constructType(type), threshold);
+    }
+
+    private static long measure(Runnable task) {
+        for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+            task.run();
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < MEASURE_ITERATIONS; i++) {
+            task.run();
+        }
+        return (System.nanoTime() - start) / MEASURE_ITERATIONS;
+    }
+
+    private static SaleItemDTO comboSaleItem() {
+        List<ProductOptionGroupDetailDTO> options = new ArrayList<>(List.of(
+                optionGroup(1L, "辣度", "不辣", "小辣", "中辣", "大辣"),
+                optionGroup(2L, "加料", "加蛋", "加起司", "加培根")));
+
+        List<ComboItemInfoDTO> items = new ArrayList<>();
+        List<SaleItemPayloadDTO> payload = new ArrayList<>();
+        String[] names = {"招牌蛋餅", "大冰奶", "薯餅"};
+        for (int i = 0; i < names.length; i++) {
+            items.add(ComboItemInfoDTO.builder()
+                    .productId((long) i + 1)
+                    .productName(names[i])
+                    .quantity(1)
+                    .sortOrder(i)
+                    .optionGroups(options)
+                    .build());
+            payload.add(SaleItemPayloadDTO.builder()
+                    .type("COMBO_ITEM")
+                    .productId((long) i + 1)
+                    .productName(names[i])
+                    .unitPrice(BigDecimal.ZERO)
+                    .comboId(10L)
+                    .comboName("早安套餐")
+                    .comboPrice(new BigDecimal("99.00"))
+                    .quantity(1)
+                    .options(new ArrayList<>())
+                    .build());
+        }
+
+        return SaleItemDTO.builder()
+                .type("COMBO")
+                .id(10L)
+                .name("早安套餐")
+                .description("蛋餅、飲料與薯餅的經典組合")
+                .price(new BigDecimal("99.00"))
+                .imageUrl("https://cdn.example.com/combos/10.webp")
+                .categoryId(3L)
+                .categoryName("套餐")
+                .sortOrder(1)
+                .items(items)
+                .orderPayload(payload)
+                .build();
+    }
+
+    private static ProductOptionGroupDetailDTO optionGroup(Long id, String name, String... values) {
+        LocalDateTime now = LocalDateTime.of(2025, 12, 1, 8, 0);
+        List<ProductOptionValueDTO> valueDTOs = new ArrayList<>();
+        for (int i = 0; i < values.length; i++) {
+            valueDTOs.add(ProductOptionValueDTO.builder()
+                    .id(id * 10 + i)
+                    .groupId(id)
+                    .name(values[i])
+                    .priceAdjustment(new BigDecimal(i * 5))
+                    .sortOrder(i)
+                    .isActive(true)
+                    .createdAt(now)
+                    .updatedAt(now)
+                    .build());
+        }
+        return ProductOptionGroupDetailDTO.builder()
+                .id(id)
+                .productId(1L)
+                .name(name)
+                .minSelections(0)
+                .maxSelections(1)
+                .sortOrder(id.intValue())
+                .isActive(true)
+                .createdAt(now)
+                .updatedAt(now)
+                .values(valueDTOs)
+                .build();
+    }
+
+    private static OrderDetailDTO orderDetail() {
+        LocalDateTime now = LocalDateTime.of(2025, 12, 1, 8, 0);
+        List<OrderItemDTO> items = new ArrayList<>();
+        for (int i = 1; i <= 8; i++) {
+            items.add(OrderItemDTO.builder()
+                    .id((long) i)
+                    .orderId(1L)
+                    .itemType("SINGLE")
+                    .productId((long) i)
+                    .productName("商品" + i)
+                    .unitPrice(new BigDecimal("45.00"))
+                    .quantity(1)
+                    .options(new ArrayList<>(List.of(new OrderItemOptionDTO("加料", "加蛋", new BigDecimal("10.00")))))
+                    .optionsAmount(new BigDecimal("10.00"))
+                    .subtotal(new BigDecimal("55.00"))
+                    .createdAt(now)
+                    .updatedAt(now)
+                    .build());
+        }
+        return OrderDetailDTO.builder()
+                .id(1L)
+                .status("PENDING")
+                .orderType("DINE_IN")
+                .totalAmount(new BigDecimal("440.00"))
+                .items(items)
+                .createdAt(now)
+                .updatedAt(now)
+                .build();
+    }
+}
@@ -0,0 +1,135 @@
+package com.morningharvest.erp.common.cache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.morningharvest.erp.product.dto.ProductDTO;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.serializer.SerializationException;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("CompactRedisSerializer 單元測試")
+class CompactRedisSerializerTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper()
+            .registerModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+    private ProductDTO product(String description) {
+        return ProductDTO.builder()
+                .id(1L)
+                .name("招牌蛋餅")
+                .description(description)
+                .price(new BigDecimal("45.00"))
+                .categoryId(2L)
+                .categoryName("蛋餅")
+                .isActive(true)
+                .sortOrder(1)
+                .createdAt(LocalDateTime.of(2025, 12, 1, 8, 0))
+                .build();
+    }
+
+    private CompactRedisSerializer<ProductDTO> serializer(CacheCodecFormat format, int threshold) {
+        ObjectMapper mapper = format.mapper(objectMapper);
+        return new CompactRedisSerializer<>(mapper, mapper.constructType(ProductDTO.class), threshold);
+    }
+
+    @Nested
+    @DisplayName("編碼與解碼")
+    class RoundTripTests {
+
+        @Test
+        @DisplayName("JSON 格式未達門檻時不壓縮")
+        void roundTrip_Json_Plain() {
+            // Given
+            CompactRedisSerializer<ProductDTO> serializer = serializer(CacheCodecFormat.JSON, 1024);
+            ProductDTO product = product("香煎蛋餅");
+
+            // When
+            byte[] bytes = serializer.serialize(product);
+
+            // Then
+            assertThat(bytes[0]).isZero();
+            assertThat(new String(bytes, 1, bytes.length - 1)).doesNotContain("ProductDTO");
+            assertThat(serializer.deserialize(bytes)).isEqualTo(product);
+        }
+
+        @Test
+        @DisplayName("超過門檻時壓縮")
+        void roundTrip_Compressed() {
+            // Given
+            CompactRedisSerializer<ProductDTO> serializer = serializer(CacheCodecFormat.JSON, 64);
+            ProductDTO product = product("香煎蛋餅".repeat(50));
+
+            // When
+            byte[] bytes = serializer.serialize(product);
+
+            // Then
+            assertThat(bytes[0]).isEqualTo((byte) 1);
+            assertThat(serializer.deserialize(bytes)).isEqualTo(product);
+        }
+
+        @Test
+        @DisplayName("Smile 格式編碼後可還原")
+        void roundTrip_Smile() {
+            // Given
+            CompactRedisSerializer<ProductDTO> serializer = serializer(CacheCodecFormat.SMILE, 0);
+            ProductDTO product = product("香煎蛋餅");
+
+            // When
+            byte[] bytes = serializer.serialize(product);
+
+            // Then
+            assertThat(serializer.deserialize(bytes)).isEqualTo(product);
+        }
+
+        @Test
+        @DisplayName("任意型別序列化器保留物件型別")
+        void roundTrip_AnyType() {
+            // Given
+            CompactRedisSerializer<Object> serializer =
+                    CompactRedisSerializer.forAnyType(CacheCodecFormat.SMILE.mapper(objectMapper), 1024);
+            List<ProductDTO> products = new ArrayList<>(List.of(product("A"), product("B")));
+
+            // When
+            Object result = serializer.deserialize(serializer.serialize(products));
+
+            // Then
+            assertThat(result).isEqualTo(products);
+            assertThat(serializer.deserialize(serializer.serialize("OK"))).isEqualTo("OK");
+        }
+    }
+
+    @Nested
+    @DisplayName("邊界情況")
+    class EdgeCaseTests {
+
+        @Test
+        @DisplayName("null 與空位元組")
+        void nullAndEmpty() {
+            CompactRedisSerializer<ProductDTO> serializer = serializer(CacheCodecFormat.JSON, 1024);
+
+            assertThat(serializer.serialize(null)).isEmpty();
+            assertThat(serializer.deserialize(null)).isNull();
+            assertThat(serializer.deserialize(new byte[0])).isNull();
+        }
+
+        @Test
+        @DisplayName("未知標頭拋出例外")
+        void unknownHeader() {
+            CompactRedisSerializer<ProductDTO> serializer = serializer(CacheCodecFormat.JSON, 1024);
+
+            assertThatThrownBy(() -> serializer.deserialize("{\"id\":1}".getBytes()))
+                    .isInstanceOf(SerializationException.class);
+        }
+    }
+}
@@ -0,0 +1,158 @@
+package com.morningharvest.erp.common.cache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.Cache;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheDecorator;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("TwoLevelCacheManager 單元測試")
+class TwoLevelCacheManagerTest {
+
+    @Mock
+    private StringRedisTemplate redisTemplate;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private ConcurrentMapCacheManager remoteCacheManager;
+    private TwoLevelCacheManager cacheManager;
+    private TwoLevelCache cache;
+    private Cache remoteCache;
+
+    @BeforeEach
+    void setUp() {
+        remoteCacheManager = new ConcurrentMapCacheManager();
+        cacheManager = new TwoLevelCacheManager(remoteCacheManager, redisTemplate, objectMapper,
+                2, Duration.ofMinutes(5));
+        cache = (TwoLevelCache) ((TransactionAwareCacheDecorator) cacheManager.getCache(CacheNames.PRODUCTS))
+                .getTargetCache();
+        remoteCache = remoteCacheManager.getCache(CacheNames.PRODUCTS);
+    }
+
+    @Nested
+    @DisplayName("讀取測試")
+    class GetTests {
+
+        @Test
+        @DisplayName("Redis 命中後回填本地快取")
+        void get_RemoteHit_PopulatesLocal() {
+            // Given
+            remoteCache.put(1L, "商品A");
+
+            // When
+            Cache.ValueWrapper first = cache.get(1L);
+            remoteCache.put(1L, "商品B");
+            Cache.ValueWrapper second = cache.get(1L);
+
+            // Then
+            assertThat(first.get()).isEqualTo("商品A");
+            // 本地命中，不再查 Redis
+            assertThat(second.get()).isEqualTo("商品A");
+        }
+
+        @Test
+        @DisplayName("本地快取不超過上限")
+        void put_BoundedLocalSize() {
+            // When
+            cache.put(1L, "A");
+            cache.put(2L, "B");
+            cache.put(3L, "C");
+
+            // Then
+            assertThat(cache.localSize()).isEqualTo(2);
+            assertThat(cache.get(3L).get()).isEqualTo("C");
+        }
+    }
+
+    @Nested
+    @DisplayName("失效測試")
+    class InvalidationTests {
+
+        @Test
+        @DisplayName("刪除時清除兩層並發送失效通知")
+        void evict_ClearsBothLevelsAndPublishes() throws Exception {
+            // Given
+            cache.put(1L, "商品A");
+
+            // When
+            cache.evict(1L);
+
+            // Then
+            assertThat(cache.localSize()).isZero();
+            assertThat(remoteCache.get(1L)).isNull();
+
+            ArgumentCaptor<String> captor = ArgumentCaptor.forClass(String.class);
+            verify(redisTemplate).convertAndSend(eq(TwoLevelCacheManager.INVALIDATION_CHANNEL), captor.capture());
+            TwoLevelCacheManager.InvalidationMessage message =
+                    objectMapper.readValue(captor.getValue(), TwoLevelCacheManager.InvalidationMessage.class);
+            assertThat(message.cacheName()).isEqualTo(CacheNames.PRODUCTS);
+            assertThat(message.key()).isEqualTo("1");
+        }
+
+        @Test
+        @DisplayName("收到其他節點通知時只清除本地快取")
+        void onMessage_OtherNode_EvictsLocal() throws Exception {
+            // Given
+            cache.put(1L, "商品A");
+
+            // When
+            cacheManager.onMessage(message("other-node", "1"), null);
+
+            // Then
+            assertThat(cache.localSize()).isZero();
+            assertThat(remoteCache.get(1L).get()).isEqualTo("商品A");
+        }
+
+        @Test
+        @DisplayName("忽略自己發出的通知")
+        void onMessage_SelfNode_Ignored() throws Exception {
+            // Given
+            cache.put(1L, "商品A");
+
+            // When
+            cacheManager.onMessage(message(cacheManager.getNodeId(), "1"), null);
+
+            // Then
+            assertThat(cache.localSize()).isEqualTo(1);
+        }
+
+        @Test
+        @DisplayName("Redis 無法連線時刪除仍清除本地快取")
+        void evict_PublishFailure_StillEvictsLocal() {
+            // Given
+            cache.put(1L, "商品A");
+            doThrow(new IllegalStateException("Redis 無法連線"))
+                    .when(redisTemplate).convertAndSend(anyString(), anyString());
+
+            // When
+            cache.evict(1L);
+
+            // Then
+            assertThat(cache.localSize()).isZero();
+        }
+    }
+
+    private DefaultMessage message(String nodeId, String key) throws Exception {
+        String body = objectMapper.writeValueAsString(
+                new TwoLevelCacheManager.InvalidationMessage(nodeId, CacheNames.PRODUCTS, key));
+        return new DefaultMessage(TwoLevelCacheManager.INVALIDATION_CHANNEL.getBytes(StandardCharsets.UTF_8),
+                body.getBytes(StandardCharsets.UTF_8));
+    }
+}
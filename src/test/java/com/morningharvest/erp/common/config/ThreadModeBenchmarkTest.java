@@ -0,0 +1,170 @@
+package com.morningharvest.erp.common.config;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 平台執行緒與虛擬執行緒模式負載比較
+ *
+ * 以信號量模擬 Hikari 連線池（10 條），以 sleep 模擬 JDBC、Redis、MinIO、發票服務的阻塞等待，
+ * 比較尖峰時請求處理與事件監聽器的完成時間、延遲與拒絕數。預設不執行：
+ * mvn test -Dtest=ThreadModeBenchmarkTest -Dbenchmark=true
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+@DisplayName("執行緒模式負載比較")
+class ThreadModeBenchmarkTest {
+
+    private static final int POOL_SIZE = 10;
+    private static final int REQUESTS = 4000;
+    private static final int EVENTS = 1000;
+
+    /**
+     * 模擬單一請求：外部服務等待 20ms、取得連線後 JDBC 3ms
+     */
+    private static void simulateRequest(Semaphore connectionPool) throws InterruptedException {
+        Thread.sleep(20);
+        connectionPool.acquire();
+        try {
+            Thread.sleep(3);
+        } finally {
+            connectionPool.release();
+        }
+    }
+
+    /**
+     * 模擬單一監聽器：全程持有連線 5ms
+     */
+    private static void simulateListener(Semaphore connectionPool) throws InterruptedException {
+        connectionPool.acquire();
+        try {
+            Thread.sleep(5);
+        } finally {
+            connectionPool.release();
+        }
+    }
+
+    @Test
+    @DisplayName("請求處理：Tomcat 200 條平台執行緒 vs 虛擬執行緒（並行上限 200 / 1000）")
+    void benchmarkRequests() throws Exception {
+        System.out.printf("%n請求處理（%d 個同時到達）%n%-28s %10s %10s %10s%n",
+                REQUESTS, "mode", "total ms", "p50 ms", "p99 ms");
+
+        try (ExecutorService platform = Executors.newFixedThreadPool(200)) {
+            report("platform(200)", runRequests(platform, new Semaphore(Integer.MAX_VALUE)));
+        }
+        try (ExecutorService virtual = Executors.newVirtualThreadPerTaskExecutor()) {
+            report("virtual(limit 200)", runRequests(virtual, new Semaphore(200, true)));
+        }
+        try (ExecutorService virtual = Executors.newVirtualThreadPerTaskExecutor()) {
+            report("virtual(limit 1000)", runRequests(virtual, new Semaphore(1000, true)));
+        }
+    }
+
+    @Test
+    @DisplayName("事件監聽器：ThreadPoolTaskExecutor(5/10/100) vs 虛擬執行緒（並行上限 5）")
+    void benchmarkListeners() throws Exception {
+        System.out.printf("%n事件監聽器（%d 個事件同時發布）%n%-28s %10s %10s %10s%n",
+                EVENTS, "mode", "total ms", "completed", "rejected");
+
+        ThreadPoolTaskExecutor platform = new ThreadPoolTaskExecutor();
+        platform.setCorePoolSize(5);
+        platform.setMaxPoolSize(10);
+        platform.setQueueCapacity(100);
+        platform.initialize();
+        try {
+            ListenerResult result = runListeners(platform::execute);
+            System.out.printf("%-28s %10d %10d %10d%n", "platform(5/10/100)",
+                    result.totalMs, result.completed, result.rejected);
+            assertThat(result.rejected).isPositive();
+        } finally {
+            platform.shutdown();
+        }
+
+        SimpleAsyncTaskExecutor virtual = new SimpleAsyncTaskExecutor("bench-vt-");
+        virtual.setVirtualThreads(true);
+        virtual.setConcurrencyLimit(5);
+        ListenerResult result = runListeners(virtual::execute);
+        System.out.printf("%-28s %10d %10d %10d%n", "virtual(limit 5)",
+                result.totalMs, result.completed, result.rejected);
+        assertThat(result.rejected).isZero();
+        assertThat(result.completed).isEqualTo(EVENTS);
+    }
+
+    private List<Long> runRequests(ExecutorService executor, Semaphore admission) throws Exception {
+        Semaphore connectionPool = new Semaphore(POOL_SIZE, true);
+        List<Long> latencies = Collections.synchronizedList(new ArrayList<>(REQUESTS));
+        List<Future<?>> futures = new ArrayList<>(REQUESTS);
+        long start = System.nanoTime();
+        for (int i = 0; i < REQUESTS; i++) {
+            long submitted = System.nanoTime();
+            futures.add(executor.submit(() -> {
+                admission.acquire();
+                try {
+                    simulateRequest(connectionPool);
+                } finally {
+                    admission.release();
+                }
+                latencies.add(System.nanoTime() - submitted);
+                return null;
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        latencies.add(0, System.nanoTime() - start);
+        return latencies;
+    }
+
+    private void report(String mode, List<Long> result) {
+        long total = result.get(0);
+        List<Long> latencies = new ArrayList<>(result.subList(1, result.size()));
+        Collections.sort(latencies);
+        System.out.printf("%-28s %10d %10d %10d%n", mode,
+                TimeUnit.NANOSECONDS.toMillis(total),
+                TimeUnit.NANOSECONDS.toMillis(latencies.get(latencies.size() / 2)),
+                TimeUnit.NANOSECONDS.toMillis(latencies.get((int) (latencies.size() * 0.99))));
+        assertThat(latencies).hasSize(REQUESTS);
+    }
+
+    private ListenerResult runListeners(Executor executor) throws InterruptedException {
+        Semaphore connectionPool = new Semaphore(POOL_SIZE, true);
+        AtomicInteger completed = new AtomicInteger();
+        int rejected = 0;
+        CountDownLatch done = new CountDownLatch(EVENTS);
+        long start = System.nanoTime();
+        for (int i = 0; i < EVENTS; i++) {
+            try {
+                executor.execute(() -> {
+                    try {
+                        simulateListener(connectionPool);
+                        completed.incrementAndGet();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    } finally {
+                        done.countDown();
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                rejected++;
+                done.countDown();
+            }
+        }
+        done.await(2, TimeUnit.MINUTES);
+        return new ListenerResult(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start),
+                completed.get(), rejected);
+    }
+
+    private record ListenerResult(long totalMs, int completed, int rejected) {
+    }
+}
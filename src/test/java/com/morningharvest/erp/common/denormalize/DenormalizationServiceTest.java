@@ -0,0 +1,126 @@
+package com.morningharvest.erp.common.denormalize;
+
+import com.morningharvest.erp.common.cache.CacheNames;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("DenormalizationService 單元測試")
+class DenormalizationServiceTest {
+
+    @Mock
+    private NamedParameterJdbcTemplate jdbcTemplate;
+
+    @Mock
+    private CacheManager cacheManager;
+
+    @Mock
+    private Cache cache;
+
+    @InjectMocks
+    private DenormalizationService denormalizationService;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(denormalizationService, "batchSize", 2);
+    }
+
+    @Nested
+    @DisplayName("flush 方法測試")
+    class FlushTests {
+
+        @Test
+        @DisplayName("同一 key 多次變更合併為一次，並依批次大小分段")
+        void flush_CoalescesAndBatches() {
+            // Given
+            denormalizationService.enqueue(DenormalizedField.PRODUCT_CATEGORY_NAME, 1L);
+            denormalizationService.enqueue(DenormalizedField.PRODUCT_CATEGORY_NAME, 1L);
+            denormalizationService.enqueue(DenormalizedField.PRODUCT_CATEGORY_NAME, 2L);
+            denormalizationService.enqueue(DenormalizedField.PRODUCT_CATEGORY_NAME, 3L);
+            when(jdbcTemplate.update(anyString(), anyMap())).thenReturn(4, 1);
+            when(cacheManager.getCache(CacheNames.PRODUCTS)).thenReturn(cache);
+
+            // When
+            int updated = denormalizationService.flush();
+
+            // Then
+            assertThat(updated).isEqualTo(5);
+            assertThat(denormalizationService.pendingCount()).isZero();
+
+            @SuppressWarnings("unchecked")
+            ArgumentCaptor<Map<String, ?>> captor = ArgumentCaptor.forClass(Map.class);
+            verify(jdbcTemplate, times(2)).update(contains("products t JOIN product_categories s"), captor.capture());
+            assertThat(captor.getAllValues().get(0).get("keys")).isEqualTo(List.of(1L, 2L));
+            assertThat(captor.getAllValues().get(1).get("keys")).isEqualTo(List.of(3L));
+            verify(cache).clear();
+        }
+
+        @Test
+        @DisplayName("沒有待同步項目時不執行 SQL")
+        void flush_NothingPending() {
+            // When
+            int updated = denormalizationService.flush();
+
+            // Then
+            assertThat(updated).isZero();
+            verifyNoInteractions(jdbcTemplate);
+        }
+
+        @Test
+        @DisplayName("同步失敗時放回佇列")
+        void flush_Failure_Requeues() {
+            // Given
+            denormalizationService.enqueue(DenormalizedField.COMBO_ITEM_PRODUCT_NAME, 5L);
+            when(jdbcTemplate.update(anyString(), anyMap())).thenThrow(new QueryTimeoutException("timeout"));
+
+            // When
+            denormalizationService.flush();
+
+            // Then
+            assertThat(denormalizationService.pendingCount()).isEqualTo(1);
+            verifyNoInteractions(cacheManager);
+        }
+    }
+
+    @Nested
+    @DisplayName("reconcile 方法測試")
+    class ReconcileTests {
+
+        @Test
+        @DisplayName("全表校正並回報修復筆數")
+        void reconcile_RepairsDrift() {
+            // Given
+            when(jdbcTemplate.update(anyString(), anyMap())).thenReturn(0);
+            when(jdbcTemplate.update(contains("combo_items t JOIN products s"), anyMap())).thenReturn(3);
+            when(cacheManager.getCache(CacheNames.COMBO_DETAILS)).thenReturn(cache);
+
+            // When
+            Map<DenormalizedField, Integer> repaired = denormalizationService.reconcile();
+
+            // Then
+            assertThat(repaired).hasSize(DenormalizedField.values().length);
+            assertThat(repaired.get(DenormalizedField.COMBO_ITEM_PRODUCT_NAME)).isEqualTo(3);
+            assertThat(repaired.get(DenormalizedField.PRODUCT_CATEGORY_NAME)).isZero();
+            verify(cache).clear();
+        }
+    }
+}
@@ -0,0 +1,286 @@
+package com.morningharvest.erp.common.event;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.morningharvest.erp.common.exception.ResourceNotFoundException;
+import com.morningharvest.erp.order.event.OrderSubmittedEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("EventDeadLetterService 單元測試")
+class EventDeadLetterServiceTest {
+
+    private static final String LISTENER = FailingListener.class.getName() + "#onOrderSubmitted";
+
+    @Mock
+    private EventDeadLetterRepository eventDeadLetterRepository;
+
+    @Mock
+    private EventLaneExecutor eventLaneExecutor;
+
+    @Mock
+    private ApplicationContext applicationContext;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private final EventCodec eventCodec = new EventCodec(new ObjectMapper()
+            .findAndRegisterModules()
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS));
+
+    private EventDeadLetterService service;
+
+    /**
+     * 測試用監聽器：前 failures 次呼叫失敗
+     */
+    static class FailingListener {
+
+        final List<Long> handled = new ArrayList<>();
+        int failures;
+
+        @EventLane
+        public void onOrderSubmitted(OrderSubmittedEvent event) {
+            if (failures > 0) {
+                failures--;
+                throw new IllegalStateException("db down");
+            }
+            handled.add(event.getOrderId());
+        }
+    }
+
+    @BeforeEach
+    void setUp() {
+        service = new EventDeadLetterService(eventDeadLetterRepository, eventCodec, eventLaneExecutor,
+                applicationContext, transactionManager, new SimpleMeterRegistry());
+    }
+
+    private EventDeadLetter deadLetter(Long id, BaseEvent event, int attempts) {
+        return EventDeadLetter.builder()
+                .id(id)
+                .eventId(event.getEventId())
+                .eventType(eventCodec.typeOf(event))
+                .aggregateKey(event.getAggregateKey())
+                .listener(LISTENER)
+                .payload(eventCodec.encode(event))
+                .status(EventDeadLetterStatus.PENDING)
+                .attempts(attempts)
+                .nextRetryAt(LocalDateTime.now().minusSeconds(1))
+                .build();
+    }
+
+    @Nested
+    @DisplayName("記錄失敗")
+    class RecordFailureTests {
+
+        @Test
+        @DisplayName("首次失敗建立死信並依退避時間排定重試")
+        void recordFailure_FirstTime_CreatesPending() {
+            OrderSubmittedEvent event = new OrderSubmittedEvent(1L, BigDecimal.TEN);
+            when(eventDeadLetterRepository.findByEventIdAndListener(event.getEventId(), LISTENER))
+                    .thenReturn(Optional.empty());
+
+            service.recordFailure(event, LISTENER, new IllegalStateException("db down"));
+
+            ArgumentCaptor<EventDeadLetter> captor = ArgumentCaptor.forClass(EventDeadLetter.class);
+            verify(eventDeadLetterRepository).save(captor.capture());
+            EventDeadLetter saved = captor.getValue();
+            assertThat(saved.getStatus()).isEqualTo(EventDeadLetterStatus.PENDING);
+            assertThat(saved.getAttempts()).isEqualTo(1);
+            assertThat(saved.getAggregateKey()).isEqualTo("order:1");
+            assertThat(saved.getLastError()).isEqualTo("IllegalStateException: db down");
+            assertThat(saved.getNextRetryAt()).isAfter(LocalDateTime.now().plusSeconds(25));
+            assertThat(eventCodec.decode(saved.getEventType(), saved.getPayload()).getEventId())
+                    .isEqualTo(event.getEventId());
+        }
+
+        @Test
+        @DisplayName("達最大次數時轉為 DEAD")
+        void recordFailure_Exhausted_MarksDead() {
+            OrderSubmittedEvent event = new OrderSubmittedEvent(1L, BigDecimal.TEN);
+            EventDeadLetter existing = deadLetter(1L, event, 5);
+            when(eventDeadLetterRepository.findByEventIdAndListener(event.getEventId(), LISTENER))
+                    .thenReturn(Optional.of(existing));
+
+            service.recordFailure(event, LISTENER, new IllegalStateException("db down"));
+
+            assertThat(existing.getAttempts()).isEqualTo(6);
+            assertThat(existing.getStatus()).isEqualTo(EventDeadLetterStatus.DEAD);
+            assertThat(existing.getNextRetryAt()).isNull();
+        }
+
+        @Test
+        @DisplayName("退避時間每次加倍且不超過上限")
+        void backoffOf_DoublesAndCaps() {
+            assertThat(service.backoffOf(1)).isEqualTo(Duration.ofSeconds(30));
+            assertThat(service.backoffOf(2)).isEqualTo(Duration.ofSeconds(60));
+            assertThat(service.backoffOf(4)).isEqualTo(Duration.ofSeconds(240));
+            assertThat(service.backoffOf(20)).isEqualTo(Duration.ofHours(1));
+        }
+    }
+
+    @Nested
+    @DisplayName("自動重試")
+    class RetryTests {
+
+        @Test
+        @DisplayName("送入執行道重試，成功時標記 RESOLVED")
+        void retryBatch_Success_MarksResolved() {
+            OrderSubmittedEvent event = new OrderSubmittedEvent(1L, BigDecimal.TEN);
+            EventDeadLetter row = deadLetter(1L, event, 1);
+            FailingListener listener = new FailingListener();
+            when(eventDeadLetterRepository.lockDue(any(), eq(100))).thenReturn(List.of(row));
+            when(eventDeadLetterRepository.findById(1L)).thenReturn(Optional.of(row));
+            when(applicationContext.getBean(FailingListener.class)).thenReturn(listener);
+            when(eventLaneExecutor.hasCapacity("order:1", true)).thenReturn(true);
+            doAnswer(invocation -> {
+                invocation.<Runnable>getArgument(3).run();
+                return null;
+            }).when(eventLaneExecutor).execute(anyString(), eq("order:1"), eq(true), any());
+
+            int submitted = service.retryBatch();
+
+            assertThat(submitted).isEqualTo(1);
+            assertThat(listener.handled).containsExactly(1L);
+            assertThat(row.getStatus()).isEqualTo(EventDeadLetterStatus.RESOLVED);
+            assertThat(row.getNextRetryAt()).isNull();
+        }
+
+        @Test
+        @DisplayName("重試失敗時累加次數並重新排定")
+        void retryBatch_FailsAgain_IncrementsAttempts() {
+            OrderSubmittedEvent event = new OrderSubmittedEvent(1L, BigDecimal.TEN);
+            EventDeadLetter row = deadLetter(1L, event, 1);
+            FailingListener listener = new FailingListener();
+            listener.failures = 1;
+            when(eventDeadLetterRepository.lockDue(any(), eq(100))).thenReturn(List.of(row));
+            when(eventDeadLetterRepository.findByEventIdAndListener(event.getEventId(), LISTENER))
+                    .thenReturn(Optional.of(row));
+            when(applicationContext.getBean(FailingListener.class)).thenReturn(listener);
+            when(eventLaneExecutor.hasCapacity("order:1", true)).thenReturn(true);
+            doAnswer(invocation -> {
+                invocation.<Runnable>getArgument(3).run();
+                return null;
+            }).when(eventLaneExecutor).execute(anyString(), anyString(), anyBoolean(), any());
+
+            service.retryBatch();
+
+            assertThat(row.getAttempts()).isEqualTo(2);
+            assertThat(row.getStatus()).isEqualTo(EventDeadLetterStatus.PENDING);
+            assertThat(row.getLastError()).isEqualTo("IllegalStateException: db down");
+            assertThat(row.getNextRetryAt()).isAfter(LocalDateTime.now().plusSeconds(55));
+        }
+
+        @Test
+        @DisplayName("執行道已滿時釋放認領")
+        void retryBatch_LaneFull_ReleasesClaim() {
+            OrderSubmittedEvent event = new OrderSubmittedEvent(1L, BigDecimal.TEN);
+            EventDeadLetter row = deadLetter(1L, event, 1);
+            when(eventDeadLetterRepository.lockDue(any(), eq(100))).thenReturn(List.of(row));
+            when(applicationContext.getBean(FailingListener.class)).thenReturn(new FailingListener());
+            when(eventLaneExecutor.hasCapacity("order:1", true)).thenReturn(false);
+
+            int submitted = service.retryBatch();
+
+            assertThat(submitted).isZero();
+            verify(eventDeadLetterRepository).release(eq(List.of(1L)), any());
+            verify(eventLaneExecutor, never()).execute(anyString(), anyString(), anyBoolean(), any());
+        }
+
+        @Test
+        @DisplayName("監聽器已不存在時轉為 DEAD")
+        void retryBatch_UnknownListener_MarksDead() {
+            OrderSubmittedEvent event = new OrderSubmittedEvent(1L, BigDecimal.TEN);
+            EventDeadLetter row = deadLetter(1L, event, 1);
+            row.setListener("com.morningharvest.erp.removed.RemovedListener#onOrderSubmitted");
+            when(eventDeadLetterRepository.lockDue(any(), eq(100))).thenReturn(List.of(row));
+            when(eventDeadLetterRepository.findById(1L)).thenReturn(Optional.of(row));
+
+            service.retryBatch();
+
+            assertThat(row.getStatus()).isEqualTo(EventDeadLetterStatus.DEAD);
+            assertThat(row.getLastError()).contains("RemovedListener");
+            verify(eventLaneExecutor, never()).execute(anyString(), anyString(), anyBoolean(), any());
+        }
+
+        @Test
+        @DisplayName("只接受本系統標註 @EventLane 的方法")
+        void resolveListener_RejectsOtherMethods() {
+            OrderSubmittedEvent event = new OrderSubmittedEvent(1L, BigDecimal.TEN);
+
+            assertThatThrownBy(() -> service.resolveListener("java.lang.Runtime#exit", event))
+                    .isInstanceOf(IllegalArgumentException.class);
+            assertThatThrownBy(() -> service.resolveListener(FailingListener.class.getName() + "#toString", event))
+                    .isInstanceOf(IllegalArgumentException.class);
+        }
+    }
+
+    @Nested
+    @DisplayName("人工處理")
+    class AdminTests {
+
+        @Test
+        @DisplayName("已重試成功的死信無法捨棄")
+        void discard_Resolved_ThrowsException() {
+            EventDeadLetter row = deadLetter(1L, new OrderSubmittedEvent(1L, BigDecimal.TEN), 1);
+            row.setStatus(EventDeadLetterStatus.RESOLVED);
+            when(eventDeadLetterRepository.findById(1L)).thenReturn(Optional.of(row));
+
+            assertThatThrownBy(() -> service.discard(1L))
+                    .isInstanceOf(IllegalArgumentException.class);
+        }
+
+        @Test
+        @DisplayName("捨棄後不再重試")
+        void discard_Pending_MarksDiscarded() {
+            EventDeadLetter row = deadLetter(1L, new OrderSubmittedEvent(1L, BigDecimal.TEN), 1);
+            when(eventDeadLetterRepository.findById(1L)).thenReturn(Optional.of(row));
+
+            EventDeadLetterDTO result = service.discard(1L);
+
+            assertThat(result.getStatus()).isEqualTo(EventDeadLetterStatus.DISCARDED);
+            assertThat(row.getNextRetryAt()).isNull();
+        }
+
+        @Test
+        @DisplayName("死信不存在時拋出例外")
+        void getDeadLetterById_NotFound_ThrowsException() {
+            when(eventDeadLetterRepository.findById(99L)).thenReturn(Optional.empty());
+
+            assertThatThrownBy(() -> service.getDeadLetterById(99L))
+                    .isInstanceOf(ResourceNotFoundException.class);
+        }
+
+        @Test
+        @DisplayName("批次重送只排入 DEAD 死信")
+        void replayAll_RequeuesDead() {
+            when(eventDeadLetterRepository.requeueMatching(eq(EventDeadLetterStatus.DEAD), isNull(), eq(LISTENER),
+                    any())).thenReturn(42);
+
+            int requeued = service.replayAll(null, LISTENER);
+
+            assertThat(requeued).isEqualTo(42);
+        }
+    }
+}
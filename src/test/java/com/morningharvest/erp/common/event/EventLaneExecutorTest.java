@@ -0,0 +1,353 @@
+package com.morningharvest.erp.common.event;
+
+import com.morningharvest.erp.material.dto.MaterialDTO;
+import com.morningharvest.erp.material.event.MaterialUpdatedEvent;
+import com.morningharvest.erp.order.event.OrderCancelledEvent;
+import com.morningharvest.erp.order.event.OrderSubmittedEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.aop.support.annotation.AnnotationMatchingPointcut;
+import org.springframework.core.task.TaskRejectedException;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@DisplayName("EventLaneExecutor 單元測試")
+class EventLaneExecutorTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private EventLaneExecutor executor;
+
+    private EventLaneExecutor executor(int lanes, int queueCapacity) {
+        return new EventLaneExecutor(meterRegistry, lanes, queueCapacity, 0, 1000, Duration.ZERO, 0.8, false);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (executor != null) {
+            executor.shutdown();
+        }
+    }
+
+    /**
+     * 找出與指定聚合鍵落在不同執行道的聚合鍵
+     */
+    private String keyOnOtherLane(String key) {
+        int lane = executor.laneOf(key);
+        for (int i = 0; ; i++) {
+            String candidate = "order:" + i;
+            if (executor.laneOf(candidate) != lane) {
+                return candidate;
+            }
+        }
+    }
+
+    @Nested
+    @DisplayName("分道執行")
+    class ExecuteTests {
+
+        @Test
+        @DisplayName("同一聚合鍵依送入順序逐一執行")
+        void execute_SameKey_RunsInOrder() throws InterruptedException {
+            executor = executor(4, 1000);
+            List<Integer> executed = Collections.synchronizedList(new ArrayList<>());
+            CountDownLatch done = new CountDownLatch(200);
+
+            for (int i = 0; i < 200; i++) {
+                int sequence = i;
+                executor.execute("material:1", () -> {
+                    executed.add(sequence);
+                    done.countDown();
+                });
+            }
+
+            assertThat(done.await(5, TimeUnit.SECONDS)).isTrue();
+            assertThat(executed).isSorted().hasSize(200);
+        }
+
+        @Test
+        @DisplayName("不同執行道的聚合鍵不互相阻塞")
+        void execute_OtherLane_NotBlocked() throws InterruptedException {
+            executor = executor(4, 10);
+            CountDownLatch release = new CountDownLatch(1);
+            CountDownLatch otherDone = new CountDownLatch(1);
+            executor.execute("order:1", () -> {
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+
+            executor.execute(keyOnOtherLane("order:1"), otherDone::countDown);
+
+            assertThat(otherDone.await(5, TimeUnit.SECONDS)).isTrue();
+            release.countDown();
+        }
+
+        @Test
+        @DisplayName("執行道待處理任務已滿時拒絕任務")
+        void execute_QueueFull_ThrowsException() {
+            executor = executor(1, 2);
+            CountDownLatch release = new CountDownLatch(1);
+            executor.execute("order:1", () -> {
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+            executor.execute("order:1", () -> { });
+
+            try {
+                assertThatThrownBy(() -> executor.execute("order:1", () -> { }))
+                        .isInstanceOf(TaskRejectedException.class);
+                assertThat(executor.getQueueDepth(0)).isEqualTo(1);
+                assertThat(meterRegistry.get("event.lane.queue.depth").tag("lane", "0").gauge().value())
+                        .isEqualTo(1.0);
+                assertThat(meterRegistry.get("event.lane.saturation").tag("lane", "0").gauge().value())
+                        .isEqualTo(1.0);
+                assertThat(meterRegistry.get("event.overload.rejected").tag("priority", "normal").counter().count())
+                        .isEqualTo(1.0);
+            } finally {
+                release.countDown();
+            }
+        }
+
+        @Test
+        @DisplayName("任務失敗不中止執行道")
+        void execute_TaskFails_LaneContinues() throws InterruptedException {
+            executor = executor(1, 10);
+            CountDownLatch done = new CountDownLatch(1);
+
+            executor.execute("order:1", () -> {
+                throw new IllegalStateException("boom");
+            });
+            executor.execute("order:1", done::countDown);
+
+            assertThat(done.await(5, TimeUnit.SECONDS)).isTrue();
+            executor.shutdown();
+            assertThat(meterRegistry.get("event.lane.execution").tag("lane", "0").timer().count())
+                    .isEqualTo(2);
+        }
+
+        @Test
+        @DisplayName("執行道數量必須大於 0")
+        void constructor_ZeroLanes_ThrowsException() {
+            assertThatThrownBy(() -> executor(0, 10))
+                    .isInstanceOf(IllegalArgumentException.class);
+        }
+    }
+
+    @Nested
+    @DisplayName("過載控制")
+    class OverloadTests {
+
+        private final CountDownLatch release = new CountDownLatch(1);
+
+        private final Runnable blocking = () -> {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        };
+
+        @AfterEach
+        void releaseLane() {
+            release.countDown();
+        }
+
+        @Test
+        @DisplayName("保留容量僅供高優先事件使用")
+        void execute_ReservedCapacity_OnlyHighPriority() {
+            executor = new EventLaneExecutor(meterRegistry, 1, 3, 1, 100, Duration.ZERO, 0.8, false);
+            executor.execute("PaymentEventListener", "order:1", false, blocking);
+            executor.execute("PaymentEventListener", "order:1", false, () -> { });
+
+            assertThat(executor.hasCapacity("order:1", false)).isFalse();
+            assertThat(executor.hasCapacity("order:1", true)).isTrue();
+            assertThatThrownBy(() -> executor.execute("PaymentEventListener", "order:1", false, () -> { }))
+                    .isInstanceOf(TaskRejectedException.class);
+            executor.execute("PaymentEventListener", "order:1", true, () -> { });
+            assertThat(executor.hasCapacity("order:1", true)).isFalse();
+        }
+
+        @Test
+        @DisplayName("單一監聽器達配額時不影響其他監聽器")
+        void execute_ListenerQuota_OtherListenerAdmitted() {
+            executor = new EventLaneExecutor(meterRegistry, 1, 10, 0, 2, Duration.ZERO, 0.8, false);
+            executor.execute("SearchIndexEventListener", "catalog", false, blocking);
+            executor.execute("SearchIndexEventListener", "catalog", false, () -> { });
+
+            assertThatThrownBy(() -> executor.execute("SearchIndexEventListener", "catalog", false, () -> { }))
+                    .isInstanceOf(TaskRejectedException.class);
+            executor.execute("ProductCostEventListener", "catalog", false, () -> { });
+            assertThat(meterRegistry.get("event.listener.pending").tag("listener", "SearchIndexEventListener")
+                    .gauge().value()).isEqualTo(2.0);
+        }
+
+        @Test
+        @DisplayName("沒有空間時送出端等待直到有空間")
+        void execute_Full_BlocksUntilReleased() throws InterruptedException {
+            executor = new EventLaneExecutor(meterRegistry, 1, 1, 0, 100, Duration.ofSeconds(5), 0.8, false);
+            executor.execute("order:1", blocking);
+            CountDownLatch done = new CountDownLatch(1);
+
+            Thread releaser = new Thread(() -> {
+                try {
+                    Thread.sleep(100);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                release.countDown();
+            });
+            releaser.start();
+            executor.execute("order:1", done::countDown);
+
+            assertThat(done.await(5, TimeUnit.SECONDS)).isTrue();
+            assertThat(meterRegistry.get("event.overload.blocked").timer().count()).isPositive();
+        }
+
+        @Test
+        @DisplayName("事件的每個監聽方法各佔一個執行道空間")
+        void hasCapacity_Event_CountsListeners() {
+            executor = new EventLaneExecutor(meterRegistry, 1, 3, 0, 100, Duration.ZERO, 0.8, false);
+            executor.registerListener("SearchIndexEventListener", MaterialUpdatedEvent.class);
+            executor.registerListener("ProductCostEventListener", MaterialUpdatedEvent.class);
+            executor.execute("PaymentEventListener", "order:1", false, blocking);
+            MaterialUpdatedEvent event = materialUpdated();
+
+            assertThat(executor.hasCapacity(event)).isTrue();
+            executor.execute("PaymentEventListener", "order:2", false, () -> { });
+            assertThat(executor.hasCapacity(event)).isFalse();
+        }
+
+        @Test
+        @DisplayName("一般優先事件須監聽器配額放得下")
+        void hasCapacity_ListenerFull_ReturnsFalse() {
+            executor = new EventLaneExecutor(meterRegistry, 1, 10, 0, 2, Duration.ZERO, 0.8, false);
+            executor.registerListener("ProductCostEventListener", MaterialUpdatedEvent.class);
+            executor.registerListener("ProductCostEventListener", BaseEvent.class);
+            executor.execute("ProductCostEventListener", "catalog", false, blocking);
+
+            assertThat(executor.hasCapacity(materialUpdated())).isFalse();
+            assertThat(executor.hasCapacity(new OrderSubmittedEvent(7L, BigDecimal.TEN))).isTrue();
+        }
+
+        @Test
+        @DisplayName("沒有執行道監聽器的事件不佔空間")
+        void hasCapacity_NoListeners_ReturnsTrue() {
+            executor = new EventLaneExecutor(meterRegistry, 1, 1, 0, 100, Duration.ZERO, 0.8, false);
+            executor.execute("PaymentEventListener", "order:1", false, blocking);
+
+            assertThat(executor.hasCapacity(materialUpdated())).isTrue();
+        }
+
+        private MaterialUpdatedEvent materialUpdated() {
+            MaterialDTO material = MaterialDTO.builder().id(1L).build();
+            return new MaterialUpdatedEvent(material, material);
+        }
+
+        @Test
+        @DisplayName("保留容量不可大於等於佇列容量")
+        void constructor_InvalidReserved_ThrowsException() {
+            assertThatThrownBy(() -> new EventLaneExecutor(meterRegistry, 1, 10, 10, 100, Duration.ZERO, 0.8, false))
+                    .isInstanceOf(IllegalArgumentException.class);
+        }
+    }
+
+    @Nested
+    @DisplayName("方法攔截")
+    class InterceptorTests {
+
+        static class RecordingListener {
+
+            final List<String> threads = Collections.synchronizedList(new ArrayList<>());
+            final CountDownLatch done = new CountDownLatch(1);
+
+            @EventLane
+            public void onOrderSubmitted(OrderSubmittedEvent event) {
+                threads.add(Thread.currentThread().getName());
+                done.countDown();
+            }
+
+            @EventLane
+            public void onOrderCancelled(OrderCancelledEvent event) {
+                throw new IllegalStateException("boom");
+            }
+        }
+
+        private final EventDeadLetterService deadLetterService = mock(EventDeadLetterService.class);
+
+        private RecordingListener proxy(RecordingListener target) {
+            ProxyFactory proxyFactory = new ProxyFactory(target);
+            proxyFactory.setProxyTargetClass(true);
+            proxyFactory.addAdvisor(new DefaultPointcutAdvisor(
+                    AnnotationMatchingPointcut.forMethodAnnotation(EventLane.class),
+                    new EventLaneInterceptor(() -> executor, () -> deadLetterService)));
+            return (RecordingListener) proxyFactory.getProxy();
+        }
+
+        @Test
+        @DisplayName("依事件聚合鍵送入對應執行道")
+        void invoke_RoutesByAggregateKey() throws InterruptedException {
+            executor = executor(4, 10);
+            RecordingListener target = new RecordingListener();
+            OrderSubmittedEvent event = new OrderSubmittedEvent(7L, BigDecimal.TEN);
+
+            proxy(target).onOrderSubmitted(event);
+
+            assertThat(target.done.await(5, TimeUnit.SECONDS)).isTrue();
+            assertThat(target.threads).containsExactly("event-lane-" + executor.laneOf("order:7"));
+        }
+
+        @Test
+        @DisplayName("監聽器失敗時寫入死信")
+        void invoke_ListenerFails_RecordsDeadLetter() {
+            executor = executor(4, 10);
+            OrderCancelledEvent event = new OrderCancelledEvent(7L, BigDecimal.TEN);
+
+            proxy(new RecordingListener()).onOrderCancelled(event);
+
+            verify(deadLetterService, timeout(5000)).recordFailure(eq(event),
+                    eq(RecordingListener.class.getName() + "#onOrderCancelled"), any(IllegalStateException.class));
+        }
+
+        @Test
+        @DisplayName("直接呼叫時在目前執行緒執行並拋出例外")
+        void invokeInline_RunsOnCallerAndPropagates() throws Exception {
+            executor = executor(4, 10);
+            RecordingListener target = new RecordingListener();
+            RecordingListener proxy = proxy(target);
+
+            EventLaneInterceptor.invokeInline(() -> {
+                proxy.onOrderSubmitted(new OrderSubmittedEvent(7L, BigDecimal.TEN));
+                return null;
+            });
+
+            assertThat(target.threads).containsExactly(Thread.currentThread().getName());
+            assertThatThrownBy(() -> EventLaneInterceptor.invokeInline(() -> {
+                proxy.onOrderCancelled(new OrderCancelledEvent(7L, BigDecimal.TEN));
+                return null;
+            })).isInstanceOf(IllegalStateException.class);
+            verifyNoInteractions(deadLetterService);
+        }
+    }
+}
@@ -0,0 +1,363 @@
+package com.morningharvest.erp.common.event;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.morningharvest.erp.material.dto.MaterialDTO;
+import com.morningharvest.erp.material.event.MaterialUpdatedEvent;
+import com.morningharvest.erp.order.event.OrderSubmittedEvent;
+import com.morningharvest.erp.purchase.event.PurchaseConfirmedEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("EventOutboxDispatcher 單元測試")
+class EventOutboxDispatcherTest {
+
+    @Mock
+    private EventOutboxRepository eventOutboxRepository;
+
+    @Mock
+    private ApplicationEventPublisher applicationEventPublisher;
+
+    @Mock
+    private EventLaneExecutor eventLaneExecutor;
+
+    @Mock
+    private RedisStreamEventBus redisStreamEventBus;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private final EventCodec eventCodec = new EventCodec(new ObjectMapper()
+            .findAndRegisterModules()
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS));
+
+    private EventOutboxDispatcher dispatcher;
+
+    private long nextId = 1;
+
+    @BeforeEach
+    void setUp() {
+        dispatcher = new EventOutboxDispatcher(eventOutboxRepository, eventCodec, applicationEventPublisher,
+                eventLaneExecutor, redisStreamEventBus, transactionManager, new SimpleMeterRegistry());
+        lenient().when(eventLaneExecutor.hasCapacity(any(BaseEvent.class))).thenReturn(true);
+    }
+
+    private void claimable(List<EventOutbox> rows) {
+        when(eventOutboxRepository.lockHead()).thenReturn(rows.get(0).getId());
+        when(eventOutboxRepository.lockDue(any(LocalDateTime.class), eq(100))).thenReturn(rows);
+    }
+
+    private EventOutbox row(BaseEvent event) {
+        return EventOutbox.builder()
+                .id(nextId++)
+                .eventId(event.getEventId())
+                .eventType(eventCodec.typeOf(event))
+                .aggregateKey(event.getAggregateKey())
+                .payload(eventCodec.encode(event))
+                .status(EventOutboxStatus.PENDING)
+                .createdAt(LocalDateTime.now())
+                .build();
+    }
+
+    @Nested
+    @DisplayName("事件序列化")
+    class CodecTests {
+
+        @Test
+        @DisplayName("還原事件內容與原事件識別碼")
+        void decode_RestoresEventMetadata() {
+            OrderSubmittedEvent event = new OrderSubmittedEvent(7L, new BigDecimal("120.50"));
+
+            BaseEvent decoded = eventCodec.decode(eventCodec.typeOf(event), eventCodec.encode(event));
+
+            assertThat(decoded).isInstanceOf(OrderSubmittedEvent.class);
+            OrderSubmittedEvent restored = (OrderSubmittedEvent) decoded;
+            assertThat(restored.getEventId()).isEqualTo(event.getEventId());
+            assertThat(restored.getOccurredAt()).isEqualTo(event.getOccurredAt());
+            assertThat(restored.getOrderId()).isEqualTo(7L);
+            assertThat(restored.getTotalAmount()).isEqualByComparingTo("120.50");
+            assertThat(restored.getAggregateKey()).isEqualTo("order:7");
+        }
+
+        @Test
+        @DisplayName("還原巢狀明細")
+        void decode_NestedItems() {
+            PurchaseConfirmedEvent event = new PurchaseConfirmedEvent(3L, "PO-20260101-0001", new BigDecimal("100"),
+                    List.of(new PurchaseConfirmedEvent.PurchaseItemInfo(
+                            11L, "M001", "雞蛋", new BigDecimal("10"), new BigDecimal("10"))));
+
+            PurchaseConfirmedEvent restored = (PurchaseConfirmedEvent) eventCodec.decode(
+                    eventCodec.typeOf(event), eventCodec.encode(event));
+
+            assertThat(restored.getItems()).hasSize(1);
+            assertThat(restored.getItems().get(0).getMaterialId()).isEqualTo(11L);
+            assertThat(restored.getItems().get(0).getUnitPrice()).isEqualByComparingTo("10");
+        }
+
+        @Test
+        @DisplayName("還原原物料更新前後資料")
+        void decode_MaterialUpdated() {
+            MaterialUpdatedEvent event = new MaterialUpdatedEvent(
+                    MaterialDTO.builder().id(5L).code("M005").costPrice(new BigDecimal("10")).build(),
+                    MaterialDTO.builder().id(5L).code("M005").costPrice(new BigDecimal("12")).build());
+
+            MaterialUpdatedEvent restored = (MaterialUpdatedEvent) eventCodec.decode(
+                    eventCodec.typeOf(event), eventCodec.encode(event));
+
+            assertThat(restored.getMaterialId()).isEqualTo(5L);
+            assertThat(restored.isCostPriceChanged()).isTrue();
+            assertThat(restored.getAggregateKey()).isEqualTo("material:5");
+        }
+
+        @Test
+        @DisplayName("非本系統事件類型拋出例外")
+        void decode_UnknownType_ThrowsException() {
+            assertThatThrownBy(() -> eventCodec.decode("java.lang.String", "{}"))
+                    .isInstanceOf(IllegalArgumentException.class);
+        }
+    }
+
+    @Nested
+    @DisplayName("批次派送")
+    class DispatchTests {
+
+        @Test
+        @DisplayName("依 id 順序發布並標記為已派送")
+        void dispatchBatch_PublishesInOrder() {
+            EventOutbox first = row(new OrderSubmittedEvent(1L, BigDecimal.TEN));
+            EventOutbox second = row(new OrderSubmittedEvent(2L, BigDecimal.ONE));
+            claimable(List.of(first, second));
+
+            int dispatched = dispatcher.dispatchBatch();
+
+            assertThat(dispatched).isEqualTo(2);
+            ArgumentCaptor<Object> published = ArgumentCaptor.forClass(Object.class);
+            verify(applicationEventPublisher, times(2)).publishEvent(published.capture());
+            assertThat(published.getAllValues())
+                    .extracting(event -> ((BaseEvent) event).getEventId())
+                    .containsExactly(first.getEventId(), second.getEventId());
+            verify(eventOutboxRepository).markDispatched(eq(List.of(first.getId(), second.getId())), any());
+        }
+
+        @Test
+        @DisplayName("發布失敗時同一聚合的後續事件延後，其他聚合照常派送")
+        void dispatchBatch_FailureBlocksSameAggregate() {
+            EventOutbox failing = row(new OrderSubmittedEvent(1L, BigDecimal.TEN));
+            EventOutbox sameOrder = row(new OrderSubmittedEvent(1L, BigDecimal.ONE));
+            EventOutbox otherOrder = row(new OrderSubmittedEvent(2L, BigDecimal.ONE));
+            claimable(List.of(failing, sameOrder, otherOrder));
+
+            List<String> published = new ArrayList<>();
+            doAnswer(invocation -> {
+                BaseEvent event = invocation.getArgument(0);
+                if (event.getEventId().equals(failing.getEventId())) {
+                    throw new IllegalStateException("queue full");
+                }
+                published.add(event.getEventId());
+                return null;
+            }).when(applicationEventPublisher).publishEvent(any(Object.class));
+
+            int dispatched = dispatcher.dispatchBatch();
+
+            assertThat(dispatched).isEqualTo(1);
+            assertThat(published).containsExactly(otherOrder.getEventId());
+            assertThat(failing.getStatus()).isEqualTo(EventOutboxStatus.PENDING);
+            assertThat(failing.getAttempts()).isEqualTo(1);
+            assertThat(failing.getLastError()).isEqualTo("queue full");
+            assertThat(failing.getNextAttemptAt()).isAfter(LocalDateTime.now());
+            verify(eventOutboxRepository).markDispatched(eq(List.of(otherOrder.getId())), any());
+            verify(eventOutboxRepository).release(List.of(sameOrder.getId()));
+            verify(eventOutboxRepository).saveAll(List.of(failing));
+        }
+
+        @Test
+        @DisplayName("提交後只將已派送的事件寫入 Redis Stream")
+        @SuppressWarnings("unchecked")
+        void dispatchBatch_PublishesDispatchedEventsToStream() {
+            EventOutbox failing = row(new OrderSubmittedEvent(1L, BigDecimal.TEN));
+            EventOutbox otherOrder = row(new OrderSubmittedEvent(2L, BigDecimal.ONE));
+            claimable(List.of(failing, otherOrder));
+            doAnswer(invocation -> {
+                BaseEvent event = invocation.getArgument(0);
+                if (event.getEventId().equals(failing.getEventId())) {
+                    throw new IllegalStateException("listener failed");
+                }
+                return null;
+            }).when(applicationEventPublisher).publishEvent(any(Object.class));
+
+            dispatcher.dispatchBatch();
+
+            ArgumentCaptor<List<BaseEvent>> streamed = ArgumentCaptor.forClass(List.class);
+            InOrder inOrder = inOrder(transactionManager, redisStreamEventBus);
+            inOrder.verify(transactionManager, times(2)).commit(any());
+            inOrder.verify(redisStreamEventBus).publish(streamed.capture());
+            assertThat(streamed.getValue())
+                    .extracting(BaseEvent::getEventId)
+                    .containsExactly(otherOrder.getEventId());
+        }
+
+        @Test
+        @DisplayName("執行道已滿時延後該聚合且不計入失敗次數")
+        void dispatchBatch_LaneFull_DefersWithoutAttempt() {
+            EventOutbox congested = row(new OrderSubmittedEvent(1L, BigDecimal.TEN));
+            EventOutbox sameOrder = row(new OrderSubmittedEvent(1L, BigDecimal.ONE));
+            EventOutbox otherOrder = row(new OrderSubmittedEvent(2L, BigDecimal.ONE));
+            claimable(List.of(congested, sameOrder, otherOrder));
+            when(eventLaneExecutor.hasCapacity(argThat((BaseEvent event) -> "order:1".equals(event.getAggregateKey()))))
+                    .thenReturn(false);
+
+            int dispatched = dispatcher.dispatchBatch();
+
+            assertThat(dispatched).isEqualTo(1);
+            assertThat(congested.getAttempts()).isZero();
+            assertThat(sameOrder.getAttempts()).isZero();
+            verify(applicationEventPublisher, times(1)).publishEvent(any(Object.class));
+            verify(eventOutboxRepository).markDispatched(eq(List.of(otherOrder.getId())), any());
+            verify(eventOutboxRepository).release(List.of(congested.getId(), sameOrder.getId()));
+        }
+
+        @Test
+        @DisplayName("監聽器被拒絕時延後且不計入失敗次數")
+        void dispatchBatch_Rejected_DefersWithoutAttempt() {
+            EventOutbox rejected = row(new OrderSubmittedEvent(1L, BigDecimal.TEN));
+            claimable(List.of(rejected));
+            doThrow(new TaskRejectedException("lane full"))
+                    .when(applicationEventPublisher).publishEvent(any(Object.class));
+
+            int dispatched = dispatcher.dispatchBatch();
+
+            assertThat(dispatched).isZero();
+            assertThat(rejected.getStatus()).isEqualTo(EventOutboxStatus.PENDING);
+            assertThat(rejected.getAttempts()).isZero();
+            verify(eventOutboxRepository, never()).markDispatched(anyCollection(), any());
+        }
+
+        @Test
+        @DisplayName("無法反序列化的事件標記為 FAILED")
+        void dispatchBatch_UndecodableMarkedFailed() {
+            EventOutbox broken = EventOutbox.builder()
+                    .id(1L)
+                    .eventId("broken")
+                    .eventType("com.morningharvest.erp.removed.RemovedEvent")
+                    .aggregateKey("removed")
+                    .payload("{}")
+                    .status(EventOutboxStatus.PENDING)
+                    .createdAt(LocalDateTime.now())
+                    .build();
+            claimable(List.of(broken));
+
+            int dispatched = dispatcher.dispatchBatch();
+
+            assertThat(dispatched).isZero();
+            assertThat(broken.getStatus()).isEqualTo(EventOutboxStatus.FAILED);
+            verify(applicationEventPublisher, never()).publishEvent(any(Object.class));
+            verify(eventOutboxRepository, never()).markDispatched(anyCollection(), any());
+            verify(eventOutboxRepository).saveAll(List.of(broken));
+        }
+
+        @Test
+        @DisplayName("認領時設定認領期限")
+        @SuppressWarnings("unchecked")
+        void dispatchBatch_ClaimsRowsUntilTimeout() {
+            EventOutbox first = row(new OrderSubmittedEvent(1L, BigDecimal.TEN));
+            EventOutbox second = row(new OrderSubmittedEvent(2L, BigDecimal.ONE));
+            claimable(List.of(first, second));
+            LocalDateTime before = LocalDateTime.now();
+
+            dispatcher.dispatchBatch();
+
+            ArgumentCaptor<LocalDateTime> until = ArgumentCaptor.forClass(LocalDateTime.class);
+            verify(eventOutboxRepository).claim(eq(List.of(first.getId(), second.getId())), until.capture());
+            assertThat(until.getValue()).isAfterOrEqualTo(before.plusMinutes(5));
+        }
+
+        @Test
+        @DisplayName("沒有待派送事件時不查詢可派送事件")
+        void dispatchBatch_NoPending_SkipsClaim() {
+            when(eventOutboxRepository.lockHead()).thenReturn(null);
+
+            int dispatched = dispatcher.dispatchBatch();
+
+            assertThat(dispatched).isZero();
+            verify(eventOutboxRepository, never()).lockDue(any(), anyInt());
+            verify(applicationEventPublisher, never()).publishEvent(any(Object.class));
+        }
+
+        @Test
+        @DisplayName("認領與標記各自提交，發布時不在交易中")
+        void dispatchBatch_PublishesOutsideTransaction() {
+            EventOutbox first = row(new OrderSubmittedEvent(1L, BigDecimal.TEN));
+            claimable(List.of(first));
+
+            dispatcher.dispatchBatch();
+
+            InOrder inOrder = inOrder(transactionManager, eventOutboxRepository, applicationEventPublisher);
+            inOrder.verify(eventOutboxRepository).claim(anyCollection(), any());
+            inOrder.verify(transactionManager).commit(any());
+            inOrder.verify(applicationEventPublisher).publishEvent(any(Object.class));
+            inOrder.verify(eventOutboxRepository).markDispatched(anyCollection(), any());
+            inOrder.verify(transactionManager).commit(any());
+        }
+
+        @Test
+        @DisplayName("失敗次數達上限時標記為 FAILED")
+        void dispatchBatch_MaxAttempts_MarkedFailed() {
+            EventOutbox failing = row(new OrderSubmittedEvent(1L, BigDecimal.TEN));
+            failing.setAttempts(9);
+            claimable(List.of(failing));
+            doThrow(new IllegalStateException("listener failed"))
+                    .when(applicationEventPublisher).publishEvent(any(Object.class));
+
+            int dispatched = dispatcher.dispatchBatch();
+
+            assertThat(dispatched).isZero();
+            assertThat(failing.getStatus()).isEqualTo(EventOutboxStatus.FAILED);
+            assertThat(failing.getAttempts()).isEqualTo(10);
+            assertThat(failing.getNextAttemptAt()).isNull();
+            verify(eventOutboxRepository).saveAll(List.of(failing));
+        }
+    }
+
+    @Nested
+    @DisplayName("退避時間")
+    class BackoffTests {
+
+        @Test
+        @DisplayName("每次失敗等待時間加倍")
+        void backoffOf_Doubles() {
+            assertThat(dispatcher.backoffOf(1)).isEqualTo(Duration.ofSeconds(5));
+            assertThat(dispatcher.backoffOf(2)).isEqualTo(Duration.ofSeconds(10));
+            assertThat(dispatcher.backoffOf(4)).isEqualTo(Duration.ofSeconds(40));
+        }
+
+        @Test
+        @DisplayName("等待時間不超過上限")
+        void backoffOf_CappedAtMax() {
+            assertThat(dispatcher.backoffOf(10)).isEqualTo(Duration.ofMinutes(10));
+            assertThat(dispatcher.backoffOf(100)).isEqualTo(Duration.ofMinutes(10));
+        }
+    }
+}
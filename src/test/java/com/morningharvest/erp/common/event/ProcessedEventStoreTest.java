@@ -0,0 +1,186 @@
+package com.morningharvest.erp.common.event;
+
+import com.morningharvest.erp.order.event.OrderSubmittedEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.aop.support.annotation.AnnotationMatchingPointcut;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("ProcessedEventStore 單元測試")
+class ProcessedEventStoreTest {
+
+    private static final String LISTENER = "com.example.Listener#onEvent";
+
+    @Mock
+    private ProcessedEventRepository processedEventRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private ProcessedEventStore store;
+
+    @BeforeEach
+    void setUp() {
+        store = new ProcessedEventStore(processedEventRepository, transactionManager, new SimpleMeterRegistry());
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        TransactionSynchronizationManager.setActualTransactionActive(false);
+    }
+
+    /**
+     * 模擬交易結束，執行已註冊的同步回呼
+     */
+    private void completeTransaction(boolean committed) {
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+        for (TransactionSynchronization synchronization : synchronizations) {
+            if (committed) {
+                synchronization.afterCommit();
+            }
+            synchronization.afterCompletion(committed
+                    ? TransactionSynchronization.STATUS_COMMITTED
+                    : TransactionSynchronization.STATUS_ROLLED_BACK);
+        }
+    }
+
+    @Nested
+    @DisplayName("交易內標記")
+    class TryMarkTests {
+
+        @Test
+        @DisplayName("首次處理寫入記錄並回傳 true")
+        void tryMark_FirstTime_ReturnsTrue() {
+            TransactionSynchronizationManager.initSynchronization();
+            when(processedEventRepository.insertIgnore(eq("e-1"), eq(LISTENER), any())).thenReturn(1);
+
+            assertThat(store.tryMark("e-1", LISTENER)).isTrue();
+        }
+
+        @Test
+        @DisplayName("資料庫已有記錄時回傳 false")
+        void tryMark_AlreadyInDatabase_ReturnsFalse() {
+            when(processedEventRepository.insertIgnore(eq("e-1"), eq(LISTENER), any())).thenReturn(0);
+
+            assertThat(store.tryMark("e-1", LISTENER)).isFalse();
+        }
+
+        @Test
+        @DisplayName("提交後重複事件由記憶體判斷，不再查詢資料庫")
+        void tryMark_AfterCommit_SkipsDatabase() {
+            TransactionSynchronizationManager.initSynchronization();
+            when(processedEventRepository.insertIgnore(eq("e-1"), eq(LISTENER), any())).thenReturn(1);
+            store.tryMark("e-1", LISTENER);
+            completeTransaction(true);
+
+            assertThat(store.tryMark("e-1", LISTENER)).isFalse();
+
+            verify(processedEventRepository, times(1)).insertIgnore(anyString(), anyString(), any());
+        }
+
+        @Test
+        @DisplayName("回滾後再次送達時重新處理")
+        void tryMark_AfterRollback_ProcessesAgain() {
+            TransactionSynchronizationManager.initSynchronization();
+            when(processedEventRepository.insertIgnore(eq("e-1"), eq(LISTENER), any())).thenReturn(1);
+            store.tryMark("e-1", LISTENER);
+            completeTransaction(false);
+
+            TransactionSynchronizationManager.initSynchronization();
+            assertThat(store.tryMark("e-1", LISTENER)).isTrue();
+
+            verify(processedEventRepository, times(2)).insertIgnore(anyString(), anyString(), any());
+        }
+
+        @Test
+        @DisplayName("不同監聽器各自記錄")
+        void tryMark_DifferentListener_Independent() {
+            when(processedEventRepository.insertIgnore(eq("e-1"), anyString(), any())).thenReturn(0, 1);
+
+            assertThat(store.tryMark("e-1", LISTENER)).isFalse();
+            assertThat(store.tryMark("e-1", "com.example.Other#onEvent")).isTrue();
+        }
+    }
+
+    @Nested
+    @DisplayName("攔截器")
+    class InterceptorTests {
+
+        private RecordingListener proxy(RecordingListener target) {
+            ProxyFactory proxyFactory = new ProxyFactory(target);
+            proxyFactory.setProxyTargetClass(true);
+            proxyFactory.addAdvisor(new DefaultPointcutAdvisor(
+                    AnnotationMatchingPointcut.forMethodAnnotation(IdempotentListener.class),
+                    new IdempotentListenerInterceptor(() -> store)));
+            return (RecordingListener) proxyFactory.getProxy();
+        }
+
+        @Test
+        @DisplayName("交易內重複送達的事件只處理一次")
+        void invoke_InTransaction_SkipsDuplicate() {
+            TransactionSynchronizationManager.initSynchronization();
+            TransactionSynchronizationManager.setActualTransactionActive(true);
+            when(processedEventRepository.insertIgnore(anyString(), anyString(), any())).thenReturn(1, 0);
+            RecordingListener target = new RecordingListener();
+            RecordingListener listener = proxy(target);
+            OrderSubmittedEvent event = new OrderSubmittedEvent(7L, BigDecimal.TEN);
+
+            listener.onOrderSubmitted(event);
+            listener.onOrderSubmitted(event);
+
+            assertThat(target.received).containsExactly(event.getEventId());
+            verify(processedEventRepository, times(2)).insertIgnore(eq(event.getEventId()),
+                    eq(RecordingListener.class.getName() + "#onOrderSubmitted"), any());
+        }
+
+        @Test
+        @DisplayName("沒有交易時執行成功後才記錄")
+        void invoke_WithoutTransaction_MarksAfterSuccess() {
+            RecordingListener target = new RecordingListener();
+            OrderSubmittedEvent event = new OrderSubmittedEvent(7L, BigDecimal.TEN);
+            String listenerId = RecordingListener.class.getName() + "#onOrderSubmitted";
+            when(processedEventRepository.existsByEventIdAndListener(event.getEventId(), listenerId))
+                    .thenReturn(false);
+
+            proxy(target).onOrderSubmitted(event);
+            proxy(target).onOrderSubmitted(event);
+
+            assertThat(target.received).containsExactly(event.getEventId());
+            verify(processedEventRepository, times(1)).existsByEventIdAndListener(anyString(), anyString());
+        }
+    }
+
+    static class RecordingListener {
+
+        final List<String> received = new ArrayList<>();
+
+        @IdempotentListener
+        public void onOrderSubmitted(OrderSubmittedEvent event) {
+            received.add(event.getEventId());
+        }
+    }
+}
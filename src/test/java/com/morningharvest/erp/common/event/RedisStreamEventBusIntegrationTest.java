@@ -0,0 +1,103 @@
+package com.morningharvest.erp.common.event;
+
+import com.morningharvest.erp.catalog.event.CatalogImportedEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 以測試環境的 Redis 容器（mh-dev-api-test-1-redis）驗證跨節點送達；
+ * 應用程式本身為節點 A，測試中另建立節點 B 的匯流排並同步讀取
+ */
+@SpringBootTest(properties = {
+        "event.bus.redis-stream.enabled=true",
+        "event.bus.redis-stream.stream-key=" + RedisStreamEventBusIntegrationTest.STREAM_KEY,
+        "event.bus.redis-stream.node-name=node-a"
+})
+@ActiveProfiles("test")
+@DisplayName("RedisStreamEventBus 整合測試")
+class RedisStreamEventBusIntegrationTest {
+
+    static final String STREAM_KEY = "erp:events:integration-test";
+
+    @Autowired
+    private RedisStreamEventBus redisStreamEventBus;
+
+    @Autowired
+    private StringRedisTemplate redisTemplate;
+
+    @Autowired
+    private EventCodec eventCodec;
+
+    @AfterEach
+    void tearDown() {
+        redisTemplate.delete(STREAM_KEY);
+    }
+
+    private RedisStreamEventBus node(String nodeName, ApplicationEventPublisher publisher, Duration claimIdle) {
+        RedisStreamEventBus bus = new RedisStreamEventBus(redisTemplate, eventCodec, publisher, new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(bus, "enabled", true);
+        ReflectionTestUtils.setField(bus, "streamKey", STREAM_KEY);
+        ReflectionTestUtils.setField(bus, "nodeName", nodeName);
+        ReflectionTestUtils.setField(bus, "blockTimeout", Duration.ofMillis(500));
+        ReflectionTestUtils.setField(bus, "claimIdle", claimIdle);
+        bus.createGroup();
+        return bus;
+    }
+
+    @Test
+    @DisplayName("其他節點收到本節點發布的事件，識別碼與內容不變")
+    void publish_DeliveredToOtherNode() {
+        List<Object> received = new ArrayList<>();
+        RedisStreamEventBus nodeB = node("node-b", received::add, Duration.ofMinutes(1));
+        CatalogImportedEvent event = new CatalogImportedEvent(List.of(1L, 2L));
+
+        redisStreamEventBus.publish(List.of(event));
+        int read = nodeB.poll();
+
+        assertThat(read).isEqualTo(1);
+        assertThat(received).hasSize(1);
+        RemoteEvent<?> remote = (RemoteEvent<?>) received.get(0);
+        assertThat(remote.getOrigin()).isEqualTo(redisStreamEventBus.instanceId());
+        assertThat(remote.getEvent().getEventId()).isEqualTo(event.getEventId());
+        assertThat(((CatalogImportedEvent) remote.getEvent()).getRecipeProductIds()).containsExactly(1L, 2L);
+        assertThat(redisTemplate.opsForStream().pending(STREAM_KEY, nodeB.group()).getTotalPendingMessages()).isZero();
+    }
+
+    @Test
+    @DisplayName("處理失敗的事件留在待確認清單，由同節點的新實例認領")
+    void failedDelivery_ClaimedByNextInstance() {
+        RedisStreamEventBus crashed = node("node-c", event -> {
+            throw new IllegalStateException("listener failed");
+        }, Duration.ofMinutes(1));
+        CatalogImportedEvent event = new CatalogImportedEvent(List.of(3L));
+
+        redisStreamEventBus.publish(List.of(event));
+        crashed.poll();
+        assertThat(redisTemplate.opsForStream().pending(STREAM_KEY, crashed.group()).getTotalPendingMessages())
+                .isEqualTo(1);
+
+        List<Object> received = new ArrayList<>();
+        RedisStreamEventBus restarted = node("node-c", received::add, Duration.ZERO);
+        int claimed = restarted.claimIdle();
+
+        assertThat(claimed).isEqualTo(1);
+        assertThat(received).hasSize(1);
+        assertThat(((RemoteEvent<?>) received.get(0)).getEvent().getEventId()).isEqualTo(event.getEventId());
+        assertThat(redisTemplate.opsForStream().pending(STREAM_KEY, restarted.group()).getTotalPendingMessages())
+                .isZero();
+    }
+}
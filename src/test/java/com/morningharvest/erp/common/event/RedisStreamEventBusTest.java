@@ -0,0 +1,264 @@
+package com.morningharvest.erp.common.event;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.morningharvest.erp.order.event.OrderSubmittedEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Range;
+import org.springframework.data.redis.connection.RedisStreamCommands.XAddOptions;
+import org.springframework.data.redis.connection.StringRedisConnection;
+import org.springframework.data.redis.connection.stream.Consumer;
+import org.springframework.data.redis.connection.stream.MapRecord;
+import org.springframework.data.redis.connection.stream.PendingMessage;
+import org.springframework.data.redis.connection.stream.PendingMessages;
+import org.springframework.data.redis.connection.stream.RecordId;
+import org.springframework.data.redis.connection.stream.StreamInfo;
+import org.springframework.data.redis.connection.stream.StreamOffset;
+import org.springframework.data.redis.connection.stream.StreamReadOptions;
+import org.springframework.data.redis.connection.stream.StringRecord;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StreamOperations;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("RedisStreamEventBus 單元測試")
+class RedisStreamEventBusTest {
+
+    private static final String STREAM_KEY = "erp:events";
+
+    @Mock
+    private StringRedisTemplate redisTemplate;
+
+    @Mock
+    private StreamOperations<String, Object, Object> streamOperations;
+
+    @Mock
+    private ApplicationEventPublisher applicationEventPublisher;
+
+    private final EventCodec eventCodec = new EventCodec(new ObjectMapper()
+            .findAndRegisterModules()
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS));
+
+    private RedisStreamEventBus bus;
+
+    private long nextId = 1;
+
+    @BeforeEach
+    void setUp() {
+        bus = new RedisStreamEventBus(redisTemplate, eventCodec, applicationEventPublisher, new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(bus, "enabled", true);
+        ReflectionTestUtils.setField(bus, "nodeName", "node-a");
+        lenient().when(redisTemplate.opsForStream()).thenReturn(streamOperations);
+    }
+
+    private MapRecord<String, Object, Object> record(BaseEvent event, String origin) {
+        Map<Object, Object> fields = new HashMap<>();
+        fields.put(RedisStreamEventBus.FIELD_EVENT_ID, event.getEventId());
+        fields.put(RedisStreamEventBus.FIELD_EVENT_TYPE, eventCodec.typeOf(event));
+        fields.put(RedisStreamEventBus.FIELD_PAYLOAD, eventCodec.encode(event));
+        fields.put(RedisStreamEventBus.FIELD_ORIGIN, origin);
+        return MapRecord.create(STREAM_KEY, fields).withId(RecordId.of((nextId++) + "-0"));
+    }
+
+    private void givenRead(List<MapRecord<String, Object, Object>> records) {
+        when(streamOperations.read(any(Consumer.class), any(StreamReadOptions.class), any(StreamOffset.class)))
+                .thenReturn(records);
+    }
+
+    @Nested
+    @DisplayName("發布")
+    class PublishTests {
+
+        @Test
+        @DisplayName("未啟用時不寫入 Redis")
+        void publish_Disabled_DoesNothing() {
+            ReflectionTestUtils.setField(bus, "enabled", false);
+
+            bus.publish(List.of(new OrderSubmittedEvent(1L, BigDecimal.TEN)));
+
+            verifyNoInteractions(redisTemplate);
+        }
+
+        @Test
+        @DisplayName("以管線批次寫入事件識別碼、類型、內容與來源實例")
+        void publish_PipelinesRecords() {
+            StringRedisConnection connection = mock(StringRedisConnection.class);
+            when(redisTemplate.executePipelined(any(RedisCallback.class))).thenAnswer(invocation -> {
+                RedisCallback<?> callback = invocation.getArgument(0);
+                callback.doInRedis(connection);
+                return List.of();
+            });
+            OrderSubmittedEvent first = new OrderSubmittedEvent(1L, BigDecimal.TEN);
+            OrderSubmittedEvent second = new OrderSubmittedEvent(2L, BigDecimal.ONE);
+
+            bus.publish(List.of(first, second));
+
+            ArgumentCaptor<StringRecord> records = ArgumentCaptor.forClass(StringRecord.class);
+            verify(connection, times(2)).xAdd(records.capture(), any(XAddOptions.class));
+            StringRecord written = records.getAllValues().get(0);
+            assertThat(written.getStream()).isEqualTo(STREAM_KEY);
+            assertThat(written.getValue())
+                    .containsEntry(RedisStreamEventBus.FIELD_EVENT_ID, first.getEventId())
+                    .containsEntry(RedisStreamEventBus.FIELD_EVENT_TYPE, OrderSubmittedEvent.class.getName())
+                    .containsEntry(RedisStreamEventBus.FIELD_ORIGIN, bus.instanceId());
+            assertThat(records.getAllValues().get(1).getValue())
+                    .containsEntry(RedisStreamEventBus.FIELD_EVENT_ID, second.getEventId());
+        }
+
+        @Test
+        @DisplayName("Redis 無法使用時不拋出例外")
+        void publish_RedisDown_DoesNotThrow() {
+            when(redisTemplate.executePipelined(any(RedisCallback.class)))
+                    .thenThrow(new IllegalStateException("connection refused"));
+
+            bus.publish(List.of(new OrderSubmittedEvent(1L, BigDecimal.TEN)));
+
+            verify(redisTemplate).executePipelined(any(RedisCallback.class));
+        }
+    }
+
+    @Nested
+    @DisplayName("接收")
+    class ReceiveTests {
+
+        @Test
+        @DisplayName("其他節點的事件以 RemoteEvent 發布並確認")
+        void poll_RemoteEvent_PublishesAndAcknowledges() {
+            OrderSubmittedEvent event = new OrderSubmittedEvent(7L, new BigDecimal("120.50"));
+            MapRecord<String, Object, Object> record = record(event, "other-instance");
+            givenRead(List.of(record));
+
+            int read = bus.poll();
+
+            assertThat(read).isEqualTo(1);
+            ArgumentCaptor<Object> published = ArgumentCaptor.forClass(Object.class);
+            verify(applicationEventPublisher).publishEvent(published.capture());
+            RemoteEvent<?> remote = (RemoteEvent<?>) published.getValue();
+            assertThat(remote.getOrigin()).isEqualTo("other-instance");
+            assertThat(remote.getEvent()).isInstanceOf(OrderSubmittedEvent.class);
+            assertThat(remote.getEvent().getEventId()).isEqualTo(event.getEventId());
+            verify(streamOperations).acknowledge(STREAM_KEY, "erp-api:node-a", record.getId());
+        }
+
+        @Test
+        @DisplayName("本實例發布的事件直接確認，不再發布")
+        void poll_OwnEvent_AcknowledgesWithoutPublishing() {
+            MapRecord<String, Object, Object> record = record(
+                    new OrderSubmittedEvent(1L, BigDecimal.TEN), bus.instanceId());
+            givenRead(List.of(record));
+
+            bus.poll();
+
+            verifyNoInteractions(applicationEventPublisher);
+            verify(streamOperations).acknowledge(STREAM_KEY, "erp-api:node-a", record.getId());
+        }
+
+        @Test
+        @DisplayName("無法反序列化的事件確認並捨棄")
+        void poll_UndecodableEvent_AcknowledgesAndDrops() {
+            Map<Object, Object> fields = new HashMap<>();
+            fields.put(RedisStreamEventBus.FIELD_EVENT_TYPE, "java.lang.String");
+            fields.put(RedisStreamEventBus.FIELD_PAYLOAD, "{}");
+            fields.put(RedisStreamEventBus.FIELD_ORIGIN, "other-instance");
+            MapRecord<String, Object, Object> record = MapRecord.create(STREAM_KEY, fields).withId(RecordId.of("9-0"));
+            givenRead(List.of(record));
+
+            bus.poll();
+
+            verifyNoInteractions(applicationEventPublisher);
+            verify(streamOperations).acknowledge(STREAM_KEY, "erp-api:node-a", record.getId());
+        }
+
+        @Test
+        @DisplayName("發布失敗的事件不確認，其餘照常確認")
+        void poll_PublishFailure_LeavesPending() {
+            OrderSubmittedEvent failing = new OrderSubmittedEvent(1L, BigDecimal.TEN);
+            MapRecord<String, Object, Object> failingRecord = record(failing, "other-instance");
+            MapRecord<String, Object, Object> okRecord = record(new OrderSubmittedEvent(2L, BigDecimal.ONE), "other-instance");
+            givenRead(List.of(failingRecord, okRecord));
+            doAnswer(invocation -> {
+                RemoteEvent<?> remote = invocation.getArgument(0);
+                if (remote.getEvent().getEventId().equals(failing.getEventId())) {
+                    throw new IllegalStateException("listener failed");
+                }
+                return null;
+            }).when(applicationEventPublisher).publishEvent(any(Object.class));
+
+            bus.poll();
+
+            verify(streamOperations).acknowledge(STREAM_KEY, "erp-api:node-a", okRecord.getId());
+        }
+
+        @Test
+        @DisplayName("沒有新事件時不確認")
+        void poll_Empty_DoesNotAcknowledge() {
+            givenRead(List.of());
+
+            assertThat(bus.poll()).isZero();
+
+            verify(streamOperations, never()).acknowledge(anyString(), anyString(), any(RecordId.class));
+        }
+    }
+
+    @Nested
+    @DisplayName("認領待確認事件")
+    class ClaimTests {
+
+        @Test
+        @DisplayName("認領閒置項目重新處理，送達次數達上限者確認並捨棄")
+        void claimIdle_ClaimsIdleAndDropsExhausted() {
+            Consumer previous = Consumer.from("erp-api:node-a", "previous-instance");
+            PendingMessage idle = new PendingMessage(RecordId.of("1-0"), previous, Duration.ofMinutes(5), 1);
+            PendingMessage exhausted = new PendingMessage(RecordId.of("2-0"), previous, Duration.ofMinutes(5), 5);
+            PendingMessage recent = new PendingMessage(RecordId.of("3-0"), previous, Duration.ofSeconds(5), 1);
+            when(streamOperations.pending(eq(STREAM_KEY), eq("erp-api:node-a"), any(Range.class), eq(100L)))
+                    .thenReturn(new PendingMessages("erp-api:node-a", List.of(idle, exhausted, recent)));
+            MapRecord<String, Object, Object> claimed = record(new OrderSubmittedEvent(1L, BigDecimal.TEN), "other-instance")
+                    .withId(RecordId.of("1-0"));
+            when(streamOperations.claim(STREAM_KEY, "erp-api:node-a", bus.instanceId(), Duration.ofMinutes(1), RecordId.of("1-0")))
+                    .thenReturn(List.of(claimed));
+            when(streamOperations.consumers(STREAM_KEY, "erp-api:node-a"))
+                    .thenReturn(mock(StreamInfo.XInfoConsumers.class));
+
+            int count = bus.claimIdle();
+
+            assertThat(count).isEqualTo(1);
+            verify(streamOperations).acknowledge(STREAM_KEY, "erp-api:node-a", RecordId.of("2-0"));
+            verify(applicationEventPublisher).publishEvent(any(RemoteEvent.class));
+            verify(streamOperations).acknowledge(STREAM_KEY, "erp-api:node-a", RecordId.of("1-0"));
+        }
+
+        @Test
+        @DisplayName("沒有閒置項目時不認領")
+        void claimIdle_NothingIdle_ClaimsNothing() {
+            when(streamOperations.pending(eq(STREAM_KEY), eq("erp-api:node-a"), any(Range.class), eq(100L)))
+                    .thenReturn(new PendingMessages("erp-api:node-a", List.of()));
+            when(streamOperations.consumers(STREAM_KEY, "erp-api:node-a"))
+                    .thenReturn(mock(StreamInfo.XInfoConsumers.class));
+
+            assertThat(bus.claimIdle()).isZero();
+
+            verify(streamOperations, never()).claim(anyString(), anyString(), anyString(), any(Duration.class), any(RecordId.class));
+        }
+    }
+}
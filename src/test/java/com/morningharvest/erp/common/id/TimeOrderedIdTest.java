@@ -0,0 +1,113 @@
+package com.morningharvest.erp.common.id;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("TimeOrderedId 單元測試")
+class TimeOrderedIdTest {
+
+    @Nested
+    @DisplayName("格式")
+    class FormatTests {
+
+        @Test
+        @DisplayName("產生 36 字元的 UUIDv7，變體為 RFC 9562")
+        void next_IsUuidV7() {
+            UUID id = UUID.fromString(TimeOrderedId.next());
+
+            assertThat(id.version()).isEqualTo(7);
+            assertThat(id.variant()).isEqualTo(2);
+            assertThat(id.toString()).hasSize(36);
+        }
+
+        @Test
+        @DisplayName("時間戳為產生時的毫秒時間")
+        void timestampOf_ReturnsCreationTime() {
+            long before = System.currentTimeMillis();
+            UUID id = TimeOrderedId.nextUuid();
+            long after = System.currentTimeMillis();
+
+            // 同一毫秒內序號用盡時時間戳可能略為超前
+            assertThat(TimeOrderedId.timestampOf(id)).isBetween(before, after + 1);
+        }
+
+        @Test
+        @DisplayName("各欄位放在對應位元")
+        void build_PlacesFields() {
+            long state = (0x0123_4567_89ABL << 16) | 0xFEDC;
+
+            UUID id = TimeOrderedId.build(state, 0xBEEF, -1L);
+
+            assertThat(id.toString()).isEqualTo("01234567-89ab-7fed-b2fb-bfffffffffff");
+            assertThat(TimeOrderedId.timestampOf(id)).isEqualTo(0x0123_4567_89ABL);
+        }
+    }
+
+    @Nested
+    @DisplayName("排序")
+    class OrderingTests {
+
+        @Test
+        @DisplayName("連續產生的識別碼依字串排序嚴格遞增")
+        void next_IsMonotonic() {
+            List<String> ids = new ArrayList<>();
+            for (int i = 0; i < 100_000; i++) {
+                ids.add(TimeOrderedId.next());
+            }
+
+            for (int i = 1; i < ids.size(); i++) {
+                assertThat(ids.get(i)).isGreaterThan(ids.get(i - 1));
+            }
+        }
+
+        @Test
+        @DisplayName("時鐘倒退時沿用上一個時間戳繼續遞增")
+        void advance_ClockGoesBackwards_StaysMonotonic() {
+            long first = TimeOrderedId.advance(System.currentTimeMillis());
+            long second = TimeOrderedId.advance(System.currentTimeMillis() - 1000);
+
+            assertThat(second).isEqualTo(first + 1);
+            assertThat(second >>> 16).isEqualTo(first >>> 16);
+        }
+
+        @Test
+        @DisplayName("多執行緒同時產生不重複")
+        void next_Concurrent_Unique() throws InterruptedException {
+            int threads = 8;
+            int perThread = 20_000;
+            Set<String> ids = ConcurrentHashMap.newKeySet();
+            CountDownLatch start = new CountDownLatch(1);
+            ExecutorService executor = Executors.newFixedThreadPool(threads);
+            for (int t = 0; t < threads; t++) {
+                executor.execute(() -> {
+                    try {
+                        start.await();
+                        for (int i = 0; i < perThread; i++) {
+                            ids.add(TimeOrderedId.next());
+                        }
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                });
+            }
+
+            start.countDown();
+            executor.shutdown();
+            assertThat(executor.awaitTermination(30, TimeUnit.SECONDS)).isTrue();
+            assertThat(ids).hasSize(threads * perThread);
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package com.morningharvest.erp.common.sequence;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("DocumentSequenceService 單元測試")
+class DocumentSequenceServiceTest {
+
+    @Mock
+    private DocumentSequenceRepository documentSequenceRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private DocumentSequenceService documentSequenceService;
+
+    private String today;
+
+    @BeforeEach
+    void setUp() {
+        documentSequenceService = new DocumentSequenceService(documentSequenceRepository, transactionManager, 3);
+        today = LocalDate.now().format(DateTimeFormatter.ofPattern("yyyyMMdd"));
+    }
+
+    @Test
+    @DisplayName("同一區塊內發放序號不需存取資料庫")
+    void nextNumber_WithinBlock() {
+        // Given：第一次配置取得 [1, 4)
+        when(documentSequenceRepository.findNextValue("PO-" + today)).thenReturn(4L);
+
+        // When
+        String first = documentSequenceService.nextNumber("PO");
+        String second = documentSequenceService.nextNumber("PO");
+        String third = documentSequenceService.nextNumber("PO");
+
+        // Then
+        assertThat(first).isEqualTo("PO-" + today + "-0001");
+        assertThat(second).isEqualTo("PO-" + today + "-0002");
+        assertThat(third).isEqualTo("PO-" + today + "-0003");
+        verify(documentSequenceRepository, times(1)).allocate("PO-" + today, 3);
+    }
+
+    @Test
+    @DisplayName("區塊用盡時配置下一個區塊")
+    void nextNumber_AllocatesNextBlock() {
+        // Given：第一次 [1, 4)，第二次 [7, 10)（中間區塊已被其他節點取得）
+        when(documentSequenceRepository.findNextValue("IC-" + today)).thenReturn(4L, 10L);
+
+        // When
+        Set<String> numbers = new HashSet<>();
+        for (int i = 0; i < 4; i++) {
+            numbers.add(documentSequenceService.nextNumber("IC"));
+        }
+
+        // Then
+        assertThat(numbers).hasSize(4).contains("IC-" + today + "-0007");
+        verify(documentSequenceRepository, times(2)).allocate("IC-" + today, 3);
+    }
+
+    @Test
+    @DisplayName("不同前綴各自獨立計數")
+    void nextNumber_IndependentPrefixes() {
+        // Given
+        when(documentSequenceRepository.findNextValue(anyString())).thenReturn(4L);
+
+        // When
+        String purchaseNumber = documentSequenceService.nextNumber("PO");
+        String checkNumber = documentSequenceService.nextNumber("IC");
+
+        // Then
+        assertThat(purchaseNumber).isEqualTo("PO-" + today + "-0001");
+        assertThat(checkNumber).isEqualTo("IC-" + today + "-0001");
+    }
+}
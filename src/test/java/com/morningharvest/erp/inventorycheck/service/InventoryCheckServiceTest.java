@@ -4,6 +4,7 @@ import com.morningharvest.erp.common.dto.PageResponse;
 import com.morningharvest.erp.common.dto.PageableRequest;
 import com.morningharvest.erp.common.event.EventPublisher;
 import com.morningharvest.erp.common.exception.ResourceNotFoundException;
+import com.morningharvest.erp.common.sequence.DocumentSequenceService;
 import com.morningharvest.erp.common.test.TestDataFactory;
 import com.morningharvest.erp.inventorycheck.constant.InventoryCheckStatus;
 import com.morningharvest.erp.inventorycheck.dto.*;
@@ -54,6 +55,9 @@ class InventoryCheckServiceTest {
     @Mock
     private EventPublisher eventPublisher;
 
+    @Mock
+    private DocumentSequenceService documentSequenceService;
+
     @InjectMocks
     private InventoryCheckService inventoryCheckService;
 
@@ -94,7 +98,7 @@ class InventoryCheckServiceTest {
             when(materialRepository.findByIsActive(eq(true), any(Pageable.class)))
                     .thenReturn(materialPage);
 
-            when(inventoryCheckRepository.countByCheckNumberPrefix(anyString())).thenReturn(0L);
+            when(documentSequenceService.nextNumber("IC")).thenReturn("IC-20251205-0001");
             when(inventoryCheckRepository.save(any(InventoryCheck.class))).thenAnswer(invocation -> {
                 InventoryCheck ic = invocation.getArgument(0);
                 ic.setId(1L);
@@ -132,7 +136,7 @@ class InventoryCheckServiceTest {
             when(materialRepository.findByIsActive(eq(true), any(Pageable.class)))
                     .thenReturn(emptyPage);
 
-            when(inventoryCheckRepository.countByCheckNumberPrefix(anyString())).thenReturn(0L);
+            when(documentSequenceService.nextNumber("IC")).thenReturn("IC-20251205-0001");
             when(inventoryCheckRepository.save(any(InventoryCheck.class))).thenAnswer(invocation -> {
                 InventoryCheck ic = invocation.getArgument(0);
                 ic.setId(1L);
@@ -312,6 +316,105 @@ class InventoryCheckServiceTest {
         }
     }
 
+    @Nested
+    @DisplayName("batchUpdateInventoryCheckItems 方法測試")
+    class BatchUpdateInventoryCheckItemsTests {
+
+        @Test
+        @DisplayName("依明細 ID 與原物料編號批次更新並回傳進度")
+        void batchUpdateInventoryCheckItems_Success() {
+            // Given
+            InventoryCheck inProgressCheck = TestDataFactory.inProgressInventoryCheck()
+                    .id(1L)
+                    .build();
+
+            InventoryCheckItem secondItem = TestDataFactory.defaultInventoryCheckItem()
+                    .id(2L)
+                    .inventoryCheckId(1L)
+                    .materialId(2L)
+                    .materialCode("M002")
+                    .build();
+
+            BatchUpdateInventoryCheckItemsRequest request = BatchUpdateInventoryCheckItemsRequest.builder()
+                    .inventoryCheckId(1L)
+                    .items(List.of(
+                            BatchUpdateInventoryCheckItemsRequest.ItemCountInput.builder()
+                                    .itemId(1L)
+                                    .actualQuantity(new BigDecimal("48.00"))
+                                    .build(),
+                            BatchUpdateInventoryCheckItemsRequest.ItemCountInput.builder()
+                                    .materialCode("M002")
+                                    .actualQuantity(new BigDecimal("10.00"))
+                                    .build()))
+                    .build();
+
+            when(inventoryCheckRepository.findById(1L)).thenReturn(Optional.of(inProgressCheck));
+            when(inventoryCheckItemRepository.findByInventoryCheckIdOrderByIdAsc(1L))
+                    .thenReturn(List.of(testInventoryCheckItem, secondItem));
+
+            // When
+            InventoryCheckProgressDTO result = inventoryCheckService.batchUpdateInventoryCheckItems(request);
+
+            // Then
+            assertThat(result.getUpdatedItems()).isEqualTo(2);
+            assertThat(result.getCheckedItems()).isEqualTo(2);
+            assertThat(result.getUncheckedItems()).isZero();
+            assertThat(testInventoryCheckItem.getActualQuantity()).isEqualByComparingTo(new BigDecimal("48.00"));
+            assertThat(secondItem.getIsChecked()).isTrue();
+            verify(inventoryCheckItemRepository).saveAll(anyCollection());
+            verify(inventoryCheckItemRepository, never()).save(any(InventoryCheckItem.class));
+            verify(inventoryCheckRepository, times(1)).findById(1L);
+        }
+
+        @Test
+        @DisplayName("原物料編號不在盤點單中拋出例外且不寫入")
+        void batchUpdateInventoryCheckItems_UnknownMaterialCode() {
+            // Given
+            InventoryCheck inProgressCheck = TestDataFactory.inProgressInventoryCheck()
+                    .id(1L)
+                    .build();
+
+            BatchUpdateInventoryCheckItemsRequest request = BatchUpdateInventoryCheckItemsRequest.builder()
+                    .inventoryCheckId(1L)
+                    .items(List.of(BatchUpdateInventoryCheckItemsRequest.ItemCountInput.builder()
+                            .materialCode("NOPE")
+                            .actualQuantity(BigDecimal.ONE)
+                            .build()))
+                    .build();
+
+            when(inventoryCheckRepository.findById(1L)).thenReturn(Optional.of(inProgressCheck));
+            when(inventoryCheckItemRepository.findByInventoryCheckIdOrderByIdAsc(1L))
+                    .thenReturn(List.of(testInventoryCheckItem));
+
+            // When & Then
+            assertThatThrownBy(() -> inventoryCheckService.batchUpdateInventoryCheckItems(request))
+                    .isInstanceOf(ResourceNotFoundException.class)
+                    .hasMessageContaining("NOPE");
+
+            verify(inventoryCheckItemRepository, never()).saveAll(anyCollection());
+        }
+
+        @Test
+        @DisplayName("狀態非 IN_PROGRESS 拋出例外")
+        void batchUpdateInventoryCheckItems_InvalidStatus() {
+            // Given
+            BatchUpdateInventoryCheckItemsRequest request = BatchUpdateInventoryCheckItemsRequest.builder()
+                    .inventoryCheckId(1L)
+                    .items(List.of(BatchUpdateInventoryCheckItemsRequest.ItemCountInput.builder()
+                            .itemId(1L)
+                            .actualQuantity(BigDecimal.ONE)
+                            .build()))
+                    .build();
+
+            when(inventoryCheckRepository.findById(1L)).thenReturn(Optional.of(testInventoryCheck)); // PLANNED 狀態
+
+            // When & Then
+            assertThatThrownBy(() -> inventoryCheckService.batchUpdateInventoryCheckItems(request))
+                    .isInstanceOf(IllegalStateException.class)
+                    .hasMessageContaining("盤點中狀態");
+        }
+    }
+
     @Nested
     @DisplayName("confirmInventoryCheck 方法測試")
     class ConfirmInventoryCheckTests {
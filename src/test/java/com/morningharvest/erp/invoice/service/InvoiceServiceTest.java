@@ -242,7 +242,7 @@ class InvoiceServiceTest {
         verify(invoiceRepository, times(2)).save(any(Invoice.class));
         verify(orderItemRepository).findByOrderIdOrderByIdAsc(1L);
         verify(invoiceItemRepository).saveAll(anyList());
-        verify(invoiceServiceClient).issueInvoice(any(IssueInvoiceExternalRequest.class));
+        verify(invoiceServiceClient).issueInvoice(argThat(r -> "issue-1".equals(r.getRequestId())));
     }
 
     @Test
@@ -355,7 +355,7 @@ class InvoiceServiceTest {
         assertThat(result.getStatus()).isEqualTo("VOID");
 
         verify(invoiceRepository).findById(1L);
-        verify(invoiceServiceClient).voidInvoice(any(VoidInvoiceExternalRequest.class));
+        verify(invoiceServiceClient).voidInvoice(argThat(r -> "void-1".equals(r.getRequestId())));
         verify(invoiceRepository).save(any(Invoice.class));
     }
 
@@ -458,7 +458,7 @@ class InvoiceServiceTest {
 
         verify(invoiceRepository).findById(1L);
         verify(invoiceAllowanceRepository, times(2)).save(any(InvoiceAllowance.class));
-        verify(invoiceServiceClient).createAllowance(any(AllowanceExternalRequest.class));
+        verify(invoiceServiceClient).createAllowance(argThat(r -> "allowance-1".equals(r.getRequestId())));
     }
 
     @Test
@@ -1,8 +1,10 @@
 package com.morningharvest.erp.material.listener;
 
+import com.morningharvest.erp.common.event.EventPublisher;
 import com.morningharvest.erp.common.test.TestDataFactory;
 import com.morningharvest.erp.inventorycheck.event.InventoryCheckConfirmedEvent;
 import com.morningharvest.erp.material.entity.Material;
+import com.morningharvest.erp.material.event.MaterialCostChangedEvent;
 import com.morningharvest.erp.material.repository.MaterialRepository;
 import com.morningharvest.erp.purchase.event.PurchaseConfirmedEvent;
 import org.junit.jupiter.api.BeforeEach;
@@ -21,6 +23,7 @@ import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -30,6 +33,9 @@ class MaterialStockEventListenerTest {
     @Mock
     private MaterialRepository materialRepository;
 
+    @Mock
+    private EventPublisher eventPublisher;
+
     @InjectMocks
     private MaterialStockEventListener listener;
 
@@ -58,7 +64,7 @@ class MaterialStockEventListenerTest {
                 1L, "PO-20251205-0001", new BigDecimal("1000.00"), List.of(itemInfo)
         );
 
-        when(materialRepository.findById(1L)).thenReturn(Optional.of(testMaterial));
+        when(materialRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(testMaterial));
         when(materialRepository.save(any(Material.class))).thenReturn(testMaterial);
 
         // When
@@ -74,7 +80,7 @@ class MaterialStockEventListenerTest {
     }
 
     @Test
-    @DisplayName("進貨確認事件 - 更新成本單價")
+    @DisplayName("進貨確認事件 - 以移動加權平均更新成本單價")
     void onPurchaseConfirmed_UpdatesCostPrice() {
         // Given
         PurchaseConfirmedEvent.PurchaseItemInfo itemInfo = new PurchaseConfirmedEvent.PurchaseItemInfo(
@@ -84,7 +90,7 @@ class MaterialStockEventListenerTest {
                 1L, "PO-20251205-0001", new BigDecimal("1200.00"), List.of(itemInfo)
         );
 
-        when(materialRepository.findById(1L)).thenReturn(Optional.of(testMaterial));
+        when(materialRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(testMaterial));
         when(materialRepository.save(any(Material.class))).thenReturn(testMaterial);
 
         // When
@@ -95,8 +101,14 @@ class MaterialStockEventListenerTest {
         verify(materialRepository).save(captor.capture());
 
         Material savedMaterial = captor.getValue();
-        // 成本單價應更新為最新進貨單價
-        assertThat(savedMaterial.getCostPrice()).isEqualByComparingTo(new BigDecimal("120.00"));
+        // (50 * 25 + 10 * 120) / 60 = 40.83
+        assertThat(savedMaterial.getCostPrice()).isEqualByComparingTo(new BigDecimal("40.83"));
+        assertThat(savedMaterial.getStockValue()).isEqualByComparingTo(new BigDecimal("2450.0000"));
+
+        // 成本變動時發布成本變更事件
+        ArgumentCaptor<MaterialCostChangedEvent> eventCaptor = ArgumentCaptor.forClass(MaterialCostChangedEvent.class);
+        verify(eventPublisher).publish(eventCaptor.capture(), anyString());
+        assertThat(eventCaptor.getValue().getMaterialIds()).containsExactly(1L);
     }
 
     @Test
@@ -110,13 +122,13 @@ class MaterialStockEventListenerTest {
                 1L, "PO-20251205-0001", new BigDecimal("1000.00"), List.of(itemInfo)
         );
 
-        when(materialRepository.findById(99L)).thenReturn(Optional.empty());
+        when(materialRepository.findByIdForUpdate(99L)).thenReturn(Optional.empty());
 
         // When - 不應拋出異常
         listener.onPurchaseConfirmed(event);
 
         // Then
-        verify(materialRepository).findById(99L);
+        verify(materialRepository).findByIdForUpdate(99L);
         verify(materialRepository, never()).save(any());
     }
 
@@ -144,8 +156,8 @@ class MaterialStockEventListenerTest {
                 1L, "PO-20251205-0001", new BigDecimal("2200.00"), List.of(itemInfo1, itemInfo2)
         );
 
-        when(materialRepository.findById(1L)).thenReturn(Optional.of(testMaterial));
-        when(materialRepository.findById(2L)).thenReturn(Optional.of(material2));
+        when(materialRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(testMaterial));
+        when(materialRepository.findByIdForUpdate(2L)).thenReturn(Optional.of(material2));
         when(materialRepository.save(any(Material.class))).thenAnswer(invocation -> invocation.getArgument(0));
 
         // When
@@ -174,7 +186,7 @@ class MaterialStockEventListenerTest {
                 1L, "PO-20251205-0001", new BigDecimal("1000.00"), List.of(itemInfo)
         );
 
-        when(materialRepository.findById(1L)).thenReturn(Optional.of(materialWithNullStock));
+        when(materialRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(materialWithNullStock));
         when(materialRepository.save(any(Material.class))).thenReturn(materialWithNullStock);
 
         // When
@@ -187,6 +199,8 @@ class MaterialStockEventListenerTest {
         Material savedMaterial = captor.getValue();
         // null 視為 0，0 + 10 = 10
         assertThat(savedMaterial.getCurrentStockQuantity()).isEqualByComparingTo(new BigDecimal("10.00"));
+        // 無庫存時成本重設為本次進貨單價
+        assertThat(savedMaterial.getCostPrice()).isEqualByComparingTo(new BigDecimal("100.00"));
     }
 
     // ===== 盤點確認事件測試 =====
@@ -206,7 +220,7 @@ class MaterialStockEventListenerTest {
                 1L, "IC-20251205-0001", new BigDecimal("-50.00"), List.of(itemInfo)
         );
 
-        when(materialRepository.findById(1L)).thenReturn(Optional.of(testMaterial));
+        when(materialRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(testMaterial));
         when(materialRepository.save(any(Material.class))).thenReturn(testMaterial);
 
         // When
@@ -236,13 +250,13 @@ class MaterialStockEventListenerTest {
                 1L, "IC-20251205-0001", new BigDecimal("-50.00"), List.of(itemInfo)
         );
 
-        when(materialRepository.findById(99L)).thenReturn(Optional.empty());
+        when(materialRepository.findByIdForUpdate(99L)).thenReturn(Optional.empty());
 
         // When - 不應拋出異常
         listener.onInventoryCheckConfirmed(checkEvent);
 
         // Then
-        verify(materialRepository).findById(99L);
+        verify(materialRepository).findByIdForUpdate(99L);
         verify(materialRepository, never()).save(any());
     }
 
@@ -273,8 +287,8 @@ class MaterialStockEventListenerTest {
                 1L, "IC-20251205-0001", new BigDecimal("75.00"), List.of(itemInfo1, itemInfo2)
         );
 
-        when(materialRepository.findById(1L)).thenReturn(Optional.of(testMaterial));
-        when(materialRepository.findById(2L)).thenReturn(Optional.of(material2));
+        when(materialRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(testMaterial));
+        when(materialRepository.findByIdForUpdate(2L)).thenReturn(Optional.of(material2));
         when(materialRepository.save(any(Material.class))).thenAnswer(invocation -> invocation.getArgument(0));
 
         // When
@@ -306,7 +320,7 @@ class MaterialStockEventListenerTest {
                 1L, "IC-20251205-0001", new BigDecimal("250.00"), List.of(itemInfo)
         );
 
-        when(materialRepository.findById(1L)).thenReturn(Optional.of(materialWithNullStock));
+        when(materialRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(materialWithNullStock));
         when(materialRepository.save(any(Material.class))).thenReturn(materialWithNullStock);
 
         // When
@@ -0,0 +1,160 @@
+package com.morningharvest.erp.material.service;
+
+import com.morningharvest.erp.common.event.EventPublisher;
+import com.morningharvest.erp.common.test.TestDataFactory;
+import com.morningharvest.erp.inventorycheck.repository.InventoryCheckItemRepository;
+import com.morningharvest.erp.material.entity.Material;
+import com.morningharvest.erp.material.event.MaterialCostChangedEvent;
+import com.morningharvest.erp.material.repository.MaterialRepository;
+import com.morningharvest.erp.purchase.repository.PurchaseItemRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("MaterialCostingService 單元測試")
+class MaterialCostingServiceTest {
+
+    @Mock
+    private MaterialRepository materialRepository;
+
+    @Mock
+    private PurchaseItemRepository purchaseItemRepository;
+
+    @Mock
+    private InventoryCheckItemRepository inventoryCheckItemRepository;
+
+    @Mock
+    private EventPublisher eventPublisher;
+
+    @InjectMocks
+    private MaterialCostingService materialCostingService;
+
+    private Material testMaterial;
+    private LocalDateTime baseTime;
+
+    @BeforeEach
+    void setUp() {
+        // 目前庫存 50、成本 25.00
+        testMaterial = TestDataFactory.defaultMaterial()
+                .id(1L)
+                .build();
+        baseTime = LocalDateTime.of(2025, 12, 1, 8, 0);
+    }
+
+    @Test
+    @DisplayName("依進貨歷史重建移動加權平均成本")
+    void revalueAll_WeightedAverage() {
+        // Given
+        when(inventoryCheckItemRepository.findStockCounts(anyString())).thenReturn(Collections.emptyList());
+        when(purchaseItemRepository.streamReceipts(anyString())).thenReturn(Stream.of(
+                receipt(1L, "10", "20.00", baseTime),
+                receipt(1L, "30", "40.00", baseTime.plusDays(1))));
+        when(materialRepository.findAllById(anyIterable())).thenReturn(List.of(testMaterial));
+
+        // When
+        int count = materialCostingService.revalueAll();
+
+        // Then
+        assertThat(count).isEqualTo(1);
+        // (10 * 20 + 30 * 40) / 40 = 35.00，庫存總值以目前庫存 50 計
+        assertThat(testMaterial.getCostPrice()).isEqualByComparingTo(new BigDecimal("35.00"));
+        assertThat(testMaterial.getStockValue()).isEqualByComparingTo(new BigDecimal("1750.0000"));
+        verify(materialRepository).saveAll(anyIterable());
+        verify(eventPublisher).publish(any(MaterialCostChangedEvent.class), anyString());
+    }
+
+    @Test
+    @DisplayName("盤點歸零後再進貨，成本重設為新進貨單價")
+    void revalueAll_CountResetsAverage() {
+        // Given
+        when(inventoryCheckItemRepository.findStockCounts(anyString())).thenReturn(List.of(
+                stockCount(1L, "0", baseTime.plusHours(1))));
+        when(purchaseItemRepository.streamReceipts(anyString())).thenReturn(Stream.of(
+                receipt(1L, "10", "20.00", baseTime),
+                receipt(1L, "10", "30.00", baseTime.plusDays(1))));
+        when(materialRepository.findAllById(anyIterable())).thenReturn(List.of(testMaterial));
+
+        // When
+        materialCostingService.revalueAll();
+
+        // Then
+        assertThat(testMaterial.getCostPrice()).isEqualByComparingTo(new BigDecimal("30.00"));
+    }
+
+    @Test
+    @DisplayName("成本未變動時不發布事件")
+    void revalueAll_NoChange_NoEvent() {
+        // Given
+        when(inventoryCheckItemRepository.findStockCounts(anyString())).thenReturn(Collections.emptyList());
+        when(purchaseItemRepository.streamReceipts(anyString())).thenReturn(Stream.of(
+                receipt(1L, "10", "25.00", baseTime)));
+        when(materialRepository.findAllById(anyIterable())).thenReturn(List.of(testMaterial));
+
+        // When
+        materialCostingService.revalueAll();
+
+        // Then
+        assertThat(testMaterial.getCostPrice()).isEqualByComparingTo(new BigDecimal("25.00"));
+        verify(eventPublisher, never()).publish(any(), anyString());
+    }
+
+    private static PurchaseItemRepository.MaterialReceipt receipt(
+            Long materialId, String quantity, String unitPrice, LocalDateTime confirmedAt) {
+        return new PurchaseItemRepository.MaterialReceipt() {
+            @Override
+            public Long getMaterialId() {
+                return materialId;
+            }
+
+            @Override
+            public BigDecimal getQuantity() {
+                return new BigDecimal(quantity);
+            }
+
+            @Override
+            public BigDecimal getUnitPrice() {
+                return new BigDecimal(unitPrice);
+            }
+
+            @Override
+            public LocalDateTime getConfirmedAt() {
+                return confirmedAt;
+            }
+        };
+    }
+
+    private static InventoryCheckItemRepository.MaterialStockCount stockCount(
+            Long materialId, String actualQuantity, LocalDateTime confirmedAt) {
+        return new InventoryCheckItemRepository.MaterialStockCount() {
+            @Override
+            public Long getMaterialId() {
+                return materialId;
+            }
+
+            @Override
+            public BigDecimal getActualQuantity() {
+                return new BigDecimal(actualQuantity);
+            }
+
+            @Override
+            public LocalDateTime getConfirmedAt() {
+                return confirmedAt;
+            }
+        };
+    }
+}
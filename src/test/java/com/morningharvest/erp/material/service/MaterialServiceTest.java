@@ -2,6 +2,7 @@ package com.morningharvest.erp.material.service;
 
 import com.morningharvest.erp.common.dto.PageResponse;
 import com.morningharvest.erp.common.dto.PageableRequest;
+import com.morningharvest.erp.common.event.EventPublisher;
 import com.morningharvest.erp.common.exception.ResourceNotFoundException;
 import com.morningharvest.erp.material.constant.MaterialCategory;
 import com.morningharvest.erp.material.constant.MaterialUnit;
@@ -17,7 +18,6 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
@@ -43,7 +43,7 @@ class MaterialServiceTest {
     private MaterialRepository materialRepository;
 
     @Mock
-    private ApplicationEventPublisher eventPublisher;
+    private EventPublisher eventPublisher;
 
     @InjectMocks
     private MaterialService materialService;
@@ -196,7 +196,7 @@ class MaterialServiceTest {
     @DisplayName("更新原物料 - 成功")
     void updateMaterial_Success() {
         // Given
-        when(materialRepository.findById(1L)).thenReturn(Optional.of(testMaterial));
+        when(materialRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(testMaterial));
         when(materialRepository.existsByCodeAndIdNot(anyString(), anyLong())).thenReturn(false);
         when(materialRepository.existsByNameAndIdNot(anyString(), anyLong())).thenReturn(false);
         when(materialRepository.save(any(Material.class))).thenReturn(testMaterial);
@@ -206,7 +206,7 @@ class MaterialServiceTest {
 
         // Then
         assertThat(result).isNotNull();
-        verify(materialRepository).findById(1L);
+        verify(materialRepository).findByIdForUpdate(1L);
         verify(materialRepository).save(any(Material.class));
     }
 
@@ -214,14 +214,14 @@ class MaterialServiceTest {
     @DisplayName("更新原物料 - 原物料不存在拋出例外")
     void updateMaterial_NotFound_ThrowsException() {
         // Given
-        when(materialRepository.findById(anyLong())).thenReturn(Optional.empty());
+        when(materialRepository.findByIdForUpdate(anyLong())).thenReturn(Optional.empty());
 
         // When & Then
         assertThatThrownBy(() -> materialService.updateMaterial(updateRequest))
                 .isInstanceOf(ResourceNotFoundException.class)
                 .hasMessageContaining("原物料不存在");
 
-        verify(materialRepository).findById(updateRequest.getId());
+        verify(materialRepository).findByIdForUpdate(updateRequest.getId());
         verify(materialRepository, never()).save(any());
     }
 
@@ -229,7 +229,7 @@ class MaterialServiceTest {
     @DisplayName("更新原物料 - 編號與其他重複拋出例外")
     void updateMaterial_DuplicateCode_ThrowsException() {
         // Given
-        when(materialRepository.findById(1L)).thenReturn(Optional.of(testMaterial));
+        when(materialRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(testMaterial));
         when(materialRepository.existsByCodeAndIdNot(anyString(), anyLong())).thenReturn(true);
 
         // When & Then
@@ -244,7 +244,7 @@ class MaterialServiceTest {
     @DisplayName("更新原物料 - 名稱與其他重複拋出例外")
     void updateMaterial_DuplicateName_ThrowsException() {
         // Given
-        when(materialRepository.findById(1L)).thenReturn(Optional.of(testMaterial));
+        when(materialRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(testMaterial));
         when(materialRepository.existsByCodeAndIdNot(anyString(), anyLong())).thenReturn(false);
         when(materialRepository.existsByNameAndIdNot(anyString(), anyLong())).thenReturn(true);
 
@@ -256,6 +256,25 @@ class MaterialServiceTest {
         verify(materialRepository, never()).save(any());
     }
 
+    @Test
+    @DisplayName("更新原物料 - 庫存量未設定時以 0 計算庫存總值")
+    void updateMaterial_NullStockQuantity_TreatedAsZero() {
+        // Given
+        testMaterial.setCurrentStockQuantity(null);
+        updateRequest.setCurrentStockQuantity(null);
+        when(materialRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(testMaterial));
+        when(materialRepository.existsByCodeAndIdNot(anyString(), anyLong())).thenReturn(false);
+        when(materialRepository.existsByNameAndIdNot(anyString(), anyLong())).thenReturn(false);
+        when(materialRepository.save(any(Material.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // When
+        materialService.updateMaterial(updateRequest);
+
+        // Then
+        assertThat(testMaterial.getCostPrice()).isEqualByComparingTo("75.00");
+        assertThat(testMaterial.getStockValue()).isEqualByComparingTo(BigDecimal.ZERO);
+    }
+
     // ===== deleteMaterial 測試 =====
 
     @Test
@@ -32,7 +32,7 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 /**
  * 訂單完整流程整合測試
  *
- * 不使用 @Transactional，以確保 @Async 事件監聯器能正常執行
+ * 不使用 @Transactional，以確保 @EventLane 事件監聯器能正常執行
  */
 @SpringBootTest
 @AutoConfigureMockMvc
@@ -161,7 +161,7 @@ class OrderFullFlowIntegrationTest {
                 .andExpect(jsonPath("$.code").value(1000))
                 .andExpect(jsonPath("$.data.status").value("PENDING_PAYMENT"));
 
-        // 等待異步事件處理完成（付款條目由 @Async 事件監聯器建立）
+        // 等待異步事件處理完成（付款條目由 @EventLane 事件監聯器建立）
         Thread.sleep(500);
 
         // 5. 付款 (PENDING_PAYMENT → PAID) - 使用 POS 端點
@@ -178,7 +178,7 @@ class OrderFullFlowIntegrationTest {
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.code").value(1000));
 
-        // 等待異步事件處理完成（訂單狀態由 @Async 事件監聯器更新為 PAID）
+        // 等待異步事件處理完成（訂單狀態由 @EventLane 事件監聯器更新為 PAID）
         Thread.sleep(500);
 
         // 6. 完成訂單 (PAID → COMPLETED) - 使用 POS 端點
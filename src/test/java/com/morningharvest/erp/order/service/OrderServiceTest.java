@@ -15,6 +15,7 @@ import com.morningharvest.erp.order.event.OrderSubmittedEvent;
 import com.morningharvest.erp.order.entity.*;
 import com.morningharvest.erp.order.repository.OrderItemRepository;
 import com.morningharvest.erp.order.repository.OrderRepository;
+import com.morningharvest.erp.pos.service.MenuSnapshotService;
 import com.morningharvest.erp.product.entity.Product;
 import com.morningharvest.erp.product.entity.ProductOptionGroup;
 import com.morningharvest.erp.product.entity.ProductOptionValue;
@@ -74,6 +75,9 @@ class OrderServiceTest {
     @Mock
     private EventPublisher eventPublisher;
 
+    @Mock
+    private MenuSnapshotService menuSnapshotService;
+
     @InjectMocks
     private OrderService orderService;
 
@@ -86,6 +90,10 @@ class OrderServiceTest {
 
     @BeforeEach
     void setUp() {
+        // 不在菜單時段內時以原售價計價
+        lenient().when(menuSnapshotService.resolvePrice(anyString(), anyLong(), any()))
+                .thenAnswer(invocation -> invocation.getArgument(2));
+
         testProduct = Product.builder()
                 .id(1L)
                 .name("招牌漢堡")
@@ -0,0 +1,405 @@
+package com.morningharvest.erp.pos.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.morningharvest.erp.combo.entity.Combo;
+import com.morningharvest.erp.combo.entity.ComboItem;
+import com.morningharvest.erp.combo.repository.ComboItemRepository;
+import com.morningharvest.erp.combo.repository.ComboRepository;
+import com.morningharvest.erp.common.test.TestDataFactory;
+import com.morningharvest.erp.menu.entity.MenuSchedule;
+import com.morningharvest.erp.menu.entity.MenuScheduleItem;
+import com.morningharvest.erp.menu.repository.MenuScheduleItemRepository;
+import com.morningharvest.erp.menu.repository.MenuScheduleRepository;
+import com.morningharvest.erp.pos.dto.SaleItemDTO;
+import com.morningharvest.erp.product.repository.ProductRepository;
+import com.morningharvest.erp.product.service.ProductCategoryService;
+import com.morningharvest.erp.storage.service.ImageDerivativeService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("MenuSnapshotService 單元測試")
+class MenuSnapshotServiceTest {
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @Mock
+    private ComboRepository comboRepository;
+
+    @Mock
+    private ComboItemRepository comboItemRepository;
+
+    @Mock
+    private MenuScheduleRepository menuScheduleRepository;
+
+    @Mock
+    private MenuScheduleItemRepository menuScheduleItemRepository;
+
+    @Mock
+    private ProductCategoryService productCategoryService;
+
+    @Mock
+    private ImageDerivativeService imageDerivativeService;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Spy
+    private MenuPayloadRenderer menuPayloadRenderer = new MenuPayloadRenderer(new ObjectMapper().findAndRegisterModules());
+
+    @InjectMocks
+    private MenuSnapshotService menuSnapshotService;
+
+    // 2026-10-19 為星期一
+    private static final LocalDate MONDAY = LocalDate.of(2026, 10, 19);
+    private static final LocalDate THURSDAY = LocalDate.of(2026, 10, 22);
+    private static final LocalDate FRIDAY = LocalDate.of(2026, 10, 23);
+    private static final LocalDate SATURDAY = LocalDate.of(2026, 10, 24);
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(productRepository.findAll()).thenReturn(List.of(
+                TestDataFactory.defaultProduct().id(1L).name("蛋餅").price(new BigDecimal("40.00"))
+                        .categoryId(1L).sortOrder(1).build(),
+                TestDataFactory.defaultProduct().id(2L).name("紅茶").price(new BigDecimal("25.00"))
+                        .categoryId(2L).sortOrder(2).build(),
+                TestDataFactory.inactiveProduct().id(3L).categoryId(1L).build()));
+        lenient().when(comboRepository.findAll()).thenReturn(List.of(
+                Combo.builder().id(10L).name("早安套餐").price(new BigDecimal("89.00"))
+                        .categoryId(3L).sortOrder(3).isActive(true).build()));
+        lenient().when(comboItemRepository.findAll()).thenReturn(List.of(
+                ComboItem.builder().id(1L).comboId(10L).productId(2L).productName("紅茶").sortOrder(2).build(),
+                ComboItem.builder().id(2L).comboId(10L).productId(1L).productName("蛋餅").sortOrder(1).build()));
+
+        lenient().when(menuScheduleRepository.findByIsActive(true)).thenReturn(List.of(
+                MenuSchedule.builder().id(100L).name("早餐").priority(0)
+                        .startTime(LocalTime.of(6, 0)).endTime(LocalTime.of(10, 30)).build(),
+                MenuSchedule.builder().id(101L).name("宵夜").priority(0)
+                        .startTime(LocalTime.of(22, 0)).endTime(LocalTime.of(2, 0))
+                        .daysOfWeek("FRIDAY,SATURDAY").build(),
+                MenuSchedule.builder().id(102L).name("週末早午餐").priority(10)
+                        .startTime(LocalTime.of(6, 0)).endTime(LocalTime.of(11, 0))
+                        .daysOfWeek("SATURDAY,SUNDAY").build(),
+                MenuSchedule.builder().id(103L).name("過期活動").priority(20)
+                        .startTime(LocalTime.of(0, 0)).endTime(LocalTime.of(23, 59))
+                        .effectiveTo(MONDAY.minusDays(1)).build()));
+        lenient().when(menuScheduleItemRepository.findByScheduleIdIn(anyList())).thenReturn(List.of(
+                scheduleItem(100L, "SINGLE", 1L, new BigDecimal("35.00")),
+                scheduleItem(100L, "COMBO", 10L, null),
+                scheduleItem(101L, "SINGLE", 2L, null),
+                scheduleItem(102L, "SINGLE", 1L, new BigDecimal("30.00")),
+                scheduleItem(103L, "SINGLE", 2L, BigDecimal.ONE)));
+    }
+
+    private static MenuScheduleItem scheduleItem(Long scheduleId, String type, Long itemId, BigDecimal override) {
+        return MenuScheduleItem.builder()
+                .scheduleId(scheduleId)
+                .itemType(type)
+                .itemId(itemId)
+                .priceOverride(override)
+                .build();
+    }
+
+    @Nested
+    @DisplayName("snapshotAt 方法測試")
+    class SnapshotAtTests {
+
+        @Test
+        @DisplayName("不在任何時段內時使用預設菜單（全部上架項目、原售價）")
+        void snapshotAt_NoSchedule_DefaultMenu() {
+            // When
+            MenuSnapshot snapshot = menuSnapshotService.snapshotAt(MONDAY.atTime(14, 0));
+
+            // Then
+            assertThat(snapshot.scheduleId()).isNull();
+            assertThat(snapshot.items()).extracting(SaleItemDTO::getId).containsExactly(1L, 2L, 10L);
+            assertThat(snapshot.price("SINGLE", 1L)).isEqualByComparingTo("40.00");
+            assertThat(snapshot.price("SINGLE", 3L)).isNull();
+            assertThat(snapshot.items(1L)).extracting(SaleItemDTO::getId).containsExactly(1L);
+        }
+
+        @Test
+        @DisplayName("時段內只列出時段項目並套用時段售價")
+        void snapshotAt_InWindow_AppliesScheduleItemsAndPrices() {
+            // When
+            MenuSnapshot snapshot = menuSnapshotService.snapshotAt(MONDAY.atTime(7, 0));
+
+            // Then
+            assertThat(snapshot.scheduleName()).isEqualTo("早餐");
+            assertThat(snapshot.items()).extracting(SaleItemDTO::getId).containsExactly(1L, 10L);
+            assertThat(snapshot.items().get(0).getPrice()).isEqualByComparingTo("35.00");
+            assertThat(snapshot.items().get(0).getOrderPayload().get(0).getUnitPrice()).isEqualByComparingTo("35.00");
+            assertThat(snapshot.price("COMBO", 10L)).isEqualByComparingTo("89.00");
+            assertThat(snapshot.price("SINGLE", 2L)).isNull();
+            assertThat(snapshot.items(2L)).isEmpty();
+        }
+
+        @Test
+        @DisplayName("套餐 orderPayload 依套餐項目排序")
+        void snapshotAt_ComboPayloadSorted() {
+            // When
+            SaleItemDTO combo = menuSnapshotService.snapshotAt(MONDAY.atTime(7, 0)).items(3L).get(0);
+
+            // Then
+            assertThat(combo.getOrderPayload()).hasSize(3);
+            assertThat(combo.getOrderPayload().get(1).getProductId()).isEqualTo(1L);
+            assertThat(combo.getOrderPayload().get(2).getProductId()).isEqualTo(2L);
+        }
+
+        @Test
+        @DisplayName("結束時間不含在時段內")
+        void snapshotAt_EndTimeExclusive() {
+            assertThat(menuSnapshotService.snapshotAt(MONDAY.atTime(6, 0)).scheduleId()).isEqualTo(100L);
+            assertThat(menuSnapshotService.snapshotAt(MONDAY.atTime(10, 30)).scheduleId()).isNull();
+        }
+
+        @Test
+        @DisplayName("跨夜時段於午夜前後皆適用，並依開始當天的星期過濾")
+        void snapshotAt_OvernightWindow() {
+            assertThat(menuSnapshotService.snapshotAt(FRIDAY.atTime(23, 0)).scheduleId()).isEqualTo(101L);
+            assertThat(menuSnapshotService.snapshotAt(SATURDAY.atTime(1, 59)).scheduleId()).isEqualTo(101L);
+            assertThat(menuSnapshotService.snapshotAt(SATURDAY.atTime(2, 0)).scheduleId()).isNull();
+            assertThat(menuSnapshotService.snapshotAt(THURSDAY.atTime(23, 0)).scheduleId()).isNull();
+            // 週五凌晨屬於週四開始的時段；週日凌晨屬於週六開始的時段
+            assertThat(menuSnapshotService.snapshotAt(FRIDAY.atTime(1, 0)).scheduleId()).isNull();
+            assertThat(menuSnapshotService.snapshotAt(SATURDAY.plusDays(1).atTime(1, 0)).scheduleId())
+                    .isEqualTo(101L);
+        }
+
+        @Test
+        @DisplayName("跨夜時段午夜後的部分以開始當天的有效日期判斷")
+        void snapshotAt_OvernightWindow_EffectiveDateOfStartDay() {
+            // Given 只在週五開始、有效至週五的時段
+            when(menuScheduleRepository.findByIsActive(true)).thenReturn(List.of(
+                    MenuSchedule.builder().id(104L).name("週五夜").priority(0)
+                            .startTime(LocalTime.of(22, 0)).endTime(LocalTime.of(2, 0))
+                            .daysOfWeek("FRIDAY").effectiveTo(FRIDAY).build()));
+
+            // When & Then
+            assertThat(menuSnapshotService.snapshotAt(SATURDAY.atTime(1, 0)).scheduleId()).isEqualTo(104L);
+            assertThat(menuSnapshotService.snapshotAt(SATURDAY.atTime(23, 0)).scheduleId()).isNull();
+        }
+
+        @Test
+        @DisplayName("多個時段重疊時取優先序高者，已失效的時段不套用")
+        void snapshotAt_Priority() {
+            // When
+            MenuSnapshot snapshot = menuSnapshotService.snapshotAt(SATURDAY.atTime(8, 0));
+
+            // Then
+            assertThat(snapshot.scheduleId()).isEqualTo(102L);
+            assertThat(snapshot.items()).extracting(SaleItemDTO::getId).containsExactly(1L);
+            assertThat(snapshot.price("SINGLE", 1L)).isEqualByComparingTo("30.00");
+        }
+    }
+
+    @Nested
+    @DisplayName("編譯與過期測試")
+    class CompileTests {
+
+        @Test
+        @DisplayName("快照編譯後重複查詢不再存取資料庫")
+        void snapshotAt_CompiledOnce() {
+            // When
+            menuSnapshotService.snapshotAt(MONDAY.atTime(7, 0));
+            menuSnapshotService.snapshotAt(MONDAY.atTime(14, 0));
+            menuSnapshotService.snapshotAt(SATURDAY.atTime(8, 0));
+
+            // Then
+            assertThat(menuSnapshotService.isStale()).isFalse();
+            verify(productRepository, times(1)).findAll();
+            verify(menuScheduleRepository, times(1)).findByIsActive(true);
+        }
+
+        @Test
+        @DisplayName("標記過期後下次查詢重新編譯")
+        void markStale_Recompiles() {
+            // Given
+            menuSnapshotService.snapshotAt(MONDAY.atTime(14, 0));
+            when(productRepository.findAll()).thenReturn(List.of(
+                    TestDataFactory.defaultProduct().id(1L).name("蛋餅").price(new BigDecimal("45.00")).build()));
+
+            // When
+            menuSnapshotService.markStale();
+
+            // Then
+            assertThat(menuSnapshotService.isStale()).isTrue();
+            MenuSnapshot snapshot = menuSnapshotService.snapshotAt(MONDAY.atTime(14, 0));
+            assertThat(snapshot.price("SINGLE", 1L)).isEqualByComparingTo("45.00");
+            verify(productRepository, times(2)).findAll();
+        }
+
+        @Test
+        @DisplayName("背景編譯模式下查詢沿用上一次的快照，由排程重新編譯")
+        void markStale_BackgroundRefresh_ServesPreviousSnapshot() {
+            // Given
+            ReflectionTestUtils.setField(menuSnapshotService, "backgroundRefresh", true);
+            menuSnapshotService.snapshotAt(MONDAY.atTime(14, 0));
+            when(productRepository.findAll()).thenReturn(List.of(
+                    TestDataFactory.defaultProduct().id(1L).name("蛋餅").price(new BigDecimal("45.00")).build()));
+            menuSnapshotService.markStale();
+
+            // When
+            BigDecimal stalePrice = menuSnapshotService.snapshotAt(MONDAY.atTime(14, 0)).price("SINGLE", 1L);
+            menuSnapshotService.compile();
+
+            // Then
+            assertThat(stalePrice).isEqualByComparingTo("40.00");
+            assertThat(menuSnapshotService.snapshotAt(MONDAY.atTime(14, 0)).price("SINGLE", 1L))
+                    .isEqualByComparingTo("45.00");
+            verify(productRepository, times(2)).findAll();
+        }
+
+        @Test
+        @DisplayName("尚未編譯時為過期狀態")
+        void isStale_NotCompiled() {
+            assertThat(menuSnapshotService.isStale()).isTrue();
+            verifyNoInteractions(productRepository);
+        }
+    }
+
+    @Nested
+    @DisplayName("resolvePrice 方法測試")
+    class ResolvePriceTests {
+
+        @Test
+        @DisplayName("目前沒有時段時回傳呼叫端的原售價，不使用快照中的售價")
+        void resolvePrice_NoSchedule_ReturnsBasePrice() {
+            // Given
+            when(menuScheduleRepository.findByIsActive(true)).thenReturn(List.of());
+
+            // When & Then
+            assertThat(menuSnapshotService.resolvePrice("SINGLE", 1L, new BigDecimal("99.00")))
+                    .isEqualByComparingTo("99.00");
+            assertThat(menuSnapshotService.resolvePrice("SINGLE", 3L, new BigDecimal("49.00")))
+                    .isEqualByComparingTo("49.00");
+        }
+
+        @Test
+        @DisplayName("時段有指定售價時使用時段售價，沿用原售價的項目回傳呼叫端的原售價")
+        void resolvePrice_ScheduleOverride() {
+            // Given 全天時段（開始等於結束）
+            when(menuScheduleRepository.findByIsActive(true)).thenReturn(List.of(
+                    MenuSchedule.builder().id(200L).name("全天").priority(0)
+                            .startTime(LocalTime.MIDNIGHT).endTime(LocalTime.MIDNIGHT).build()));
+            when(menuScheduleItemRepository.findByScheduleIdIn(anyList())).thenReturn(List.of(
+                    scheduleItem(200L, "SINGLE", 1L, new BigDecimal("30.00")),
+                    scheduleItem(200L, "SINGLE", 2L, null)));
+
+            // When & Then
+            assertThat(menuSnapshotService.resolvePrice("SINGLE", 1L, new BigDecimal("40.00")))
+                    .isEqualByComparingTo("30.00");
+            assertThat(menuSnapshotService.resolvePrice("SINGLE", 2L, new BigDecimal("26.00")))
+                    .isEqualByComparingTo("26.00");
+        }
+
+        @Test
+        @DisplayName("改價後立即下單，快照尚未重新編譯仍以新售價計價")
+        void resolvePrice_AfterPriceEdit_UsesNewPrice() {
+            // Given 快照以原售價 40 編譯，背景編譯尚未執行
+            ReflectionTestUtils.setField(menuSnapshotService, "backgroundRefresh", true);
+            when(menuScheduleRepository.findByIsActive(true)).thenReturn(List.of());
+            menuSnapshotService.current();
+            menuSnapshotService.markStale();
+
+            // When 下單時讀到的商品售價為 45
+            BigDecimal price = menuSnapshotService.resolvePrice("SINGLE", 1L, new BigDecimal("45.00"));
+
+            // Then
+            assertThat(menuSnapshotService.current().price("SINGLE", 1L)).isEqualByComparingTo("40.00");
+            assertThat(price).isEqualByComparingTo("45.00");
+            verify(productRepository, times(1)).findAll();
+        }
+    }
+
+    @Nested
+    @DisplayName("預先序列化回應測試")
+    class PayloadTests {
+
+        @Test
+        @DisplayName("編譯時預先序列化列表回應，gzip 內容與未壓縮內容相同")
+        void payload_RenderedAtCompile() throws IOException {
+            // When
+            MenuSnapshot snapshot = menuSnapshotService.snapshotAt(MONDAY.atTime(7, 0));
+            MenuPayload payload = snapshot.payload(null);
+
+            // Then
+            JsonNode json = new ObjectMapper().readTree(payload.identity());
+            assertThat(json.get("success").asBoolean()).isTrue();
+            assertThat(json.get("data")).hasSize(2);
+            assertThat(json.get("data").get(0).get("price").decimalValue()).isEqualByComparingTo("35.00");
+            try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(payload.gzip()))) {
+                assertThat(in.readAllBytes()).isEqualTo(payload.identity());
+            }
+            assertThat(snapshot.payload(3L)).isNotNull();
+            assertThat(snapshot.payload(2L)).isNull();
+            assertThat(menuSnapshotService.categoryPayload()).isNotNull();
+        }
+
+        @Test
+        @DisplayName("資料未變時重新編譯 ETag 不變，售價異動後 ETag 改變")
+        void payload_EtagFollowsData() {
+            // Given
+            String etag = menuSnapshotService.snapshotAt(MONDAY.atTime(14, 0)).payload(null).etag();
+
+            // When
+            menuSnapshotService.markStale();
+            String unchanged = menuSnapshotService.snapshotAt(MONDAY.atTime(14, 0)).payload(null).etag();
+            when(productRepository.findAll()).thenReturn(List.of(
+                    TestDataFactory.defaultProduct().id(1L).name("蛋餅").price(new BigDecimal("45.00")).build()));
+            menuSnapshotService.markStale();
+            String changed = menuSnapshotService.snapshotAt(MONDAY.atTime(14, 0)).payload(null).etag();
+
+            // Then
+            assertThat(unchanged).isEqualTo(etag);
+            assertThat(changed).isNotEqualTo(etag);
+        }
+
+        @Test
+        @DisplayName("依 Accept-Encoding 選擇編碼，If-None-Match 相符時回傳 304")
+        void toResponse_NegotiatesEncodingAndEtag() {
+            // Given
+            MenuPayload payload = menuSnapshotService.snapshotAt(MONDAY.atTime(14, 0)).payload(null);
+
+            // When
+            ResponseEntity<byte[]> gzip = payload.toResponse(null, "br;q=1.0, gzip;q=0.8");
+            ResponseEntity<byte[]> identity = payload.toResponse(null, "gzip;q=0, deflate");
+            ResponseEntity<byte[]> notModified = payload.toResponse(gzip.getHeaders().getETag(), "gzip");
+
+            // Then
+            assertThat(gzip.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING)).isEqualTo("gzip");
+            assertThat(gzip.getBody()).isEqualTo(payload.gzip());
+            assertThat(identity.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING)).isNull();
+            assertThat(identity.getBody()).isEqualTo(payload.identity());
+            assertThat(identity.getHeaders().getETag()).isNotEqualTo(gzip.getHeaders().getETag());
+            assertThat(notModified.getStatusCode()).isEqualTo(HttpStatus.NOT_MODIFIED);
+            assertThat(notModified.getBody()).isNull();
+        }
+    }
+}
@@ -1,8 +1,9 @@
 package com.morningharvest.erp.product.listener;
 
+import com.morningharvest.erp.common.denormalize.DenormalizationService;
+import com.morningharvest.erp.common.denormalize.DenormalizedField;
 import com.morningharvest.erp.product.dto.ProductCategoryDTO;
 import com.morningharvest.erp.product.event.ProductCategoryUpdatedEvent;
-import com.morningharvest.erp.product.repository.ProductRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -13,6 +14,7 @@ import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.time.LocalDateTime;
 
+import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -20,7 +22,7 @@ import static org.mockito.Mockito.*;
 class ProductCategoryEventListenerTest {
 
     @Mock
-    private ProductRepository productRepository;
+    private DenormalizationService denormalizationService;
 
     @InjectMocks
     private ProductCategoryEventListener listener;
@@ -52,22 +54,21 @@ class ProductCategoryEventListenerTest {
     }
 
     @Test
-    @DisplayName("名稱變更時 - 應批量更新商品")
-    void onCategoryUpdated_NameChanged_ShouldUpdateProducts() {
+    @DisplayName("名稱變更時 - 應登記商品分類名稱同步")
+    void onCategoryUpdated_NameChanged_ShouldEnqueueProducts() {
         // Given
         ProductCategoryUpdatedEvent event = new ProductCategoryUpdatedEvent(beforeDTO, afterDTO);
-        when(productRepository.updateCategoryNameByCategoryId(1L, "新名稱")).thenReturn(5);
 
         // When
         listener.onCategoryUpdated(event);
 
         // Then
-        verify(productRepository).updateCategoryNameByCategoryId(1L, "新名稱");
+        verify(denormalizationService).enqueue(DenormalizedField.PRODUCT_CATEGORY_NAME, 1L);
     }
 
     @Test
-    @DisplayName("名稱未變更時 - 不應更新商品")
-    void onCategoryUpdated_NameNotChanged_ShouldNotUpdateProducts() {
+    @DisplayName("名稱未變更時 - 不應登記同步")
+    void onCategoryUpdated_NameNotChanged_ShouldNotEnqueue() {
         // Given
         afterDTO = ProductCategoryDTO.builder()
                 .id(1L)
@@ -85,20 +86,6 @@ class ProductCategoryEventListenerTest {
         listener.onCategoryUpdated(event);
 
         // Then
-        verify(productRepository, never()).updateCategoryNameByCategoryId(anyLong(), anyString());
-    }
-
-    @Test
-    @DisplayName("該分類無商品時 - 更新計數為 0")
-    void onCategoryUpdated_NoProducts_ShouldReturnZero() {
-        // Given
-        ProductCategoryUpdatedEvent event = new ProductCategoryUpdatedEvent(beforeDTO, afterDTO);
-        when(productRepository.updateCategoryNameByCategoryId(1L, "新名稱")).thenReturn(0);
-
-        // When
-        listener.onCategoryUpdated(event);
-
-        // Then
-        verify(productRepository).updateCategoryNameByCategoryId(1L, "新名稱");
+        verify(denormalizationService, never()).enqueue(any(), anyLong());
     }
 }
@@ -0,0 +1,197 @@
+package com.morningharvest.erp.product.service;
+
+import com.morningharvest.erp.combo.entity.Combo;
+import com.morningharvest.erp.combo.entity.ComboItem;
+import com.morningharvest.erp.combo.repository.ComboItemRepository;
+import com.morningharvest.erp.combo.repository.ComboRepository;
+import com.morningharvest.erp.common.test.TestDataFactory;
+import com.morningharvest.erp.material.entity.Material;
+import com.morningharvest.erp.material.repository.MaterialRepository;
+import com.morningharvest.erp.product.dto.ProductMarginDTO;
+import com.morningharvest.erp.product.entity.ProductRecipe;
+import com.morningharvest.erp.product.repository.ProductRecipeRepository;
+import com.morningharvest.erp.product.repository.ProductRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.util.Collections;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("ProductCostService 單元測試")
+class ProductCostServiceTest {
+
+    @Mock
+    private ProductRecipeRepository productRecipeRepository;
+
+    @Mock
+    private MaterialRepository materialRepository;
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @Mock
+    private ComboRepository comboRepository;
+
+    @Mock
+    private ComboItemRepository comboItemRepository;
+
+    @InjectMocks
+    private ProductCostService productCostService;
+
+    private Material testMaterial;
+    private ProductRecipe testRecipe;
+
+    @BeforeEach
+    void setUp() {
+        // 成本單價 25.00
+        testMaterial = TestDataFactory.defaultMaterial()
+                .id(1L)
+                .build();
+
+        // 商品 1 使用原物料 1 數量 0.5
+        testRecipe = TestDataFactory.defaultProductRecipe()
+                .id(1L)
+                .quantity(new BigDecimal("0.5000"))
+                .build();
+    }
+
+    @Nested
+    @DisplayName("listMargins 方法測試")
+    class ListMarginsTests {
+
+        @Test
+        @DisplayName("計算商品與套餐毛利")
+        void listMargins_ProductAndCombo() {
+            // Given
+            when(materialRepository.findAll()).thenReturn(List.of(testMaterial));
+            when(productRecipeRepository.findAll()).thenReturn(List.of(testRecipe));
+            when(productRepository.findAll()).thenReturn(List.of(
+                    TestDataFactory.defaultProduct().id(1L).price(new BigDecimal("50.00")).build()));
+            when(comboRepository.findAll()).thenReturn(List.of(
+                    Combo.builder().id(10L).name("測試套餐").price(new BigDecimal("80.00")).build()));
+            when(comboItemRepository.findAll()).thenReturn(List.of(
+                    ComboItem.builder().id(1L).comboId(10L).productId(1L).quantity(2).build()));
+
+            // When
+            List<ProductMarginDTO> result = productCostService.listMargins();
+
+            // Then
+            assertThat(result).hasSize(2);
+
+            ProductMarginDTO product = result.get(0);
+            assertThat(product.getItemType()).isEqualTo(ProductCostService.ITEM_TYPE_PRODUCT);
+            // 25.00 * 0.5 = 12.50，毛利 37.50，毛利率 75%
+            assertThat(product.getCost()).isEqualByComparingTo(new BigDecimal("12.50"));
+            assertThat(product.getMargin()).isEqualByComparingTo(new BigDecimal("37.50"));
+            assertThat(product.getMarginRate()).isEqualByComparingTo(new BigDecimal("75.00"));
+
+            ProductMarginDTO combo = result.get(1);
+            assertThat(combo.getItemType()).isEqualTo(ProductCostService.ITEM_TYPE_COMBO);
+            // 12.50 * 2 = 25.00
+            assertThat(combo.getCost()).isEqualByComparingTo(new BigDecimal("25.00"));
+            assertThat(combo.getMargin()).isEqualByComparingTo(new BigDecimal("55.00"));
+        }
+
+        @Test
+        @DisplayName("快取已載入時不重複計算配方")
+        void listMargins_UsesCache() {
+            // Given
+            when(materialRepository.findAll()).thenReturn(List.of(testMaterial));
+            when(productRecipeRepository.findAll()).thenReturn(List.of(testRecipe));
+            when(productRepository.findAll()).thenReturn(Collections.emptyList());
+            when(comboRepository.findAll()).thenReturn(Collections.emptyList());
+            when(comboItemRepository.findAll()).thenReturn(Collections.emptyList());
+
+            // When
+            productCostService.listMargins();
+            productCostService.listMargins();
+
+            // Then
+            verify(productRecipeRepository, times(1)).findAll();
+            verify(materialRepository, times(1)).findAll();
+        }
+    }
+
+    @Nested
+    @DisplayName("增量重算測試")
+    class RefreshTests {
+
+        @Test
+        @DisplayName("原物料成本變動時僅重算受影響商品")
+        void refreshByMaterials_RecalculatesAffectedProducts() {
+            // Given
+            when(materialRepository.findAll()).thenReturn(List.of(testMaterial));
+            when(productRecipeRepository.findAll()).thenReturn(List.of(testRecipe));
+            productCostService.rebuild();
+
+            Material updatedMaterial = TestDataFactory.defaultMaterial()
+                    .id(1L)
+                    .costPrice(new BigDecimal("40.00"))
+                    .build();
+            when(productRecipeRepository.findProductIdsByMaterialIdIn(List.of(1L))).thenReturn(List.of(1L));
+            when(productRecipeRepository.findByProductIdIn(List.of(1L))).thenReturn(List.of(testRecipe));
+            when(materialRepository.findAllById(anyIterable())).thenReturn(List.of(updatedMaterial));
+
+            // When
+            productCostService.refreshByMaterials(List.of(1L));
+
+            // Then
+            // 40.00 * 0.5 = 20.00
+            assertThat(productCostService.getProductCost(1L)).isEqualByComparingTo(new BigDecimal("20.00"));
+            verify(productRecipeRepository, times(1)).findAll();
+        }
+
+        @Test
+        @DisplayName("重建期間的重算於重建完成後套用，不被重建結果覆蓋")
+        void refreshProducts_DuringRebuild_NotLost() throws Exception {
+            // Given
+            Material updatedMaterial = TestDataFactory.defaultMaterial()
+                    .id(1L)
+                    .costPrice(new BigDecimal("40.00"))
+                    .build();
+            when(productRecipeRepository.findAll()).thenReturn(List.of(testRecipe));
+            when(productRecipeRepository.findByProductIdIn(List.of(1L))).thenReturn(List.of(testRecipe));
+            when(materialRepository.findAllById(anyIterable())).thenReturn(List.of(updatedMaterial));
+            Thread refresher = new Thread(() -> productCostService.refreshProducts(List.of(1L)));
+            when(materialRepository.findAll())
+                    .thenReturn(List.of(testMaterial))
+                    .thenAnswer(invocation -> {
+                        // 重建讀取舊成本時，另一執行緒以新成本重算
+                        refresher.start();
+                        refresher.join(200);
+                        return List.of(testMaterial);
+                    });
+            productCostService.rebuild();
+
+            // When
+            productCostService.rebuild();
+            refresher.join();
+
+            // Then
+            // 40.00 * 0.5 = 20.00
+            assertThat(productCostService.getProductCost(1L)).isEqualByComparingTo(new BigDecimal("20.00"));
+        }
+
+        @Test
+        @DisplayName("快取尚未載入時不進行重算")
+        void refreshProducts_NotLoaded_Skips() {
+            // When
+            productCostService.refreshProducts(List.of(1L));
+
+            // Then
+            verify(productRecipeRepository, never()).findByProductIdIn(any());
+        }
+    }
+}
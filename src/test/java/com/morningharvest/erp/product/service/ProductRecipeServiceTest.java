@@ -1,5 +1,6 @@
 package com.morningharvest.erp.product.service;
 
+import com.morningharvest.erp.common.event.EventPublisher;
 import com.morningharvest.erp.common.exception.ResourceNotFoundException;
 import com.morningharvest.erp.common.test.TestDataFactory;
 import com.morningharvest.erp.material.entity.Material;
@@ -9,6 +10,7 @@ import com.morningharvest.erp.product.dto.ProductRecipeDTO;
 import com.morningharvest.erp.product.dto.UpdateProductRecipeRequest;
 import com.morningharvest.erp.product.entity.Product;
 import com.morningharvest.erp.product.entity.ProductRecipe;
+import com.morningharvest.erp.product.event.ProductRecipeChangedEvent;
 import com.morningharvest.erp.product.repository.ProductRecipeRepository;
 import com.morningharvest.erp.product.repository.ProductRepository;
 import org.junit.jupiter.api.BeforeEach;
@@ -29,6 +31,7 @@ import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -44,6 +47,9 @@ class ProductRecipeServiceTest {
     @Mock
     private MaterialRepository materialRepository;
 
+    @Mock
+    private EventPublisher eventPublisher;
+
     @InjectMocks
     private ProductRecipeService productRecipeService;
 
@@ -211,22 +217,23 @@ class ProductRecipeServiceTest {
     @DisplayName("刪除配方 - 成功")
     void deleteRecipe_Success() {
         // Given
-        when(productRecipeRepository.existsById(1L)).thenReturn(true);
+        when(productRecipeRepository.findById(1L)).thenReturn(Optional.of(testRecipe));
         doNothing().when(productRecipeRepository).deleteById(1L);
 
         // When
         productRecipeService.deleteRecipe(1L);
 
         // Then
-        verify(productRecipeRepository).existsById(1L);
+        verify(productRecipeRepository).findById(1L);
         verify(productRecipeRepository).deleteById(1L);
+        verify(eventPublisher).publish(any(ProductRecipeChangedEvent.class), anyString());
     }
 
     @Test
     @DisplayName("刪除配方 - 配方不存在拋出例外")
     void deleteRecipe_NotFound_ThrowsException() {
         // Given
-        when(productRecipeRepository.existsById(anyLong())).thenReturn(false);
+        when(productRecipeRepository.findById(anyLong())).thenReturn(Optional.empty());
 
         // When & Then
         assertThatThrownBy(() -> productRecipeService.deleteRecipe(999L))
@@ -11,6 +11,7 @@ import com.morningharvest.erp.product.entity.Product;
 import com.morningharvest.erp.product.entity.ProductCategory;
 import com.morningharvest.erp.product.repository.ProductCategoryRepository;
 import com.morningharvest.erp.product.repository.ProductRepository;
+import com.morningharvest.erp.storage.service.ImageDerivativeService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -48,6 +49,9 @@ class ProductServiceTest {
     @Mock
     private EventPublisher eventPublisher;
 
+    @Mock
+    private ImageDerivativeService imageDerivativeService;
+
     @InjectMocks
     private ProductService productService;
 
@@ -0,0 +1,354 @@
+package com.morningharvest.erp.purchase.service;
+
+import com.morningharvest.erp.common.exception.ResourceNotFoundException;
+import com.morningharvest.erp.common.sequence.DocumentSequenceService;
+import com.morningharvest.erp.common.test.TestDataFactory;
+import com.morningharvest.erp.material.entity.Material;
+import com.morningharvest.erp.material.repository.MaterialRepository;
+import com.morningharvest.erp.purchase.dto.PurchaseImportResultDTO;
+import com.morningharvest.erp.purchase.entity.Purchase;
+import com.morningharvest.erp.purchase.repository.PurchaseRepository;
+import com.morningharvest.erp.supplier.repository.SupplierRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("PurchaseImportService 單元測試")
+class PurchaseImportServiceTest {
+
+    @Mock
+    private PurchaseRepository purchaseRepository;
+
+    @Mock
+    private SupplierRepository supplierRepository;
+
+    @Mock
+    private MaterialRepository materialRepository;
+
+    @Mock
+    private DocumentSequenceService documentSequenceService;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @InjectMocks
+    private PurchaseImportService purchaseImportService;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(purchaseImportService, "maxRows", 100);
+        ReflectionTestUtils.setField(purchaseImportService, "batchSize", 2);
+        ReflectionTestUtils.setField(purchaseImportService, "maxErrors", 10);
+    }
+
+    private void givenSupplierAndMaterials() {
+        when(supplierRepository.findById(1L))
+                .thenReturn(Optional.of(TestDataFactory.defaultSupplier().id(1L).build()));
+        Material material1 = TestDataFactory.defaultMaterial().id(1L).code("M001").build();
+        Material material2 = TestDataFactory.defaultMaterial().id(2L).code("M002").name("麵包").build();
+        Material inactive = TestDataFactory.inactiveMaterial().id(3L).code("M003").build();
+        when(materialRepository.findAll()).thenReturn(List.of(material1, material2, inactive));
+        when(documentSequenceService.nextNumber("PO")).thenReturn("PO-20251205-0001");
+        when(purchaseRepository.save(any(Purchase.class))).thenAnswer(invocation -> {
+            Purchase p = invocation.getArgument(0);
+            p.setId(1L);
+            return p;
+        });
+    }
+
+    private static MockMultipartFile csv(String content) {
+        return new MockMultipartFile("file", "delivery.csv", "text/csv",
+                content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Nested
+    @DisplayName("CSV 匯入")
+    class CsvImportTests {
+
+        @Test
+        @DisplayName("匯入成功並分批寫入明細")
+        void importPurchase_Success() {
+            // Given
+            givenSupplierAndMaterials();
+            MockMultipartFile file = csv("\uFEFFmaterial_code,quantity,unit_price,note\n" +
+                    "M001,10,20.00,\n" +
+                    "M002,5,\"1,000\",\"含逗號, 備註\"\n" +
+                    "\n" +
+                    "M001,1.5,10,\n");
+
+            // When
+            PurchaseImportResultDTO result = purchaseImportService.importPurchase(
+                    1L, LocalDate.of(2025, 12, 5), null, file);
+
+            // Then
+            assertThat(result.getSuccess()).isTrue();
+            assertThat(result.getPurchaseNumber()).isEqualTo("PO-20251205-0001");
+            assertThat(result.getTotalRows()).isEqualTo(3);
+            assertThat(result.getImportedRows()).isEqualTo(3);
+            // 200 + 5000 + 15 = 5215
+            assertThat(result.getTotalAmount()).isEqualByComparingTo(new BigDecimal("5215.00"));
+
+            // 批次大小 2：一次滿批 + 結尾一批
+            @SuppressWarnings("unchecked")
+            ArgumentCaptor<List<Object[]>> captor = ArgumentCaptor.forClass(List.class);
+            verify(jdbcTemplate, times(2)).batchUpdate(anyString(), captor.capture());
+            assertThat(captor.getAllValues().get(1)).hasSize(1);
+        }
+
+        @Test
+        @DisplayName("任一列錯誤時不寫入並回傳所有錯誤")
+        void importPurchase_RowErrors() {
+            // Given
+            givenSupplierAndMaterials();
+            MockMultipartFile file = csv("原物料編號,數量,單價\n" +
+                    "M999,10,20\n" +
+                    "M001,0,20\n" +
+                    "M003,1,20\n" +
+                    "M002,1,abc\n" +
+                    "M001,1,20\n");
+
+            // When
+            PurchaseImportResultDTO result = purchaseImportService.importPurchase(1L, null, null, file);
+
+            // Then
+            assertThat(result.getSuccess()).isFalse();
+            assertThat(result.getImportedRows()).isZero();
+            assertThat(result.getErrors()).extracting(PurchaseImportResultDTO.RowError::getRowNumber)
+                    .containsExactly(2, 3, 4, 5);
+            verify(jdbcTemplate, never()).batchUpdate(anyString(), anyList());
+        }
+
+        @Test
+        @DisplayName("數量、單價超出欄位位數時記錄該列錯誤")
+        void importPurchase_DecimalOutOfRange() {
+            // Given
+            givenSupplierAndMaterials();
+            MockMultipartFile file = csv("material_code,quantity,unit_price\n" +
+                    "M001,1.234,20\n" +
+                    "M001,123456789,1\n" +
+                    "M001,1,0.001\n" +
+                    "M001,1,123456789\n" +
+                    "M001,10.50,20.00\n");
+
+            // When
+            PurchaseImportResultDTO result = purchaseImportService.importPurchase(1L, null, null, file);
+
+            // Then
+            assertThat(result.getSuccess()).isFalse();
+            assertThat(result.getErrors()).extracting(PurchaseImportResultDTO.RowError::getRowNumber)
+                    .containsExactly(2, 3, 4, 5);
+            assertThat(result.getErrors().get(0).getMessage()).contains("數量");
+            assertThat(result.getErrors().get(2).getMessage()).contains("單價");
+        }
+
+        @Test
+        @DisplayName("小計四捨五入至 2 位小數")
+        @SuppressWarnings("unchecked")
+        void importPurchase_SubtotalRounded() {
+            // Given
+            givenSupplierAndMaterials();
+            MockMultipartFile file = csv("material_code,quantity,unit_price\n" +
+                    "M001,1.5,0.33\n");
+
+            // When
+            PurchaseImportResultDTO result = purchaseImportService.importPurchase(1L, null, null, file);
+
+            // Then
+            // 1.5 * 0.33 = 0.495
+            assertThat(result.getSuccess()).isTrue();
+            assertThat(result.getTotalAmount()).isEqualTo(new BigDecimal("0.50"));
+            ArgumentCaptor<List<Object[]>> captor = ArgumentCaptor.forClass(List.class);
+            verify(jdbcTemplate).batchUpdate(anyString(), captor.capture());
+            assertThat(captor.getValue().get(0)[7]).isEqualTo(new BigDecimal("0.50"));
+        }
+
+        @Test
+        @DisplayName("缺少必要欄位拋出例外")
+        void importPurchase_MissingColumns() {
+            // Given
+            givenSupplierAndMaterials();
+            MockMultipartFile file = csv("material_code,quantity\nM001,10\n");
+
+            // When & Then
+            assertThatThrownBy(() -> purchaseImportService.importPurchase(1L, null, null, file))
+                    .isInstanceOf(IllegalArgumentException.class)
+                    .hasMessageContaining("標題列");
+        }
+
+        @Test
+        @DisplayName("供應商不存在拋出例外")
+        void importPurchase_SupplierNotFound() {
+            // Given
+            when(supplierRepository.findById(99L)).thenReturn(Optional.empty());
+
+            // When & Then
+            assertThatThrownBy(() -> purchaseImportService.importPurchase(99L, null, null, csv("a\n")))
+                    .isInstanceOf(ResourceNotFoundException.class);
+        }
+    }
+
+    @Nested
+    @DisplayName("Excel 匯入")
+    class XlsxImportTests {
+
+        @Test
+        @DisplayName("解析共用字串與數值儲存格")
+        void importPurchase_Xlsx() throws IOException {
+            // Given
+            givenSupplierAndMaterials();
+            String sharedStrings = "<sst xmlns=\"http://schemas.openxmlformats.org/spreadsheetml/2006/main\">" +
+                    "<si><t>material_code</t></si><si><t>quantity</t></si><si><t>unit_price</t></si>" +
+                    "<si><t>M001</t></si></sst>";
+            String sheet = "<worksheet xmlns=\"http://schemas.openxmlformats.org/spreadsheetml/2006/main\"><sheetData>" +
+                    "<row r=\"1\"><c r=\"A1\" t=\"s\"><v>0</v></c><c r=\"B1\" t=\"s\"><v>1</v></c>" +
+                    "<c r=\"C1\" t=\"s\"><v>2</v></c></row>" +
+                    "<row r=\"2\"><c r=\"A2\" t=\"s\"><v>3</v></c><c r=\"B2\"><v>12</v></c>" +
+                    "<c r=\"C2\"><v>2.5</v></c></row>" +
+                    "</sheetData></worksheet>";
+            MockMultipartFile file = xlsxFile(Map.of(
+                    "xl/sharedStrings.xml", sharedStrings,
+                    "xl/worksheets/sheet1.xml", sheet));
+
+            // When
+            PurchaseImportResultDTO result = purchaseImportService.importPurchase(1L, null, null, file);
+
+            // Then
+            assertThat(result.getSuccess()).isTrue();
+            assertThat(result.getImportedRows()).isEqualTo(1);
+            assertThat(result.getTotalAmount()).isEqualByComparingTo(new BigDecimal("30.00"));
+        }
+
+        @Test
+        @DisplayName("依 workbook.xml 與關聯檔找出第一個工作表")
+        void importPurchase_Xlsx_ResolvesFirstSheet() throws IOException {
+            // Given
+            givenSupplierAndMaterials();
+            String workbook = "<workbook xmlns=\"http://schemas.openxmlformats.org/spreadsheetml/2006/main\" " +
+                    "xmlns:r=\"http://schemas.openxmlformats.org/officeDocument/2006/relationships\"><sheets>" +
+                    "<sheet name=\"出貨\" sheetId=\"2\" r:id=\"rId3\"/><sheet name=\"舊資料\" sheetId=\"1\" r:id=\"rId1\"/>" +
+                    "</sheets></workbook>";
+            String rels = "<Relationships xmlns=\"http://schemas.openxmlformats.org/package/2006/relationships\">" +
+                    "<Relationship Id=\"rId1\" Type=\"worksheet\" Target=\"worksheets/sheet1.xml\"/>" +
+                    "<Relationship Id=\"rId3\" Type=\"worksheet\" Target=\"worksheets/sheet2.xml\"/>" +
+                    "</Relationships>";
+            String delivery = SHEET_HEADER +
+                    "<row r=\"2\"><c r=\"A2\" t=\"inlineStr\"><is><t>M002</t></is></c><c r=\"B2\"><v>4</v></c>" +
+                    "<c r=\"C2\"><v>10</v></c></row>" +
+                    "</sheetData></worksheet>";
+            String stale = SHEET_HEADER + "</sheetData></worksheet>";
+            MockMultipartFile file = xlsxFile(Map.of(
+                    "xl/workbook.xml", workbook,
+                    "xl/_rels/workbook.xml.rels", rels,
+                    "xl/sharedStrings.xml", SHARED_STRINGS,
+                    "xl/worksheets/sheet1.xml", stale,
+                    "xl/worksheets/sheet2.xml", delivery));
+
+            // When
+            PurchaseImportResultDTO result = purchaseImportService.importPurchase(1L, null, null, file);
+
+            // Then
+            assertThat(result.getSuccess()).isTrue();
+            assertThat(result.getImportedRows()).isEqualTo(1);
+            assertThat(result.getTotalAmount()).isEqualByComparingTo(new BigDecimal("40"));
+        }
+
+        @Test
+        @DisplayName("共用字串索引無效時記錄該列錯誤並繼續驗證")
+        void importPurchase_Xlsx_InvalidSharedStringIndex() throws IOException {
+            // Given
+            givenSupplierAndMaterials();
+            String sheet = SHEET_HEADER +
+                    "<row r=\"2\"><c r=\"A2\" t=\"s\"><v>abc</v></c><c r=\"B2\"><v>1</v></c>" +
+                    "<c r=\"C2\"><v>1</v></c></row>" +
+                    "<row r=\"3\"><c r=\"A3\" t=\"s\"><v>99</v></c><c r=\"B3\"><v>1</v></c>" +
+                    "<c r=\"C3\"><v>1</v></c></row>" +
+                    "<row r=\"4\"><c r=\"A4\" t=\"s\"><v>3</v></c><c r=\"B4\"><v>0</v></c>" +
+                    "<c r=\"C4\"><v>1</v></c></row>" +
+                    "</sheetData></worksheet>";
+
+            // When
+            PurchaseImportResultDTO result = purchaseImportService.importPurchase(1L, null, null,
+                    xlsxFile(Map.of("xl/sharedStrings.xml", SHARED_STRINGS, "xl/worksheets/sheet1.xml", sheet)));
+
+            // Then
+            assertThat(result.getSuccess()).isFalse();
+            assertThat(result.getTotalRows()).isEqualTo(3);
+            assertThat(result.getErrors()).extracting(PurchaseImportResultDTO.RowError::getRowNumber)
+                    .containsExactly(2, 3, 4);
+            assertThat(result.getErrors().get(0).getMessage()).contains("A2", "abc");
+            verify(jdbcTemplate, never()).batchUpdate(anyString(), anyList());
+        }
+
+        @Test
+        @DisplayName("錯誤列號依列元素的 r 屬性，不因省略的空白列而錯位")
+        void importPurchase_Xlsx_RowNumberFromReference() throws IOException {
+            // Given
+            givenSupplierAndMaterials();
+            String sheet = SHEET_HEADER +
+                    "<row r=\"2\"><c r=\"A2\" t=\"s\"><v>3</v></c><c r=\"B2\"><v>1</v></c>" +
+                    "<c r=\"C2\"><v>1</v></c></row>" +
+                    "<row r=\"7\"><c r=\"A7\" t=\"s\"><v>3</v></c><c r=\"B7\"><v>0</v></c>" +
+                    "<c r=\"C7\"><v>1</v></c></row>" +
+                    "<row><c t=\"s\"><v>3</v></c><c><v>1</v></c><c><v>-1</v></c></row>" +
+                    "</sheetData></worksheet>";
+
+            // When
+            PurchaseImportResultDTO result = purchaseImportService.importPurchase(1L, null, null,
+                    xlsxFile(Map.of("xl/sharedStrings.xml", SHARED_STRINGS, "xl/worksheets/sheet1.xml", sheet)));
+
+            // Then
+            assertThat(result.getSuccess()).isFalse();
+            assertThat(result.getErrors()).extracting(PurchaseImportResultDTO.RowError::getRowNumber)
+                    .containsExactly(7, 8);
+        }
+
+        private static final String SHARED_STRINGS =
+                "<sst xmlns=\"http://schemas.openxmlformats.org/spreadsheetml/2006/main\">" +
+                "<si><t>material_code</t></si><si><t>quantity</t></si><si><t>unit_price</t></si>" +
+                "<si><t>M001</t></si></sst>";
+
+        private static final String SHEET_HEADER =
+                "<worksheet xmlns=\"http://schemas.openxmlformats.org/spreadsheetml/2006/main\"><sheetData>" +
+                "<row r=\"1\"><c r=\"A1\" t=\"s\"><v>0</v></c><c r=\"B1\" t=\"s\"><v>1</v></c>" +
+                "<c r=\"C1\" t=\"s\"><v>2</v></c></row>";
+
+        private MockMultipartFile xlsxFile(Map<String, String> entries) throws IOException {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            try (ZipOutputStream zip = new ZipOutputStream(out)) {
+                for (Map.Entry<String, String> entry : entries.entrySet()) {
+                    zip.putNextEntry(new ZipEntry(entry.getKey()));
+                    zip.write(entry.getValue().getBytes(StandardCharsets.UTF_8));
+                    zip.closeEntry();
+                }
+            }
+            return new MockMultipartFile("file", "delivery.xlsx",
+                    "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet", out.toByteArray());
+        }
+    }
+}
@@ -4,6 +4,7 @@ import com.morningharvest.erp.common.dto.PageResponse;
 import com.morningharvest.erp.common.dto.PageableRequest;
 import com.morningharvest.erp.common.event.EventPublisher;
 import com.morningharvest.erp.common.exception.ResourceNotFoundException;
+import com.morningharvest.erp.common.sequence.DocumentSequenceService;
 import com.morningharvest.erp.common.test.TestDataFactory;
 import com.morningharvest.erp.material.entity.Material;
 import com.morningharvest.erp.material.repository.MaterialRepository;
@@ -58,6 +59,9 @@ class PurchaseServiceTest {
     @Mock
     private EventPublisher eventPublisher;
 
+    @Mock
+    private DocumentSequenceService documentSequenceService;
+
     @InjectMocks
     private PurchaseService purchaseService;
 
@@ -135,7 +139,7 @@ class PurchaseServiceTest {
 
             when(supplierRepository.findById(1L)).thenReturn(Optional.of(testSupplier));
             when(materialRepository.findById(1L)).thenReturn(Optional.of(testMaterial));
-            when(purchaseRepository.countByPurchaseNumberPrefix(anyString())).thenReturn(0L);
+            when(documentSequenceService.nextNumber("PO")).thenReturn("PO-20251205-0001");
             when(purchaseRepository.save(any(Purchase.class))).thenAnswer(invocation -> {
                 Purchase p = invocation.getArgument(0);
                 p.setId(1L);
@@ -203,7 +207,7 @@ class PurchaseServiceTest {
             // Given
             CreatePurchaseRequest request = TestDataFactory.defaultCreatePurchaseRequest().build();
             when(supplierRepository.findById(1L)).thenReturn(Optional.of(testSupplier));
-            when(purchaseRepository.countByPurchaseNumberPrefix(anyString())).thenReturn(0L);
+            when(documentSequenceService.nextNumber("PO")).thenReturn("PO-20251205-0001");
             when(purchaseRepository.save(any(Purchase.class))).thenAnswer(invocation -> {
                 Purchase p = invocation.getArgument(0);
                 p.setId(1L);
@@ -231,7 +235,7 @@ class PurchaseServiceTest {
                     .build();
 
             when(supplierRepository.findById(1L)).thenReturn(Optional.of(testSupplier));
-            when(purchaseRepository.countByPurchaseNumberPrefix(anyString())).thenReturn(0L);
+            when(documentSequenceService.nextNumber("PO")).thenReturn("PO-20251205-0001");
             when(purchaseRepository.save(any(Purchase.class))).thenAnswer(invocation -> {
                 Purchase p = invocation.getArgument(0);
                 p.setId(1L);
@@ -263,7 +267,7 @@ class PurchaseServiceTest {
                     .build();
 
             when(supplierRepository.findById(1L)).thenReturn(Optional.of(testSupplier));
-            when(purchaseRepository.countByPurchaseNumberPrefix(anyString())).thenReturn(0L);
+            when(documentSequenceService.nextNumber("PO")).thenReturn("PO-20251205-0001");
             when(purchaseRepository.save(any(Purchase.class))).thenAnswer(invocation -> {
                 Purchase p = invocation.getArgument(0);
                 p.setId(1L);
@@ -0,0 +1,247 @@
+package com.morningharvest.erp.purchase.service;
+
+import com.morningharvest.erp.common.test.TestDataFactory;
+import com.morningharvest.erp.inventorycheck.repository.InventoryCheckItemRepository;
+import com.morningharvest.erp.material.entity.Material;
+import com.morningharvest.erp.material.repository.MaterialRepository;
+import com.morningharvest.erp.order.repository.OrderItemRepository;
+import com.morningharvest.erp.product.repository.ProductRecipeRepository;
+import com.morningharvest.erp.purchase.dto.CreatePurchaseRequest;
+import com.morningharvest.erp.purchase.dto.PurchaseDetailDTO;
+import com.morningharvest.erp.purchase.dto.ReorderSuggestionDTO;
+import com.morningharvest.erp.purchase.repository.PurchaseItemRepository;
+import com.morningharvest.erp.purchase.repository.PurchaseRepository;
+import com.morningharvest.erp.supplier.repository.SupplierRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("ReorderSuggestionService 單元測試")
+class ReorderSuggestionServiceTest {
+
+    @Mock
+    private MaterialRepository materialRepository;
+
+    @Mock
+    private ProductRecipeRepository productRecipeRepository;
+
+    @Mock
+    private OrderItemRepository orderItemRepository;
+
+    @Mock
+    private PurchaseItemRepository purchaseItemRepository;
+
+    @Mock
+    private PurchaseRepository purchaseRepository;
+
+    @Mock
+    private InventoryCheckItemRepository inventoryCheckItemRepository;
+
+    @Mock
+    private SupplierRepository supplierRepository;
+
+    @Mock
+    private PurchaseService purchaseService;
+
+    @InjectMocks
+    private ReorderSuggestionService reorderSuggestionService;
+
+    private Material testMaterial;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(reorderSuggestionService, "historyDays", 30);
+        ReflectionTestUtils.setField(reorderSuggestionService, "movingAverageDays", 28);
+        ReflectionTestUtils.setField(reorderSuggestionService, "defaultLeadTimeDays", 2);
+        ReflectionTestUtils.setField(reorderSuggestionService, "coverageDays", 7);
+
+        // 庫存 50、安全庫存 10
+        testMaterial = TestDataFactory.defaultMaterial()
+                .id(1L)
+                .build();
+    }
+
+    /**
+     * 每日銷售指定數量的商品 1（配方用量 1）
+     */
+    private void givenDailySales(long quantityPerDay) {
+        when(materialRepository.findByIsActive(eq(true), any(Pageable.class)))
+                .thenReturn(new PageImpl<>(List.of(testMaterial)));
+        when(productRecipeRepository.findAll())
+                .thenReturn(List.of(TestDataFactory.defaultProductRecipe().id(1L).build()));
+
+        List<OrderItemRepository.DailyProductSales> sales = new ArrayList<>();
+        LocalDate today = LocalDate.now();
+        for (int d = 1; d <= 30; d++) {
+            sales.add(dailySales(1L, today.minusDays(d), quantityPerDay));
+        }
+        when(orderItemRepository.sumSingleItemQuantityByDay(anyCollection(), any(LocalDateTime.class), any(LocalDateTime.class)))
+                .thenReturn(sales);
+        when(orderItemRepository.sumComboItemQuantityByDay(anyCollection(), any(LocalDateTime.class), any(LocalDateTime.class)))
+                .thenReturn(Collections.emptyList());
+        when(inventoryCheckItemRepository.findShrinkageSince(anyString(), any(LocalDateTime.class)))
+                .thenReturn(Collections.emptyList());
+
+        // 供應商 1：進貨日到確認日 2 天
+        when(purchaseItemRepository.findPurchaseHistory(anyString(), any(LocalDate.class)))
+                .thenReturn(List.of(purchaseHistory(1L, 1L, new BigDecimal("20.00"),
+                        today.minusDays(5), today.minusDays(3).atStartOfDay())));
+    }
+
+    @Nested
+    @DisplayName("listSuggestions 方法測試")
+    class ListSuggestionsTests {
+
+        @Test
+        @DisplayName("交期內低於安全庫存時產生建議")
+        void listSuggestions_BelowSafeStock() {
+            // Given
+            givenDailySales(30);
+            when(supplierRepository.findAllById(anyIterable()))
+                    .thenReturn(List.of(TestDataFactory.defaultSupplier().id(1L).build()));
+
+            // When
+            List<ReorderSuggestionDTO> result = reorderSuggestionService.listSuggestions();
+
+            // Then
+            assertThat(result).hasSize(1);
+            ReorderSuggestionDTO suggestion = result.get(0);
+            assertThat(suggestion.getSupplierId()).isEqualTo(1L);
+            assertThat(suggestion.getLeadTimeDays()).isEqualTo(2);
+            assertThat(suggestion.getItems()).hasSize(1);
+            // 安全庫存 10 + (交期 2 + 涵蓋 7) * 30 - 現有 50 = 230
+            assertThat(suggestion.getItems().get(0).getSuggestedQuantity())
+                    .isEqualByComparingTo(new BigDecimal("230.00"));
+            assertThat(suggestion.getItems().get(0).getUnitPrice())
+                    .isEqualByComparingTo(new BigDecimal("20.00"));
+        }
+
+        @Test
+        @DisplayName("庫存足夠時不產生建議")
+        void listSuggestions_EnoughStock() {
+            // Given
+            givenDailySales(1);
+
+            // When
+            List<ReorderSuggestionDTO> result = reorderSuggestionService.listSuggestions();
+
+            // Then
+            assertThat(result).isEmpty();
+        }
+    }
+
+    @Nested
+    @DisplayName("generateDraftPurchases 方法測試")
+    class GenerateDraftPurchasesTests {
+
+        @Test
+        @DisplayName("為供應商建立進貨草稿")
+        void generateDraftPurchases_Success() {
+            // Given
+            givenDailySales(30);
+            when(supplierRepository.findAllById(anyIterable()))
+                    .thenReturn(List.of(TestDataFactory.defaultSupplier().id(1L).build()));
+            when(purchaseRepository.existsBySupplierIdAndStatus(1L, "DRAFT")).thenReturn(false);
+            when(purchaseService.createPurchase(any(CreatePurchaseRequest.class)))
+                    .thenReturn(PurchaseDetailDTO.builder().id(1L).build());
+
+            // When
+            List<PurchaseDetailDTO> result = reorderSuggestionService.generateDraftPurchases();
+
+            // Then
+            assertThat(result).hasSize(1);
+            ArgumentCaptor<CreatePurchaseRequest> captor = ArgumentCaptor.forClass(CreatePurchaseRequest.class);
+            verify(purchaseService).createPurchase(captor.capture());
+            assertThat(captor.getValue().getSupplierId()).isEqualTo(1L);
+            assertThat(captor.getValue().getItems()).hasSize(1);
+        }
+
+        @Test
+        @DisplayName("供應商已有草稿時略過")
+        void generateDraftPurchases_SkipExistingDraft() {
+            // Given
+            givenDailySales(30);
+            when(supplierRepository.findAllById(anyIterable()))
+                    .thenReturn(List.of(TestDataFactory.defaultSupplier().id(1L).build()));
+            when(purchaseRepository.existsBySupplierIdAndStatus(1L, "DRAFT")).thenReturn(true);
+
+            // When
+            List<PurchaseDetailDTO> result = reorderSuggestionService.generateDraftPurchases();
+
+            // Then
+            assertThat(result).isEmpty();
+            verify(purchaseService, never()).createPurchase(any());
+        }
+    }
+
+    private static OrderItemRepository.DailyProductSales dailySales(Long productId, LocalDate date, long quantity) {
+        return new OrderItemRepository.DailyProductSales() {
+            @Override
+            public Long getProductId() {
+                return productId;
+            }
+
+            @Override
+            public LocalDate getSaleDate() {
+                return date;
+            }
+
+            @Override
+            public Long getQuantity() {
+                return quantity;
+            }
+        };
+    }
+
+    private static PurchaseItemRepository.MaterialPurchaseHistory purchaseHistory(
+            Long materialId, Long supplierId, BigDecimal unitPrice,
+            LocalDate purchaseDate, LocalDateTime confirmedAt) {
+        return new PurchaseItemRepository.MaterialPurchaseHistory() {
+            @Override
+            public Long getMaterialId() {
+                return materialId;
+            }
+
+            @Override
+            public Long getSupplierId() {
+                return supplierId;
+            }
+
+            @Override
+            public BigDecimal getUnitPrice() {
+                return unitPrice;
+            }
+
+            @Override
+            public LocalDate getPurchaseDate() {
+                return purchaseDate;
+            }
+
+            @Override
+            public LocalDateTime getConfirmedAt() {
+                return confirmedAt;
+            }
+        };
+    }
+}
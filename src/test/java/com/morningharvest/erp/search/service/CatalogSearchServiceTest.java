@@ -0,0 +1,249 @@
+package com.morningharvest.erp.search.service;
+
+import com.morningharvest.erp.combo.entity.Combo;
+import com.morningharvest.erp.combo.repository.ComboRepository;
+import com.morningharvest.erp.common.test.TestDataFactory;
+import com.morningharvest.erp.material.repository.MaterialRepository;
+import com.morningharvest.erp.product.entity.Product;
+import com.morningharvest.erp.product.repository.ProductRepository;
+import com.morningharvest.erp.search.constant.SearchItemType;
+import com.morningharvest.erp.search.dto.SearchResultDTO;
+import com.morningharvest.erp.supplier.repository.SupplierRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("CatalogSearchService 單元測試")
+class CatalogSearchServiceTest {
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @Mock
+    private ComboRepository comboRepository;
+
+    @Mock
+    private MaterialRepository materialRepository;
+
+    @Mock
+    private SupplierRepository supplierRepository;
+
+    @InjectMocks
+    private CatalogSearchService catalogSearchService;
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(productRepository.findAll()).thenReturn(List.of(
+                TestDataFactory.defaultProduct().id(1L).name("招牌蛋餅").categoryName("蛋餅類").build(),
+                TestDataFactory.defaultProduct().id(2L).name("蛋餅").categoryName("蛋餅類").build(),
+                TestDataFactory.defaultProduct().id(3L).name("起司蛋堡").categoryName("漢堡類").build(),
+                TestDataFactory.inactiveProduct().id(4L).name("蘿蔔糕加蛋").build()));
+        lenient().when(comboRepository.findAll()).thenReturn(List.of(
+                Combo.builder().id(10L).name("早安套餐").categoryName("套餐").isActive(true).build()));
+        lenient().when(materialRepository.findAll()).thenReturn(List.of(
+                TestDataFactory.defaultMaterial().id(20L).name("雞蛋").build(),
+                TestDataFactory.inactiveMaterial().id(21L).name("蛋餅皮").build()));
+        lenient().when(supplierRepository.findAll()).thenReturn(List.of(
+                TestDataFactory.defaultSupplier().id(30L).name("好蛋農場股份有限公司").shortName("好蛋").build()));
+    }
+
+    @Nested
+    @DisplayName("search 方法測試")
+    class SearchTests {
+
+        @Test
+        @DisplayName("首次查詢時建立索引，單字查詢依相關度排序")
+        void search_SingleCharacter_RankedByRelevance() {
+            // When
+            List<SearchResultDTO> results = catalogSearchService.search("蛋", null, false, 20);
+
+            // Then
+            assertThat(catalogSearchService.size()).isEqualTo(8);
+            assertThat(results).extracting(SearchResultDTO::getId)
+                    .containsExactlyInAnyOrder(1L, 2L, 3L, 4L, 20L, 21L, 30L);
+            assertThat(results.get(0).getId()).isEqualTo(2L);
+            assertThat(results.get(0).getScore()).isGreaterThan(results.get(1).getScore());
+            verify(productRepository, times(1)).findAll();
+        }
+
+        @Test
+        @DisplayName("多字查詢以兩字元詞彙交集，依相關度排序")
+        void search_MultiCharacter_RankedByRelevance() {
+            // When
+            List<SearchResultDTO> results = catalogSearchService.search("蛋餅", null, false, 20);
+
+            // Then
+            assertThat(results).extracting(SearchResultDTO::getId).containsExactly(2L, 21L, 1L);
+            assertThat(catalogSearchService.search("餅蛋", null, false, 20)).isEmpty();
+        }
+
+        @Test
+        @DisplayName("全形編號正規化後完全符合，排在最前")
+        void search_FullWidthCode_ExactMatch() {
+            // When
+            List<SearchResultDTO> results = catalogSearchService.search("ｍ００１", null, false, 20);
+
+            // Then
+            assertThat(results).hasSize(1);
+            assertThat(results.get(0).getType()).isEqualTo(SearchItemType.MATERIAL);
+            assertThat(results.get(0).getCode()).isEqualTo("M001");
+        }
+
+        @Test
+        @DisplayName("可依聯絡人、簡稱等次要欄位查詢供應商")
+        void search_BySecondaryField() {
+            // When
+            List<SearchResultDTO> results = catalogSearchService.search("王 小明", null, false, 20);
+
+            // Then
+            assertThat(results).extracting(SearchResultDTO::getId).containsExactly(30L);
+        }
+
+        @Test
+        @DisplayName("依類型與啟用狀態過濾，並限制筆數")
+        void search_FilterByTypeAndActive() {
+            // When
+            List<SearchResultDTO> results = catalogSearchService.search(
+                    "蛋", List.of(SearchItemType.PRODUCT, SearchItemType.MATERIAL), true, 2);
+
+            // Then
+            assertThat(results).hasSize(2);
+            assertThat(results).extracting(SearchResultDTO::getIsActive).containsOnly(true);
+            assertThat(results).extracting(SearchResultDTO::getType)
+                    .doesNotContain(SearchItemType.SUPPLIER, SearchItemType.COMBO);
+        }
+
+        @Test
+        @DisplayName("空白關鍵字回傳空結果且不建立索引")
+        void search_BlankKeyword() {
+            // When
+            List<SearchResultDTO> results = catalogSearchService.search("  ", null, false, 20);
+
+            // Then
+            assertThat(results).isEmpty();
+            verifyNoInteractions(productRepository);
+        }
+
+        @Test
+        @DisplayName("無效的類型拋出例外")
+        void search_InvalidType_ThrowsException() {
+            assertThatThrownBy(() -> catalogSearchService.search("蛋", List.of("ORDER"), false, 20))
+                    .isInstanceOf(IllegalArgumentException.class)
+                    .hasMessageContaining("無效的搜尋類型");
+        }
+    }
+
+    @Nested
+    @DisplayName("增量更新測試")
+    class IncrementalTests {
+
+        @Test
+        @DisplayName("更新文件後舊名稱不再命中")
+        void upsert_ReplacesPreviousTerms() {
+            // Given
+            catalogSearchService.rebuild();
+            Product renamed = TestDataFactory.defaultProduct().id(3L).name("起司豬排堡").categoryName("漢堡類").build();
+
+            // When
+            SearchDocument.of(renamed).ifPresent(catalogSearchService::upsert);
+
+            // Then
+            assertThat(catalogSearchService.search("蛋堡", null, false, 20)).isEmpty();
+            assertThat(catalogSearchService.search("豬排", null, false, 20))
+                    .extracting(SearchResultDTO::getId).containsExactly(3L);
+        }
+
+        @Test
+        @DisplayName("移除文件")
+        void remove_DropsDocument() {
+            // Given
+            catalogSearchService.rebuild();
+
+            // When
+            catalogSearchService.remove(SearchItemType.COMBO, 10L);
+
+            // Then
+            assertThat(catalogSearchService.search("套餐", null, false, 20)).isEmpty();
+            assertThat(catalogSearchService.size()).isEqualTo(7);
+        }
+
+        @Test
+        @DisplayName("尚未載入時忽略增量更新")
+        void upsert_NotLoaded_Ignored() {
+            // When
+            catalogSearchService.upsert(new SearchDocument(SearchItemType.PRODUCT, 99L, null,
+                    "新商品", null, List.of(), true));
+
+            // Then
+            assertThat(catalogSearchService.size()).isZero();
+            verifyNoInteractions(productRepository);
+        }
+
+        @Test
+        @DisplayName("重建期間的增量更新套用到新索引，不被重建結果覆蓋")
+        void upsert_DuringRebuild_NotLost() {
+            // Given
+            catalogSearchService.rebuild();
+            Product renamed = TestDataFactory.defaultProduct().id(3L).name("起司豬排堡").categoryName("漢堡類").build();
+            when(supplierRepository.findAll()).thenAnswer(invocation -> {
+                // 重建已讀到舊名稱時，其他交易提交改名
+                SearchDocument.of(renamed).ifPresent(catalogSearchService::upsert);
+                return List.of(TestDataFactory.defaultSupplier().id(30L).name("好蛋農場股份有限公司")
+                        .shortName("好蛋").build());
+            });
+
+            // When
+            catalogSearchService.rebuild();
+
+            // Then
+            assertThat(catalogSearchService.search("蛋堡", null, false, 20)).isEmpty();
+            assertThat(catalogSearchService.search("豬排", null, false, 20))
+                    .extracting(SearchResultDTO::getId).containsExactly(3L);
+        }
+
+        @Test
+        @DisplayName("依資料庫目前內容更新文件")
+        void refresh_ReloadsFromRepository() {
+            // Given
+            catalogSearchService.rebuild();
+            when(productRepository.findById(3L)).thenReturn(Optional.of(
+                    TestDataFactory.defaultProduct().id(3L).name("起司豬排堡").categoryName("漢堡類").build()));
+
+            // When
+            catalogSearchService.refresh(SearchItemType.PRODUCT, 3L);
+
+            // Then
+            assertThat(catalogSearchService.search("蛋堡", null, false, 20)).isEmpty();
+            assertThat(catalogSearchService.search("豬排", null, false, 20))
+                    .extracting(SearchResultDTO::getId).containsExactly(3L);
+        }
+
+        @Test
+        @DisplayName("資料已刪除時移除文件")
+        void refresh_Deleted_RemovesDocument() {
+            // Given
+            catalogSearchService.rebuild();
+            when(materialRepository.findById(20L)).thenReturn(Optional.empty());
+
+            // When
+            catalogSearchService.refresh(SearchItemType.MATERIAL, 20L);
+
+            // Then
+            assertThat(catalogSearchService.search("雞蛋", null, false, 20)).isEmpty();
+            assertThat(catalogSearchService.size()).isEqualTo(7);
+        }
+    }
+}
@@ -0,0 +1,281 @@
+package com.morningharvest.erp.storage.service;
+
+import com.morningharvest.erp.common.cache.CacheNames;
+import com.morningharvest.erp.storage.constant.ImageAssetStatus;
+import com.morningharvest.erp.storage.dto.ImageVariantsDTO;
+import com.morningharvest.erp.storage.entity.ImageAsset;
+import com.morningharvest.erp.storage.repository.ImageAssetRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("ImageDerivativeService 單元測試")
+class ImageDerivativeServiceTest {
+
+    private static final String SOURCE_URL = "http://minio:9000/public/products/a.png";
+
+    @Mock
+    private ImageAssetRepository imageAssetRepository;
+
+    @Mock
+    private StorageService storageService;
+
+    @Spy
+    private ImageDerivativeGenerator imageDerivativeGenerator = new ImageDerivativeGenerator();
+
+    @Mock
+    private CacheManager cacheManager;
+
+    @InjectMocks
+    private ImageDerivativeService imageDerivativeService;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(imageDerivativeService, "workers", 1);
+        ReflectionTestUtils.setField(imageDerivativeService, "queueCapacity", 10);
+        ReflectionTestUtils.setField(imageDerivativeService, "maxAttempts", 3);
+        imageDerivativeService.startWorkers();
+
+        lenient().when(imageAssetRepository.save(any(ImageAsset.class))).thenAnswer(invocation -> {
+            ImageAsset asset = invocation.getArgument(0);
+            if (asset.getId() == null) {
+                asset.setId(1L);
+            }
+            return asset;
+        });
+        lenient().when(storageService.getFileUrl(anyString(), anyString()))
+                .thenAnswer(invocation -> "http://cdn/" + invocation.getArgument(0) + "/" + invocation.getArgument(1));
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        imageDerivativeService.stopWorkers();
+    }
+
+    private static byte[] png(int width, int height) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB), "png", out);
+        return out.toByteArray();
+    }
+
+    private static ImageAsset pendingAsset() {
+        return ImageAsset.builder()
+                .id(1L)
+                .sourceUrl(SOURCE_URL)
+                .contentHash("abc")
+                .status(ImageAssetStatus.PENDING)
+                .build();
+    }
+
+    @Nested
+    @DisplayName("register 方法測試")
+    class RegisterTests {
+
+        @Test
+        @DisplayName("內容相同的圖片已產生衍生圖時直接共用")
+        void register_SameContentReady_SharesDerivatives() throws IOException {
+            // Given
+            byte[] content = "image".getBytes(StandardCharsets.UTF_8);
+            String hash = ImageDerivativeService.sha256(content);
+            when(imageAssetRepository.findBySourceUrl(SOURCE_URL)).thenReturn(Optional.empty());
+            when(imageAssetRepository.findFirstByContentHashAndStatus(hash, ImageAssetStatus.READY))
+                    .thenReturn(Optional.of(ImageAsset.builder().id(9L).contentHash(hash)
+                            .status(ImageAssetStatus.READY).width(800).height(600).build()));
+
+            // When
+            ImageAsset asset = imageDerivativeService.register(SOURCE_URL, new ByteArrayInputStream(content));
+
+            // Then
+            assertThat(asset.getStatus()).isEqualTo(ImageAssetStatus.READY);
+            assertThat(asset.getContentHash()).isEqualTo(hash);
+            assertThat(asset.getWidth()).isEqualTo(800);
+            verifyNoInteractions(storageService);
+        }
+
+        @Test
+        @DisplayName("已登記的原圖直接回傳既有資產")
+        void register_Existing_ReturnsExisting() throws IOException {
+            // Given
+            ImageAsset existing = pendingAsset();
+            when(imageAssetRepository.findBySourceUrl(SOURCE_URL)).thenReturn(Optional.of(existing));
+
+            // When
+            ImageAsset asset = imageDerivativeService.register(SOURCE_URL, new ByteArrayInputStream(new byte[]{1}));
+
+            // Then
+            assertThat(asset).isSameAs(existing);
+            verify(imageAssetRepository, never()).save(any());
+        }
+    }
+
+    @Nested
+    @DisplayName("process 方法測試")
+    class ProcessTests {
+
+        @Test
+        @DisplayName("產生並上傳三種尺寸衍生圖，標記完成並清除商品快取")
+        void process_Success() throws IOException {
+            // Given
+            Cache cache = mock(Cache.class);
+            when(imageAssetRepository.findById(1L)).thenReturn(Optional.of(pendingAsset()));
+            when(imageAssetRepository.findFirstByContentHashAndStatus("abc", ImageAssetStatus.READY))
+                    .thenReturn(Optional.empty());
+            when(storageService.downloadFile(SOURCE_URL)).thenReturn(png(1600, 800));
+            when(cacheManager.getCache(CacheNames.PRODUCTS)).thenReturn(cache);
+
+            // When
+            imageDerivativeService.process(1L);
+
+            // Then
+            ArgumentCaptor<byte[]> tile = ArgumentCaptor.forClass(byte[].class);
+            verify(storageService).putObject(eq("public"), eq("derivatives/abc/thumbnail.jpg"), any(), eq("image/jpeg"));
+            verify(storageService).putObject(eq("public"), eq("derivatives/abc/tile.jpg"), tile.capture(), eq("image/jpeg"));
+            verify(storageService).putObject(eq("public"), eq("derivatives/abc/detail.jpg"), any(), eq("image/jpeg"));
+            BufferedImage tileImage = ImageIO.read(new ByteArrayInputStream(tile.getValue()));
+            assertThat(tileImage.getWidth()).isEqualTo(480);
+            assertThat(tileImage.getHeight()).isEqualTo(240);
+
+            ArgumentCaptor<ImageAsset> saved = ArgumentCaptor.forClass(ImageAsset.class);
+            verify(imageAssetRepository).save(saved.capture());
+            assertThat(saved.getValue().getStatus()).isEqualTo(ImageAssetStatus.READY);
+            assertThat(saved.getValue().getWidth()).isEqualTo(1600);
+            verify(cache).clear();
+        }
+
+        @Test
+        @DisplayName("不支援的圖片格式直接標記失敗")
+        void process_UnsupportedFormat_Failed() {
+            // Given
+            when(imageAssetRepository.findById(1L)).thenReturn(Optional.of(pendingAsset()));
+            when(imageAssetRepository.findFirstByContentHashAndStatus("abc", ImageAssetStatus.READY))
+                    .thenReturn(Optional.empty());
+            when(storageService.downloadFile(SOURCE_URL)).thenReturn("not an image".getBytes(StandardCharsets.UTF_8));
+
+            // When
+            imageDerivativeService.process(1L);
+
+            // Then
+            ArgumentCaptor<ImageAsset> saved = ArgumentCaptor.forClass(ImageAsset.class);
+            verify(imageAssetRepository).save(saved.capture());
+            assertThat(saved.getValue().getStatus()).isEqualTo(ImageAssetStatus.FAILED);
+            assertThat(saved.getValue().getErrorMessage()).contains("不支援的圖片格式");
+            verify(storageService, never()).putObject(anyString(), anyString(), any(), anyString());
+        }
+
+        @Test
+        @DisplayName("暫時性錯誤維持 PENDING 並累計次數，供排程重試")
+        void process_TransientError_StaysPending() {
+            // Given
+            when(imageAssetRepository.findById(1L)).thenReturn(Optional.of(pendingAsset()));
+            when(imageAssetRepository.findFirstByContentHashAndStatus("abc", ImageAssetStatus.READY))
+                    .thenReturn(Optional.empty());
+            when(storageService.downloadFile(SOURCE_URL)).thenThrow(new RuntimeException("連線逾時"));
+
+            // When
+            imageDerivativeService.process(1L);
+
+            // Then
+            ArgumentCaptor<ImageAsset> saved = ArgumentCaptor.forClass(ImageAsset.class);
+            verify(imageAssetRepository).save(saved.capture());
+            assertThat(saved.getValue().getStatus()).isEqualTo(ImageAssetStatus.PENDING);
+            assertThat(saved.getValue().getAttempts()).isEqualTo(1);
+        }
+
+        @Test
+        @DisplayName("非 PENDING 的資產略過")
+        void process_NotPending_Skipped() {
+            // Given
+            ImageAsset asset = pendingAsset();
+            asset.setStatus(ImageAssetStatus.READY);
+            when(imageAssetRepository.findById(1L)).thenReturn(Optional.of(asset));
+
+            // When
+            imageDerivativeService.process(1L);
+
+            // Then
+            verifyNoInteractions(storageService);
+            verify(imageAssetRepository, never()).save(any());
+        }
+    }
+
+    @Nested
+    @DisplayName("findVariants 方法測試")
+    class FindVariantsTests {
+
+        @Test
+        @DisplayName("只回傳已完成資產的衍生圖 URL")
+        void findVariants_ReadyOnly() {
+            // Given
+            when(imageAssetRepository.findBySourceUrlInAndStatus(anyCollection(), eq(ImageAssetStatus.READY)))
+                    .thenReturn(List.of(ImageAsset.builder().sourceUrl(SOURCE_URL).contentHash("abc").build()));
+
+            // When
+            Map<String, ImageVariantsDTO> variants = imageDerivativeService.findVariants(
+                    Arrays.asList(SOURCE_URL, null, ""));
+
+            // Then
+            assertThat(variants).containsOnlyKeys(SOURCE_URL);
+            assertThat(variants.get(SOURCE_URL).getTileUrl()).isEqualTo("http://cdn/public/derivatives/abc/tile.jpg");
+        }
+
+        @Test
+        @DisplayName("沒有圖片時不查詢資料庫")
+        void findVariants_NoUrls() {
+            assertThat(imageDerivativeService.findVariants((String) null)).isNull();
+            verifyNoInteractions(imageAssetRepository);
+        }
+    }
+
+    @Nested
+    @DisplayName("resize 方法測試")
+    class ResizeTests {
+
+        @Test
+        @DisplayName("小於上限的圖片不放大")
+        void resize_NoUpscale() {
+            BufferedImage resized = ImageDerivativeGenerator.resize(
+                    new BufferedImage(100, 50, BufferedImage.TYPE_INT_ARGB), 480);
+
+            assertThat(resized.getWidth()).isEqualTo(100);
+            assertThat(resized.getHeight()).isEqualTo(50);
+            assertThat(resized.getType()).isEqualTo(BufferedImage.TYPE_INT_RGB);
+        }
+
+        @Test
+        @DisplayName("直式圖片依長邊縮小")
+        void resize_Portrait() {
+            BufferedImage resized = ImageDerivativeGenerator.resize(
+                    new BufferedImage(900, 3000, BufferedImage.TYPE_INT_RGB), 160);
+
+            assertThat(resized.getHeight()).isEqualTo(160);
+            assertThat(resized.getWidth()).isEqualTo(48);
+        }
+    }
+}
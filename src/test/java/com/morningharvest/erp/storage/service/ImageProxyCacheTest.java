@@ -0,0 +1,203 @@
+package com.morningharvest.erp.storage.service;
+
+import com.morningharvest.erp.storage.dto.CachedImage;
+import com.morningharvest.erp.storage.dto.StoredObjectInfo;
+import com.morningharvest.erp.storage.util.ByteRange;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.util.Arrays;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("ImageProxyCache 單元測試")
+class ImageProxyCacheTest {
+
+    private static final ZonedDateTime MODIFIED = ZonedDateTime.parse("2026-01-01T00:00:00Z");
+
+    @TempDir
+    Path cacheDir;
+
+    @Mock
+    private StorageService storageService;
+
+    private ImageProxyCache imageProxyCache;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        imageProxyCache = new ImageProxyCache(storageService);
+        ReflectionTestUtils.setField(imageProxyCache, "cacheDir", cacheDir);
+        ReflectionTestUtils.setField(imageProxyCache, "memoryMaxObjectBytes", 100L);
+        ReflectionTestUtils.setField(imageProxyCache, "diskMaxBytes", 2500L);
+        imageProxyCache.init();
+    }
+
+    private byte[] stub(String objectName, int size) {
+        byte[] content = new byte[size];
+        Arrays.fill(content, (byte) objectName.length());
+        lenient().when(storageService.statObject("public", objectName))
+                .thenReturn(Optional.of(new StoredObjectInfo(size, "image/jpeg", MODIFIED)));
+        lenient().when(storageService.openObject("public", objectName))
+                .thenAnswer(invocation -> new ByteArrayInputStream(content));
+        return content;
+    }
+
+    private byte[] read(CachedImage image, long start, long length) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (image) {
+            image.writeTo(out, start, length);
+        }
+        return out.toByteArray();
+    }
+
+    @Nested
+    @DisplayName("快取讀取")
+    class GetTests {
+
+        @Test
+        @DisplayName("第一次讀取自物件儲存載入，之後命中快取")
+        void get_SecondRequestHitsCache() throws Exception {
+            byte[] content = stub("products/a.jpg", 1000);
+
+            CachedImage first = imageProxyCache.get("products/a.jpg").orElseThrow();
+            CachedImage second = imageProxyCache.get("products/a.jpg").orElseThrow();
+
+            assertThat(read(first, 0, 1000)).isEqualTo(content);
+            assertThat(read(second, 0, 1000)).isEqualTo(content);
+            assertThat(second.etag()).isEqualTo(first.etag()).hasSize(32);
+            assertThat(second.contentType()).isEqualTo("image/jpeg");
+            assertThat(second.lastModified()).isEqualTo(MODIFIED.toInstant().toEpochMilli());
+            verify(storageService, times(1)).openObject("public", "products/a.jpg");
+        }
+
+        @Test
+        @DisplayName("小圖保留於記憶體，大圖以檔案傳送")
+        void get_SmallInMemory_LargeOnDisk() throws Exception {
+            stub("products/small.jpg", 50);
+            stub("products/large.jpg", 1000);
+
+            try (CachedImage small = imageProxyCache.get("products/small.jpg").orElseThrow();
+                 CachedImage large = imageProxyCache.get("products/large.jpg").orElseThrow()) {
+                assertThat(small.content()).hasSize(50);
+                assertThat(small.channel()).isNull();
+                assertThat(large.content()).isNull();
+                assertThat(large.channel()).isNotNull();
+            }
+        }
+
+        @Test
+        @DisplayName("讀取指定區間")
+        void get_Range() throws Exception {
+            byte[] content = stub("products/a.jpg", 1000);
+            content[10] = 42;
+
+            CachedImage image = imageProxyCache.get("products/a.jpg").orElseThrow();
+
+            assertThat(read(image, 10, 5)).isEqualTo(Arrays.copyOfRange(content, 10, 15));
+        }
+
+        @Test
+        @DisplayName("物件不存在時回傳空")
+        void get_NotFound() {
+            when(storageService.statObject("public", "products/missing.jpg")).thenReturn(Optional.empty());
+
+            assertThat(imageProxyCache.get("products/missing.jpg")).isEmpty();
+            verify(storageService, never()).openObject(anyString(), anyString());
+        }
+
+        @Test
+        @DisplayName("路徑跳出 bucket 時拋出例外")
+        void get_InvalidPath_ThrowsException() {
+            assertThatThrownBy(() -> imageProxyCache.get("../private/a.jpg"))
+                    .isInstanceOf(IllegalArgumentException.class);
+            assertThatThrownBy(() -> imageProxyCache.get("products//a.jpg"))
+                    .isInstanceOf(IllegalArgumentException.class);
+        }
+
+        @Test
+        @DisplayName("超過磁碟上限時淘汰最久未使用的快取檔")
+        void get_EvictsLeastRecentlyUsed() throws Exception {
+            stub("products/a.jpg", 1000);
+            stub("products/b.jpg", 1000);
+            stub("products/c.jpg", 1000);
+
+            imageProxyCache.get("products/a.jpg").orElseThrow().close();
+            imageProxyCache.get("products/b.jpg").orElseThrow().close();
+            imageProxyCache.get("products/a.jpg").orElseThrow().close();
+            imageProxyCache.get("products/c.jpg").orElseThrow().close();
+
+            try (var files = Files.list(cacheDir)) {
+                assertThat(files.count()).isEqualTo(2);
+            }
+            imageProxyCache.get("products/a.jpg").orElseThrow().close();
+            imageProxyCache.get("products/b.jpg").orElseThrow().close();
+            verify(storageService, times(1)).openObject("public", "products/a.jpg");
+            verify(storageService, times(2)).openObject("public", "products/b.jpg");
+        }
+
+        @Test
+        @DisplayName("超過確認期限且物件已刪除時移除快取")
+        void get_RevalidateDeleted() throws Exception {
+            stub("products/a.jpg", 1000);
+            imageProxyCache.get("products/a.jpg").orElseThrow().close();
+
+            ReflectionTestUtils.setField(imageProxyCache, "revalidateAfter", Duration.ofMillis(-1));
+            when(storageService.statObject("public", "products/a.jpg")).thenReturn(Optional.empty());
+
+            assertThat(imageProxyCache.get("products/a.jpg")).isEmpty();
+            try (var files = Files.list(cacheDir)) {
+                assertThat(files.count()).isZero();
+            }
+        }
+    }
+
+    @Nested
+    @DisplayName("Range 解析")
+    class ByteRangeTests {
+
+        @Test
+        @DisplayName("解析單一區間")
+        void parse_SingleRange() {
+            assertThat(ByteRange.parse("bytes=0-99", 1000)).isEqualTo(new ByteRange(0, 99));
+            assertThat(ByteRange.parse("bytes=900-", 1000)).isEqualTo(new ByteRange(900, 999));
+            assertThat(ByteRange.parse("bytes=-100", 1000)).isEqualTo(new ByteRange(900, 999));
+            assertThat(ByteRange.parse("bytes=500-5000", 1000)).isEqualTo(new ByteRange(500, 999));
+        }
+
+        @Test
+        @DisplayName("多區間或格式不符時回傳完整內容")
+        void parse_Ignored() {
+            assertThat(ByteRange.parse(null, 1000)).isNull();
+            assertThat(ByteRange.parse("bytes=0-1,5-6", 1000)).isNull();
+            assertThat(ByteRange.parse("bytes=9-1", 1000)).isNull();
+            assertThat(ByteRange.parse("items=0-1", 1000)).isNull();
+        }
+
+        @Test
+        @DisplayName("超出範圍時不可滿足")
+        void parse_Unsatisfiable() {
+            assertThat(ByteRange.parse("bytes=1000-", 1000).isSatisfiable()).isFalse();
+            assertThat(ByteRange.parse("bytes=1000-1999", 1000).isSatisfiable()).isFalse();
+            assertThat(ByteRange.parse("bytes=0-", 0).isSatisfiable()).isFalse();
+            assertThat(ByteRange.parse("bytes=-0", 1000).isSatisfiable()).isFalse();
+        }
+    }
+}
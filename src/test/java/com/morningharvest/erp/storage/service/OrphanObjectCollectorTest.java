@@ -0,0 +1,195 @@
+package com.morningharvest.erp.storage.service;
+
+import com.morningharvest.erp.combo.repository.ComboRepository;
+import com.morningharvest.erp.product.repository.ProductRepository;
+import com.morningharvest.erp.storage.dto.StoredObject;
+import com.morningharvest.erp.storage.entity.ImageAsset;
+import com.morningharvest.erp.storage.repository.ImageAssetRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDateTime;
+import java.time.ZonedDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("OrphanObjectCollector 單元測試")
+class OrphanObjectCollectorTest {
+
+    private static final String CDN = "http://cdn/";
+
+    @Mock
+    private StorageService storageService;
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @Mock
+    private ComboRepository comboRepository;
+
+    @Mock
+    private ImageAssetRepository imageAssetRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @InjectMocks
+    private OrphanObjectCollector orphanObjectCollector;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(orphanObjectCollector, "batchPauseMs", 0L);
+
+        lenient().when(storageService.toObjectPath(anyString())).thenAnswer(invocation -> {
+            String url = invocation.getArgument(0);
+            return url.startsWith(CDN) ? Optional.of(url.substring(CDN.length())) : Optional.empty();
+        });
+        lenient().when(storageService.getFileUrl(anyString(), anyString()))
+                .thenAnswer(invocation -> CDN + invocation.getArgument(0) + "/" + invocation.getArgument(1));
+        lenient().when(productRepository.streamImageUrls())
+                .thenReturn(Stream.of(CDN + "public/products/keep.jpg"));
+        lenient().when(comboRepository.streamImageUrls()).thenReturn(Stream.empty());
+        lenient().when(imageAssetRepository.streamHashedAssets()).thenReturn(Stream.empty());
+        lenient().when(storageService.deleteObjects(anyString(), anyList())).thenReturn(List.of());
+    }
+
+    private static StoredObject old(String objectName) {
+        return new StoredObject(objectName, 100, ZonedDateTime.now().minusDays(3));
+    }
+
+    private static ImageAssetRepository.AssetReference assetRef(String sourceUrl, String hash) {
+        return new ImageAssetRepository.AssetReference() {
+            @Override
+            public String getSourceUrl() {
+                return sourceUrl;
+            }
+
+            @Override
+            public String getContentHash() {
+                return hash;
+            }
+
+            @Override
+            public LocalDateTime getUpdatedAt() {
+                return LocalDateTime.now().minusDays(3);
+            }
+        };
+    }
+
+    @Nested
+    @DisplayName("原圖清理")
+    class SourceObjectTests {
+
+        @Test
+        @DisplayName("刪除未引用且超過保留期的物件，保留被引用與新上傳的物件")
+        void collect_DeletesOnlyUnreferencedOldObjects() {
+            when(storageService.listObjects("public")).thenReturn(Stream.of(
+                    old("products/keep.jpg"),
+                    old("products/orphan.jpg"),
+                    new StoredObject("products/new.jpg", 100, ZonedDateTime.now())));
+
+            OrphanObjectCollector.Result result = orphanObjectCollector.collect();
+
+            assertThat(result.scanned()).isEqualTo(3);
+            assertThat(result.deleted()).isEqualTo(1);
+            verify(storageService).deleteObjects("public", List.of("products/orphan.jpg"));
+            verify(imageAssetRepository).deleteBySourceUrlIn(List.of(CDN + "public/products/orphan.jpg"));
+        }
+
+        @Test
+        @DisplayName("過濾器建立後才被引用的物件經精確比對後保留")
+        void collect_ReferencedAfterFilterBuilt_Kept() {
+            when(storageService.listObjects("public")).thenReturn(Stream.of(old("products/orphan.jpg")));
+            when(productRepository.findImageUrlsIn(anyCollection()))
+                    .thenReturn(List.of(CDN + "public/products/orphan.jpg"));
+
+            OrphanObjectCollector.Result result = orphanObjectCollector.collect();
+
+            assertThat(result.candidates()).isEqualTo(1);
+            assertThat(result.deleted()).isZero();
+            verify(storageService, never()).deleteObjects(anyString(), anyList());
+        }
+
+        @Test
+        @DisplayName("分批刪除並受每次執行上限限制")
+        void collect_RespectsBatchSizeAndLimit() {
+            ReflectionTestUtils.setField(orphanObjectCollector, "batchSize", 2);
+            ReflectionTestUtils.setField(orphanObjectCollector, "maxDeletesPerRun", 2);
+            when(storageService.listObjects("public")).thenReturn(Stream.of(
+                    old("general/a.jpg"), old("general/b.jpg"), old("general/c.jpg"),
+                    old("general/d.jpg"), old("general/e.jpg")));
+
+            OrphanObjectCollector.Result result = orphanObjectCollector.collect();
+
+            assertThat(result.deleted()).isEqualTo(2);
+            verify(storageService, times(1)).deleteObjects(eq("public"), anyList());
+            verify(storageService).deleteObjects("public", List.of("general/a.jpg", "general/b.jpg"));
+        }
+
+        @Test
+        @DisplayName("列出物件失敗時不拋出例外")
+        void collect_ListFails_ReturnsEmptyResult() {
+            when(storageService.listObjects("public")).thenThrow(new RuntimeException("bucket 不存在"));
+
+            OrphanObjectCollector.Result result = orphanObjectCollector.collect();
+
+            assertThat(result.deleted()).isZero();
+        }
+    }
+
+    @Nested
+    @DisplayName("衍生圖清理")
+    class DerivativeTests {
+
+        @Test
+        @DisplayName("保留被引用原圖的衍生圖，刪除無所屬原圖的衍生圖")
+        void collect_DerivativesFollowSourceReference() {
+            when(imageAssetRepository.streamHashedAssets()).thenReturn(Stream.of(
+                    assetRef(CDN + "public/products/keep.jpg", "aaa")));
+            when(storageService.listObjects("public")).thenReturn(Stream.of(
+                    old("derivatives/aaa/thumbnail.jpg"),
+                    old("derivatives/bbb/thumbnail.jpg"),
+                    old("derivatives/bbb/tile.jpg")));
+
+            OrphanObjectCollector.Result result = orphanObjectCollector.collect();
+
+            assertThat(result.deleted()).isEqualTo(2);
+            verify(storageService).deleteObjects("public",
+                    List.of("derivatives/bbb/thumbnail.jpg", "derivatives/bbb/tile.jpg"));
+            verify(imageAssetRepository, never()).deleteBySourceUrlIn(anyCollection());
+        }
+
+        @Test
+        @DisplayName("精確比對時所屬原圖仍被引用則保留衍生圖")
+        void collect_DerivativeSourceReferenced_Kept() {
+            ImageAsset asset = ImageAsset.builder()
+                    .sourceUrl(CDN + "public/products/late.jpg")
+                    .contentHash("ccc")
+                    .build();
+            asset.setUpdatedAt(LocalDateTime.now().minusDays(3));
+            when(storageService.listObjects("public")).thenReturn(Stream.of(old("derivatives/ccc/detail.jpg")));
+            when(imageAssetRepository.findByContentHashIn(anyCollection())).thenReturn(List.of(asset));
+            when(productRepository.findImageUrlsIn(anyCollection()))
+                    .thenReturn(List.of(CDN + "public/products/late.jpg"));
+
+            OrphanObjectCollector.Result result = orphanObjectCollector.collect();
+
+            assertThat(result.deleted()).isZero();
+            verify(storageService, never()).deleteObjects(anyString(), anyList());
+        }
+    }
+}
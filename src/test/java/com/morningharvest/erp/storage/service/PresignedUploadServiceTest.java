@@ -0,0 +1,174 @@
+package com.morningharvest.erp.storage.service;
+
+import com.morningharvest.erp.common.exception.ResourceNotFoundException;
+import com.morningharvest.erp.storage.dto.ConfirmUploadRequest;
+import com.morningharvest.erp.storage.dto.FileUploadResponse;
+import com.morningharvest.erp.storage.dto.PresignUploadRequest;
+import com.morningharvest.erp.storage.dto.PresignedUploadResponse;
+import com.morningharvest.erp.storage.dto.StoredObjectInfo;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.ZonedDateTime;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("PresignedUploadService 單元測試")
+class PresignedUploadServiceTest {
+
+    private static final String OBJECT_KEY = "products/3f2b9c1e-8a4d-4e5f-9b6a-1c2d3e4f5a6b.jpg";
+
+    @Mock
+    private StorageService storageService;
+
+    @Mock
+    private ImageDerivativeService imageDerivativeService;
+
+    @InjectMocks
+    private PresignedUploadService presignedUploadService;
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(storageService.getFileUrl(anyString(), anyString()))
+                .thenAnswer(invocation -> "http://cdn/" + invocation.getArgument(0) + "/" + invocation.getArgument(1));
+    }
+
+    @Nested
+    @DisplayName("申請直傳上傳 URL")
+    class PresignTests {
+
+        @Test
+        @DisplayName("核發 UUID 物件名稱與預簽名 URL")
+        void presign_Success() {
+            when(storageService.createPresignedUploadUrl(eq("public"), anyString(), eq(300)))
+                    .thenReturn("http://minio/public/signed");
+
+            PresignedUploadResponse response = presignedUploadService.presign(PresignUploadRequest.builder()
+                    .filename("Photo.JPG")
+                    .contentType("image/jpeg")
+                    .fileSize(1024L)
+                    .folder("products")
+                    .build());
+
+            assertThat(response.getUploadUrl()).isEqualTo("http://minio/public/signed");
+            assertThat(response.getMethod()).isEqualTo("PUT");
+            assertThat(response.getObjectKey()).matches("products/[0-9a-f-]{36}\\.jpg");
+            assertThat(response.getFileUrl()).isEqualTo("http://cdn/public/" + response.getObjectKey());
+            assertThat(response.getExpiresAt()).isNotNull();
+            verify(storageService).createPresignedUploadUrl("public", response.getObjectKey(), 300);
+        }
+
+        @Test
+        @DisplayName("資料夾名稱含路徑時拋出例外")
+        void presign_InvalidFolder_ThrowsException() {
+            PresignUploadRequest request = PresignUploadRequest.builder()
+                    .filename("a.jpg")
+                    .contentType("image/jpeg")
+                    .fileSize(1024L)
+                    .folder("../derivatives")
+                    .build();
+
+            assertThatThrownBy(() -> presignedUploadService.presign(request))
+                    .isInstanceOf(IllegalArgumentException.class)
+                    .hasMessageContaining("資料夾");
+            verify(storageService, never()).createPresignedUploadUrl(anyString(), anyString(), anyInt());
+        }
+
+        @Test
+        @DisplayName("檔案超過大小上限時拋出例外")
+        void presign_TooLarge_ThrowsException() {
+            PresignUploadRequest request = PresignUploadRequest.builder()
+                    .filename("a.jpg")
+                    .contentType("image/jpeg")
+                    .fileSize(20L * 1024 * 1024)
+                    .build();
+
+            assertThatThrownBy(() -> presignedUploadService.presign(request))
+                    .isInstanceOf(IllegalArgumentException.class)
+                    .hasMessageContaining("檔案大小");
+        }
+
+        @Test
+        @DisplayName("不支援的檔案類型時拋出例外")
+        void presign_InvalidContentType_ThrowsException() {
+            PresignUploadRequest request = PresignUploadRequest.builder()
+                    .filename("a.jpg")
+                    .contentType("application/pdf")
+                    .fileSize(1024L)
+                    .build();
+
+            assertThatThrownBy(() -> presignedUploadService.presign(request))
+                    .isInstanceOf(IllegalArgumentException.class)
+                    .hasMessageContaining("檔案類型");
+        }
+    }
+
+    @Nested
+    @DisplayName("確認直傳上傳")
+    class ConfirmTests {
+
+        @Test
+        @DisplayName("物件存在且有效時登記圖片資產")
+        void confirm_Success() {
+            when(storageService.statObject("public", OBJECT_KEY)).thenReturn(Optional.of(
+                    new StoredObjectInfo(2048L, "image/jpeg", ZonedDateTime.now())));
+
+            FileUploadResponse response = presignedUploadService.confirm(ConfirmUploadRequest.builder()
+                    .objectKey(OBJECT_KEY)
+                    .originalFilename("photo.jpg")
+                    .build());
+
+            assertThat(response.getFileUrl()).isEqualTo("http://cdn/public/" + OBJECT_KEY);
+            assertThat(response.getFileSize()).isEqualTo(2048L);
+            assertThat(response.getContentType()).isEqualTo("image/jpeg");
+            verify(imageDerivativeService).registerUploaded("http://cdn/public/" + OBJECT_KEY);
+        }
+
+        @Test
+        @DisplayName("物件不存在時拋出例外")
+        void confirm_NotUploaded_ThrowsException() {
+            when(storageService.statObject("public", OBJECT_KEY)).thenReturn(Optional.empty());
+
+            assertThatThrownBy(() -> presignedUploadService.confirm(ConfirmUploadRequest.builder()
+                    .objectKey(OBJECT_KEY)
+                    .build()))
+                    .isInstanceOf(ResourceNotFoundException.class);
+            verify(imageDerivativeService, never()).registerUploaded(anyString());
+        }
+
+        @Test
+        @DisplayName("上傳內容類型不符時刪除物件並拋出例外")
+        void confirm_InvalidContentType_DeletesObject() {
+            when(storageService.statObject("public", OBJECT_KEY)).thenReturn(Optional.of(
+                    new StoredObjectInfo(2048L, "text/html", ZonedDateTime.now())));
+
+            assertThatThrownBy(() -> presignedUploadService.confirm(ConfirmUploadRequest.builder()
+                    .objectKey(OBJECT_KEY)
+                    .build()))
+                    .isInstanceOf(IllegalArgumentException.class);
+            verify(storageService).deleteFile("http://cdn/public/" + OBJECT_KEY);
+            verify(imageDerivativeService, never()).registerUploaded(anyString());
+        }
+
+        @Test
+        @DisplayName("非核發格式的物件名稱時拋出例外")
+        void confirm_InvalidObjectKey_ThrowsException() {
+            assertThatThrownBy(() -> presignedUploadService.confirm(ConfirmUploadRequest.builder()
+                    .objectKey("derivatives/abc/thumbnail.jpg")
+                    .build()))
+                    .isInstanceOf(IllegalArgumentException.class);
+            verify(storageService, never()).statObject(anyString(), anyString());
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package com.morningharvest.erp.storage.util;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("BloomFilter 單元測試")
+class BloomFilterTest {
+
+    @Test
+    @DisplayName("已加入的元素必定判定為存在")
+    void mightContain_NoFalseNegatives() {
+        BloomFilter filter = new BloomFilter(10_000, 0.001);
+        for (int i = 0; i < 10_000; i++) {
+            filter.put("public/products/" + i + ".jpg");
+        }
+
+        for (int i = 0; i < 10_000; i++) {
+            assertThat(filter.mightContain("public/products/" + i + ".jpg")).isTrue();
+        }
+    }
+
+    @Test
+    @DisplayName("誤判率接近指定值")
+    void mightContain_FalsePositiveRateWithinBound() {
+        BloomFilter filter = new BloomFilter(10_000, 0.01);
+        for (int i = 0; i < 10_000; i++) {
+            filter.put("public/products/" + i + ".jpg");
+        }
+
+        int falsePositives = 0;
+        for (int i = 0; i < 10_000; i++) {
+            if (filter.mightContain("public/general/" + i + ".png")) {
+                falsePositives++;
+            }
+        }
+        assertThat(falsePositives).isLessThan(300);
+    }
+
+    @Test
+    @DisplayName("無效的誤判率時拋出例外")
+    void constructor_InvalidRate_ThrowsException() {
+        assertThatThrownBy(() -> new BloomFilter(100, 1.5))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}